@@ -0,0 +1,35 @@
+package cn.lzhch.common.config;
+
+import com.baomidou.mybatisplus.annotation.DbType;
+import com.baomidou.mybatisplus.extension.plugins.MybatisPlusInterceptor;
+import com.baomidou.mybatisplus.extension.plugins.inner.PaginationInnerInterceptor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * MybatisPlus 配置类
+ * <p>
+ * author: lzhch
+ * version: v1.0
+ * date: 2026/10/17
+ */
+
+@Configuration
+public class MybatisPlusConfig {
+
+    /**
+     * 分页插件：传入 IPage 参数的查询自动追加 LIMIT，并按需执行 COUNT 查询；
+     * 单页条数超过上限时按上限查询，避免一次请求拉取整表
+     */
+    @Bean
+    public MybatisPlusInterceptor mybatisPlusInterceptor(@Value("${app.page.max-size:100}") long maxPageSize) {
+        PaginationInnerInterceptor paginationInnerInterceptor = new PaginationInnerInterceptor(DbType.MYSQL);
+        paginationInnerInterceptor.setMaxLimit(maxPageSize);
+
+        MybatisPlusInterceptor interceptor = new MybatisPlusInterceptor();
+        interceptor.addInnerInterceptor(paginationInnerInterceptor);
+        return interceptor;
+    }
+
+}
@@ -0,0 +1,17 @@
+package cn.lzhch.common.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * 定时任务配置类
+ * <p>
+ * author: lzhch
+ * version: v1.0
+ * date: 2026/10/17
+ */
+
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -1,7 +1,12 @@
 package cn.lzhch.common.config;
 
+import cn.lzhch.controller.interceptor.NavigationETagInterceptor;
+import cn.lzhch.service.navigation.NavigationPopularHolder;
+import cn.lzhch.service.navigation.NavigationSnapshotHolder;
+import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 /**
@@ -13,16 +18,32 @@ import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
  */
 
 @Configuration
+@RequiredArgsConstructor
 public class WebConfig implements WebMvcConfigurer {
 
+    private final NavigationSnapshotHolder navigationSnapshotHolder;
+    private final NavigationPopularHolder navigationPopularHolder;
+
     @Override
     public void addCorsMappings(CorsRegistry registry) {
         registry.addMapping("/**") // 允许所有路径
                 .allowedOrigins("*") // 允许的源
                 // .allowedOriginPatterns("https://liuzhichao.com.cn") // 使用模式匹配
-                .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS"); // 允许的方法
+                .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS") // 允许的方法
+                .exposedHeaders("ETag"); // 允许前端读取 ETag 用于条件请求
         // .allowCredentials(false); // 允许凭据
     }
 
-}
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // 导航数据读接口支持 ETag / If-None-Match 条件请求
+        registry.addInterceptor(new NavigationETagInterceptor("nav", request -> navigationSnapshotHolder.current(request).getVersion()))
+                .addPathPatterns("/api/navigationWebsite/listByCategory",
+                        "/api/navigationWebsite/list",
+                        "/api/navigationCategory/list");
+        // 点击排行的版本独立于导航数据，点击次数写入后不影响上面接口的 ETag
+        registry.addInterceptor(new NavigationETagInterceptor("pop", request -> navigationPopularHolder.current(request).getVersion()))
+                .addPathPatterns("/api/navigationWebsite/popular");
+    }
 
+}
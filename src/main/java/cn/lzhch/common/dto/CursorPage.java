@@ -0,0 +1,45 @@
+package cn.lzhch.common.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * 游标分页结果
+ * <p>
+ * 下一页请求原样携带 nextCursor，客户端不需要也不应该解析游标内容
+ * <p>
+ * author: lzhch
+ * version: v1.0
+ * date: 2026/10/17
+ */
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPage<T> implements Serializable {
+    @Serial
+    private static final long serialVersionUID = -2086120498735512318L;
+
+    /**
+     * 本页数据
+     */
+    private List<T> records;
+
+    /**
+     * 下一页游标，没有下一页时为 null
+     */
+    private String nextCursor;
+
+    /**
+     * 是否还有下一页
+     */
+    private boolean hasMore;
+
+}
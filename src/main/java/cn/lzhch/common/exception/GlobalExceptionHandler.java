@@ -8,14 +8,18 @@ import cn.lzhch.common.response.Result;
 import cn.lzhch.common.response.ResultHelper;
 import com.google.common.base.Throwables;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.validation.BindingResult;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
 import java.util.Optional;
@@ -58,6 +62,38 @@ public class GlobalExceptionHandler {
         return ResultHelper.fail(ErrorCode.USERNAME_PASSWORD_INCORRECT);
     }
 
+    /**
+     * 处理服务繁忙异常，返回 503 和 Retry-After 提示客户端稍后重试
+     */
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    @ExceptionHandler(value = ServiceBusyException.class)
+    public Result<Void> handleServiceBusyException(HttpServletRequest request, HttpServletResponse response, ServiceBusyException ex) {
+        log.warn("ServiceBusyException: [{}] {}", request.getMethod(), request.getRequestURI());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()));
+        return ResultHelper.fail(ex.getCode(), ex.getMessage());
+    }
+
+    /**
+     * 处理请求过于频繁异常，返回 429 和 Retry-After 提示客户端稍后重试
+     */
+    @ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+    @ExceptionHandler(value = TooManyRequestsException.class)
+    public Result<Void> handleTooManyRequestsException(HttpServletRequest request, HttpServletResponse response, TooManyRequestsException ex) {
+        log.warn("TooManyRequestsException: [{}] {}", request.getMethod(), request.getRequestURI());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()));
+        return ResultHelper.fail(ex.getCode(), ex.getMessage());
+    }
+
+    /**
+     * 处理请求体过大异常，返回 413
+     */
+    @ResponseStatus(HttpStatus.PAYLOAD_TOO_LARGE)
+    @ExceptionHandler(value = PayloadTooLargeException.class)
+    public Result<Void> handlePayloadTooLargeException(HttpServletRequest request, PayloadTooLargeException ex) {
+        log.warn("PayloadTooLargeException: [{}] {}", request.getMethod(), request.getRequestURI());
+        return ResultHelper.fail(ex.getCode(), ex.getMessage());
+    }
+
     /**
      * 处理自定义异常
      */
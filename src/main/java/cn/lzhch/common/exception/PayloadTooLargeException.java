@@ -0,0 +1,27 @@
+package cn.lzhch.common.exception;
+
+
+import cn.lzhch.common.response.ErrorCode;
+
+import java.io.Serial;
+
+/**
+ * 请求体过大异常
+ * <p>
+ * 请求体超过接口允许的长度时抛出，返回 413
+ * <p>
+ * author: lzhch
+ * version: v1.0
+ * date: 2026/10/17
+ */
+
+public class PayloadTooLargeException extends ClientException {
+    @Serial
+    private static final long serialVersionUID = 4913385012784620617L;
+
+
+    public PayloadTooLargeException() {
+        super(ErrorCode.REQUEST_BODY_TOO_LARGE);
+    }
+
+}
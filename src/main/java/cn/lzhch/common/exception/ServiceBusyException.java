@@ -0,0 +1,39 @@
+package cn.lzhch.common.exception;
+
+
+import cn.lzhch.common.response.ErrorCode;
+import lombok.Getter;
+
+import java.io.Serial;
+
+/**
+ * 服务繁忙异常
+ * <p>
+ * 资源已满载时快速拒绝请求，客户端可在 retryAfterSeconds 秒后重试
+ * <p>
+ * author: lzhch
+ * version: v1.0
+ * date: 2026/10/17
+ */
+
+@Getter
+public class ServiceBusyException extends BusinessException {
+    @Serial
+    private static final long serialVersionUID = 3412081905566930317L;
+
+    /**
+     * 建议的重试等待时间（秒）
+     */
+    private final long retryAfterSeconds;
+
+
+    public ServiceBusyException(long retryAfterSeconds) {
+        this(retryAfterSeconds, null);
+    }
+
+    public ServiceBusyException(long retryAfterSeconds, Throwable throwable) {
+        super(ErrorCode.SERVICE_BUSY, throwable);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+}
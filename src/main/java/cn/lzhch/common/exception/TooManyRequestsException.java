@@ -0,0 +1,35 @@
+package cn.lzhch.common.exception;
+
+
+import cn.lzhch.common.response.ErrorCode;
+import lombok.Getter;
+
+import java.io.Serial;
+
+/**
+ * 请求过于频繁异常
+ * <p>
+ * 客户端超出限流额度时抛出，可在 retryAfterSeconds 秒后重试
+ * <p>
+ * author: lzhch
+ * version: v1.0
+ * date: 2026/10/17
+ */
+
+@Getter
+public class TooManyRequestsException extends ClientException {
+    @Serial
+    private static final long serialVersionUID = -2630875217445169301L;
+
+    /**
+     * 建议的重试等待时间（秒）
+     */
+    private final long retryAfterSeconds;
+
+
+    public TooManyRequestsException(ErrorCode errorCode, long retryAfterSeconds) {
+        super(errorCode);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+}
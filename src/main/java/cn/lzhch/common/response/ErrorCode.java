@@ -40,6 +40,12 @@ public enum ErrorCode {
     INVALID_TOKEN("A0017", "无效的令牌"),
     TOKEN_EXPIRED("A0018", "令牌已过期"),
     UNAUTHORIZED("A0019", "未授权访问"),
+    REFRESH_TOKEN_REUSED("A0020", "刷新令牌已失效，请重新登录"),
+    TOO_MANY_LOGIN_ATTEMPTS("A0021", "登录尝试过于频繁，请稍后重试"),
+    SORT_ORDER_CHANGED("A0022", "排序已变化，请刷新后重试"),
+    SORT_KEY_DISABLED("A0023", "未启用排序键排序模式"),
+    INVALID_PAGE_CURSOR("A0024", "分页游标无效，请从第一页重新加载"),
+    REQUEST_BODY_TOO_LARGE("A0025", "请求体过大"),
 
     /**
      * 服务端错误
@@ -47,6 +53,7 @@ public enum ErrorCode {
     SERVICE_ERROR("B0001", "系统内部错误"),
     SERVICE_TIMEOUT_ERROR("B0010", "系统执行超时"),
     SERVICE_DATA_NOT_FOUND("B0011", "数据不存在"),
+    SERVICE_BUSY("B0012", "系统繁忙，请稍后重试"),
 
     /**
      * 第三方服务错误
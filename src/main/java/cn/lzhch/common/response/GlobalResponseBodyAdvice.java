@@ -6,10 +6,12 @@ import jakarta.annotation.Resource;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.converter.HttpMessageConverter;
 import org.springframework.http.server.ServerHttpRequest;
 import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpResponse;
 import org.springframework.lang.NonNull;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
@@ -94,6 +96,13 @@ public class GlobalResponseBodyAdvice implements ResponseBodyAdvice<Object> {
         log.debug("Processing response for {} {} in method: {}", requestMethod, requestPath, methodName);
         log.debug("Content type: {}, Converter: {}", selectedContentType, selectedConverterType.getSimpleName());
 
+        // 304 Not Modified 没有响应体，不包装
+        if (response instanceof ServletServerHttpResponse servletResponse
+                && servletResponse.getServletResponse().getStatus() == HttpStatus.NOT_MODIFIED.value()) {
+            log.debug("Skip wrapping for 304 Not Modified response");
+            return body;
+        }
+
         // 设置响应头
         response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
 
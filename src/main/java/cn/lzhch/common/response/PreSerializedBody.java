@@ -0,0 +1,130 @@
+package cn.lzhch.common.response;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Enumeration;
+import java.util.Locale;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 预序列化的响应体
+ * <p>
+ * 对于变化很少、读取频繁的数据，在数据变更时把统一响应结构 {@link Result} 序列化一次为 JSON 字节，并提前压缩出 gzip 版本；
+ * 请求时按 Accept-Encoding 选择版本直接写入响应，不再经过 Jackson 序列化、{@link GlobalResponseBodyAdvice} 包装和实时压缩。
+ * <p>
+ * Result 中的时间戳为序列化时刻，同一版本的数据每次返回完全相同的字节，与强 ETag 的语义一致
+ * <p>
+ * author: lzhch
+ * version: v1.0
+ * date: 2026/10/17
+ */
+
+public final class PreSerializedBody {
+
+    private static final String GZIP = "gzip";
+
+    private final byte[] identity;
+    private final byte[] gzip;
+
+    private PreSerializedBody(byte[] identity, byte[] gzip) {
+        this.identity = identity;
+        this.gzip = gzip;
+    }
+
+    /**
+     * 将数据包装为成功结果并序列化、压缩
+     *
+     * @param objectMapper 序列化使用的 ObjectMapper，应与 Spring MVC 使用的一致
+     * @param data         响应数据
+     * @return 预序列化的响应体
+     */
+    public static PreSerializedBody of(ObjectMapper objectMapper, Object data) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(ResultHelper.success(data));
+            return new PreSerializedBody(json, gzip(json));
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Failed to pre-serialize response body", ex);
+        }
+    }
+
+    /**
+     * 判断客户端是否接受 gzip 编码（q=0 表示明确拒绝）
+     *
+     * @param request HTTP请求
+     * @return 是否接受 gzip
+     */
+    public static boolean acceptsGzip(HttpServletRequest request) {
+        Enumeration<String> headers = request.getHeaders(HttpHeaders.ACCEPT_ENCODING);
+        while (headers != null && headers.hasMoreElements()) {
+            for (String coding : headers.nextElement().split(",")) {
+                String[] parts = coding.trim().toLowerCase(Locale.ROOT).split(";");
+                String name = parts[0].trim();
+                if (GZIP.equals(name) || "*".equals(name)) {
+                    return parts.length < 2 || !parts[1].trim().matches("q\\s*=\\s*0(\\.0*)?");
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 按 Accept-Encoding 选择版本，直接写入响应
+     *
+     * @param request  HTTP请求
+     * @param response HTTP响应
+     * @throws IOException 写入失败
+     */
+    public void writeTo(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        byte[] body = this.identity;
+        if (acceptsGzip(request)) {
+            body = this.gzip;
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, GZIP);
+        }
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    /**
+     * 未压缩的 JSON 字节长度
+     */
+    public int identityLength() {
+        return this.identity.length;
+    }
+
+    /**
+     * gzip 压缩后的字节长度
+     */
+    public int gzipLength() {
+        return this.gzip.length;
+    }
+
+    /**
+     * 预先压缩只执行一次，使用最高压缩级别
+     */
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream output = new ByteArrayOutputStream(Math.max(json.length / 4, 64));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(output) {
+            {
+                this.def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            gzip.write(json);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return output.toByteArray();
+    }
+
+}
@@ -0,0 +1,134 @@
+package cn.lzhch.common.security;
+
+import cn.lzhch.common.exception.BusinessException;
+import cn.lzhch.common.exception.ServiceBusyException;
+import cn.lzhch.common.response.ErrorCode;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+
+/**
+ * 在独立线程池中执行哈希计算的密码编码器
+ * <p>
+ * BCrypt 的编码和校验是 CPU 密集型操作，直接在 Tomcat 请求线程上执行时，登录高峰会占满整个连接器线程池，
+ * 导致导航等轻量读请求排队。该编码器把计算转交给固定大小、有界队列的线程池：
+ * 1. 线程数和队列容量单独配置，与 Tomcat 线程池隔离
+ * 2. 队列满时立即拒绝并抛出 {@link ServiceBusyException}，客户端按 Retry-After 重试，而不是无限等待
+ * 3. 等待超过超时时间时抛出 {@link ErrorCode#SERVICE_TIMEOUT_ERROR}
+ * <p>
+ * 指标：
+ * - executor*{name=password.hash}：线程池活跃线程数、队列深度、已完成任务数等
+ * - password.hash{operation=encode|matches}：哈希计算耗时
+ * - password.hash.rejected：被拒绝的请求数
+ * <p>
+ * author: lzhch
+ * version: v1.0
+ * date: 2026/10/17
+ */
+
+@Slf4j
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+    /**
+     * 队列满时建议客户端重试的等待时间（秒）
+     */
+    private static final long RETRY_AFTER_SECONDS = 1L;
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final Duration timeout;
+
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * @param delegate      实际执行哈希计算的编码器
+     * @param poolSize      线程数
+     * @param queueCapacity 等待队列容量
+     * @param timeout       请求线程等待计算结果的超时时间
+     * @param meterRegistry 指标注册器
+     */
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int poolSize, int queueCapacity, Duration timeout,
+                                  MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.timeout = timeout;
+        this.meterRegistry = meterRegistry;
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new ThreadFactoryBuilder().setNameFormat("password-hash-%d").setDaemon(true).build(),
+                new ThreadPoolExecutor.AbortPolicy());
+        ExecutorServiceMetrics.monitor(meterRegistry, executor, "password.hash");
+        this.encodeTimer = Timer.builder("password.hash")
+                .description("密码哈希计算耗时")
+                .tag("operation", "encode")
+                .register(meterRegistry);
+        this.matchesTimer = Timer.builder("password.hash")
+                .description("密码哈希计算耗时")
+                .tag("operation", "matches")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return this.execute(() -> this.encodeTimer.record(() -> this.delegate.encode(rawPassword)));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return this.execute(() -> this.matchesTimer.record(() -> this.delegate.matches(rawPassword, encodedPassword)));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return this.delegate.upgradeEncoding(encodedPassword);
+    }
+
+    /**
+     * 在哈希线程池中执行任务并等待结果
+     *
+     * @param task 哈希计算任务
+     * @return 计算结果
+     */
+    private <T> T execute(Supplier<T> task) {
+        Future<T> future;
+        try {
+            future = this.executor.submit(task::get);
+        } catch (RejectedExecutionException ex) {
+            this.meterRegistry.counter("password.hash.rejected").increment();
+            log.warn("Password hash executor is saturated, queue size: {}", this.executor.getQueue().size());
+            throw new ServiceBusyException(RETRY_AFTER_SECONDS, ex);
+        }
+
+        try {
+            return future.get(this.timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException ex) {
+            future.cancel(true);
+            throw new BusinessException(ErrorCode.SERVICE_TIMEOUT_ERROR, ex);
+        } catch (InterruptedException ex) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new BusinessException(ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new BusinessException(ex.getCause());
+        }
+    }
+
+    /**
+     * 关闭哈希线程池，由 Spring 在容器销毁时调用
+     */
+    public void shutdown() {
+        this.executor.shutdown();
+    }
+
+}
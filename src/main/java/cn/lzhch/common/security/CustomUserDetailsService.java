@@ -2,42 +2,160 @@ package cn.lzhch.common.security;
 
 import cn.lzhch.entity.User;
 import cn.lzhch.mapper.UserMapper;
-import lombok.RequiredArgsConstructor;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
 
 /**
  * 自定义用户详情服务
  * <p>
+ * 用户在本地缓存中同时以用户名和邮箱为键保存，缓存有容量上限和过期时间；
+ * 不存在的用户名会进入短期的负缓存，避免对同一个未知用户反复查询数据库。
+ * 通过 {@link cn.lzhch.service.IUserService} 修改用户数据时需调用 {@link #evict(User...)} 失效相关条目
+ * <p>
  * author: lzhch
  * version: v1.0
  * date: 2024/12/19
  */
 
 @Service
-@RequiredArgsConstructor
 public class CustomUserDetailsService implements UserDetailsService {
 
     private final UserMapper userMapper;
 
+    /**
+     * 用户缓存：用户名/邮箱（小写） -> 用户
+     */
+    private final Cache<String, User> userCache;
+
+    /**
+     * 负缓存：不存在的用户名/邮箱（小写）
+     */
+    private final Cache<String, Boolean> unknownUserCache;
+
+    /**
+     * 失效代次，每次失效递增；查询数据库期间发生过失效时不回填缓存，防止写入过期数据
+     */
+    private final AtomicLong invalidationGeneration = new AtomicLong();
+
+    public CustomUserDetailsService(UserMapper userMapper, MeterRegistry meterRegistry,
+                                    @Value("${app.security.user-cache.maximum-size:10000}") long maximumSize,
+                                    @Value("${app.security.user-cache.ttl:300}") long ttlInSeconds,
+                                    @Value("${app.security.user-cache.negative-ttl:60}") long negativeTtlInSeconds) {
+        this.userMapper = userMapper;
+        this.userCache = CacheBuilder.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlInSeconds))
+                .recordStats()
+                .build();
+        this.unknownUserCache = CacheBuilder.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofSeconds(negativeTtlInSeconds))
+                .recordStats()
+                .build();
+        GuavaCacheMetrics.monitor(meterRegistry, userCache, "security.users");
+        GuavaCacheMetrics.monitor(meterRegistry, unknownUserCache, "security.users.unknown");
+    }
+
     @Override
     public UserDetails loadUserByUsername(String usernameOrEmail) throws UsernameNotFoundException {
-        User user = this.userMapper.findByUsernameOrEmail(usernameOrEmail)
-                .orElseThrow(() -> new UsernameNotFoundException("用户不存在: " + usernameOrEmail));
-
-        return new org.springframework.security.core.userdetails.User(
-                user.getUsername(),
-                user.getPassword(),
-                true, // enabled
-                true, // accountNonExpired
-                true, // credentialsNonExpired
-                true, // accountNonLocked
+        User user = this.loadUser(usernameOrEmail);
+
+        return UserPrincipal.fromUser(
+                user,
                 new ArrayList<>() // authorities - 暂时为空，后续可以添加角色权限
         );
     }
 
+    /**
+     * 根据用户名或邮箱加载用户，优先读取本地缓存
+     *
+     * @param usernameOrEmail 用户名或邮箱
+     * @return 用户信息
+     * @throws UsernameNotFoundException 用户不存在
+     */
+    public User loadUser(String usernameOrEmail) throws UsernameNotFoundException {
+        String cacheKey = cacheKey(usernameOrEmail);
+        User cachedUser = this.userCache.getIfPresent(cacheKey);
+        if (cachedUser != null) {
+            return cachedUser;
+        }
+        if (this.unknownUserCache.getIfPresent(cacheKey) != null) {
+            throw new UsernameNotFoundException("用户不存在: " + usernameOrEmail);
+        }
+
+        long generation = this.invalidationGeneration.get();
+        User user = this.userMapper.findByUsernameOrEmail(usernameOrEmail).orElse(null);
+        boolean unchanged = generation == this.invalidationGeneration.get();
+        if (user == null) {
+            if (unchanged) {
+                this.unknownUserCache.put(cacheKey, Boolean.TRUE);
+            }
+            throw new UsernameNotFoundException("用户不存在: " + usernameOrEmail);
+        }
+
+        if (unchanged) {
+            this.userCache.put(cacheKey(user.getUsername()), user);
+            this.userCache.put(cacheKey(user.getEmail()), user);
+        }
+        return user;
+    }
+
+    /**
+     * 失效指定用户的用户名和邮箱对应的缓存条目（包括负缓存）
+     * <p>
+     * 立即失效一次；若当前处于事务中，事务提交后再失效一次，防止提交前被并发读取回填旧数据
+     *
+     * @param users 发生变更的用户（变更前和变更后的状态都应传入）
+     */
+    public void evict(User... users) {
+        String[] keys = Stream.of(users)
+                .filter(Objects::nonNull)
+                .flatMap(user -> Stream.of(user.getUsername(), user.getEmail()))
+                .filter(Objects::nonNull)
+                .map(CustomUserDetailsService::cacheKey)
+                .distinct()
+                .toArray(String[]::new);
+
+        this.evictKeys(keys);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictKeys(keys);
+                }
+            });
+        }
+    }
+
+    private void evictKeys(String... keys) {
+        this.invalidationGeneration.incrementAndGet();
+        for (String key : keys) {
+            this.userCache.invalidate(key);
+            this.unknownUserCache.invalidate(key);
+        }
+    }
+
+    /**
+     * 缓存键统一转为小写，与数据库大小写不敏感的排序规则保持一致
+     */
+    private static String cacheKey(String usernameOrEmail) {
+        return usernameOrEmail.toLowerCase(Locale.ROOT);
+    }
+
 }
@@ -1,15 +1,17 @@
 package cn.lzhch.common.security;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
@@ -17,10 +19,15 @@ import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.time.Duration;
 
 /**
  * JWT 认证过滤器
  * <p>
+ * 令牌只解析一次，认证对象直接由签名声明（用户ID、用户名、权限）构建，
+ * 只有距离上次回源校验超过 app.jwt.revalidate-interval 时才查询数据库确认用户仍然有效；
+ * 已登出的令牌通过 {@link TokenRevocationList} 按 jti 拒绝，只需一次内存哈希查找
+ * <p>
  * author: lzhch
  * version: v1.0
  * date: 2024/12/19
@@ -28,24 +35,52 @@ import java.io.IOException;
 
 @Slf4j
 @Component
-@RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    /**
+     * 回源校验记录的最大条目数
+     */
+    private static final long REVALIDATION_CACHE_MAXIMUM_SIZE = 10_000L;
+
     private final JwtTokenProvider tokenProvider;
     private final UserDetailsService userDetailsService;
+    private final TokenRevocationList revocationList;
+
+    /**
+     * 最近完成回源校验的用户名，条目在回源校验间隔到期后失效
+     */
+    private final Cache<String, Boolean> revalidatedUsers;
+
+    public JwtAuthenticationFilter(JwtTokenProvider tokenProvider, UserDetailsService userDetailsService,
+                                   TokenRevocationList revocationList,
+                                   @Value("${app.jwt.revalidate-interval:300}") long revalidateIntervalInSeconds) {
+        this.tokenProvider = tokenProvider;
+        this.userDetailsService = userDetailsService;
+        this.revocationList = revocationList;
+        this.revalidatedUsers = CacheBuilder.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(Math.max(revalidateIntervalInSeconds, 0L)))
+                .maximumSize(REVALIDATION_CACHE_MAXIMUM_SIZE)
+                .build();
+    }
 
     @Override
     protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
                                     @NonNull FilterChain filterChain) throws ServletException, IOException {
         try {
             String jwt = getJwtFromRequest(request);
+            Claims claims = StringUtils.hasText(jwt) ? tokenProvider.parseClaims(jwt) : null;
 
-            if (StringUtils.hasText(jwt) && tokenProvider.validateToken(jwt)) {
-                String username = tokenProvider.getUsernameFromToken(jwt);
+            if (claims != null && revocationList.isRevoked(claims.getId())) {
+                log.debug("Revoked JWT token"); // 令牌已吊销（已登出）
+                claims = null;
+            }
+
+            if (claims != null) {
+                UserPrincipal principal = tokenProvider.getPrincipalFromClaims(claims);
+                revalidateIfNecessary(principal);
 
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
                 UsernamePasswordAuthenticationToken authentication =
-                        new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+                        new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
                 authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
                 SecurityContextHolder.getContext().setAuthentication(authentication);
@@ -57,6 +92,22 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    /**
+     * 超过回源校验间隔时查询数据库，确认令牌对应的用户仍然存在
+     * <p>
+     * 用户已被删除时 {@link UserDetailsService#loadUserByUsername} 抛出异常，本次请求不设置认证信息
+     *
+     * @param principal 由令牌声明构建的用户主体
+     */
+    private void revalidateIfNecessary(UserPrincipal principal) {
+        if (revalidatedUsers.getIfPresent(principal.getUsername()) != null) {
+            return;
+        }
+
+        userDetailsService.loadUserByUsername(principal.getUsername());
+        revalidatedUsers.put(principal.getUsername(), Boolean.TRUE);
+    }
+
     /**
      * 从请求中获取JWT令牌
      *
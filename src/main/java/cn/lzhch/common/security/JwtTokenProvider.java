@@ -1,16 +1,32 @@
 package cn.lzhch.common.security;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import jakarta.annotation.PostConstruct;
 import lombok.Getter;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
 import java.util.Date;
+import java.util.List;
+import java.util.UUID;
 
 /**
  * JWT 令牌提供者
@@ -30,6 +46,11 @@ import java.util.Date;
  * - 令牌有过期时间，降低泄露风险
  * - 完整的异常处理，防止信息泄露
  * <p>
+ * 性能考虑：
+ * - 签名密钥和解析器在启动时构建一次，之后复用
+ * - 已验证令牌按哈希缓存其声明，同一令牌重复请求时跳过HMAC校验和JSON解析
+ * - 缓存条目不会超过令牌自身的过期时间
+ * <p>
  * author: lzhch
  * version: v1.0
  * date: 2024/12/19
@@ -37,8 +58,19 @@ import java.util.Date;
 
 @Slf4j
 @Component
+@RequiredArgsConstructor
 public class JwtTokenProvider {
 
+    /**
+     * 用户ID声明名称
+     */
+    public static final String CLAIM_USER_ID = "uid";
+
+    /**
+     * 权限列表声明名称
+     */
+    public static final String CLAIM_AUTHORITIES = "auth";
+
     /**
      * JWT签名密钥
      * 从配置文件读取，支持环境变量覆盖
@@ -63,15 +95,46 @@ public class JwtTokenProvider {
     private int jwtExpirationInSeconds;
 
     /**
-     * 获取JWT签名密钥
+     * 已验证令牌缓存的最大条目数
+     */
+    @Value("${app.jwt.cache.maximum-size:10000}")
+    private long tokenCacheMaximumSize;
+
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * JWT签名密钥，启动时构建一次
+     */
+    private SecretKey signingKey;
+
+    /**
+     * JWT解析器，线程安全，启动时构建一次
+     */
+    private JwtParser jwtParser;
+
+    /**
+     * 已验证令牌缓存：令牌SHA-256哈希 -> 已验证的声明
+     */
+    private Cache<HashCode, Claims> verifiedTokenCache;
+
+    /**
+     * 初始化签名密钥、解析器和已验证令牌缓存
      * <p>
-     * 使用HMAC-SHA256算法生成密钥
-     * 确保密钥的安全性和一致性
-     *
-     * @return 签名密钥
+     * 使用HMAC-SHA256算法生成密钥，确保密钥的安全性和一致性；
+     * 缓存写入后最长保留一个令牌有效期，读取时再按令牌自身的过期时间校验
      */
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes());
+    @PostConstruct
+    public void init() {
+        this.signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        this.jwtParser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
+        this.verifiedTokenCache = CacheBuilder.newBuilder()
+                .maximumSize(tokenCacheMaximumSize)
+                .expireAfterWrite(Duration.ofSeconds(jwtExpirationInSeconds))
+                .recordStats()
+                .build();
+        GuavaCacheMetrics.monitor(meterRegistry, verifiedTokenCache, "jwt.verified.tokens");
     }
 
     /**
@@ -79,26 +142,48 @@ public class JwtTokenProvider {
      * <p>
      * 令牌结构：
      * - Header: 算法类型和令牌类型
-     * - Payload: 用户名、签发时间、过期时间
+     * - Payload: 令牌ID（jti）、用户名、用户ID、权限列表、签发时间、过期时间
      * - Signature: 使用密钥签名，确保令牌完整性
      * <p>
      * 安全特性：
      * - 包含过期时间，防止令牌永久有效
      * - 使用强签名算法，防止令牌伪造
-     * - 不包含敏感信息，只存储用户名
+     * - 不包含敏感信息，只存储用户标识和权限
+     * <p>
+     * 用户ID和权限写入签名声明后，请求认证时可直接由令牌构建认证对象，无需查询数据库；
+     * 每个令牌带有唯一的 jti，用于在过期前通过 {@link TokenRevocationList} 吊销
      *
      * @param authentication Spring Security认证对象
      * @return JWT令牌字符串
      */
     public String generateToken(Authentication authentication) {
-        UserDetails userPrincipal = (UserDetails) authentication.getPrincipal();
+        return generateToken((UserDetails) authentication.getPrincipal());
+    }
+
+    /**
+     * 为指定用户生成JWT令牌（用于刷新令牌换发访问令牌，无需重新认证）
+     *
+     * @param userPrincipal 用户主体
+     * @return JWT令牌字符串
+     */
+    public String generateToken(UserDetails userPrincipal) {
         Date expiryDate = new Date(System.currentTimeMillis() + jwtExpirationInSeconds * 1000L);
+        List<String> authorities = userPrincipal.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .toList();
 
-        return Jwts.builder()
+        JwtBuilder builder = Jwts.builder()
+                .id(UUID.randomUUID().toString()) // 设置令牌ID（用于吊销）
                 .subject(userPrincipal.getUsername()) // 设置主题（用户名）
+                .claim(CLAIM_AUTHORITIES, authorities); // 设置权限列表
+        if (userPrincipal instanceof UserPrincipal principal) {
+            builder.claim(CLAIM_USER_ID, principal.getId()); // 设置用户ID
+        }
+
+        return builder
                 .issuedAt(new Date()) // 设置签发时间
                 .expiration(expiryDate) // 设置过期时间
-                .signWith(getSigningKey()) // 使用密钥签名
+                .signWith(signingKey) // 使用密钥签名
                 .compact(); // 生成最终的JWT字符串
     }
 
@@ -119,10 +204,8 @@ public class JwtTokenProvider {
      * @throws JwtException 如果令牌无效或过期
      */
     public String getUsernameFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(getSigningKey()) // 验证签名
-                .build()
-                .parseSignedClaims(token) // 解析令牌
+        Claims claims = jwtParser
+                .parseSignedClaims(token) // 验证签名并解析令牌
                 .getPayload(); // 获取载荷
 
         return claims.getSubject(); // 返回主题（用户名）
@@ -146,12 +229,45 @@ public class JwtTokenProvider {
      * @return true-令牌有效，false-令牌无效
      */
     public boolean validateToken(String authToken) {
+        return parseClaims(authToken) != null;
+    }
+
+    /**
+     * 验证并解析JWT令牌（单次解析）
+     * <p>
+     * 签名校验、过期校验和载荷解析只执行一次，
+     * 调用方拿到声明后即可构建认证对象，避免先验证再解析造成的重复计算
+     * <p>
+     * 命中已验证令牌缓存时直接返回缓存的声明；缓存的声明一旦超过令牌的 exp 即被丢弃，视为过期令牌
+     *
+     * @param authToken JWT令牌字符串
+     * @return 令牌声明，令牌无效时返回 null
+     */
+    public Claims parseClaims(String authToken) {
+        if (!StringUtils.hasText(authToken)) {
+            log.error("JWT claims string is empty"); // 令牌内容为空
+            return null;
+        }
+
+        HashCode tokenHash = Hashing.sha256().hashString(authToken, StandardCharsets.UTF_8);
+        Claims cachedClaims = verifiedTokenCache.getIfPresent(tokenHash);
+        if (cachedClaims != null) {
+            if (cachedClaims.getExpiration().after(new Date())) {
+                return cachedClaims;
+            }
+            verifiedTokenCache.invalidate(tokenHash);
+            log.error("Expired JWT token"); // 令牌已过期
+            return null;
+        }
+
         try {
-            Jwts.parser()
-                    .verifyWith(getSigningKey()) // 使用密钥验证
-                    .build()
-                    .parseSignedClaims(authToken); // 解析并验证令牌
-            return true;
+            Claims claims = jwtParser
+                    .parseSignedClaims(authToken) // 解析并验证令牌
+                    .getPayload(); // 获取载荷
+            if (claims.getExpiration() != null) {
+                verifiedTokenCache.put(tokenHash, claims);
+            }
+            return claims;
         } catch (MalformedJwtException ex) {
             log.error("Invalid JWT token"); // 令牌格式错误
         } catch (ExpiredJwtException ex) {
@@ -160,8 +276,29 @@ public class JwtTokenProvider {
             log.error("Unsupported JWT token"); // 不支持的令牌类型
         } catch (IllegalArgumentException ex) {
             log.error("JWT claims string is empty"); // 令牌内容为空
+        } catch (JwtException ex) {
+            log.error("Invalid JWT signature"); // 签名校验失败
         }
-        return false;
+        return null;
+    }
+
+    /**
+     * 根据令牌声明构建用户主体
+     * <p>
+     * 声明已经过签名校验，可信任其中的用户ID、用户名和权限列表
+     *
+     * @param claims 令牌声明
+     * @return 用户主体
+     */
+    public UserPrincipal getPrincipalFromClaims(Claims claims) {
+        Long userId = claims.get(CLAIM_USER_ID, Long.class);
+        Collection<?> authorityNames = claims.get(CLAIM_AUTHORITIES, Collection.class);
+        List<SimpleGrantedAuthority> authorities = authorityNames == null ? List.of() : authorityNames.stream()
+                .map(String::valueOf)
+                .map(SimpleGrantedAuthority::new)
+                .toList();
+
+        return UserPrincipal.fromClaims(userId, claims.getSubject(), authorities);
     }
 
 }
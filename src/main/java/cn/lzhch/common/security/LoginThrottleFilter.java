@@ -0,0 +1,224 @@
+package cn.lzhch.common.security;
+
+import cn.lzhch.common.exception.PayloadTooLargeException;
+import cn.lzhch.common.exception.TooManyRequestsException;
+import cn.lzhch.common.response.ErrorCode;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpMethod;
+import org.springframework.lang.NonNull;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 登录限流过滤器
+ * <p>
+ * 每次登录尝试都要做一次完整的 BCrypt 校验，撞库流量同时也是对 CPU 的拒绝服务攻击。
+ * 该过滤器在进入 {@code AuthenticationManager} 之前按账号和客户端IP分别限流：
+ * 1. 账号维度：限制针对单个账号的猜测速度；用户存在时按用户 id 计数，用户名和邮箱两种写法共用一份额度
+ * 2. IP维度：限制单个来源轮换账号的撞库速度
+ * <p>
+ * 两个维度都使用 {@link StripedRateLimiter}，取令牌只是一次无锁 CAS；超出额度时返回 429 和 Retry-After。
+ * 客户端IP取自 {@link HttpServletRequest#getRemoteAddr()}，部署在反向代理之后时需由容器配置可信代理解析真实IP
+ * <p>
+ * author: lzhch
+ * version: v1.0
+ * date: 2026/10/17
+ */
+
+@Slf4j
+@Component
+public class LoginThrottleFilter extends OncePerRequestFilter {
+
+    private static final String LOGIN_PATH = "/api/auth/login";
+
+    /**
+     * 登录请求体的最大长度，超过时直接返回 413（否则填充请求体即可跳过账号维度限流）
+     */
+    private static final int MAX_BODY_BYTES = 4096;
+
+    private final StripedRateLimiter accountLimiter;
+    private final StripedRateLimiter ipLimiter;
+    private final ObjectMapper objectMapper;
+    private final CustomUserDetailsService userDetailsService;
+    private final HandlerExceptionResolver handlerExceptionResolver;
+    private final Counter rejectedByAccount;
+    private final Counter rejectedByIp;
+
+    public LoginThrottleFilter(ObjectMapper objectMapper, CustomUserDetailsService userDetailsService, MeterRegistry meterRegistry,
+                               @Qualifier("handlerExceptionResolver") HandlerExceptionResolver handlerExceptionResolver,
+                               @Value("${app.security.login-throttle.stripes:4096}") int stripes,
+                               @Value("${app.security.login-throttle.account.capacity:5}") int accountCapacity,
+                               @Value("${app.security.login-throttle.account.refill-interval:12}") long accountRefillIntervalInSeconds,
+                               @Value("${app.security.login-throttle.ip.capacity:20}") int ipCapacity,
+                               @Value("${app.security.login-throttle.ip.refill-interval:3}") long ipRefillIntervalInSeconds) {
+        this.objectMapper = objectMapper;
+        this.userDetailsService = userDetailsService;
+        this.handlerExceptionResolver = handlerExceptionResolver;
+        this.accountLimiter = new StripedRateLimiter(stripes, accountCapacity, accountRefillIntervalInSeconds, TimeUnit.SECONDS);
+        this.ipLimiter = new StripedRateLimiter(stripes, ipCapacity, ipRefillIntervalInSeconds, TimeUnit.SECONDS);
+        this.rejectedByAccount = meterRegistry.counter("login.throttle.rejected", "dimension", "account");
+        this.rejectedByIp = meterRegistry.counter("login.throttle.rejected", "dimension", "ip");
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !HttpMethod.POST.matches(request.getMethod()) || !LOGIN_PATH.equals(request.getServletPath());
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        // 先按IP限流，被拒绝的请求不需要读取请求体
+        long waitNanos = ipLimiter.tryAcquire(request.getRemoteAddr());
+        if (waitNanos > 0) {
+            rejectedByIp.increment();
+            reject(request, response, waitNanos);
+            return;
+        }
+
+        // 最多读取 MAX_BODY_BYTES + 1 字节，超长的请求体不进入认证
+        CachedBodyRequest cachedRequest = request.getContentLengthLong() > MAX_BODY_BYTES ? null : new CachedBodyRequest(request);
+        if (cachedRequest == null || cachedRequest.body.length > MAX_BODY_BYTES) {
+            handlerExceptionResolver.resolveException(request, response, null, new PayloadTooLargeException());
+            return;
+        }
+        String username = extractUsername(cachedRequest.body);
+        if (username != null) {
+            waitNanos = accountLimiter.tryAcquire(accountKey(username));
+            if (waitNanos > 0) {
+                rejectedByAccount.increment();
+                log.warn("Login throttled for account: {}", username);
+                reject(request, response, waitNanos);
+                return;
+            }
+        }
+
+        filterChain.doFilter(cachedRequest, response);
+    }
+
+    /**
+     * 交给 {@code GlobalExceptionHandler} 输出统一的错误响应
+     */
+    private void reject(HttpServletRequest request, HttpServletResponse response, long waitNanos) {
+        long retryAfterSeconds = Math.max(1L, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+        handlerExceptionResolver.resolveException(request, response, null,
+                new TooManyRequestsException(ErrorCode.TOO_MANY_LOGIN_ATTEMPTS, retryAfterSeconds));
+    }
+
+    /**
+     * 账号维度的限流键：用户存在时取用户 id，否则取输入的用户名
+     * <p>
+     * 通过带缓存的用户查询解析，查到的用户在随后的认证中直接复用；查询失败时退回按输入的用户名限流
+     */
+    private String accountKey(String username) {
+        try {
+            return "id:" + userDetailsService.loadUser(username).getId();
+        } catch (UsernameNotFoundException ex) {
+            return "name:" + username;
+        } catch (RuntimeException ex) {
+            log.warn("Failed to resolve login account, throttling by name: {}", ex.getMessage());
+            return "name:" + username;
+        }
+    }
+
+    /**
+     * 从登录请求体中读取用户名（小写，与用户缓存的大小写规则一致），无法解析时返回 null
+     */
+    private String extractUsername(byte[] body) {
+        if (body.length == 0) {
+            return null;
+        }
+        try {
+            JsonNode username = objectMapper.readTree(body).get("username");
+            return username != null && StringUtils.hasText(username.asText())
+                    ? username.asText().trim().toLowerCase(Locale.ROOT) : null;
+        } catch (IOException ex) {
+            return null; // 请求体格式错误，交给后续参数校验处理
+        }
+    }
+
+    /**
+     * 缓存请求体的包装器，过滤器读取用户名后，控制器仍可正常读取请求体
+     */
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        private CachedBodyRequest(HttpServletRequest request) throws IOException {
+            super(request);
+            this.body = request.getInputStream().readNBytes(MAX_BODY_BYTES + 1);
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream input = new ByteArrayInputStream(this.body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return input.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                /**
+                 * 请求体已全部缓存在内存中，注册后立即回调可读和读取完毕
+                 */
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    try {
+                        if (!this.isFinished()) {
+                            readListener.onDataAvailable();
+                        }
+                        readListener.onAllDataRead();
+                    } catch (IOException ex) {
+                        readListener.onError(ex);
+                    }
+                }
+
+                @Override
+                public int read() {
+                    return input.read();
+                }
+
+                @Override
+                public int read(@NonNull byte[] b, int off, int len) {
+                    return input.read(b, off, len);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            return new BufferedReader(new InputStreamReader(this.getInputStream(), StandardCharsets.UTF_8));
+        }
+
+    }
+
+}
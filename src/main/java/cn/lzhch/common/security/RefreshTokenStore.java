@@ -0,0 +1,203 @@
+package cn.lzhch.common.security;
+
+import cn.lzhch.common.exception.ClientException;
+import cn.lzhch.common.response.ErrorCode;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 刷新令牌存储
+ * <p>
+ * 设计说明：
+ * 1. 刷新令牌是随机生成的不透明字符串，服务端只保存其 SHA-256 哈希，令牌本身不落地
+ * 2. 每次刷新都轮换：旧令牌标记为已使用，签发同一家族的新令牌，有效期滑动延长
+ * 3. 重用检测：已使用的令牌再次出现说明令牌可能被窃取，立即吊销整个家族，双方都需要重新登录
+ * 4. 过期条目由定时任务清理，存储规模与活跃会话数成正比
+ * <p>
+ * 刷新只做哈希查找和令牌签发，不经过密码哈希计算，因此可以缩短访问令牌有效期而不增加登录的 CPU 开销。
+ * 存储位于进程内存中，应用重启后刷新令牌失效，用户需重新登录
+ * <p>
+ * author: lzhch
+ * version: v1.0
+ * date: 2026/10/17
+ */
+
+@Slf4j
+@Component
+public class RefreshTokenStore {
+
+    /**
+     * 刷新令牌随机字节数
+     */
+    private static final int TOKEN_BYTES = 32;
+
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    /**
+     * 刷新令牌有效期（秒）
+     */
+    @Getter
+    @Value("${app.jwt.refresh-expiration:1209600}")
+    private long refreshExpirationInSeconds;
+
+    /**
+     * 令牌哈希 -> 会话
+     */
+    private final Map<HashCode, RefreshSession> sessions = new ConcurrentHashMap<>();
+
+    /**
+     * 家族ID -> 家族内所有令牌哈希（用于整体吊销）
+     */
+    private final Map<String, Set<HashCode>> families = new ConcurrentHashMap<>();
+
+    /**
+     * 为登录成功的用户签发新家族的刷新令牌
+     *
+     * @param userId   用户ID
+     * @param username 用户名
+     * @return 刷新令牌
+     */
+    public String issue(Long userId, String username) {
+        return this.issue(userId, username, UUID.randomUUID().toString());
+    }
+
+    /**
+     * 轮换刷新令牌：校验旧令牌并标记为已使用
+     *
+     * @param refreshToken 刷新令牌
+     * @return 旧令牌对应的会话
+     * @throws ClientException 令牌无效、已过期或被重复使用
+     */
+    public RefreshSession rotate(String refreshToken) {
+        if (!StringUtils.hasText(refreshToken)) {
+            throw new ClientException(ErrorCode.INVALID_TOKEN);
+        }
+
+        HashCode tokenHash = hash(refreshToken);
+        RefreshSession session = this.sessions.get(tokenHash);
+        if (session == null) {
+            throw new ClientException(ErrorCode.INVALID_TOKEN);
+        }
+        if (session.isExpired(System.currentTimeMillis())) {
+            this.remove(tokenHash, session);
+            throw new ClientException(ErrorCode.TOKEN_EXPIRED);
+        }
+        if (session.used() || !this.sessions.replace(tokenHash, session, session.markUsed())) {
+            log.warn("Refresh token reuse detected, revoking token family of user: {}", session.username());
+            this.revokeFamily(session.familyId());
+            throw new ClientException(ErrorCode.REFRESH_TOKEN_REUSED);
+        }
+        return session;
+    }
+
+    /**
+     * 在同一家族内签发下一个刷新令牌（滑动有效期）
+     *
+     * @param previous 被轮换的会话
+     * @return 新的刷新令牌
+     */
+    public String issueNext(RefreshSession previous) {
+        return this.issue(previous.userId(), previous.username(), previous.familyId());
+    }
+
+    /**
+     * 吊销刷新令牌所在的整个家族（用于登出）
+     *
+     * @param refreshToken 刷新令牌
+     */
+    public void revoke(String refreshToken) {
+        if (!StringUtils.hasText(refreshToken)) {
+            return;
+        }
+        RefreshSession session = this.sessions.get(hash(refreshToken));
+        if (session != null) {
+            this.revokeFamily(session.familyId());
+        }
+    }
+
+    /**
+     * 吊销整个家族
+     *
+     * @param familyId 家族ID
+     */
+    public void revokeFamily(String familyId) {
+        Set<HashCode> tokenHashes = this.families.remove(familyId);
+        if (tokenHashes != null) {
+            tokenHashes.forEach(this.sessions::remove);
+        }
+    }
+
+    /**
+     * 定时清理已过期的会话
+     */
+    @Scheduled(fixedDelayString = "${app.jwt.refresh-purge-interval:600000}")
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        this.sessions.forEach((tokenHash, session) -> {
+            if (session.isExpired(now)) {
+                this.remove(tokenHash, session);
+            }
+        });
+    }
+
+    private String issue(Long userId, String username, String familyId) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        this.secureRandom.nextBytes(bytes);
+        String refreshToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        HashCode tokenHash = hash(refreshToken);
+        long expiresAt = System.currentTimeMillis() + this.refreshExpirationInSeconds * 1000L;
+        this.sessions.put(tokenHash, new RefreshSession(userId, username, familyId, expiresAt, false));
+        this.families.computeIfAbsent(familyId, key -> ConcurrentHashMap.newKeySet()).add(tokenHash);
+        return refreshToken;
+    }
+
+    private void remove(HashCode tokenHash, RefreshSession session) {
+        if (this.sessions.remove(tokenHash, session)) {
+            this.families.computeIfPresent(session.familyId(), (familyId, tokenHashes) -> {
+                tokenHashes.remove(tokenHash);
+                return tokenHashes.isEmpty() ? null : tokenHashes;
+            });
+        }
+    }
+
+    private static HashCode hash(String refreshToken) {
+        return Hashing.sha256().hashString(refreshToken, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 刷新会话
+     *
+     * @param userId    用户ID
+     * @param username  用户名
+     * @param familyId  家族ID，同一次登录轮换出的令牌属于同一家族
+     * @param expiresAt 过期时间（毫秒时间戳）
+     * @param used      是否已使用
+     */
+    public record RefreshSession(Long userId, String username, String familyId, long expiresAt, boolean used) {
+
+        private boolean isExpired(long now) {
+            return this.expiresAt <= now;
+        }
+
+        private RefreshSession markUsed() {
+            return new RefreshSession(this.userId, this.username, this.familyId, this.expiresAt, true);
+        }
+
+    }
+
+}
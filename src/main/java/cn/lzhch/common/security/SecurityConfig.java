@@ -1,6 +1,8 @@
 package cn.lzhch.common.security;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -15,6 +17,8 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
+import java.time.Duration;
+
 /**
  * Spring Security 安全配置类
  * <p>
@@ -23,6 +27,7 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
  * 2. 自定义认证提供者 - 使用数据库用户信息
  * 3. JWT过滤器集成 - 自动验证请求中的JWT令牌
  * 4. 路径权限控制 - 区分公开和受保护的接口
+ * 5. 登录限流 - 在密码校验前按账号和IP限制登录尝试
  * <p>
  * 安全策略：
  * - 禁用CSRF：因为使用JWT，不需要CSRF保护
@@ -48,6 +53,26 @@ public class SecurityConfig {
 
     private final CustomUserDetailsService userDetailsService;
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
+    private final LoginThrottleFilter loginThrottleFilter;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * 密码哈希线程池线程数
+     */
+    @Value("${app.security.password-hash.pool-size:4}")
+    private int passwordHashPoolSize;
+
+    /**
+     * 密码哈希线程池等待队列容量
+     */
+    @Value("${app.security.password-hash.queue-capacity:64}")
+    private int passwordHashQueueCapacity;
+
+    /**
+     * 请求线程等待密码哈希结果的超时时间（秒）
+     */
+    @Value("${app.security.password-hash.timeout:5}")
+    private long passwordHashTimeoutInSeconds;
 
     /**
      * 密码编码器Bean
@@ -62,10 +87,14 @@ public class SecurityConfig {
      * - 抗暴力破解能力更强
      * - 自动处理盐值，避免开发者犯错
      * - 算法成熟稳定，广泛使用
+     * <p>
+     * BCrypt 计算在独立的有界线程池中执行（注册和登录都经过此编码器），
+     * 登录高峰不会占满 Tomcat 线程池，队列满时快速拒绝并提示客户端重试
      */
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(), passwordHashPoolSize, passwordHashQueueCapacity,
+                Duration.ofSeconds(passwordHashTimeoutInSeconds), meterRegistry);
     }
 
     /**
@@ -125,14 +154,15 @@ public class SecurityConfig {
                 .sessionManagement(session ->
                         session.sessionCreationPolicy(SessionCreationPolicy.STATELESS)) // 无状态会话
                 .authorizeHttpRequests(authz -> authz
-                        // 公开的认证端点 - 注册和登录不需要认证
-                        .requestMatchers("/api/auth/register", "/api/auth/login").permitAll()
+                        // 公开的认证端点 - 注册、登录和刷新令牌不需要认证
+                        .requestMatchers("/api/auth/register", "/api/auth/login", "/api/auth/refresh").permitAll()
                         // 其他公开端点 - 根据业务需要调整
                         .requestMatchers("/api/**").permitAll()
                         // 所有其他请求需要JWT认证
                         .anyRequest().authenticated()
                 )
                 .authenticationProvider(authenticationProvider()) // 设置认证提供者
+                .addFilterBefore(loginThrottleFilter, UsernamePasswordAuthenticationFilter.class) // 添加登录限流过滤器
                 .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class); // 添加JWT过滤器
 
         return http.build();
@@ -0,0 +1,98 @@
+package cn.lzhch.common.security;
+
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 分段无锁令牌桶限流器
+ * <p>
+ * 设计说明：
+ * 1. 键（账号或IP）哈希到固定数量的槽位，每个槽位是 {@link AtomicLongArray} 中的一个 long，没有全局锁，也不随键的数量增长占用内存
+ * 2. 每个槽位只保存"理论到达时间"（GCRA 算法），等价于容量为 capacity、每 refillInterval 补充一个令牌的令牌桶，
+ *    一次 CAS 即可完成取令牌，无需额外保存令牌数和上次补充时间
+ * 3. 不同的键哈希到同一槽位时共享额度，只会更早限流，不会放过超额请求；槽位数应远大于同时活跃的键数
+ * 4. 槽位由每个实例随机密钥的 SipHash 计算，外部无法构造与指定账号落在同一槽位的键来锁定该账号
+ * <p>
+ * author: lzhch
+ * version: v1.0
+ * date: 2026/10/17
+ */
+
+public class StripedRateLimiter {
+
+    private final AtomicLongArray cells;
+    private final int mask;
+    private final HashFunction hashFunction;
+
+    /**
+     * 补充一个令牌的间隔（纳秒）
+     */
+    private final long refillIntervalNanos;
+
+    /**
+     * 允许的突发容忍量：(capacity - 1) 个补充间隔
+     */
+    private final long burstToleranceNanos;
+
+    /**
+     * @param stripes        槽位数，向上取整为 2 的幂
+     * @param capacity       桶容量（允许的突发请求数）
+     * @param refillInterval 补充一个令牌的间隔
+     * @param unit           时间单位
+     */
+    public StripedRateLimiter(int stripes, int capacity, long refillInterval, TimeUnit unit) {
+        if (stripes <= 0 || capacity <= 0 || refillInterval <= 0) {
+            throw new IllegalArgumentException("stripes, capacity and refillInterval must be positive");
+        }
+        int size = Integer.highestOneBit(Math.max(stripes - 1, 1)) << 1;
+        this.cells = new AtomicLongArray(size);
+        this.mask = size - 1;
+        SecureRandom random = new SecureRandom();
+        this.hashFunction = Hashing.sipHash24(random.nextLong(), random.nextLong());
+        this.refillIntervalNanos = unit.toNanos(refillInterval);
+        this.burstToleranceNanos = this.refillIntervalNanos * (capacity - 1);
+    }
+
+    /**
+     * 尝试为指定键获取一个令牌
+     *
+     * @param key 限流键
+     * @return 0 表示获取成功；否则为需要等待的纳秒数
+     */
+    public long tryAcquire(String key) {
+        return this.tryAcquire(key, System.nanoTime());
+    }
+
+    /**
+     * 尝试为指定键获取一个令牌（指定当前时间，便于测试）
+     *
+     * @param key 限流键
+     * @param now 当前时间（{@link System#nanoTime()}）
+     * @return 0 表示获取成功；否则为需要等待的纳秒数
+     */
+    long tryAcquire(String key, long now) {
+        int index = this.indexOf(key);
+        while (true) {
+            long current = this.cells.get(index);
+            // 槽位未使用过（0）或理论到达时间已过，视为桶满
+            long arrival = current == 0 || current - now < 0 ? now : current;
+            long waitNanos = arrival - this.burstToleranceNanos - now;
+            if (waitNanos > 0) {
+                return waitNanos;
+            }
+            if (this.cells.compareAndSet(index, current, arrival + this.refillIntervalNanos)) {
+                return 0;
+            }
+        }
+    }
+
+    int indexOf(String key) {
+        return this.hashFunction.hashString(key, StandardCharsets.UTF_8).asInt() & this.mask;
+    }
+
+}
@@ -0,0 +1,211 @@
+package cn.lzhch.common.security;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * 访问令牌吊销列表（按 jti）
+ * <p>
+ * 设计说明：
+ * 1. 已吊销的 jti 保存在一个全局哈希表中（jti -> 令牌过期时间），认证时只需一次哈希查找，不查询数据库
+ * 2. 同时按令牌过期时间划分到固定宽度的时间桶，令牌过期后整桶丢弃，无需逐条扫描；过期令牌本身已无法通过签名校验，无需继续记录
+ * 3. 每次吊销追加一行到本地文件（jti 过期时间），启动时回放文件恢复吊销记录，并压缩掉已过期的条目；清理过期桶后同样重写文件，文件大小与有效吊销数成正比
+ * <p>
+ * 文件位于本地磁盘，多实例部署时各实例的吊销列表互不共享
+ * <p>
+ * author: lzhch
+ * version: v1.0
+ * date: 2026/10/17
+ */
+
+@Slf4j
+@Component
+public class TokenRevocationList {
+
+    /**
+     * 全局吊销表：jti -> 令牌过期时间（毫秒时间戳）
+     */
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+
+    /**
+     * 过期时间桶：桶序号（过期时间 / 桶宽度） -> 该桶内的 jti
+     */
+    private final NavigableMap<Long, Set<String>> buckets = new ConcurrentSkipListMap<>();
+
+    private final Path file;
+    private final long bucketWidthInMillis;
+
+    /**
+     * 追加写入器，写入和压缩都在 this 上同步
+     */
+    private BufferedWriter writer;
+
+    public TokenRevocationList(MeterRegistry meterRegistry,
+                               @Value("${app.jwt.revocation.file:data/revoked-tokens.log}") String file,
+                               @Value("${app.jwt.revocation.bucket-width:60}") long bucketWidthInSeconds) {
+        this.file = Path.of(file);
+        this.bucketWidthInMillis = Math.max(bucketWidthInSeconds, 1L) * 1000L;
+        Gauge.builder("jwt.revoked.tokens", this.revoked, Map::size)
+                .description("未过期的已吊销访问令牌数")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 回放吊销文件，丢弃已过期的条目后压缩重写，再以追加模式打开
+     */
+    @PostConstruct
+    public synchronized void init() throws IOException {
+        Path parent = this.file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+
+        if (Files.exists(this.file)) {
+            long now = System.currentTimeMillis();
+            List<String> lines = Files.readAllLines(this.file, StandardCharsets.UTF_8);
+            for (String line : lines) {
+                int separator = line.indexOf(' ');
+                if (separator <= 0) {
+                    continue;
+                }
+                try {
+                    long expiresAt = Long.parseLong(line.substring(separator + 1).trim());
+                    if (expiresAt > now) {
+                        this.put(line.substring(0, separator), expiresAt);
+                    }
+                } catch (NumberFormatException ex) {
+                    log.warn("Skip malformed revocation entry: {}", line); // 写入中断导致的残缺行
+                }
+            }
+            log.info("令牌吊销列表已恢复, 文件条目数: {}, 有效条目数: {}", lines.size(), this.revoked.size());
+        }
+
+        this.compact();
+    }
+
+    /**
+     * 判断令牌是否已被吊销（单次哈希查找）
+     *
+     * @param jti 令牌ID，旧版本签发的令牌没有 jti，视为未吊销
+     * @return 是否已吊销
+     */
+    public boolean isRevoked(String jti) {
+        return jti != null && this.revoked.containsKey(jti);
+    }
+
+    /**
+     * 吊销令牌，记录保留到令牌过期为止
+     *
+     * @param jti       令牌ID
+     * @param expiresAt 令牌过期时间（毫秒时间戳）
+     */
+    public void revoke(String jti, long expiresAt) {
+        if (!StringUtils.hasText(jti) || expiresAt <= System.currentTimeMillis()) {
+            return;
+        }
+        if (this.revoked.containsKey(jti)) {
+            return;
+        }
+
+        synchronized (this) {
+            this.put(jti, expiresAt);
+            try {
+                this.writer.write(jti + ' ' + expiresAt);
+                this.writer.newLine();
+                this.writer.flush();
+            } catch (IOException ex) {
+                // 内存中的吊销已生效，只是重启后会丢失
+                log.error("Failed to persist token revocation", ex);
+            }
+        }
+    }
+
+    /**
+     * 定时丢弃已过期的整桶记录，并压缩吊销文件
+     */
+    @Scheduled(fixedDelayString = "${app.jwt.revocation.purge-interval:600000}")
+    public void purgeExpired() {
+        // 当前时间所在的桶仍可能包含未过期的令牌，只丢弃之前的桶
+        NavigableMap<Long, Set<String>> expired = this.buckets.headMap(System.currentTimeMillis() / this.bucketWidthInMillis, false);
+        if (expired.isEmpty()) {
+            return;
+        }
+
+        synchronized (this) {
+            Map.Entry<Long, Set<String>> bucket;
+            while ((bucket = expired.pollFirstEntry()) != null) {
+                bucket.getValue().forEach(this.revoked::remove);
+            }
+            try {
+                this.compact();
+            } catch (IOException ex) {
+                log.error("Failed to compact token revocation file", ex);
+            }
+        }
+    }
+
+    @PreDestroy
+    public synchronized void close() throws IOException {
+        if (this.writer != null) {
+            this.writer.close();
+        }
+    }
+
+    private void put(String jti, long expiresAt) {
+        this.revoked.put(jti, expiresAt);
+        this.buckets.computeIfAbsent(expiresAt / this.bucketWidthInMillis, key -> ConcurrentHashMap.newKeySet()).add(jti);
+    }
+
+    /**
+     * 将有效条目写入临时文件后原子替换吊销文件，并重新以追加模式打开
+     */
+    private void compact() throws IOException {
+        if (this.writer != null) {
+            this.writer.close();
+        }
+
+        Path temp = this.file.resolveSibling(this.file.getFileName() + ".tmp");
+        try (BufferedWriter out = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            for (Map.Entry<String, Long> entry : this.revoked.entrySet()) {
+                out.write(entry.getKey() + ' ' + entry.getValue());
+                out.newLine();
+            }
+        } catch (IOException ex) {
+            this.writer = openAppend(this.file);
+            throw ex;
+        }
+        Files.move(temp, this.file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        this.writer = openAppend(this.file);
+    }
+
+    private static BufferedWriter openAppend(Path file) {
+        try {
+            return Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+}
@@ -0,0 +1,79 @@
+package cn.lzhch.common.security;
+
+import cn.lzhch.entity.User;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.io.Serial;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 认证用户主体
+ * <p>
+ * 既用于登录时由 {@link CustomUserDetailsService} 从数据库加载（此时携带完整的用户实体，
+ * 认证成功后生成令牌和构建登录响应直接复用，无需再次查询），
+ * 也用于请求认证时由 {@link JwtAuthenticationFilter} 直接从令牌的签名声明构建（此时不含密码和用户实体）
+ * <p>
+ * author: lzhch
+ * version: v1.0
+ * date: 2026/10/17
+ */
+
+@Getter
+@AllArgsConstructor
+public class UserPrincipal implements UserDetails {
+    @Serial
+    private static final long serialVersionUID = -2735405735427914286L;
+
+    /**
+     * 用户ID
+     */
+    private final Long id;
+
+    /**
+     * 用户名
+     */
+    private final String username;
+
+    /**
+     * 密码（BCrypt加密后的哈希值），从令牌构建时为 null
+     */
+    private final String password;
+
+    /**
+     * 权限列表
+     */
+    private final Collection<? extends GrantedAuthority> authorities;
+
+    /**
+     * 认证时加载的用户实体，从令牌构建时为 null
+     */
+    private final User user;
+
+    /**
+     * 根据数据库中加载的用户构建用户主体
+     *
+     * @param user        用户实体
+     * @param authorities 权限列表
+     * @return 用户主体
+     */
+    public static UserPrincipal fromUser(User user, Collection<? extends GrantedAuthority> authorities) {
+        return new UserPrincipal(user.getId(), user.getUsername(), user.getPassword(), authorities, user);
+    }
+
+    /**
+     * 根据令牌中的签名声明构建用户主体
+     *
+     * @param id          用户ID
+     * @param username    用户名
+     * @param authorities 权限列表
+     * @return 用户主体
+     */
+    public static UserPrincipal fromClaims(Long id, String username, Collection<? extends GrantedAuthority> authorities) {
+        return new UserPrincipal(id, username, null, authorities == null ? List.of() : authorities, null);
+    }
+
+}
@@ -0,0 +1,181 @@
+package cn.lzhch.common.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 分数索引（字典序排序键）
+ * <p>
+ * 排序键是 62 进制的小数位串（省略 "0."），按字符串字典序比较即为数值大小。
+ * 任意两个键之间总能生成一个新键，移动一个元素只需改写它自己的排序键，不需要重新编号其他元素。
+ * <p>
+ * 约定：
+ * 1. 字符表按 ASCII 升序，数据库列需使用二进制排序规则（如 ascii_bin），与 {@link String#compareTo} 一致
+ * 2. 键不以 '0' 结尾，保证任意两个不同的键之间都存在新键
+ * 3. 在同一位置反复插入时键会逐渐变长（约每 6 次增加一个字符），需要定期用 {@link #spread(int)} 重新均匀分配
+ * <p>
+ * author: lzhch
+ * version: v1.0
+ * date: 2026/10/17
+ */
+
+public final class FractionalIndex {
+
+    private static final String DIGITS = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz";
+    private static final int BASE = DIGITS.length();
+    private static final char MIDDLE = DIGITS.charAt(BASE / 2);
+
+    private FractionalIndex() {
+    }
+
+    /**
+     * 生成位于两个键之间的新键
+     * <p>
+     * 移到末尾时只递增首个可递增的字符、移到开头时只递减，连续追加约 60 次才增加一个字符
+     *
+     * @param before 前一个键，null 表示移到开头
+     * @param after  后一个键，null 表示移到末尾
+     * @return 新键，满足 before &lt; 新键 &lt; after
+     * @throws IllegalArgumentException 键不合法或 before 不小于 after
+     */
+    public static String between(String before, String after) {
+        if (before != null) {
+            checkKey(before);
+        }
+        if (after != null) {
+            checkKey(after);
+        }
+        if (before == null && after == null) {
+            return String.valueOf(MIDDLE);
+        }
+        if (before == null) {
+            return decrement(after);
+        }
+        if (after == null) {
+            return increment(before);
+        }
+        if (before.compareTo(after) >= 0) {
+            throw new IllegalArgumentException("before must be less than after: " + before + " >= " + after);
+        }
+        return midpoint(before, after);
+    }
+
+    /**
+     * 生成 count 个均匀分布、长度最短的有序键，用于初始化或压缩排序键
+     *
+     * @param count 键数量
+     * @return 升序的键列表
+     */
+    public static List<String> spread(int count) {
+        List<String> keys = new ArrayList<>(count);
+        if (count <= 0) {
+            return keys;
+        }
+
+        // 取最短长度 length，使 62^length 个位置足以容纳 count 个键
+        int length = 1;
+        long slots = BASE;
+        while (slots <= count) {
+            slots *= BASE;
+            length++;
+        }
+
+        long step = slots / (count + 1L);
+        char[] buffer = new char[length];
+        for (int i = 1; i <= count; i++) {
+            long value = step * i;
+            for (int position = length - 1; position >= 0; position--) {
+                buffer[position] = DIGITS.charAt((int) (value % BASE));
+                value /= BASE;
+            }
+            int end = length;
+            while (buffer[end - 1] == '0') {
+                end--;
+            }
+            keys.add(new String(buffer, 0, end));
+        }
+        return keys;
+    }
+
+    /**
+     * 是否为合法的排序键
+     *
+     * @param key 排序键
+     * @return 是否合法
+     */
+    public static boolean isValid(String key) {
+        if (key == null || key.isEmpty() || key.charAt(key.length() - 1) == '0') {
+            return false;
+        }
+        for (int i = 0; i < key.length(); i++) {
+            if (DIGITS.indexOf(key.charAt(i)) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 两个键之间的中点，before 为空串表示 0，after 为 null 表示 1
+     */
+    private static String midpoint(String before, String after) {
+        if (after != null) {
+            // 公共前缀原样保留，before 较短时按补 '0' 比较
+            int n = 0;
+            while (n < after.length() && digitAt(before, n) == after.charAt(n)) {
+                n++;
+            }
+            if (n > 0) {
+                return after.substring(0, n) + midpoint(before.length() > n ? before.substring(n) : "", after.substring(n));
+            }
+        }
+
+        int digitBefore = before.isEmpty() ? 0 : DIGITS.indexOf(before.charAt(0));
+        int digitAfter = after != null ? DIGITS.indexOf(after.charAt(0)) : BASE;
+        if (digitAfter - digitBefore > 1) {
+            return String.valueOf(DIGITS.charAt((digitBefore + digitAfter + 1) / 2));
+        }
+        // 首位相邻：after 还有后续位时取其首位即可，否则在 before 首位之后继续取中点
+        if (after != null && after.length() > 1) {
+            return after.substring(0, 1);
+        }
+        return DIGITS.charAt(digitBefore) + midpoint(before.length() > 1 ? before.substring(1) : "", null);
+    }
+
+    private static String increment(String key) {
+        for (int i = 0; i < key.length(); i++) {
+            int digit = DIGITS.indexOf(key.charAt(i));
+            if (digit < BASE - 1) {
+                return key.substring(0, i) + DIGITS.charAt(digit + 1);
+            }
+        }
+        // 全部为最大字符时追加最小的合法字符，之后还能继续递增 61 次
+        return key + DIGITS.charAt(1);
+    }
+
+    private static String decrement(String key) {
+        int last = key.length() - 1;
+        for (int i = 0; i < last; i++) {
+            int digit = DIGITS.indexOf(key.charAt(i));
+            if (digit > 1) {
+                return key.substring(0, i) + DIGITS.charAt(digit - 1);
+            }
+        }
+        int digit = DIGITS.indexOf(key.charAt(last));
+        // 末位为 '1' 时不能减为 '0'（键不以 '0' 结尾），改为 '0' 加最大字符，之后还能继续递减 60 次
+        return digit > 1
+                ? key.substring(0, last) + DIGITS.charAt(digit - 1)
+                : key.substring(0, last) + '0' + DIGITS.charAt(BASE - 1);
+    }
+
+    private static char digitAt(String key, int index) {
+        return index < key.length() ? key.charAt(index) : '0';
+    }
+
+    private static void checkKey(String key) {
+        if (!isValid(key)) {
+            throw new IllegalArgumentException("Invalid fractional index key: " + key);
+        }
+    }
+
+}
@@ -0,0 +1,58 @@
+package cn.lzhch.common.util;
+
+import cn.lzhch.common.exception.ClientException;
+import cn.lzhch.common.response.ErrorCode;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * 键集分页游标：上一页最后一行的 (create_time, id)
+ * <p>
+ * 编码为 Base64URL 字符串对客户端不透明，下一页查询 (create_time, id) 严格小于游标的行，
+ * 走 (create_time, id) 索引定位起点，翻到多深的位置耗时都不变
+ * <p>
+ * author: lzhch
+ * version: v1.0
+ * date: 2026/10/17
+ *
+ * @param createTime 创建时间
+ * @param id         主键 id（创建时间相同时保证顺序唯一）
+ */
+public record KeysetCursor(LocalDateTime createTime, long id) {
+
+    private static final char SEPARATOR = '|';
+
+    /**
+     * 编码为不透明游标
+     *
+     * @return 游标字符串
+     */
+    public String encode() {
+        String raw = this.createTime.toString() + SEPARATOR + this.id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 解析游标
+     *
+     * @param cursor 游标字符串
+     * @return 游标
+     * @throws ClientException 游标格式不合法
+     */
+    public static KeysetCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            if (separator <= 0) {
+                throw new ClientException(ErrorCode.INVALID_PAGE_CURSOR);
+            }
+            return new KeysetCursor(LocalDateTime.parse(raw.substring(0, separator)), Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException ex) {
+            throw new ClientException(ErrorCode.INVALID_PAGE_CURSOR, ex);
+        }
+    }
+
+}
@@ -0,0 +1,141 @@
+package cn.lzhch.common.util;
+
+import java.io.IOException;
+import java.net.Inet6Address;
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * 访问用户提交的外部地址
+ * <p>
+ * 网站地址、图标地址任何人都能写入，服务端按这些地址发请求前必须确认目标不是内网：
+ * 解析主机的全部地址逐个校验，客户端不自动跟随重定向，每一跳重定向重新校验，
+ * 避免借服务端访问回环、内网、链路本地（含云厂商元数据 169.254.169.254）等地址
+ * <p>
+ * author: lzhch
+ * version: v1.0
+ * date: 2026/10/17
+ */
+public final class OutboundHttp {
+
+    /**
+     * 最多跟随的重定向次数
+     */
+    public static final int MAX_REDIRECTS = 5;
+
+    private OutboundHttp() {
+    }
+
+    /**
+     * 目标地址不允许访问
+     */
+    public static class ForbiddenAddressException extends IOException {
+
+        public ForbiddenAddressException(String message) {
+            super(message);
+        }
+
+    }
+
+    /**
+     * 解析 http/https 地址
+     *
+     * @param url 地址
+     * @return 地址，为空、不是 http/https 或没有主机时为 null
+     */
+    public static URI parse(String url) {
+        if (url == null || url.isBlank()) {
+            return null;
+        }
+        try {
+            URI uri = URI.create(url.trim());
+            String scheme = uri.getScheme() == null ? "" : uri.getScheme().toLowerCase(Locale.ROOT);
+            if ((!"http".equals(scheme) && !"https".equals(scheme)) || uri.getHost() == null) {
+                return null;
+            }
+            return uri;
+        } catch (IllegalArgumentException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * 解析主机并校验全部地址
+     *
+     * @param uri     http/https 地址
+     * @param allowed 允许访问的地址
+     * @throws ForbiddenAddressException 任一地址不允许访问
+     * @throws IOException               主机无法解析
+     */
+    public static void checkAddress(URI uri, Predicate<InetAddress> allowed) throws IOException {
+        for (InetAddress address : InetAddress.getAllByName(uri.getHost())) {
+            if (!allowed.test(address)) {
+                throw new ForbiddenAddressException("Forbidden address " + address.getHostAddress() + " for host: " + uri.getHost());
+            }
+        }
+    }
+
+    /**
+     * 是否为公网地址：排除回环、内网、链路本地、组播、通配地址以及 IPv6 唯一本地地址（fc00::/7）
+     *
+     * @param address 地址
+     * @return 是否为公网地址
+     */
+    public static boolean isPublic(InetAddress address) {
+        if (address.isLoopbackAddress() || address.isSiteLocalAddress() || address.isLinkLocalAddress()
+                || address.isMulticastAddress() || address.isAnyLocalAddress()) {
+            return false;
+        }
+        return !(address instanceof Inet6Address) || (address.getAddress()[0] & 0xfe) != 0xfc;
+    }
+
+    /**
+     * 发送请求并手动跟随重定向，首个地址和每一跳重定向的目标都先校验
+     * <p>
+     * 客户端需配置为 {@link HttpClient.Redirect#NEVER}；重定向响应的响应体直接丢弃，
+     * 超过 {@link #MAX_REDIRECTS} 次后返回最后一个重定向响应
+     *
+     * @param httpClient     不跟随重定向的客户端
+     * @param uri            请求地址
+     * @param requestFactory 按地址构建请求
+     * @param bodyHandler    最终响应的响应体处理
+     * @param allowed        允许访问的地址
+     * @return 最终响应
+     * @throws ForbiddenAddressException 请求地址或重定向目标不允许访问
+     * @throws IOException               请求失败
+     * @throws InterruptedException      等待响应时被中断
+     */
+    public static <T> HttpResponse<T> send(HttpClient httpClient, URI uri, Function<URI, HttpRequest> requestFactory,
+                                           HttpResponse.BodyHandler<T> bodyHandler,
+                                           Predicate<InetAddress> allowed) throws IOException, InterruptedException {
+        HttpResponse.BodyHandler<T> handler = info -> isRedirect(info.statusCode())
+                ? HttpResponse.BodySubscribers.replacing(null)
+                : bodyHandler.apply(info);
+        URI current = uri;
+        for (int redirects = 0; ; redirects++) {
+            checkAddress(current, allowed);
+            HttpResponse<T> response = httpClient.send(requestFactory.apply(current), handler);
+            Optional<String> location = response.headers().firstValue("Location");
+            if (!isRedirect(response.statusCode()) || location.isEmpty() || redirects >= MAX_REDIRECTS) {
+                return response;
+            }
+            URI next = parse(current.resolve(location.get().trim()).toString());
+            if (next == null) {
+                throw new ForbiddenAddressException("Unsupported redirect location: " + location.get());
+            }
+            current = next;
+        }
+    }
+
+    private static boolean isRedirect(int statusCode) {
+        return statusCode == 301 || statusCode == 302 || statusCode == 303 || statusCode == 307 || statusCode == 308;
+    }
+
+}
@@ -0,0 +1,88 @@
+package cn.lzhch.common.util;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.function.Consumer;
+
+/**
+ * 搜索文本切分
+ * <p>
+ * 网站搜索和记录检索共用的归一化与切分规则：文本先做 NFKC 归一化（全角转半角）并转小写，
+ * 再切分为字母数字单词和连续的中日韩文字两类片段，其余字符视为分隔符。
+ * 每类片段生成哪些词由各自的索引决定
+ * <p>
+ * author: lzhch
+ * version: v1.0
+ * date: 2026/10/17
+ */
+public final class TextSegmenter {
+
+    private TextSegmenter() {
+    }
+
+    /**
+     * 归一化文本：NFKC 并转小写
+     *
+     * @param text 文本
+     * @return 归一化后的文本，null 时为空串
+     */
+    public static String normalize(String text) {
+        return text == null ? "" : Normalizer.normalize(text, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * 归一化后按顺序切分文本
+     *
+     * @param text    文本
+     * @param words   接收字母数字单词
+     * @param cjkRuns 接收连续的中日韩文字
+     */
+    public static void segment(String text, Consumer<String> words, Consumer<String> cjkRuns) {
+        String normalized = normalize(text);
+        int length = normalized.length();
+        int i = 0;
+        while (i < length) {
+            int codePoint = normalized.codePointAt(i);
+            if (isCjk(codePoint)) {
+                int start = i;
+                while (i < length && isCjk(normalized.codePointAt(i))) {
+                    i += Character.charCount(normalized.codePointAt(i));
+                }
+                cjkRuns.accept(normalized.substring(start, i));
+            } else if (Character.isLetterOrDigit(codePoint)) {
+                int start = i;
+                while (i < length && isWordPart(normalized.codePointAt(i))) {
+                    i += Character.charCount(normalized.codePointAt(i));
+                }
+                words.accept(normalized.substring(start, i));
+            } else {
+                i += Character.charCount(codePoint);
+            }
+        }
+    }
+
+    /**
+     * 是否为中日韩文字（汉字、平假名、片假名、谚文）
+     *
+     * @param codePoint 码点
+     * @return 是否为中日韩文字
+     */
+    public static boolean isCjk(int codePoint) {
+        Character.UnicodeScript script = Character.UnicodeScript.of(codePoint);
+        return script == Character.UnicodeScript.HAN
+                || script == Character.UnicodeScript.HIRAGANA
+                || script == Character.UnicodeScript.KATAKANA
+                || script == Character.UnicodeScript.HANGUL;
+    }
+
+    /**
+     * 是否为字母数字单词的一部分（不含中日韩文字）
+     *
+     * @param codePoint 码点
+     * @return 是否为单词字符
+     */
+    public static boolean isWordPart(int codePoint) {
+        return Character.isLetterOrDigit(codePoint) && !isCjk(codePoint);
+    }
+
+}
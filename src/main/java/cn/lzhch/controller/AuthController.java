@@ -1,5 +1,10 @@
 package cn.lzhch.controller;
 
+import cn.lzhch.common.response.Result;
+import cn.lzhch.common.response.ResultHelper;
+import cn.lzhch.dto.auth.LogoutRequest;
+import cn.lzhch.dto.auth.RefreshTokenRequest;
+import cn.lzhch.dto.auth.UserAvailabilityResponse;
 import cn.lzhch.dto.auth.UserLoginRequest;
 import cn.lzhch.dto.auth.UserLoginResponse;
 import cn.lzhch.dto.auth.UserProfileResponse;
@@ -8,6 +13,7 @@ import cn.lzhch.service.IUserService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.web.bind.annotation.*;
 
 /**
@@ -44,6 +50,37 @@ public class AuthController {
         return userService.login(request);
     }
 
+    /**
+     * 刷新令牌接口
+     */
+    @PostMapping(value = "/refresh")
+    public UserLoginResponse refresh(@Valid @RequestBody RefreshTokenRequest request) {
+        log.info("刷新令牌请求");
+        return userService.refresh(request);
+    }
+
+    /**
+     * 用户登出接口，吊销当前访问令牌以及请求体中的刷新令牌
+     */
+    @PostMapping(value = "/logout")
+    public Result<Void> logout(@RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization,
+                       @RequestBody(required = false) LogoutRequest request) {
+        log.info("用户登出请求");
+        String accessToken = authorization != null && authorization.startsWith("Bearer ") ? authorization.substring(7) : null;
+        userService.logout(accessToken, request);
+        return ResultHelper.success();
+    }
+
+    /**
+     * 用户名/邮箱可用性检查接口（注册表单实时提示）
+     */
+    @GetMapping(value = "/availability")
+    public UserAvailabilityResponse checkAvailability(@RequestParam(value = "username", required = false) String username,
+                                                      @RequestParam(value = "email", required = false) String email) {
+        log.debug("用户名/邮箱可用性检查: {}, {}", username, email);
+        return userService.checkAvailability(username, email);
+    }
+
     /**
      * 获取当前用户资料接口
      */
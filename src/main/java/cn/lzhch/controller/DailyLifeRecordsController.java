@@ -1,17 +1,36 @@
 package cn.lzhch.controller;
 
 
+import cn.lzhch.common.dto.CursorPage;
+import cn.lzhch.common.exception.ClientException;
+import cn.lzhch.dto.record.ImportResDto;
+import cn.lzhch.dto.record.RecordSearchResDto;
+import cn.lzhch.dto.record.RecordStatsResDto;
 import cn.lzhch.entity.DailyLifeRecords;
 import cn.lzhch.service.IDailyLifeRecordsService;
+import cn.lzhch.service.export.DailyLifeRecordsExporter;
+import cn.lzhch.service.export.ExportFormat;
+import cn.lzhch.service.importer.DailyLifeRecordsImporter;
+import cn.lzhch.service.stats.StatsGranularity;
 import com.alibaba.fastjson2.JSON;
+import com.baomidou.mybatisplus.core.metadata.IPage;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.io.IOException;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.util.List;
 
 /**
  * 日常生活记录表 Controller
@@ -27,20 +46,88 @@ import java.util.List;
 public class DailyLifeRecordsController {
 
     private final IDailyLifeRecordsService dailyLifeRecordsService;
+    private final DailyLifeRecordsExporter dailyLifeRecordsExporter;
+    private final DailyLifeRecordsImporter dailyLifeRecordsImporter;
 
     /**
-     * 查询全部数据
+     * 游标分页查询（按创建时间倒序）
+     * <p>
+     * 首页不传 cursor，之后每次携带上一页返回的 nextCursor，直到 hasMore 为 false
      */
     @RequestMapping(value = "/list")
-    public List<DailyLifeRecords> list() {
-        // DailyLifeRecords dailyLifeRecords = DailyLifeRecords.builder()
-        //         .id(1L)
-        //         .content("今天是一个阳光明媚的日子，适合出去散步。")
-        //         .createTime(LocalDateTime.now())
-        //         .build();
-        // list.add(dailyLifeRecords);
-
-        return dailyLifeRecordsService.list();
+    public CursorPage<DailyLifeRecords> list(@RequestParam(value = "cursor", required = false) String cursor,
+                                             @RequestParam(value = "size", defaultValue = "20") int size) {
+        return dailyLifeRecordsService.listByCursor(cursor, size);
+    }
+
+    /**
+     * 偏移分页查询（按创建时间倒序），searchCount 为 false 时不查询总数
+     */
+    @RequestMapping(value = "/page")
+    public IPage<DailyLifeRecords> page(@RequestParam(value = "current", defaultValue = "1") long current,
+                                        @RequestParam(value = "size", defaultValue = "20") int size,
+                                        @RequestParam(value = "searchCount", defaultValue = "false") boolean searchCount) {
+        return dailyLifeRecordsService.listByPage(current, size, searchCount);
+    }
+
+    /**
+     * 全文检索记录内容（按相关度排序）
+     * <p>
+     * 中文按二字匹配、单字按前缀匹配，英文按单词匹配，多个词全部命中才返回；摘要已转义 HTML，命中位置用 &lt;em&gt; 标出
+     */
+    @GetMapping(value = "/search")
+    public RecordSearchResDto search(@RequestParam(value = "q") String query,
+                                     @RequestParam(value = "size", defaultValue = "20") int size) {
+        return dailyLifeRecordsService.search(query, size);
+    }
+
+    /**
+     * 按天、周或月统计记录数（热力图使用按天统计）
+     * <p>
+     * 默认统计截至今天的最近一年；只读取按天统计表，不扫描记录表
+     */
+    @GetMapping(value = "/statistics")
+    public RecordStatsResDto statistics(@RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                        @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                        @RequestParam(value = "granularity", defaultValue = "day") String granularity) {
+        StatsGranularity statsGranularity = StatsGranularity.of(granularity);
+        if (statsGranularity == null) {
+            throw new ClientException("不支持的统计粒度: " + granularity);
+        }
+        LocalDate end = to == null ? LocalDate.now() : to;
+        LocalDate start = from == null ? end.minusYears(1).plusDays(1) : from;
+        return dailyLifeRecordsService.statistics(start, end, statsGranularity);
+    }
+
+    /**
+     * 流式导出全部记录（按创建时间倒序）
+     * <p>
+     * 边读边写，内存占用与记录数无关；gzip 为 true 时下载 .gz 压缩文件。
+     * 在请求线程中直接写出响应，不走异步请求，不受 spring.mvc.async.request-timeout 限制
+     */
+    @GetMapping(value = "/export")
+    public void export(@RequestParam(value = "format", defaultValue = "ndjson") String format,
+                       @RequestParam(value = "gzip", defaultValue = "false") boolean gzip,
+                       HttpServletResponse response) throws IOException {
+        ExportFormat exportFormat = ExportFormat.of(format);
+        if (exportFormat == null) {
+            throw new ClientException("不支持的导出格式: " + format);
+        }
+
+        String fileName = "daily-life-records." + exportFormat.getExtension() + (gzip ? ".gz" : "");
+        response.setContentType(gzip ? "application/gzip" : exportFormat.getContentType() + ";charset=UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(fileName).build().toString());
+        dailyLifeRecordsExporter.export(exportFormat, gzip, response.getOutputStream());
+    }
+
+    /**
+     * 批量导入记录
+     * <p>
+     * 请求体为 JSON 数组或 NDJSON（每行一个对象），可 gzip 压缩；边读边按批写入，返回每批进度和单条错误
+     */
+    @PostMapping(value = "/import")
+    public ImportResDto importRecords(HttpServletRequest request) throws IOException {
+        return dailyLifeRecordsImporter.importFrom(request.getInputStream());
     }
 
     /**
@@ -0,0 +1,107 @@
+package cn.lzhch.controller;
+
+
+import cn.lzhch.service.icon.IconStore;
+import cn.lzhch.service.icon.StoredIcon;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * 网站图标控制器
+ * <p>
+ * 返回本地图标仓库中的图标和雪碧图。文件名即内容哈希，内容永不改变，响应带一年的 immutable 缓存头；
+ * 文件内容通过 {@link FileChannel#transferTo} 写出，容器支持 sendfile 时交给容器直接由内核发送
+ * <p>
+ * author: lzhch
+ * version: v1.0
+ * date: 2026/10/17
+ */
+
+@Slf4j
+@RestController
+@RequiredArgsConstructor
+@RequestMapping(value = "api/icons")
+public class IconController {
+
+    private static final String CACHE_CONTROL = "public, max-age=31536000, immutable";
+
+    /**
+     * 图标可能是 SVG，禁止其中的脚本在本站上下文执行
+     */
+    private static final String CONTENT_SECURITY_POLICY = "default-src 'none'; style-src 'unsafe-inline'; sandbox";
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    /**
+     * 小于该大小的文件直接写出（与 Tomcat 默认的 sendfile 阈值一致），sendfile 的额外开销不划算
+     */
+    private static final long SENDFILE_THRESHOLD = 48 * 1024;
+
+    private final IconStore iconStore;
+
+    /**
+     * 获取图标
+     */
+    @GetMapping(value = "/{fileName}")
+    public void icon(@PathVariable("fileName") String fileName, HttpServletRequest request,
+                     HttpServletResponse response) throws IOException {
+        Optional<Map.Entry<StoredIcon, Path>> resolved = this.iconStore.resolve(fileName);
+        if (resolved.isEmpty()) {
+            response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        StoredIcon icon = resolved.get().getKey();
+        Path path = resolved.get().getValue();
+
+        String etag = '"' + icon.hash() + '"';
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null && (ifNoneMatch.contains(etag) || ifNoneMatch.trim().equals("*"))) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        response.setContentType(icon.format().getContentType());
+        response.setHeader("X-Content-Type-Options", "nosniff");
+        response.setHeader("Content-Security-Policy", CONTENT_SECURITY_POLICY);
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long length = channel.size();
+            response.setContentLengthLong(length);
+
+            if (length >= SENDFILE_THRESHOLD && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+                request.setAttribute(SENDFILE_FILENAME, path.toString());
+                request.setAttribute(SENDFILE_START, 0L);
+                request.setAttribute(SENDFILE_END, length);
+                return;
+            }
+
+            WritableByteChannel target = Channels.newChannel(response.getOutputStream());
+            long position = 0;
+            while (position < length) {
+                position += channel.transferTo(position, length - position, target);
+            }
+        }
+    }
+
+}
@@ -3,13 +3,19 @@ package cn.lzhch.controller;
 
 import cn.lzhch.common.response.Result;
 import cn.lzhch.common.response.ResultHelper;
+import cn.lzhch.dto.navigation.CategoryMoveReqDto;
 import cn.lzhch.entity.NavigationCategory;
 import cn.lzhch.service.NavigationCategoryService;
 import com.alibaba.fastjson2.JSON;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+
 /**
  * 导航分类控制器
  * <p>
@@ -59,13 +65,26 @@ public class NavigationCategoryController {
         return ResultHelper.success(isUpdated);
     }
 
+    /**
+     * 移动导航类别（排序键排序模式，只改写被移动的类别）
+     */
+    @PostMapping(value = "/move")
+    public Result<Void> move(@Valid @RequestBody CategoryMoveReqDto request) {
+        log.info("移动导航类别: {}", JSON.toJSONString(request));
+        this.navigationCategoryService.move(request);
+
+        return ResultHelper.success();
+    }
+
     /**
      * 获取导航类别列表
+     * <p>
+     * 直接写出预序列化的响应体（统一响应结构已包含在内），不经过 Jackson 序列化
      */
     @GetMapping(value = "/list")
-    public Result<?> list() {
+    public void list(HttpServletRequest request, HttpServletResponse response) throws IOException {
         log.info("获取导航类别列表");
-        return ResultHelper.success(this.navigationCategoryService.list());
+        this.navigationCategoryService.listAllBody(request).writeTo(request, response);
     }
 
 }
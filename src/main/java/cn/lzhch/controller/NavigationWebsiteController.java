@@ -3,14 +3,21 @@ package cn.lzhch.controller;
 
 import cn.lzhch.common.response.Result;
 import cn.lzhch.common.response.ResultHelper;
-import cn.lzhch.dto.navigation.WebsitesByCategoryResDto;
+import cn.lzhch.dto.navigation.BrokenLinkResDto;
+import cn.lzhch.dto.navigation.WebsiteItemResDto;
+import cn.lzhch.dto.navigation.WebsiteMoveReqDto;
+import cn.lzhch.dto.navigation.WebsiteReorderReqDto;
 import cn.lzhch.entity.NavigationWebsite;
 import cn.lzhch.service.NavigationWebsiteService;
 import com.alibaba.fastjson2.JSON;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.List;
 
 /**
@@ -67,29 +74,99 @@ public class NavigationWebsiteController {
      */
     @PostMapping(value = "/batchUpdate")
     public Result<Boolean> batchUpdate(@RequestBody List<NavigationWebsite> navigationWebsites) {
-        log.info("批量更新导航网站: {}", JSON.toJSONString(navigationWebsites));
+        log.info("批量更新导航网站, 数量: {}", navigationWebsites.size());
+        log.debug("批量更新导航网站: {}", JSON.toJSONString(navigationWebsites));
         boolean isUpdated = this.navigationWebsiteService.updateBatchById(navigationWebsites);
 
         return ResultHelper.success(isUpdated);
     }
 
+    /**
+     * 批量更新导航网站排序（拖拽排序）
+     */
+    @PostMapping(value = "/reorder")
+    public Result<Integer> reorder(@Valid @RequestBody WebsiteReorderReqDto request) {
+        log.info("批量更新导航网站排序, 数量: {}", request.getItems().size());
+        int updated = this.navigationWebsiteService.reorder(request);
+
+        return ResultHelper.success(updated);
+    }
+
+    /**
+     * 移动导航网站（排序键排序模式，只改写被移动的网站）
+     */
+    @PostMapping(value = "/move")
+    public Result<Void> move(@Valid @RequestBody WebsiteMoveReqDto request) {
+        log.info("移动导航网站: {}", JSON.toJSONString(request));
+        this.navigationWebsiteService.move(request);
+
+        return ResultHelper.success();
+    }
+
+    /**
+     * 搜索导航网站（名称、网址、概览），支持英文前缀和中文词语
+     */
+    @GetMapping(value = "/search")
+    public Result<List<WebsiteItemResDto>> search(@RequestParam("keyword") String keyword,
+                                                  @RequestParam(value = "limit", defaultValue = "10") int limit) {
+        log.debug("搜索导航网站, keyword: {}, limit: {}", keyword, limit);
+        List<WebsiteItemResDto> websites = this.navigationWebsiteService.search(keyword, limit);
+
+        return ResultHelper.success(websites);
+    }
+
+    /**
+     * 获取最近一次链接检查不可访问的网站
+     */
+    @GetMapping(value = "/brokenLinks")
+    public Result<List<BrokenLinkResDto>> brokenLinks() {
+        log.info("获取不可访问的导航网站");
+        List<BrokenLinkResDto> websites = this.navigationWebsiteService.listBrokenLinks();
+
+        return ResultHelper.success(websites);
+    }
+
     /**
      * 获取导航网站列表
+     * <p>
+     * 直接写出预序列化的响应体（统一响应结构已包含在内），不经过 Jackson 序列化
      */
     @GetMapping(value = "/list")
-    public Result<List<?>> list() {
+    public void list(HttpServletRequest request, HttpServletResponse response) throws IOException {
         log.info("获取导航网站列表");
-        return ResultHelper.success(this.navigationWebsiteService.list());
+        this.navigationWebsiteService.listAllBody(request).writeTo(request, response);
     }
 
     /**
      * 获取导航网站列表（按类别分组）
+     * <p>
+     * 直接写出预序列化的响应体（统一响应结构已包含在内），不经过 Jackson 序列化
      */
     @GetMapping(value = "/listByCategory")
-    public Result<List<WebsitesByCategoryResDto>> listByCategory() {
+    public void listByCategory(HttpServletRequest request, HttpServletResponse response) throws IOException {
         log.info("获取导航网站列表（按类别分组）");
-        List<WebsitesByCategoryResDto> list = this.navigationWebsiteService.listByCategory();
-        return ResultHelper.success(list);
+        this.navigationWebsiteService.listByCategoryBody(request).writeTo(request, response);
+    }
+
+    /**
+     * 获取点击最多的导航网站
+     * <p>
+     * 直接写出预序列化的响应体（统一响应结构已包含在内），不经过 Jackson 序列化
+     */
+    @GetMapping(value = "/popular")
+    public void popular(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        log.debug("获取点击最多的导航网站");
+        this.navigationWebsiteService.listPopularBody(request).writeTo(request, response);
+    }
+
+    /**
+     * 记录网站点击（前端可使用 navigator.sendBeacon 发送）
+     */
+    @PostMapping(value = "/click")
+    public Result<Void> click(Long id) {
+        this.navigationWebsiteService.click(id);
+
+        return ResultHelper.success();
     }
 
 }
@@ -0,0 +1,94 @@
+package cn.lzhch.controller.interceptor;
+
+import cn.lzhch.common.response.PreSerializedBody;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.lang.NonNull;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.util.function.ToLongFunction;
+
+/**
+ * 导航接口条件请求拦截器
+ * <p>
+ * 导航数据的每个版本对应一个强 ETag（由 {@link cn.lzhch.service.navigation.NavigationSnapshot} 或
+ * {@link cn.lzhch.service.navigation.NavigationPopularSnapshot} 的版本号加上各自的前缀生成，两者独立更新），
+ * 请求携带的 If-None-Match 与当前版本一致时直接返回 304，不进入控制器、服务层和序列化；
+ * 不一致时设置 ETag 后继续处理，客户端下次轮询即可带上新的 ETag。
+ * 同时设置 Cache-Control: no-cache，要求客户端每次使用前都向服务端校验；
+ * 响应体按 Accept-Encoding 返回原始或 gzip 版本，两者字节不同，ETag 也不同。
+ * 版本号从请求固定使用的快照读取（快照记录在请求属性中），控制器写出的响应体来自同一快照，重建发生在两者之间也不会错配
+ * <p>
+ * author: lzhch
+ * version: v1.0
+ * date: 2026/10/17
+ */
+
+@RequiredArgsConstructor
+public class NavigationETagInterceptor implements HandlerInterceptor {
+
+    /**
+     * ETag 前缀，区分不同数据的版本号
+     */
+    private final String prefix;
+
+    /**
+     * 请求固定使用的快照的版本号
+     */
+    private final ToLongFunction<HttpServletRequest> version;
+
+    @Override
+    public boolean preHandle(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response, @NonNull Object handler) {
+        if (!HttpMethod.GET.matches(request.getMethod())) {
+            return true;
+        }
+
+        String etag = this.etag(this.version.applyAsLong(request), PreSerializedBody.acceptsGzip(request));
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().getHeaderValue());
+
+        if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * 由快照版本号生成强 ETag，gzip 版本的字节不同，使用不同的 ETag
+     *
+     * @param version 快照版本号
+     * @param gzip    是否为 gzip 版本
+     * @return ETag
+     */
+    public String etag(long version, boolean gzip) {
+        return "\"" + this.prefix + "-" + version + (gzip ? "-gzip" : "") + "\"";
+    }
+
+    /**
+     * 判断 If-None-Match 是否与 ETag 匹配
+     * <p>
+     * If-None-Match 按弱比较：忽略 W/ 前缀，支持逗号分隔的多个值和 *
+     */
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.startsWith("W/")) {
+                value = value.substring(2);
+            }
+            if ("*".equals(value) || etag.equals(value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+}
@@ -0,0 +1,32 @@
+package cn.lzhch.dto.auth;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 用户名/邮箱可用性响应
+ * <p>
+ * author: lzhch
+ * version: v1.0
+ * date: 2026/10/17
+ */
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserAvailabilityResponse {
+
+    /**
+     * 用户名是否可用，未传入用户名时为 null
+     */
+    private Boolean usernameAvailable;
+
+    /**
+     * 邮箱是否可用，未传入邮箱时为 null
+     */
+    private Boolean emailAvailable;
+
+}
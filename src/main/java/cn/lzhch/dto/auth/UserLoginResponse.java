@@ -34,6 +34,16 @@ public class UserLoginResponse {
      */
     private Long expiresIn;
 
+    /**
+     * 刷新令牌，用于在访问令牌过期后换发新的令牌，每次使用后轮换
+     */
+    private String refreshToken;
+
+    /**
+     * 刷新令牌过期时间（秒）
+     */
+    private Long refreshExpiresIn;
+
     /**
      * 用户信息
      */
@@ -0,0 +1,71 @@
+package cn.lzhch.dto.navigation;
+
+import cn.lzhch.entity.LinkStatus;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * 不可访问网站 DTO
+ * <p>
+ * 只包含定位网站和链接检查结果需要的字段，不返回实体
+ * <p>
+ * author: lzhch
+ * version: v1.0
+ * date: 2026/10/17
+ */
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BrokenLinkResDto implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 5163402788416939127L;
+
+    /**
+     * 主键 ID
+     */
+    @JsonFormat(shape = JsonFormat.Shape.STRING)
+    private Long id;
+
+    /**
+     * 网站名称
+     */
+    private String siteName;
+
+    /**
+     * 网站地址
+     */
+    private String siteUrl;
+
+    /**
+     * 类别 id
+     */
+    @JsonFormat(shape = JsonFormat.Shape.STRING)
+    private Long categoryId;
+
+    /**
+     * 链接状态
+     */
+    private LinkStatus linkStatus;
+
+    /**
+     * 最近一次检查的 HTTP 状态码，无响应时不返回
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Integer linkStatusCode;
+
+    /**
+     * 最近一次检查时间
+     */
+    private LocalDateTime linkCheckedTime;
+
+}
@@ -0,0 +1,48 @@
+package cn.lzhch.dto.navigation;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * 导航分类移动请求 DTO（排序键排序模式）
+ * <p>
+ * author: lzhch
+ * version: v1.0
+ * date: 2026/10/17
+ */
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CategoryMoveReqDto implements Serializable {
+    @Serial
+    private static final long serialVersionUID = -2310452297605186743L;
+
+    /**
+     * 被移动的分类 id
+     */
+    @NotNull(message = "类别 id 不能为空")
+    @JsonFormat(shape = JsonFormat.Shape.STRING)
+    private Long id;
+
+    /**
+     * 移动后前一个分类的 id，null 表示移到开头
+     */
+    @JsonFormat(shape = JsonFormat.Shape.STRING)
+    private Long prevId;
+
+    /**
+     * 移动后后一个分类的 id，null 表示移到末尾
+     */
+    @JsonFormat(shape = JsonFormat.Shape.STRING)
+    private Long nextId;
+
+}
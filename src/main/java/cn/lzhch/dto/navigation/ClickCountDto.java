@@ -0,0 +1,37 @@
+package cn.lzhch.dto.navigation;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * 网站点击次数 DTO（查询点击排行、批量累加点击增量）
+ * <p>
+ * author: lzhch
+ * version: v1.0
+ * date: 2026/10/17
+ */
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClickCountDto implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 6112804537318827590L;
+
+    /**
+     * 网站 id
+     */
+    private Long id;
+
+    /**
+     * 点击次数（累加时为增量）
+     */
+    private Long clickCount;
+
+}
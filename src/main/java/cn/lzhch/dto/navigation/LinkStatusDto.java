@@ -0,0 +1,49 @@
+package cn.lzhch.dto.navigation;
+
+import cn.lzhch.entity.LinkStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * 网站链接检查结果 DTO（批量回写链接状态）
+ * <p>
+ * author: lzhch
+ * version: v1.0
+ * date: 2026/10/17
+ */
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LinkStatusDto implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 3902115841236620583L;
+
+    /**
+     * 网站 id
+     */
+    private Long id;
+
+    /**
+     * 链接状态
+     */
+    private LinkStatus linkStatus;
+
+    /**
+     * HTTP 状态码，无响应时为 null
+     */
+    private Integer linkStatusCode;
+
+    /**
+     * 检查时间
+     */
+    private LocalDateTime linkCheckedTime;
+
+}
@@ -0,0 +1,42 @@
+package cn.lzhch.dto.navigation;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * 排序键 DTO（查询相邻项排序键、批量改写排序键）
+ * <p>
+ * author: lzhch
+ * version: v1.0
+ * date: 2026/10/17
+ */
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SortKeyDto implements Serializable {
+    @Serial
+    private static final long serialVersionUID = -4470593165028744218L;
+
+    /**
+     * 主键 id
+     */
+    private Long id;
+
+    /**
+     * 所属分组 id（网站为类别 id，分类为 null）；更新时不为 null 则同时移动到该分组
+     */
+    private Long groupId;
+
+    /**
+     * 排序键
+     */
+    private String sortKey;
+
+}
@@ -0,0 +1,86 @@
+package cn.lzhch.dto.navigation;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * 导航站网站展示 DTO
+ * <p>
+ * 只包含首页展示需要的字段，不包含审计字段
+ * <p>
+ * author: lzhch
+ * version: v1.0
+ * date: 2026/10/17
+ */
+
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class WebsiteItemResDto implements Serializable {
+    @Serial
+    private static final long serialVersionUID = -1386034617392818225L;
+
+    /**
+     * 主键 ID
+     */
+    @JsonFormat(shape = JsonFormat.Shape.STRING)
+    private Long id;
+
+    /**
+     * 网站名称
+     */
+    private String siteName;
+
+    /**
+     * 网站地址
+     */
+    private String siteUrl;
+
+    /**
+     * 网站图标
+     */
+    private String siteIcon;
+
+    /**
+     * 网站概览
+     */
+    private String siteOverview;
+
+    /**
+     * 网站排序
+     */
+    private Integer siteSort;
+
+    /**
+     * 类别 id
+     */
+    @JsonFormat(shape = JsonFormat.Shape.STRING)
+    private Long categoryId;
+
+    /**
+     * 本地缓存的图标地址，尚未缓存时不返回，前端使用 siteIcon
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String iconUrl;
+
+    /**
+     * 图标在所属分类雪碧图中的序号，未合入雪碧图时不返回
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Integer spriteIndex;
+
+    /**
+     * 点击次数（已写入数据库的部分），只在点击排行中返回
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long clickCount;
+
+}
@@ -0,0 +1,57 @@
+package cn.lzhch.dto.navigation;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * 导航网站移动请求 DTO（排序键排序模式）
+ * <p>
+ * 以移动后的相邻网站描述目标位置，服务端只改写被移动网站的排序键
+ * <p>
+ * author: lzhch
+ * version: v1.0
+ * date: 2026/10/17
+ */
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WebsiteMoveReqDto implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 6149031783218236640L;
+
+    /**
+     * 被移动的网站 id
+     */
+    @NotNull(message = "网站 id 不能为空")
+    @JsonFormat(shape = JsonFormat.Shape.STRING)
+    private Long id;
+
+    /**
+     * 目标类别 id
+     */
+    @NotNull(message = "类别 id 不能为空")
+    @JsonFormat(shape = JsonFormat.Shape.STRING)
+    private Long categoryId;
+
+    /**
+     * 移动后前一个网站的 id，null 表示移到类别开头
+     */
+    @JsonFormat(shape = JsonFormat.Shape.STRING)
+    private Long prevId;
+
+    /**
+     * 移动后后一个网站的 id，null 表示移到类别末尾
+     */
+    @JsonFormat(shape = JsonFormat.Shape.STRING)
+    private Long nextId;
+
+}
@@ -0,0 +1,39 @@
+package cn.lzhch.dto.navigation;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * 导航网站批量排序请求 DTO
+ * <p>
+ * author: lzhch
+ * version: v1.0
+ * date: 2026/10/17
+ */
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WebsiteReorderReqDto implements Serializable {
+    @Serial
+    private static final long serialVersionUID = -5207437391604437960L;
+
+    /**
+     * 排序项列表
+     */
+    @Valid
+    @NotEmpty(message = "排序数据不能为空")
+    @Size(max = 10000, message = "单次排序不能超过 10000 条")
+    private List<WebsiteSortReqDto> items;
+
+}
@@ -0,0 +1,49 @@
+package cn.lzhch.dto.navigation;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * 导航网站排序项 DTO
+ * <p>
+ * author: lzhch
+ * version: v1.0
+ * date: 2026/10/17
+ */
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WebsiteSortReqDto implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 2771961845290365283L;
+
+    /**
+     * 网站 id
+     */
+    @NotNull(message = "网站 id 不能为空")
+    @JsonFormat(shape = JsonFormat.Shape.STRING)
+    private Long id;
+
+    /**
+     * 网站排序
+     */
+    @NotNull(message = "网站排序不能为空")
+    private Integer siteSort;
+
+    /**
+     * 类别 id（支持拖动到其他分类）
+     */
+    @NotNull(message = "类别 id 不能为空")
+    @JsonFormat(shape = JsonFormat.Shape.STRING)
+    private Long categoryId;
+
+}
@@ -1,31 +1,31 @@
 package cn.lzhch.dto.navigation;
 
-import cn.lzhch.common.dto.BaseEntity;
-import cn.lzhch.entity.NavigationWebsite;
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
+import lombok.Builder;
 import lombok.Data;
-import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
-import lombok.experimental.SuperBuilder;
 
 import java.io.Serial;
+import java.io.Serializable;
 import java.util.List;
 
 /**
  * 导航站类别和网站资源 DTO
  * <p>
+ * 只包含首页展示需要的字段，不包含审计字段
+ * <p>
  * author: lzhch
  * version: v1.0
  * date: 2025/6/16 17:52
  */
 
 @Data
-@SuperBuilder
+@Builder
 @NoArgsConstructor
 @AllArgsConstructor
-@EqualsAndHashCode(callSuper = true)
-public class WebsitesByCategoryResDto extends BaseEntity {
+public class WebsitesByCategoryResDto implements Serializable {
     @Serial
     private static final long serialVersionUID = 4109527031183934244L;
 
@@ -46,8 +46,20 @@ public class WebsitesByCategoryResDto extends BaseEntity {
     private Integer categorySort;
 
     /**
-     * 导航网站列表
+     * 分类图标雪碧图地址，未启用或图标不足两个时不返回
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String spriteUrl;
+
+    /**
+     * 雪碧图中每个图标的边长（像素）
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Integer spriteSize;
+
+    /**
+     * 导航网站列表（按网站排序）
      */
-    private List<NavigationWebsite> websiteList;
+    private List<WebsiteItemResDto> websiteList;
 
 }
@@ -0,0 +1,57 @@
+package cn.lzhch.dto.record;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * 批量导入单批结果 DTO
+ * <p>
+ * author: lzhch
+ * version: v1.0
+ * date: 2026/10/17
+ */
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportChunkResDto implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 2815340918402875061L;
+
+    /**
+     * 批次序号，从 1 开始
+     */
+    private int chunk;
+
+    /**
+     * 本批第一条记录在输入中的序号，从 1 开始
+     */
+    private long firstItem;
+
+    /**
+     * 本批记录数
+     */
+    private int size;
+
+    /**
+     * 本批写入成功的记录数（失败时整批回滚，为 0）
+     */
+    private int inserted;
+
+    /**
+     * 写入耗时（毫秒）
+     */
+    private long elapsed;
+
+    /**
+     * 失败原因，成功时为 null
+     */
+    private String error;
+
+}
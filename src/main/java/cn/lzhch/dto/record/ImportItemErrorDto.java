@@ -0,0 +1,37 @@
+package cn.lzhch.dto.record;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * 批量导入单条记录错误 DTO
+ * <p>
+ * author: lzhch
+ * version: v1.0
+ * date: 2026/10/17
+ */
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportItemErrorDto implements Serializable {
+    @Serial
+    private static final long serialVersionUID = -6317204457196308842L;
+
+    /**
+     * 记录在输入中的序号，从 1 开始
+     */
+    private long item;
+
+    /**
+     * 错误原因
+     */
+    private String message;
+
+}
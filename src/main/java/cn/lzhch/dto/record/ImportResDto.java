@@ -0,0 +1,63 @@
+package cn.lzhch.dto.record;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 批量导入结果 DTO
+ * <p>
+ * 已成功的批次不会因后续批次失败或输入中途格式错误而回滚，按 chunks 和 errors 定位需要重新导入的部分
+ * <p>
+ * author: lzhch
+ * version: v1.0
+ * date: 2026/10/17
+ */
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportResDto implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 4460982713516620417L;
+
+    /**
+     * 读取到的记录数
+     */
+    private long total;
+
+    /**
+     * 写入成功的记录数
+     */
+    private long inserted;
+
+    /**
+     * 失败的记录数（校验失败和所在批次写入失败）
+     */
+    private long failed;
+
+    /**
+     * 每批写入结果
+     */
+    @Builder.Default
+    private List<ImportChunkResDto> chunks = new ArrayList<>();
+
+    /**
+     * 单条记录错误（最多返回前 100 条）
+     */
+    @Builder.Default
+    private List<ImportItemErrorDto> errors = new ArrayList<>();
+
+    /**
+     * 导入中止原因（如输入格式错误、超过记录数上限），正常结束时为 null
+     */
+    private String aborted;
+
+}
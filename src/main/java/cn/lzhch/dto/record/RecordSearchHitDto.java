@@ -0,0 +1,50 @@
+package cn.lzhch.dto.record;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * 日常生活记录搜索命中 DTO
+ * <p>
+ * author: lzhch
+ * version: v1.0
+ * date: 2026/10/17
+ */
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecordSearchHitDto implements Serializable {
+    @Serial
+    private static final long serialVersionUID = -2904715526373920551L;
+
+    /**
+     * 记录 id
+     */
+    @JsonFormat(shape = JsonFormat.Shape.STRING)
+    private Long id;
+
+    /**
+     * 摘要：已转义 HTML，命中位置用 &lt;em&gt; 标出
+     */
+    private String snippet;
+
+    /**
+     * 相关度分数（BM25）
+     */
+    private double score;
+
+    /**
+     * 创建时间
+     */
+    private LocalDateTime createTime;
+
+}
@@ -0,0 +1,45 @@
+package cn.lzhch.dto.record;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 日常生活记录搜索结果 DTO
+ * <p>
+ * author: lzhch
+ * version: v1.0
+ * date: 2026/10/17
+ */
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecordSearchResDto implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 7719530278146032214L;
+
+    /**
+     * 命中总数
+     */
+    private int total;
+
+    /**
+     * 查询耗时（毫秒）
+     */
+    private long took;
+
+    /**
+     * 按相关度排序的命中记录
+     */
+    @Builder.Default
+    private List<RecordSearchHitDto> hits = new ArrayList<>();
+
+}
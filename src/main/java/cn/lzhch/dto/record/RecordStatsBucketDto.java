@@ -0,0 +1,38 @@
+package cn.lzhch.dto.record;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * 日常生活记录单个统计周期 DTO
+ * <p>
+ * author: lzhch
+ * version: v1.0
+ * date: 2026/10/17
+ */
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecordStatsBucketDto implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 5380946614724917390L;
+
+    /**
+     * 周期开始日期（按天为当天，按周为周一，按月为 1 日）
+     */
+    private LocalDate date;
+
+    /**
+     * 周期内创建的记录数
+     */
+    private int count;
+
+}
@@ -0,0 +1,61 @@
+package cn.lzhch.dto.record;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 日常生活记录统计结果 DTO
+ * <p>
+ * author: lzhch
+ * version: v1.0
+ * date: 2026/10/17
+ */
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecordStatsResDto implements Serializable {
+    @Serial
+    private static final long serialVersionUID = -4458052310962837706L;
+
+    /**
+     * 时间粒度：day/week/month
+     */
+    private String granularity;
+
+    /**
+     * 开始日期（含）
+     */
+    private LocalDate from;
+
+    /**
+     * 结束日期（含）
+     */
+    private LocalDate to;
+
+    /**
+     * 范围内的记录总数
+     */
+    private long total;
+
+    /**
+     * 单个周期的最大记录数，热力图据此划分颜色深浅
+     */
+    private int max;
+
+    /**
+     * 按日期升序的各周期记录数，没有记录的周期为 0
+     */
+    @Builder.Default
+    private List<RecordStatsBucketDto> buckets = new ArrayList<>();
+
+}
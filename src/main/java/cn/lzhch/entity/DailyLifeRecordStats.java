@@ -0,0 +1,48 @@
+package cn.lzhch.entity;
+
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableId;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 日常生活记录按天统计表
+ * <p>
+ * author: lzhch
+ * version: v1.0
+ * date: 2026/10/17
+ */
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailyLifeRecordStats implements Serializable {
+    @Serial
+    private static final long serialVersionUID = -2519871370458217653L;
+
+    /**
+     * 统计日期（记录创建日期）
+     */
+    @TableId(type = IdType.INPUT)
+    private LocalDate statDate;
+
+    /**
+     * 当天创建且未删除的记录数（累加时为增量）
+     */
+    private Integer recordCount;
+
+    /**
+     * 更新时间
+     */
+    private LocalDateTime updateTime;
+
+}
@@ -0,0 +1,43 @@
+package cn.lzhch.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 网站链接状态
+ * <p>
+ * author: lzhch
+ * version: v1.0
+ * date: 2026/10/17
+ */
+
+@Getter
+@AllArgsConstructor
+public enum LinkStatus {
+
+    OK("可访问"),
+    BROKEN("页面不存在或拒绝访问（4xx）"),
+    ERROR("服务端错误或限流（5xx/429），可能是暂时的"),
+    TIMEOUT("连接或响应超时"),
+    UNREACHABLE("无法连接（域名无法解析、连接被拒绝等）"),
+    INVALID("网址格式不合法或指向内网地址");
+
+    private final String description;
+
+    /**
+     * 按最终响应的 HTTP 状态码分类（重定向已跟随，超过次数上限时为最后一个重定向响应）
+     *
+     * @param statusCode HTTP 状态码
+     * @return 链接状态
+     */
+    public static LinkStatus of(int statusCode) {
+        if (statusCode < 400) {
+            return OK;
+        }
+        if (statusCode == 429 || statusCode >= 500) {
+            return ERROR;
+        }
+        return BROKEN;
+    }
+
+}
@@ -2,7 +2,9 @@ package cn.lzhch.entity;
 
 
 import cn.lzhch.common.dto.BaseEntity;
+import com.baomidou.mybatisplus.annotation.TableField;
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
@@ -44,4 +46,11 @@ public class NavigationCategory extends BaseEntity {
      */
     private Integer categorySort;
 
+    /**
+     * 排序键（分数索引），仅在排序键排序模式下使用，由服务端生成
+     */
+    @JsonIgnore
+    @TableField(select = false)
+    private String sortKey;
+
 }
\ No newline at end of file
@@ -2,7 +2,12 @@ package cn.lzhch.entity;
 
 
 import cn.lzhch.common.dto.BaseEntity;
+import com.baomidou.mybatisplus.annotation.FieldStrategy;
+import com.baomidou.mybatisplus.annotation.TableField;
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
@@ -10,6 +15,7 @@ import lombok.NoArgsConstructor;
 import lombok.experimental.SuperBuilder;
 
 import java.io.Serial;
+import java.time.LocalDateTime;
 
 /**
  * 导航网站实体类
@@ -60,10 +66,41 @@ public class NavigationWebsite extends BaseEntity {
      */
     private Integer siteSort;
 
+    /**
+     * 排序键（分数索引），仅在排序键排序模式下使用，由服务端生成
+     */
+    @JsonIgnore
+    @TableField(select = false)
+    private String sortKey;
+
     /**
      * 类别 id
      */
     @JsonFormat(shape = JsonFormat.Shape.STRING)
     private Long categoryId;
 
+    /**
+     * 链接状态，只由链接检查任务通过 updateLinkStatus 回写，新增、修改时忽略客户端传入的值
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @TableField(select = false, insertStrategy = FieldStrategy.NEVER, updateStrategy = FieldStrategy.NEVER)
+    private LinkStatus linkStatus;
+
+    /**
+     * 最近一次检查的 HTTP 状态码
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @TableField(select = false, insertStrategy = FieldStrategy.NEVER, updateStrategy = FieldStrategy.NEVER)
+    private Integer linkStatusCode;
+
+    /**
+     * 最近一次检查时间
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @TableField(select = false, insertStrategy = FieldStrategy.NEVER, updateStrategy = FieldStrategy.NEVER)
+    private LocalDateTime linkCheckedTime;
+
 }
\ No newline at end of file
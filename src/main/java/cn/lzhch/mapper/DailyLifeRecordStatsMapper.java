@@ -0,0 +1,70 @@
+package cn.lzhch.mapper;
+
+
+import cn.lzhch.entity.DailyLifeRecordStats;
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * 日常生活记录按天统计表 Mapper
+ * <p>
+ * author: lzhch
+ * version: v1.0
+ * date: 2026/10/17
+ */
+
+@Mapper
+public interface DailyLifeRecordStatsMapper extends BaseMapper<DailyLifeRecordStats> {
+
+    /**
+     * 累加多天的记录数增量，当天没有统计行时插入
+     *
+     * @param items 日期及记录数增量
+     * @return 影响行数
+     */
+    int incrementCounts(@Param("items") List<DailyLifeRecordStats> items);
+
+    /**
+     * 查询日期范围内的统计（按日期升序），只读取有记录的日期
+     *
+     * @param from 开始日期（含）
+     * @param to   结束日期（含）
+     * @return 统计列表
+     */
+    List<DailyLifeRecordStats> selectRange(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    /**
+     * 删除日期范围内的统计，回填时重新写入
+     *
+     * @param from 开始日期（含）
+     * @param to   结束日期（不含）
+     * @return 删除行数
+     */
+    int deleteRange(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    /**
+     * 最早的统计日期
+     *
+     * @return 统计日期，没有统计时返回 null
+     */
+    LocalDate selectFirstDate();
+
+    /**
+     * 最晚的统计日期
+     *
+     * @return 统计日期，没有统计时返回 null
+     */
+    LocalDate selectLastDate();
+
+    /**
+     * 全部统计的记录数之和
+     *
+     * @return 记录数
+     */
+    long selectTotal();
+
+}
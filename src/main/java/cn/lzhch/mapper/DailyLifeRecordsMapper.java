@@ -1,6 +1,8 @@
 package cn.lzhch.mapper;
 
 
+import cn.lzhch.common.util.KeysetCursor;
+import cn.lzhch.entity.DailyLifeRecordStats;
 import cn.lzhch.entity.DailyLifeRecords;
 import com.baomidou.mybatisplus.core.conditions.Wrapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
@@ -8,6 +10,12 @@ import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.core.toolkit.Constants;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.cursor.Cursor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 
 /**
  * 日常生活记录表 Mapper
@@ -29,4 +37,64 @@ public interface DailyLifeRecordsMapper extends BaseMapper<DailyLifeRecords> {
      */
     IPage<DailyLifeRecords> selectByPage(IPage<DailyLifeRecords> page, @Param(Constants.WRAPPER) Wrapper<DailyLifeRecords> wrapper);
 
+    /**
+     * 键集分页查询游标之后的记录（未删除且创建时间不为空，按创建时间和 id 降序）
+     *
+     * @param cursor 上一页最后一行，为 null 时查询第一页
+     * @param limit  最多返回条数
+     * @return 记录列表
+     */
+    List<DailyLifeRecords> selectAfter(@Param("cursor") KeysetCursor cursor, @Param("limit") int limit);
+
+    /**
+     * 流式查询全部未删除的记录（按创建时间和 id 降序），用于导出
+     * <p>
+     * 游标只在会话打开期间有效，必须在事务中迭代并关闭
+     *
+     * @return 记录游标
+     */
+    Cursor<DailyLifeRecords> selectForExport();
+
+    /**
+     * 查询指定记录中未删除记录的创建时间并加行锁，用于计算统计增量
+     * <p>
+     * 必须在事务中调用，写入前后各查询一次，锁保证两次查询之间没有其他事务修改这些记录
+     *
+     * @param ids 记录 id
+     * @return 创建时间列表（不含创建时间为空的记录）
+     */
+    List<LocalDateTime> selectLiveCreateTimesForUpdate(@Param("ids") Collection<Long> ids);
+
+    /**
+     * 按天统计创建时间在范围内的未删除记录数，并对读取的记录加共享锁
+     * <p>
+     * 必须在事务中调用，回填期间其他事务不能在该范围内新增或修改记录，统计和写回结果之间不会丢失增量
+     *
+     * @param from 开始日期（含）
+     * @param to   结束日期（不含）
+     * @return 日期及记录数，只包含有记录的日期
+     */
+    List<DailyLifeRecordStats> countByDay(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    /**
+     * 统计未删除且创建时间不为空的记录数
+     *
+     * @return 记录数
+     */
+    long countLive();
+
+    /**
+     * 最早的未删除记录创建时间
+     *
+     * @return 创建时间，没有记录时返回 null
+     */
+    LocalDateTime selectFirstCreateTime();
+
+    /**
+     * 最晚的未删除记录创建时间
+     *
+     * @return 创建时间，没有记录时返回 null
+     */
+    LocalDateTime selectLastCreateTime();
+
 }
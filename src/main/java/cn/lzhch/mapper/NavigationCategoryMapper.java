@@ -1,9 +1,15 @@
 package cn.lzhch.mapper;
 
 
+import cn.lzhch.dto.navigation.SortKeyDto;
+import cn.lzhch.dto.navigation.WebsitesByCategoryResDto;
 import cn.lzhch.entity.NavigationCategory;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.Collection;
+import java.util.List;
 
 /**
  * 导航分类 Mapper
@@ -15,4 +21,51 @@ import org.apache.ibatis.annotations.Mapper;
 
 @Mapper
 public interface NavigationCategoryMapper extends BaseMapper<NavigationCategory> {
+
+    /**
+     * 查询首页展示的分类（仅展示字段，未删除，按分类排序）
+     *
+     * @param sortKeyEnabled 是否按排序键排序
+     * @return 分类列表，websiteList 为空
+     */
+    List<WebsitesByCategoryResDto> selectDisplayCategories(@Param("sortKeyEnabled") boolean sortKeyEnabled);
+
+    /**
+     * 按 id 查询分类的排序键
+     *
+     * @param ids 分类 id
+     * @return 排序键列表
+     */
+    List<SortKeyDto> selectSortKeysByIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * 按展示顺序查询全部分类的排序键
+     *
+     * @return 排序键列表
+     */
+    List<SortKeyDto> selectAllSortKeys();
+
+    /**
+     * 查询最大的排序键
+     *
+     * @return 最大排序键，没有排序键时返回 null
+     */
+    String selectMaxSortKey();
+
+    /**
+     * 统计存在未回填或过长排序键的分类数量
+     *
+     * @param maxLength 排序键最大长度
+     * @return 分类数量
+     */
+    long countSortKeysToCompact(@Param("maxLength") int maxLength);
+
+    /**
+     * 改写单个分类的排序键
+     *
+     * @param item 排序键
+     * @return 更新行数
+     */
+    int updateSortKey(SortKeyDto item);
+
 }
@@ -1,9 +1,19 @@
 package cn.lzhch.mapper;
 
 
+import cn.lzhch.dto.navigation.BrokenLinkResDto;
+import cn.lzhch.dto.navigation.ClickCountDto;
+import cn.lzhch.dto.navigation.LinkStatusDto;
+import cn.lzhch.dto.navigation.SortKeyDto;
+import cn.lzhch.dto.navigation.WebsiteItemResDto;
+import cn.lzhch.dto.navigation.WebsiteSortReqDto;
 import cn.lzhch.entity.NavigationWebsite;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.Collection;
+import java.util.List;
 
 /**
  * 导航网站 Mapper 接口
@@ -15,4 +25,106 @@ import org.apache.ibatis.annotations.Mapper;
 
 @Mapper
 public interface NavigationWebsiteMapper extends BaseMapper<NavigationWebsite> {
+
+    /**
+     * 查询首页展示的网站（仅展示字段，未删除，按分类和网站排序）
+     *
+     * @param sortKeyEnabled 是否按排序键排序
+     * @return 网站列表
+     */
+    List<WebsiteItemResDto> selectDisplayWebsites(@Param("sortKeyEnabled") boolean sortKeyEnabled);
+
+    /**
+     * 使用单条 CASE WHEN 语句批量更新网站排序和分类
+     *
+     * @param items 排序项（id 不能重复）
+     * @return 更新行数
+     */
+    int updateSortByCase(@Param("items") List<WebsiteSortReqDto> items);
+
+    /**
+     * 更新单个网站的排序和分类（用于 JDBC 批处理）
+     *
+     * @param item 排序项
+     * @return 更新行数
+     */
+    int updateSort(WebsiteSortReqDto item);
+
+    /**
+     * 按 id 查询网站的排序键（groupId 为类别 id）
+     *
+     * @param ids 网站 id
+     * @return 排序键列表
+     */
+    List<SortKeyDto> selectSortKeysByIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * 按展示顺序查询类别下全部网站的排序键
+     *
+     * @param categoryId 类别 id
+     * @return 排序键列表
+     */
+    List<SortKeyDto> selectSortKeysByCategory(@Param("categoryId") Long categoryId);
+
+    /**
+     * 查询类别下最大的排序键
+     *
+     * @param categoryId 类别 id
+     * @return 最大排序键，类别下没有排序键时返回 null
+     */
+    String selectMaxSortKey(@Param("categoryId") Long categoryId);
+
+    /**
+     * 查询存在未回填或过长排序键的类别
+     *
+     * @param maxLength 排序键最大长度
+     * @return 类别 id 列表
+     */
+    List<Long> selectCategoryIdsToCompact(@Param("maxLength") int maxLength);
+
+    /**
+     * 改写单个网站的排序键（groupId 不为空时同时移动到该类别）
+     *
+     * @param item 排序键
+     * @return 更新行数
+     */
+    int updateSortKey(SortKeyDto item);
+
+    /**
+     * 查询需要检查链接的网站（仅 id 和网址，未删除）
+     *
+     * @return 网站列表
+     */
+    List<NavigationWebsite> selectLinkTargets();
+
+    /**
+     * 查询最近一次检查不可访问的网站
+     *
+     * @return 网站列表（含链接状态）
+     */
+    List<BrokenLinkResDto> selectBrokenLinks();
+
+    /**
+     * 回写单个网站的链接检查结果（用于 JDBC 批处理）
+     *
+     * @param item 检查结果
+     * @return 更新行数
+     */
+    int updateLinkStatus(LinkStatusDto item);
+
+    /**
+     * 查询有点击记录的网站点击次数（未删除，按点击次数降序）
+     *
+     * @return 点击次数列表
+     */
+    List<ClickCountDto> selectClickCounts();
+
+    /**
+     * 使用单条 CASE WHEN 语句批量累加网站点击次数
+     *
+     * @param items 点击增量（id 不能重复）
+     * @return 更新行数
+     */
+    int incrementClickCounts(@Param("items") List<ClickCountDto> items);
+
 }
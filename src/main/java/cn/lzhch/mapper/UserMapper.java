@@ -4,6 +4,7 @@ import cn.lzhch.entity.User;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.session.ResultHandler;
 
 import java.util.Optional;
 
@@ -58,4 +59,29 @@ public interface UserMapper extends BaseMapper<User> {
      */
     boolean existsByEmail(@Param("email") String email);
 
+    /**
+     * 检查用户名是否被占用，包括已删除的用户（唯一索引覆盖全部行）
+     *
+     * @param username 用户名
+     * @return 是否被占用
+     */
+    boolean existsAnyByUsername(@Param("username") String username);
+
+    /**
+     * 检查邮箱是否被占用，包括已删除的用户（唯一索引覆盖全部行）
+     *
+     * @param email 邮箱
+     * @return 是否被占用
+     */
+    boolean existsAnyByEmail(@Param("email") String email);
+
+    /**
+     * 流式读取所有用户（包括已删除的用户）的用户名和邮箱
+     * <p>
+     * 使用 MySQL 流式结果集逐行回调，内存占用与用户数量无关
+     *
+     * @param handler 逐行处理器
+     */
+    void streamIdentities(ResultHandler<User> handler);
+
 }
@@ -1,9 +1,16 @@
 package cn.lzhch.service;
 
 
+import cn.lzhch.common.dto.CursorPage;
+import cn.lzhch.dto.record.RecordSearchResDto;
+import cn.lzhch.dto.record.RecordStatsResDto;
 import cn.lzhch.entity.DailyLifeRecords;
+import cn.lzhch.service.stats.StatsGranularity;
+import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.service.IService;
 
+import java.time.LocalDate;
+
 /**
  * 日常生活记录表 Service
  * <p>
@@ -13,4 +20,43 @@ import com.baomidou.mybatisplus.extension.service.IService;
  */
 
 public interface IDailyLifeRecordsService extends IService<DailyLifeRecords> {
+
+    /**
+     * 游标分页查询（按创建时间倒序），耗时与翻页深度无关
+     *
+     * @param cursor 上一页返回的 nextCursor，为空时查询第一页
+     * @param size   每页条数，超过上限时按上限查询
+     * @return 分页结果
+     */
+    CursorPage<DailyLifeRecords> listByCursor(String cursor, int size);
+
+    /**
+     * 偏移分页查询（按创建时间倒序）
+     *
+     * @param current     页码，从 1 开始
+     * @param size        每页条数，超过上限时按上限查询
+     * @param searchCount 是否查询总数，不需要总页数时传 false 省去一次 COUNT 查询
+     * @return 分页结果
+     */
+    IPage<DailyLifeRecords> listByPage(long current, int size, boolean searchCount);
+
+    /**
+     * 全文检索记录内容（按相关度排序），查询走内存映射的倒排索引，只按 id 读取命中的记录生成摘要
+     *
+     * @param query 查询文本
+     * @param size  最多返回条数，超过上限时按上限查询
+     * @return 命中总数和带摘要的命中记录
+     */
+    RecordSearchResDto search(String query, int size);
+
+    /**
+     * 按天、周或月统计创建的记录数，只按日期范围读取按天统计表，一年的热力图最多读取 366 行
+     *
+     * @param from        开始日期（含），按周或月统计时第一个周期从该日期所在周期的第一天开始
+     * @param to          结束日期（含）
+     * @param granularity 时间粒度
+     * @return 范围内全部周期的记录数，首尾周期只统计范围内的天数
+     */
+    RecordStatsResDto statistics(LocalDate from, LocalDate to, StatsGranularity granularity);
+
 }
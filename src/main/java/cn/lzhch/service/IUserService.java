@@ -1,5 +1,8 @@
 package cn.lzhch.service;
 
+import cn.lzhch.dto.auth.LogoutRequest;
+import cn.lzhch.dto.auth.RefreshTokenRequest;
+import cn.lzhch.dto.auth.UserAvailabilityResponse;
 import cn.lzhch.dto.auth.UserLoginRequest;
 import cn.lzhch.dto.auth.UserLoginResponse;
 import cn.lzhch.dto.auth.UserProfileResponse;
@@ -33,6 +36,22 @@ public interface IUserService extends IService<User> {
      */
     UserLoginResponse login(UserLoginRequest request);
 
+    /**
+     * 刷新令牌
+     *
+     * @param request 刷新令牌请求
+     * @return 登录响应（包含新的JWT令牌和刷新令牌）
+     */
+    UserLoginResponse refresh(RefreshTokenRequest request);
+
+    /**
+     * 用户登出，吊销访问令牌和刷新令牌
+     *
+     * @param accessToken 访问令牌（可为空）
+     * @param request     登出请求（可为空）
+     */
+    void logout(String accessToken, LogoutRequest request);
+
     /**
      * 根据用户名查找用户
      *
@@ -73,6 +92,15 @@ public interface IUserService extends IService<User> {
      */
     boolean existsByEmail(String email);
 
+    /**
+     * 检查用户名和邮箱是否可用（用于注册表单实时提示）
+     *
+     * @param username 用户名，可为空
+     * @param email    邮箱，可为空
+     * @return 可用性
+     */
+    UserAvailabilityResponse checkAvailability(String username, String email);
+
     /**
      * 获取当前用户资料
      *
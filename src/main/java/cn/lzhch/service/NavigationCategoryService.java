@@ -1,16 +1,41 @@
 package cn.lzhch.service;
 
 
+import cn.lzhch.common.exception.ClientException;
+import cn.lzhch.common.response.ErrorCode;
+import cn.lzhch.common.response.PreSerializedBody;
+import cn.lzhch.common.util.FractionalIndex;
+import cn.lzhch.dto.navigation.CategoryMoveReqDto;
+import cn.lzhch.dto.navigation.SortKeyDto;
 import cn.lzhch.entity.NavigationCategory;
 import cn.lzhch.mapper.NavigationCategoryMapper;
+import cn.lzhch.service.navigation.NavigationChangedEvent;
+import cn.lzhch.service.navigation.NavigationSnapshotHolder;
+import com.baomidou.mybatisplus.core.batch.MybatisBatch;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import jakarta.servlet.ServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * 导航分类服务
  * <p>
+ * 分类列表由内存中的导航快照提供；分类变更后发布 {@link NavigationChangedEvent}，事务提交后重建导航快照
+ * <p>
  * author: lzhch
  * version: v1.0
  * date: 2025/6/16 14:20
@@ -21,4 +46,157 @@ import org.springframework.stereotype.Service;
 @RequiredArgsConstructor
 public class NavigationCategoryService extends ServiceImpl<NavigationCategoryMapper, NavigationCategory> {
 
+    private final NavigationSnapshotHolder navigationSnapshotHolder;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SqlSessionFactory sqlSessionFactory;
+
+    /**
+     * 是否按排序键（分数索引）排序
+     */
+    @Value("${app.navigation.sort-key.enabled:false}")
+    private boolean sortKeyEnabled;
+
+    /**
+     * 获取全部分类（预序列化的响应体，来自请求固定使用的快照）
+     *
+     * @param request 当前请求
+     * @return 预序列化的响应体
+     */
+    public PreSerializedBody listAllBody(ServletRequest request) {
+        return this.navigationSnapshotHolder.current(request).getCategoryListBody();
+    }
+
+    /**
+     * 获取全部分类（读取导航快照）
+     *
+     * @return 分类列表
+     */
+    public List<NavigationCategory> listAll() {
+        return this.navigationSnapshotHolder.current().getCategoryList();
+    }
+
+    @Override
+    @Transactional
+    public boolean save(NavigationCategory entity) {
+        if (this.sortKeyEnabled) {
+            // 新分类追加到末尾
+            entity.setSortKey(this.appendSortKey(this.baseMapper.selectMaxSortKey()));
+        }
+        boolean saved = super.save(entity);
+        this.eventPublisher.publishEvent(NavigationChangedEvent.ofCategory("category.save"));
+        return saved;
+    }
+
+    @Override
+    @Transactional
+    public boolean updateById(NavigationCategory entity) {
+        boolean updated = super.updateById(entity);
+        this.eventPublisher.publishEvent(NavigationChangedEvent.ofCategory("category.update"));
+        return updated;
+    }
+
+    /**
+     * 移动分类（排序键排序模式）
+     * <p>
+     * 在前后相邻分类的排序键之间生成新键，只改写被移动分类一行；没有间隙时先压缩再重试一次
+     *
+     * @param request 移动请求
+     */
+    @Transactional
+    public void move(CategoryMoveReqDto request) {
+        if (!this.sortKeyEnabled) {
+            throw new ClientException(ErrorCode.SORT_KEY_DISABLED);
+        }
+        if (request.getId().equals(request.getPrevId()) || request.getId().equals(request.getNextId())) {
+            throw new ClientException("分类不能相对自身移动");
+        }
+
+        String sortKey = this.sortKeyBetween(request);
+        if (sortKey == null) {
+            this.compactSortKeys();
+            sortKey = this.sortKeyBetween(request);
+            if (sortKey == null) {
+                throw new ClientException(ErrorCode.SORT_ORDER_CHANGED);
+            }
+        }
+
+        int updated = this.baseMapper.updateSortKey(new SortKeyDto(request.getId(), null, sortKey));
+        if (updated == 0) {
+            throw new ClientException(ErrorCode.SORT_ORDER_CHANGED);
+        }
+        this.eventPublisher.publishEvent(NavigationChangedEvent.ofCategory("category.move"));
+    }
+
+    /**
+     * 是否存在未回填或过长的排序键
+     *
+     * @param maxLength 排序键最大长度
+     * @return 是否需要压缩
+     */
+    public boolean needsCompaction(int maxLength) {
+        return this.baseMapper.countSortKeysToCompact(maxLength) > 0;
+    }
+
+    /**
+     * 压缩分类的排序键：按当前展示顺序重新均匀分配最短的排序键，并回填尚无排序键的分类
+     * <p>
+     * 展示顺序不变，因此不需要重建导航快照
+     *
+     * @return 改写的分类数量
+     */
+    @Transactional
+    public int compactSortKeys() {
+        List<SortKeyDto> rows = this.baseMapper.selectAllSortKeys();
+        List<String> keys = FractionalIndex.spread(rows.size());
+        List<SortKeyDto> changed = new ArrayList<>();
+        for (int i = 0; i < rows.size(); i++) {
+            if (!keys.get(i).equals(rows.get(i).getSortKey())) {
+                changed.add(new SortKeyDto(rows.get(i).getId(), null, keys.get(i)));
+            }
+        }
+        if (!changed.isEmpty()) {
+            new MybatisBatch<>(this.sqlSessionFactory, changed)
+                    .execute(new MybatisBatch.Method<SortKeyDto>(NavigationCategoryMapper.class).get("updateSortKey"));
+        }
+        return changed.size();
+    }
+
+    /**
+     * 在移动后的相邻分类之间生成排序键；相邻分类缺少排序键或顺序已颠倒时返回 null，需要压缩后重试
+     */
+    private String sortKeyBetween(CategoryMoveReqDto request) {
+        List<Long> neighborIds = Stream.of(request.getPrevId(), request.getNextId()).filter(Objects::nonNull).toList();
+        if (neighborIds.isEmpty()) {
+            return this.appendSortKey(this.baseMapper.selectMaxSortKey());
+        }
+
+        Map<Long, SortKeyDto> neighbors = this.baseMapper.selectSortKeysByIds(neighborIds).stream()
+                .collect(Collectors.toMap(SortKeyDto::getId, Function.identity()));
+        if (neighbors.size() != neighborIds.size()) {
+            throw new ClientException(ErrorCode.SORT_ORDER_CHANGED);
+        }
+        String prevKey = request.getPrevId() == null ? null : neighbors.get(request.getPrevId()).getSortKey();
+        String nextKey = request.getNextId() == null ? null : neighbors.get(request.getNextId()).getSortKey();
+        if ((request.getPrevId() != null && !FractionalIndex.isValid(prevKey))
+                || (request.getNextId() != null && !FractionalIndex.isValid(nextKey))) {
+            return null;
+        }
+        if (prevKey != null && nextKey != null && prevKey.compareTo(nextKey) >= 0) {
+            return null;
+        }
+        return FractionalIndex.between(prevKey, nextKey);
+    }
+
+    private String appendSortKey(String maxSortKey) {
+        return FractionalIndex.between(FractionalIndex.isValid(maxSortKey) ? maxSortKey : null, null);
+    }
+
+    @Override
+    @Transactional
+    public boolean removeById(Serializable id) {
+        boolean removed = super.removeById(id);
+        this.eventPublisher.publishEvent(NavigationChangedEvent.ofCategory("category.delete"));
+        return removed;
+    }
+
 }
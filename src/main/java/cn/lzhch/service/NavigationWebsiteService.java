@@ -1,27 +1,57 @@
 package cn.lzhch.service;
 
 
-import cn.hutool.core.collection.CollUtil;
+import cn.lzhch.common.exception.ClientException;
+import cn.lzhch.common.response.ErrorCode;
+import cn.lzhch.common.response.PreSerializedBody;
+import cn.lzhch.common.util.FractionalIndex;
+import cn.lzhch.dto.navigation.BrokenLinkResDto;
+import cn.lzhch.dto.navigation.LinkStatusDto;
+import cn.lzhch.dto.navigation.SortKeyDto;
+import cn.lzhch.dto.navigation.WebsiteItemResDto;
+import cn.lzhch.dto.navigation.WebsiteMoveReqDto;
+import cn.lzhch.dto.navigation.WebsiteReorderReqDto;
+import cn.lzhch.dto.navigation.WebsiteSortReqDto;
 import cn.lzhch.dto.navigation.WebsitesByCategoryResDto;
-import cn.lzhch.entity.NavigationCategory;
 import cn.lzhch.entity.NavigationWebsite;
-import cn.lzhch.mapper.NavigationCategoryMapper;
 import cn.lzhch.mapper.NavigationWebsiteMapper;
-import com.baomidou.mybatisplus.core.toolkit.Wrappers;
+import cn.lzhch.service.navigation.NavigationChangedEvent;
+import cn.lzhch.service.navigation.NavigationClickCounter;
+import cn.lzhch.service.navigation.NavigationPopularHolder;
+import cn.lzhch.service.navigation.NavigationSearchIndex;
+import cn.lzhch.service.navigation.NavigationSnapshotHolder;
+import com.baomidou.mybatisplus.core.batch.MybatisBatch;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import jakarta.servlet.ServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.executor.BatchResult;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
 
+import java.io.Serializable;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
+import java.util.Objects;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * 导航网站服务类
  * <p>
+ * 列表和按分类分组的查询由内存中的导航快照提供，不访问数据库；网站变更后发布 {@link NavigationChangedEvent}，事务提交后重建快照
+ * <p>
  * author: lzhch
  * version: v1.0
  * date: 2025/6/16 15:16
@@ -32,7 +62,30 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class NavigationWebsiteService extends ServiceImpl<NavigationWebsiteMapper, NavigationWebsite> {
 
-    private final NavigationCategoryMapper navigationCategoryMapper;
+    private final NavigationSnapshotHolder navigationSnapshotHolder;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SqlSessionFactory sqlSessionFactory;
+    private final NavigationSearchIndex navigationSearchIndex;
+    private final NavigationClickCounter navigationClickCounter;
+    private final NavigationPopularHolder navigationPopularHolder;
+
+    /**
+     * 批量排序时使用单条 CASE WHEN 语句的最大条数，超过时改用 JDBC 批处理
+     */
+    @Value("${app.navigation.reorder.case-threshold:500}")
+    private int reorderCaseThreshold;
+
+    /**
+     * 是否按排序键（分数索引）排序
+     */
+    @Value("${app.navigation.sort-key.enabled:false}")
+    private boolean sortKeyEnabled;
+
+    /**
+     * 搜索单次返回的最大条数
+     */
+    @Value("${app.navigation.search.max-limit:50}")
+    private int searchMaxLimit;
 
     /**
      * 根据分类获取网站列表
@@ -40,30 +93,290 @@ public class NavigationWebsiteService extends ServiceImpl<NavigationWebsiteMappe
      * @return 分类下的网站列表
      */
     public List<WebsitesByCategoryResDto> listByCategory() {
-        // 获取所有分类
-        List<NavigationCategory> categoryList = this.navigationCategoryMapper.selectList(Wrappers.lambdaQuery());
-        if (CollUtil.isEmpty(categoryList)) {
+        return this.navigationSnapshotHolder.current().getWebsitesByCategory();
+    }
+
+    /**
+     * 根据分类获取网站列表（预序列化的响应体，来自请求固定使用的快照）
+     *
+     * @param request 当前请求
+     * @return 预序列化的响应体
+     */
+    public PreSerializedBody listByCategoryBody(ServletRequest request) {
+        return this.navigationSnapshotHolder.current(request).getWebsitesByCategoryBody();
+    }
+
+    /**
+     * 获取全部网站（预序列化的响应体，来自请求固定使用的快照）
+     *
+     * @param request 当前请求
+     * @return 预序列化的响应体
+     */
+    public PreSerializedBody listAllBody(ServletRequest request) {
+        return this.navigationSnapshotHolder.current(request).getWebsiteListBody();
+    }
+
+    /**
+     * 获取点击排行（预序列化的响应体，来自请求固定使用的排行）
+     *
+     * @param request 当前请求
+     * @return 预序列化的响应体
+     */
+    public PreSerializedBody listPopularBody(ServletRequest request) {
+        return this.navigationPopularHolder.current(request).getBody();
+    }
+
+    /**
+     * 记录一次网站点击，只在内存中计数，定时批量写入数据库
+     *
+     * @param id 网站 id
+     */
+    public void click(Long id) {
+        if (id != null) {
+            this.navigationClickCounter.increment(id);
+        }
+    }
+
+    /**
+     * 获取全部网站（读取导航快照）
+     *
+     * @return 网站列表
+     */
+    public List<NavigationWebsite> listAll() {
+        return this.navigationSnapshotHolder.current().getWebsiteList();
+    }
+
+    /**
+     * 搜索网站（名称、网址主机名、概览），读取内存搜索索引
+     *
+     * @param keyword 关键词
+     * @param limit   最多返回条数，超过上限时按上限返回
+     * @return 按相关度排序的网站
+     */
+    public List<WebsiteItemResDto> search(String keyword, int limit) {
+        if (!StringUtils.hasText(keyword)) {
             return Collections.emptyList();
         }
+        return this.navigationSearchIndex.search(keyword, Math.min(Math.max(limit, 1), this.searchMaxLimit));
+    }
+
+    @Override
+    @Transactional
+    public boolean save(NavigationWebsite entity) {
+        if (this.sortKeyEnabled && entity.getCategoryId() != null) {
+            // 新网站追加到类别末尾
+            entity.setSortKey(this.appendSortKey(this.baseMapper.selectMaxSortKey(entity.getCategoryId())));
+        }
+        boolean saved = super.save(entity);
+        this.eventPublisher.publishEvent(NavigationChangedEvent.ofWebsites("website.save", Collections.singletonList(entity.getId())));
+        return saved;
+    }
+
+    @Override
+    @Transactional
+    public boolean updateById(NavigationWebsite entity) {
+        boolean updated = super.updateById(entity);
+        this.eventPublisher.publishEvent(NavigationChangedEvent.ofWebsites("website.update", Collections.singletonList(entity.getId())));
+        return updated;
+    }
+
+    @Override
+    @Transactional
+    public boolean updateBatchById(Collection<NavigationWebsite> entityList) {
+        boolean updated = super.updateBatchById(entityList);
+        this.eventPublisher.publishEvent(NavigationChangedEvent.ofWebsites("website.batchUpdate",
+                entityList.stream().map(NavigationWebsite::getId).toList()));
+        return updated;
+    }
+
+    /**
+     * 批量更新网站排序（拖拽排序）
+     * <p>
+     * 只更新排序和分类两个字段，同一事务内完成：
+     * 1. 条数不超过阈值时使用单条 CASE WHEN 语句，一次往返
+     * 2. 条数较多时使用 JDBC 批处理，配合 rewriteBatchedStatements 由驱动合并发送，避免单条语句过长
+     * <p>
+     * 同一网站出现多次时以最后一次为准
+     *
+     * @param request 排序请求
+     * @return 更新行数
+     */
+    @Transactional
+    public int reorder(WebsiteReorderReqDto request) {
+        Map<Long, WebsiteSortReqDto> deduplicated = new LinkedHashMap<>();
+        for (WebsiteSortReqDto item : request.getItems()) {
+            deduplicated.put(item.getId(), item);
+        }
+        List<WebsiteSortReqDto> items = new ArrayList<>(deduplicated.values());
 
-        List<NavigationWebsite> websiteList = super.list();
-        Map<Long, List<NavigationWebsite>> websiteMap = Optional.ofNullable(websiteList)
-                .orElse(Collections.emptyList())
-                .stream()
-                .collect(Collectors.groupingBy(NavigationWebsite::getCategoryId));
+        int updated;
+        if (items.size() <= this.reorderCaseThreshold) {
+            updated = this.baseMapper.updateSortByCase(items);
+        } else {
+            List<BatchResult> results = new MybatisBatch<>(this.sqlSessionFactory, items)
+                    .execute(new MybatisBatch.Method<WebsiteSortReqDto>(NavigationWebsiteMapper.class).get("updateSort"));
+            updated = results.stream()
+                    .flatMapToInt(result -> Arrays.stream(result.getUpdateCounts()))
+                    .map(count -> count == Statement.SUCCESS_NO_INFO ? 1 : count)
+                    .sum();
+        }
 
-        return categoryList.stream()
-                .map(category -> {
-                    List<NavigationWebsite> websites = websiteMap.getOrDefault(category.getId(), Collections.emptyList());
-                    return WebsitesByCategoryResDto.builder()
-                            .id(category.getId())
-                            .categoryName(category.getCategoryName())
-                            .categorySort(category.getCategorySort())
-                            .websiteList(websites)
-                            .build();
-                })
-                .collect(Collectors.toList());
+        this.eventPublisher.publishEvent(NavigationChangedEvent.ofWebsites("website.reorder", deduplicated.keySet()));
+        return updated;
     }
 
+    /**
+     * 移动网站（排序键排序模式）
+     * <p>
+     * 在前后相邻网站的排序键之间生成新键，只改写被移动网站一行。
+     * 相邻网站尚未回填排序键或两者之间没有间隙时，先压缩该类别的排序键再重试一次
+     *
+     * @param request 移动请求
+     */
+    @Transactional
+    public void move(WebsiteMoveReqDto request) {
+        if (!this.sortKeyEnabled) {
+            throw new ClientException(ErrorCode.SORT_KEY_DISABLED);
+        }
+        if (request.getId().equals(request.getPrevId()) || request.getId().equals(request.getNextId())) {
+            throw new ClientException("网站不能相对自身移动");
+        }
+
+        String sortKey = this.sortKeyBetween(request);
+        if (sortKey == null) {
+            this.compactSortKeys(request.getCategoryId());
+            sortKey = this.sortKeyBetween(request);
+            if (sortKey == null) {
+                throw new ClientException(ErrorCode.SORT_ORDER_CHANGED);
+            }
+        }
+
+        int updated = this.baseMapper.updateSortKey(new SortKeyDto(request.getId(), request.getCategoryId(), sortKey));
+        if (updated == 0) {
+            throw new ClientException(ErrorCode.SORT_ORDER_CHANGED);
+        }
+        this.eventPublisher.publishEvent(NavigationChangedEvent.ofWebsites("website.move", List.of(request.getId())));
+    }
+
+    /**
+     * 查询存在未回填或过长排序键的类别
+     *
+     * @param maxLength 排序键最大长度
+     * @return 类别 id 列表
+     */
+    public List<Long> listCategoryIdsToCompact(int maxLength) {
+        return this.baseMapper.selectCategoryIdsToCompact(maxLength);
+    }
+
+    /**
+     * 压缩类别下的排序键：按当前展示顺序重新均匀分配最短的排序键，并回填尚无排序键的网站
+     * <p>
+     * 展示顺序不变，因此不需要重建导航快照
+     *
+     * @param categoryId 类别 id
+     * @return 改写的网站数量
+     */
+    @Transactional
+    public int compactSortKeys(Long categoryId) {
+        List<SortKeyDto> rows = this.baseMapper.selectSortKeysByCategory(categoryId);
+        List<String> keys = FractionalIndex.spread(rows.size());
+        List<SortKeyDto> changed = new ArrayList<>();
+        for (int i = 0; i < rows.size(); i++) {
+            if (!keys.get(i).equals(rows.get(i).getSortKey())) {
+                changed.add(new SortKeyDto(rows.get(i).getId(), null, keys.get(i)));
+            }
+        }
+        if (!changed.isEmpty()) {
+            new MybatisBatch<>(this.sqlSessionFactory, changed)
+                    .execute(new MybatisBatch.Method<SortKeyDto>(NavigationWebsiteMapper.class).get("updateSortKey"));
+        }
+        return changed.size();
+    }
+
+    /**
+     * 查询需要检查链接的网站（仅 id 和网址）
+     *
+     * @return 网站列表
+     */
+    public List<NavigationWebsite> listLinkTargets() {
+        return this.baseMapper.selectLinkTargets();
+    }
+
+    /**
+     * 查询最近一次检查不可访问的网站
+     *
+     * @return 网站列表（含链接状态）
+     */
+    public List<BrokenLinkResDto> listBrokenLinks() {
+        return this.baseMapper.selectBrokenLinks();
+    }
+
+    /**
+     * 批量回写链接检查结果
+     * <p>
+     * 链接状态不在首页展示，不需要重建导航快照
+     *
+     * @param results 检查结果
+     */
+    @Transactional
+    public void updateLinkStatus(List<LinkStatusDto> results) {
+        if (results.isEmpty()) {
+            return;
+        }
+        new MybatisBatch<>(this.sqlSessionFactory, results)
+                .execute(new MybatisBatch.Method<LinkStatusDto>(NavigationWebsiteMapper.class).get("updateLinkStatus"));
+    }
+
+    /**
+     * 在移动后的相邻网站之间生成排序键；相邻网站缺少排序键或顺序已颠倒时返回 null，需要压缩后重试
+     */
+    private String sortKeyBetween(WebsiteMoveReqDto request) {
+        List<Long> neighborIds = Stream.of(request.getPrevId(), request.getNextId()).filter(Objects::nonNull).toList();
+        if (neighborIds.isEmpty()) {
+            // 未指定相邻网站，追加到类别末尾
+            return this.appendSortKey(this.baseMapper.selectMaxSortKey(request.getCategoryId()));
+        }
+
+        Map<Long, SortKeyDto> neighbors = this.baseMapper.selectSortKeysByIds(neighborIds).stream()
+                .collect(Collectors.toMap(SortKeyDto::getId, Function.identity()));
+        SortKeyDto prev = this.neighbor(neighbors, request.getPrevId(), request.getCategoryId());
+        SortKeyDto next = this.neighbor(neighbors, request.getNextId(), request.getCategoryId());
+        String prevKey = prev == null ? null : prev.getSortKey();
+        String nextKey = next == null ? null : next.getSortKey();
+        if ((prev != null && !FractionalIndex.isValid(prevKey)) || (next != null && !FractionalIndex.isValid(nextKey))) {
+            return null;
+        }
+        if (prevKey != null && nextKey != null && prevKey.compareTo(nextKey) >= 0) {
+            return null;
+        }
+        return FractionalIndex.between(prevKey, nextKey);
+    }
+
+    /**
+     * 相邻网站必须存在且位于目标类别，否则说明客户端看到的排序已过期
+     */
+    private SortKeyDto neighbor(Map<Long, SortKeyDto> neighbors, Long id, Long categoryId) {
+        if (id == null) {
+            return null;
+        }
+        SortKeyDto neighbor = neighbors.get(id);
+        if (neighbor == null || !categoryId.equals(neighbor.getGroupId())) {
+            throw new ClientException(ErrorCode.SORT_ORDER_CHANGED);
+        }
+        return neighbor;
+    }
+
+    private String appendSortKey(String maxSortKey) {
+        return FractionalIndex.between(FractionalIndex.isValid(maxSortKey) ? maxSortKey : null, null);
+    }
+
+    @Override
+    @Transactional
+    public boolean removeById(Serializable id) {
+        boolean removed = super.removeById(id);
+        this.eventPublisher.publishEvent(NavigationChangedEvent.ofWebsites("website.delete",
+                removed ? List.of(Long.valueOf(id.toString())) : List.of()));
+        return removed;
+    }
 
 }
@@ -0,0 +1,164 @@
+package cn.lzhch.service;
+
+
+import cn.lzhch.entity.User;
+import cn.lzhch.mapper.UserMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+/**
+ * 用户名/邮箱可用性索引
+ * <p>
+ * 注册表单每次输入都会检查可用性，直接查询数据库会产生大量 COUNT 查询。该索引在内存中维护全部已占用名称的精确集合（统一小写），
+ * 不在集合中的名称直接判定可用，只有集合中的名称才查询 MySQL 确认。
+ * <p>
+ * 唯一索引 uk_username、uk_email 覆盖全部行，软删除的用户仍然占用其用户名和邮箱，因此集合包含已删除的用户；
+ * 删除用户时不从集合中移除，集合中多余的名称只会多一次确认查询，不会误判为已占用。
+ * 该检查仅用于表单提示，注册时仍由唯一索引最终保证不重复。
+ * 索引在应用启动完成后流式读取 user 表预热，预热完成前所有检查都回源数据库；注册和修改用户名、邮箱时增量维护。
+ * <p>
+ * author: lzhch
+ * version: v1.0
+ * date: 2026/10/17
+ */
+
+@Slf4j
+@Service
+public class UserAvailabilityIndex {
+
+    private final UserMapper userMapper;
+    private final NameIndex usernames;
+    private final NameIndex emails;
+
+    /**
+     * 预热是否完成
+     */
+    private volatile boolean ready;
+
+    public UserAvailabilityIndex(UserMapper userMapper,
+                                 @Value("${app.security.availability.expected-users:100000}") int expectedUsers) {
+        this.userMapper = userMapper;
+        this.usernames = new NameIndex(expectedUsers);
+        this.emails = new NameIndex(expectedUsers);
+    }
+
+    /**
+     * 应用启动完成后流式读取 user 表预热索引
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        long start = System.currentTimeMillis();
+        AtomicLong count = new AtomicLong();
+        try {
+            this.userMapper.streamIdentities(context -> {
+                this.add(context.getResultObject());
+                count.incrementAndGet();
+            });
+            this.ready = true;
+            log.info("用户可用性索引预热完成, 用户数: {}, 耗时: {}ms", count.get(), System.currentTimeMillis() - start);
+        } catch (Exception ex) {
+            log.error("用户可用性索引预热失败, 可用性检查将直接查询数据库", ex);
+        }
+    }
+
+    /**
+     * 检查用户名是否可用
+     *
+     * @param username 用户名
+     * @return 是否可用
+     */
+    public boolean isUsernameAvailable(String username) {
+        return this.isAvailable(this.usernames, username, this.userMapper::existsAnyByUsername);
+    }
+
+    /**
+     * 检查邮箱是否可用
+     *
+     * @param email 邮箱
+     * @return 是否可用
+     */
+    public boolean isEmailAvailable(String email) {
+        return this.isAvailable(this.emails, email, this.userMapper::existsAnyByEmail);
+    }
+
+    /**
+     * 记录已占用的用户名和邮箱
+     *
+     * @param user 用户
+     */
+    public void add(User user) {
+        if (user == null) {
+            return;
+        }
+        this.usernames.add(user.getUsername());
+        this.emails.add(user.getEmail());
+    }
+
+    /**
+     * 释放用户名和邮箱，只在用户名或邮箱被修改后调用；删除用户时不释放（软删除仍占用唯一索引）
+     *
+     * @param user 用户
+     */
+    public void remove(User user) {
+        if (user == null) {
+            return;
+        }
+        this.usernames.remove(user.getUsername());
+        this.emails.remove(user.getEmail());
+    }
+
+    private boolean isAvailable(NameIndex index, String name, Predicate<String> existsInDatabase) {
+        if (this.ready && !index.contains(name)) {
+            return true;
+        }
+        return !existsInDatabase.test(name);
+    }
+
+    /**
+     * 单个命名空间（用户名或邮箱）的索引
+     */
+    private static final class NameIndex {
+
+        private final Set<String> names;
+
+        private NameIndex(int expectedSize) {
+            this.names = ConcurrentHashMap.newKeySet(expectedSize);
+        }
+
+        private void add(String name) {
+            if (name == null) {
+                return;
+            }
+            this.names.add(normalize(name));
+        }
+
+        private void remove(String name) {
+            if (name == null) {
+                return;
+            }
+            this.names.remove(normalize(name));
+        }
+
+        private boolean contains(String name) {
+            return this.names.contains(normalize(name));
+        }
+
+        /**
+         * 统一转为小写，与数据库大小写不敏感的排序规则保持一致
+         */
+        private static String normalize(String name) {
+            return name.toLowerCase(Locale.ROOT);
+        }
+
+    }
+
+}
@@ -0,0 +1,191 @@
+package cn.lzhch.service.export;
+
+import cn.lzhch.entity.DailyLifeRecords;
+import cn.lzhch.mapper.DailyLifeRecordsMapper;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.cursor.Cursor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 日常生活记录导出器
+ * <p>
+ * 通过 MyBatis {@link Cursor} 逐行读取（驱动流式结果集，不把整表读入内存），读一行写一行，
+ * 内存占用与导出行数无关。游标只在事务（会话）打开期间有效，整个导出在一个只读事务中完成
+ * <p>
+ * author: lzhch
+ * version: v1.0
+ * date: 2026/10/17
+ */
+
+@Slf4j
+@Component
+public class DailyLifeRecordsExporter {
+
+    private static final String[] CSV_HEADER = {"id", "content", "createBy", "createTime", "updateBy", "updateTime", "remark"};
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final DailyLifeRecordsMapper dailyLifeRecordsMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectWriter objectWriter;
+
+    public DailyLifeRecordsExporter(DailyLifeRecordsMapper dailyLifeRecordsMapper,
+                                    PlatformTransactionManager transactionManager,
+                                    ObjectMapper objectMapper) {
+        this.dailyLifeRecordsMapper = dailyLifeRecordsMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.objectWriter = objectWriter(objectMapper);
+    }
+
+    /**
+     * 导出全部未删除的记录
+     *
+     * @param format 导出格式
+     * @param gzip   是否 gzip 压缩
+     * @param output 输出流（不会被关闭）
+     * @return 导出行数
+     */
+    public long export(ExportFormat format, boolean gzip, OutputStream output) {
+        long start = System.currentTimeMillis();
+        Long rows = this.transactionTemplate.execute(status -> {
+            try (Cursor<DailyLifeRecords> cursor = this.dailyLifeRecordsMapper.selectForExport()) {
+                return write(this.objectWriter, format, gzip, cursor, output);
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        });
+        log.info("日常生活记录已导出, 格式: {}, gzip: {}, 行数: {}, 耗时: {}ms",
+                format, gzip, rows, System.currentTimeMillis() - start);
+        return rows == null ? 0 : rows;
+    }
+
+    /**
+     * 逐行写出记录
+     *
+     * @param objectWriter NDJSON 使用的序列化器
+     * @param format       导出格式
+     * @param gzip         是否 gzip 压缩
+     * @param records      记录（逐个迭代，不要求全部在内存中）
+     * @param output       输出流（不会被关闭）
+     * @return 写出行数
+     * @throws IOException 写出失败（如客户端断开）
+     */
+    static long write(ObjectWriter objectWriter, ExportFormat format, boolean gzip,
+                      Iterable<DailyLifeRecords> records, OutputStream output) throws IOException {
+        OutputStream target = new NonClosingOutputStream(output);
+        if (gzip) {
+            target = new GZIPOutputStream(target, BUFFER_SIZE);
+        }
+
+        long rows = 0;
+        if (format == ExportFormat.NDJSON) {
+            try (JsonGenerator generator = objectWriter.getFactory().createGenerator(target)) {
+                generator.setRootValueSeparator(null);
+                for (DailyLifeRecords record : records) {
+                    objectWriter.writeValue(generator, record);
+                    generator.writeRaw('\n');
+                    rows++;
+                }
+            }
+        } else {
+            try (Writer writer = new BufferedWriter(new OutputStreamWriter(target, StandardCharsets.UTF_8), BUFFER_SIZE)) {
+                writer.write('\uFEFF'); // BOM
+                writeCsvRow(writer, CSV_HEADER);
+                for (DailyLifeRecords record : records) {
+                    writeCsvRow(writer, String.valueOf(record.getId()), record.getContent(), record.getCreateBy(),
+                            format(record.getCreateTime()), record.getUpdateBy(), format(record.getUpdateTime()),
+                            record.getRemark());
+                    rows++;
+                }
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * NDJSON 序列化器：沿用应用的 ObjectMapper 配置（日期格式、id 转字符串等），每行不单独 flush
+     *
+     * @param objectMapper 应用的 ObjectMapper
+     * @return 序列化器
+     */
+    static ObjectWriter objectWriter(ObjectMapper objectMapper) {
+        return objectMapper.writerFor(DailyLifeRecords.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .without(SerializationFeature.INDENT_OUTPUT);
+    }
+
+    private static void writeCsvRow(Writer writer, String... values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writeCsvValue(writer, values[i]);
+        }
+        writer.write("\r\n");
+    }
+
+    /**
+     * 写出 CSV 字段：包含逗号、引号或换行时加引号，引号双写
+     */
+    private static void writeCsvValue(Writer writer, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    private static String format(LocalDateTime time) {
+        return time == null ? null : time.toString();
+    }
+
+    /**
+     * 关闭时只 flush 不关闭底层流：gzip 和 Writer 需要关闭才能写完尾部，响应流由容器关闭
+     */
+    private static final class NonClosingOutputStream extends FilterOutputStream {
+
+        private NonClosingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            this.out.write(b, off, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            this.flush();
+        }
+
+    }
+
+}
@@ -0,0 +1,49 @@
+package cn.lzhch.service.export;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Locale;
+
+/**
+ * 导出格式
+ * <p>
+ * author: lzhch
+ * version: v1.0
+ * date: 2026/10/17
+ */
+
+@Getter
+@AllArgsConstructor
+public enum ExportFormat {
+
+    /**
+     * 每行一个 JSON 对象，可逐行解析
+     */
+    NDJSON("application/x-ndjson", "ndjson"),
+
+    /**
+     * RFC 4180 CSV，带 UTF-8 BOM 以便 Excel 正确识别中文
+     */
+    CSV("text/csv", "csv");
+
+    private final String contentType;
+
+    private final String extension;
+
+    /**
+     * 按名称解析导出格式（忽略大小写）
+     *
+     * @param name 格式名称
+     * @return 导出格式，不支持时返回 null
+     */
+    public static ExportFormat of(String name) {
+        for (ExportFormat format : values()) {
+            if (format.name().equals(name.toUpperCase(Locale.ROOT))) {
+                return format;
+            }
+        }
+        return null;
+    }
+
+}
@@ -0,0 +1,80 @@
+package cn.lzhch.service.icon;
+
+import cn.lzhch.common.util.OutboundHttp;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+/**
+ * 基于 JDK HttpClient 的图标下载器
+ * <p>
+ * 只允许 http/https，限制超时和响应大小，避免异常的图标地址拖慢或撑爆下载线程；
+ * 图标地址由用户提交，只访问公网地址，重定向逐跳校验，见 {@link OutboundHttp}
+ * <p>
+ * author: lzhch
+ * version: v1.0
+ * date: 2026/10/17
+ */
+
+@Component
+public class HttpIconFetcher implements IconFetcher {
+
+    private final HttpClient httpClient;
+    private final Duration timeout;
+    private final int maxBytes;
+
+    public HttpIconFetcher(@Value("${app.navigation.icon.fetch-timeout:5}") long timeoutInSeconds,
+                           @Value("${app.navigation.icon.max-bytes:262144}") int maxBytes) {
+        this.timeout = Duration.ofSeconds(timeoutInSeconds);
+        this.maxBytes = maxBytes;
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(this.timeout)
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .build();
+    }
+
+    @Override
+    public byte[] fetch(String url) throws IOException {
+        URI uri = OutboundHttp.parse(url);
+        if (uri == null) {
+            throw new IOException("Unsupported icon url: " + url);
+        }
+
+        HttpResponse<InputStream> response;
+        try {
+            response = OutboundHttp.send(this.httpClient, uri, target -> HttpRequest.newBuilder(target)
+                    .timeout(this.timeout)
+                    .header("Accept", "image/*")
+                    .GET()
+                    .build(), HttpResponse.BodyHandlers.ofInputStream(), OutboundHttp::isPublic);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while fetching icon: " + url, ex);
+        }
+
+        try (InputStream body = response.body()) {
+            if (response.statusCode() != 200) {
+                throw new IOException("Unexpected status " + response.statusCode() + " for icon: " + url);
+            }
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = body.read(buffer)) != -1) {
+                if (output.size() + read > this.maxBytes) {
+                    throw new IOException("Icon larger than " + this.maxBytes + " bytes: " + url);
+                }
+                output.write(buffer, 0, read);
+            }
+            return output.toByteArray();
+        }
+    }
+
+}
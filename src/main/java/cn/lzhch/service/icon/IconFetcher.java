@@ -0,0 +1,27 @@
+package cn.lzhch.service.icon;
+
+import java.io.IOException;
+
+/**
+ * 图标下载器
+ * <p>
+ * 从网站图标地址下载原始字节，由 {@link IconStore} 识别格式并按内容哈希存储；测试中可替换为本地实现
+ * <p>
+ * author: lzhch
+ * version: v1.0
+ * date: 2026/10/17
+ */
+
+@FunctionalInterface
+public interface IconFetcher {
+
+    /**
+     * 下载图标
+     *
+     * @param url 图标地址
+     * @return 图标内容
+     * @throws IOException 下载失败、响应状态异常或内容过大
+     */
+    byte[] fetch(String url) throws IOException;
+
+}
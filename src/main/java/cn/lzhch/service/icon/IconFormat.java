@@ -0,0 +1,114 @@
+package cn.lzhch.service.icon;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+/**
+ * 图标格式
+ * <p>
+ * 按文件头识别格式，不信任远程服务器返回的 Content-Type；无法识别的内容不会写入图标仓库
+ * <p>
+ * author: lzhch
+ * version: v1.0
+ * date: 2026/10/17
+ */
+
+public enum IconFormat {
+
+    PNG("png", "image/png", true),
+    JPEG("jpg", "image/jpeg", true),
+    GIF("gif", "image/gif", true),
+    ICO("ico", "image/x-icon", false),
+    WEBP("webp", "image/webp", false),
+    SVG("svg", "image/svg+xml", false);
+
+    /**
+     * 文件扩展名
+     */
+    private final String extension;
+
+    /**
+     * 响应的 Content-Type
+     */
+    private final String contentType;
+
+    /**
+     * 是否可以由 ImageIO 解码并合入雪碧图
+     */
+    private final boolean raster;
+
+    IconFormat(String extension, String contentType, boolean raster) {
+        this.extension = extension;
+        this.contentType = contentType;
+        this.raster = raster;
+    }
+
+    public String getExtension() {
+        return this.extension;
+    }
+
+    public String getContentType() {
+        return this.contentType;
+    }
+
+    public boolean isRaster() {
+        return this.raster;
+    }
+
+    /**
+     * 按文件头识别格式
+     *
+     * @param bytes 文件内容
+     * @return 格式，无法识别时返回 null
+     */
+    public static IconFormat sniff(byte[] bytes) {
+        if (startsWith(bytes, 0, 0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A)) {
+            return PNG;
+        }
+        if (startsWith(bytes, 0, 0xFF, 0xD8, 0xFF)) {
+            return JPEG;
+        }
+        if (startsWith(bytes, 0, 'G', 'I', 'F', '8')) {
+            return GIF;
+        }
+        if (startsWith(bytes, 0, 0x00, 0x00, 0x01, 0x00)) {
+            return ICO;
+        }
+        if (startsWith(bytes, 0, 'R', 'I', 'F', 'F') && startsWith(bytes, 8, 'W', 'E', 'B', 'P')) {
+            return WEBP;
+        }
+        String head = new String(bytes, 0, Math.min(bytes.length, 512), StandardCharsets.UTF_8).trim().toLowerCase(Locale.ROOT);
+        if (head.startsWith("<svg") || (head.startsWith("<?xml") && head.contains("<svg"))) {
+            return SVG;
+        }
+        return null;
+    }
+
+    /**
+     * 按扩展名查找格式
+     *
+     * @param extension 扩展名
+     * @return 格式，不支持时返回 null
+     */
+    public static IconFormat fromExtension(String extension) {
+        for (IconFormat format : values()) {
+            if (format.extension.equals(extension)) {
+                return format;
+            }
+        }
+        return null;
+    }
+
+    private static boolean startsWith(byte[] bytes, int offset, int... prefix) {
+        if (bytes.length < offset + prefix.length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if ((bytes[offset + i] & 0xFF) != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+}
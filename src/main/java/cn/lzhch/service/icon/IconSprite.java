@@ -0,0 +1,90 @@
+package cn.lzhch.service.icon;
+
+import javax.imageio.ImageIO;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 图标雪碧图
+ * <p>
+ * 把一个分类下的图标缩放到统一尺寸后横向拼成一张 PNG，前端按 background-position: -index * size 取图，
+ * 一个分类只需一次图片请求。无法解码的图标不合入，前端回退到单独的图标地址
+ * <p>
+ * author: lzhch
+ * version: v1.0
+ * date: 2026/10/17
+ *
+ * @param image   雪碧图本身（同样按内容哈希存储）
+ * @param size    每个图标的边长（像素）
+ * @param indexes 图标哈希 -> 在雪碧图中的序号
+ */
+public record IconSprite(StoredIcon image, int size, Map<String, Integer> indexes) {
+
+    /**
+     * 拼接雪碧图
+     *
+     * @param icons 图标哈希 -> 图标内容（按展示顺序）
+     * @param size  每个图标的边长（像素）
+     * @return PNG 内容和序号；可解码的图标少于两个时返回 null
+     * @throws IOException 编码失败
+     */
+    static Rendered render(Map<String, byte[]> icons, int size) throws IOException {
+        Map<String, BufferedImage> images = new LinkedHashMap<>();
+        for (Map.Entry<String, byte[]> entry : icons.entrySet()) {
+            BufferedImage image = ImageIO.read(new ByteArrayInputStream(entry.getValue()));
+            if (image != null) {
+                images.put(entry.getKey(), image);
+            }
+        }
+        if (images.size() < 2) {
+            return null;
+        }
+
+        BufferedImage sprite = new BufferedImage(size * images.size(), size, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = sprite.createGraphics();
+        Map<String, Integer> indexes = new LinkedHashMap<>();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            int index = 0;
+            for (Map.Entry<String, BufferedImage> entry : images.entrySet()) {
+                graphics.drawImage(entry.getValue(), index * size, 0, size, size, null);
+                indexes.put(entry.getKey(), index++);
+            }
+        } finally {
+            graphics.dispose();
+        }
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ImageIO.write(sprite, IconFormat.PNG.getExtension(), output);
+        return new Rendered(output.toByteArray(), indexes);
+    }
+
+    /**
+     * 雪碧图在分类中的序号
+     *
+     * @param icon 图标
+     * @return 序号，未合入时返回 null
+     */
+    public Integer indexOf(StoredIcon icon) {
+        return this.indexes.get(icon.hash());
+    }
+
+    /**
+     * 拼接结果：PNG 内容和序号
+     */
+    record Rendered(byte[] png, Map<String, Integer> indexes) {
+
+        Rendered {
+            indexes = Map.copyOf(indexes);
+        }
+
+    }
+
+}
@@ -0,0 +1,374 @@
+package cn.lzhch.service.icon;
+
+import cn.lzhch.entity.NavigationWebsite;
+import cn.lzhch.mapper.NavigationWebsiteMapper;
+import cn.lzhch.service.navigation.NavigationChangedEvent;
+import com.baomidou.mybatisplus.core.toolkit.Wrappers;
+import com.google.common.hash.Hashing;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.StringUtils;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * 本地图标仓库
+ * <p>
+ * 网站图标（siteIcon 保存的是第三方地址）下载后按内容的 SHA-256 存到本地磁盘，相同内容只存一份，文件内容永不改变，
+ * 可以配合长期缓存头直接由 {@code IconController} 返回，页面不再向几十个第三方站点请求图标。
+ * <p>
+ * 1. 目录结构：{dir}/{哈希前两位}/{哈希}.{扩展名}
+ * 2. 图标地址到内容哈希的映射追加写入 {dir}/index.log，启动时回放（后写覆盖先写）并压缩
+ * 3. 开启下载（app.navigation.icon.enabled）时，应用启动和网站变更的事务提交后在后台线程下载尚未缓存的图标；
+ *    下载到新图标后发布导航变更事件，让快照带上本地地址。关闭时只使用已缓存的图标，不访问外部地址
+ * 4. 下载失败的地址在重试间隔内不再尝试
+ * <p>
+ * author: lzhch
+ * version: v1.0
+ * date: 2026/10/17
+ */
+
+@Slf4j
+@Component
+public class IconStore {
+
+    private static final Pattern FILE_NAME = Pattern.compile("([0-9a-f]{64})\\.([a-z]{3,4})");
+    private static final String INDEX_FILE = "index.log";
+    private static final String DELETED = "1";
+    private static final int MAX_CACHED_SPRITES = 1024;
+
+    private final IconFetcher iconFetcher;
+    private final NavigationWebsiteMapper navigationWebsiteMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Path dir;
+    private final Path indexFile;
+    private final long retryIntervalInMillis;
+    private final boolean enabled;
+    private final ExecutorService executor;
+
+    /**
+     * 图标地址 -> 已存储的图标
+     */
+    private final Map<String, StoredIcon> iconsByUrl = new ConcurrentHashMap<>();
+
+    /**
+     * 下载失败的图标地址 -> 允许重试的时间
+     */
+    private final Map<String, Long> failedUntil = new ConcurrentHashMap<>();
+
+    /**
+     * 正在下载的图标地址，避免重复下载
+     */
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 雪碧图缓存：尺寸和成员哈希 -> 雪碧图，成员不变时直接复用
+     */
+    private final Map<String, Optional<IconSprite>> sprites = new ConcurrentHashMap<>();
+
+    /**
+     * 索引追加写入器，写入和压缩都在 this 上同步
+     */
+    private BufferedWriter writer;
+
+    public IconStore(IconFetcher iconFetcher, NavigationWebsiteMapper navigationWebsiteMapper,
+                     ApplicationEventPublisher eventPublisher,
+                     @Value("${app.navigation.icon.dir:data/icons}") String dir,
+                     @Value("${app.navigation.icon.fetch-threads:4}") int fetchThreads,
+                     @Value("${app.navigation.icon.retry-interval:3600}") long retryIntervalInSeconds,
+                     @Value("${app.navigation.icon.enabled:false}") boolean enabled) {
+        this.iconFetcher = iconFetcher;
+        this.navigationWebsiteMapper = navigationWebsiteMapper;
+        this.eventPublisher = eventPublisher;
+        this.dir = Path.of(dir).toAbsolutePath().normalize();
+        this.indexFile = this.dir.resolve(INDEX_FILE);
+        this.retryIntervalInMillis = TimeUnit.SECONDS.toMillis(retryIntervalInSeconds);
+        this.enabled = enabled;
+        this.executor = Executors.newFixedThreadPool(Math.max(fetchThreads, 1),
+                new ThreadFactoryBuilder().setNameFormat("icon-fetch-%d").setDaemon(true).build());
+    }
+
+    /**
+     * 回放图标索引，文件已丢失的条目丢弃，然后压缩索引
+     *
+     * @throws IOException 读写索引失败
+     */
+    @PostConstruct
+    public synchronized void init() throws IOException {
+        Files.createDirectories(this.dir);
+        if (Files.exists(this.indexFile)) {
+            List<String> lines = Files.readAllLines(this.indexFile, StandardCharsets.UTF_8);
+            for (String line : lines) {
+                int separator = line.lastIndexOf('\t');
+                if (separator <= 0) {
+                    continue;
+                }
+                StoredIcon icon = this.parse(line.substring(separator + 1));
+                if (icon != null && Files.exists(this.pathOf(icon))) {
+                    this.iconsByUrl.put(line.substring(0, separator), icon);
+                }
+            }
+            log.info("图标索引已恢复, 文件条目数: {}, 有效条目数: {}", lines.size(), this.iconsByUrl.size());
+        }
+        this.compact();
+    }
+
+    @PreDestroy
+    public synchronized void close() throws IOException {
+        this.executor.shutdownNow();
+        if (this.writer != null) {
+            this.writer.close();
+        }
+    }
+
+    /**
+     * 查找图标地址对应的本地图标
+     *
+     * @param url 图标地址
+     * @return 本地图标，尚未缓存时为空
+     */
+    public Optional<StoredIcon> lookup(String url) {
+        return StringUtils.hasText(url) ? Optional.ofNullable(this.iconsByUrl.get(url.trim())) : Optional.empty();
+    }
+
+    /**
+     * 按文件名解析本地图标文件
+     *
+     * @param fileName 文件名（哈希加扩展名）
+     * @return 图标和文件路径，文件名不合法或文件不存在时为空
+     */
+    public Optional<Map.Entry<StoredIcon, Path>> resolve(String fileName) {
+        StoredIcon icon = this.parse(fileName);
+        if (icon == null) {
+            return Optional.empty();
+        }
+        Path path = this.pathOf(icon);
+        return Files.isRegularFile(path) ? Optional.of(Map.entry(icon, path)) : Optional.empty();
+    }
+
+    /**
+     * 按内容哈希存储图标，内容已存在时直接返回
+     *
+     * @param bytes 图标内容
+     * @return 已存储的图标
+     * @throws IOException 内容不是支持的图片格式或写入失败
+     */
+    public StoredIcon store(byte[] bytes) throws IOException {
+        IconFormat format = IconFormat.sniff(bytes);
+        if (format == null) {
+            throw new IOException("Unsupported icon content");
+        }
+
+        StoredIcon icon = new StoredIcon(Hashing.sha256().hashBytes(bytes).toString(), format);
+        Path path = this.pathOf(icon);
+        if (!Files.exists(path)) {
+            Files.createDirectories(path.getParent());
+            // 先写临时文件再原子改名，读取方不会看到写了一半的文件
+            Path temp = Files.createTempFile(path.getParent(), icon.hash(), ".tmp");
+            try {
+                Files.write(temp, bytes);
+                Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        }
+        return icon;
+    }
+
+    /**
+     * 下载图标并记录地址映射
+     *
+     * @param url 图标地址
+     * @return 已存储的图标
+     * @throws IOException 下载或存储失败
+     */
+    public StoredIcon fetch(String url) throws IOException {
+        String key = url.trim();
+        if (key.indexOf('\n') >= 0 || key.indexOf('\r') >= 0 || key.indexOf('\t') >= 0) {
+            throw new IOException("Malformed icon url");
+        }
+        StoredIcon icon = this.store(this.iconFetcher.fetch(key));
+        synchronized (this) {
+            this.iconsByUrl.put(key, icon);
+            this.writer.write(key + '\t' + icon.fileName());
+            this.writer.newLine();
+            this.writer.flush();
+        }
+        return icon;
+    }
+
+    /**
+     * 获取一组图标的雪碧图，成员不变时复用已生成的雪碧图
+     *
+     * @param icons 图标（按展示顺序，只合入可解码的格式）
+     * @param size  每个图标的边长（像素）
+     * @return 雪碧图，可合入的图标少于两个时为空
+     */
+    public Optional<IconSprite> sprite(Collection<StoredIcon> icons, int size) {
+        List<StoredIcon> members = icons.stream().filter(icon -> icon.format().isRaster()).distinct().toList();
+        if (members.size() < 2) {
+            return Optional.empty();
+        }
+        String key = size + ":" + members.stream().map(StoredIcon::hash).collect(Collectors.joining(","));
+        if (this.sprites.size() > MAX_CACHED_SPRITES && !this.sprites.containsKey(key)) {
+            this.sprites.clear(); // 分类成员变化后旧雪碧图不再使用，文件仍保留在磁盘上供已缓存的页面访问
+        }
+        return this.sprites.computeIfAbsent(key, ignored -> this.renderSprite(members, size));
+    }
+
+    /**
+     * 应用启动完成后在后台下载全部尚未缓存的图标
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (this.enabled) {
+            this.submit(null);
+        }
+    }
+
+    /**
+     * 网站变更的事务提交后在后台下载受影响网站的新图标
+     *
+     * @param event 导航数据变更事件
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onNavigationChanged(NavigationChangedEvent event) {
+        if (this.enabled && (event.websiteIds() == null || !event.websiteIds().isEmpty())) {
+            this.submit(event.websiteIds());
+        }
+    }
+
+    /**
+     * 下载网站中尚未缓存的图标
+     *
+     * @param websites 网站
+     * @return 新下载的图标数量
+     */
+    public int fetchMissing(Collection<NavigationWebsite> websites) {
+        long now = System.currentTimeMillis();
+        int fetched = 0;
+        for (String url : websites.stream()
+                .filter(website -> !DELETED.equals(website.getDelFlag()))
+                .map(NavigationWebsite::getSiteIcon)
+                .filter(StringUtils::hasText)
+                .map(String::trim)
+                .distinct()
+                .toList()) {
+            if (this.iconsByUrl.containsKey(url) || this.failedUntil.getOrDefault(url, 0L) > now || !this.pending.add(url)) {
+                continue;
+            }
+            try {
+                this.fetch(url);
+                this.failedUntil.remove(url);
+                fetched++;
+            } catch (Exception ex) {
+                this.failedUntil.put(url, now + this.retryIntervalInMillis);
+                log.warn("下载网站图标失败: {}, 原因: {}", url, ex.getMessage());
+            } finally {
+                this.pending.remove(url);
+            }
+        }
+        return fetched;
+    }
+
+    /**
+     * 提交后台下载任务：websiteIds 为 null 时检查全部网站
+     */
+    private void submit(Collection<Long> websiteIds) {
+        try {
+            this.executor.execute(() -> {
+                try {
+                    List<NavigationWebsite> websites = websiteIds == null
+                            ? this.navigationWebsiteMapper.selectList(Wrappers.lambdaQuery())
+                            : this.navigationWebsiteMapper.selectByIds(websiteIds);
+                    int fetched = this.fetchMissing(Optional.ofNullable(websites).orElse(Collections.emptyList()));
+                    if (fetched > 0) {
+                        log.info("已下载网站图标: {} 个", fetched);
+                        // 不涉及网站数据本身，只需重建快照带上本地图标地址
+                        this.eventPublisher.publishEvent(new NavigationChangedEvent("icon.fetched", List.of()));
+                    }
+                } catch (Exception ex) {
+                    log.error("下载网站图标任务失败", ex);
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            log.warn("图标下载线程池已关闭, 忽略下载任务");
+        }
+    }
+
+    private Optional<IconSprite> renderSprite(List<StoredIcon> members, int size) {
+        try {
+            Map<String, byte[]> contents = new LinkedHashMap<>();
+            for (StoredIcon icon : members) {
+                contents.put(icon.hash(), Files.readAllBytes(this.pathOf(icon)));
+            }
+            IconSprite.Rendered rendered = IconSprite.render(contents, size);
+            return rendered == null
+                    ? Optional.empty()
+                    : Optional.of(new IconSprite(this.store(rendered.png()), size, rendered.indexes()));
+        } catch (IOException ex) {
+            log.warn("生成图标雪碧图失败: {}", ex.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private StoredIcon parse(String fileName) {
+        Matcher matcher = FILE_NAME.matcher(fileName);
+        if (!matcher.matches()) {
+            return null;
+        }
+        IconFormat format = IconFormat.fromExtension(matcher.group(2));
+        return format == null ? null : new StoredIcon(matcher.group(1), format);
+    }
+
+    private Path pathOf(StoredIcon icon) {
+        return this.dir.resolve(icon.hash().substring(0, 2)).resolve(icon.fileName());
+    }
+
+    private void compact() throws IOException {
+        if (this.writer != null) {
+            this.writer.close();
+        }
+
+        Path temp = this.indexFile.resolveSibling(INDEX_FILE + ".tmp");
+        try (BufferedWriter out = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            for (Map.Entry<String, StoredIcon> entry : this.iconsByUrl.entrySet()) {
+                out.write(entry.getKey() + '\t' + entry.getValue().fileName());
+                out.newLine();
+            }
+        }
+        Files.move(temp, this.indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        this.writer = Files.newBufferedWriter(this.indexFile, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+}
@@ -0,0 +1,38 @@
+package cn.lzhch.service.icon;
+
+/**
+ * 已存储的图标
+ * <p>
+ * author: lzhch
+ * version: v1.0
+ * date: 2026/10/17
+ *
+ * @param hash   内容的 SHA-256（十六进制小写）
+ * @param format 图标格式
+ */
+public record StoredIcon(String hash, IconFormat format) {
+
+    /**
+     * 访问路径前缀，与 {@code IconController} 的映射一致
+     */
+    public static final String URL_PREFIX = "/api/icons/";
+
+    /**
+     * 文件名：哈希加扩展名
+     *
+     * @return 文件名
+     */
+    public String fileName() {
+        return this.hash + '.' + this.format.getExtension();
+    }
+
+    /**
+     * 访问路径
+     *
+     * @return 访问路径
+     */
+    public String url() {
+        return URL_PREFIX + this.fileName();
+    }
+
+}
@@ -1,12 +1,48 @@
 package cn.lzhch.service.impl;
 
 
+import cn.lzhch.common.dto.CursorPage;
+import cn.lzhch.common.exception.ClientException;
+import cn.lzhch.common.util.KeysetCursor;
+import cn.lzhch.dto.record.RecordSearchHitDto;
+import cn.lzhch.dto.record.RecordSearchResDto;
+import cn.lzhch.dto.record.RecordStatsBucketDto;
+import cn.lzhch.dto.record.RecordStatsResDto;
+import cn.lzhch.entity.DailyLifeRecordStats;
 import cn.lzhch.entity.DailyLifeRecords;
 import cn.lzhch.mapper.DailyLifeRecordsMapper;
 import cn.lzhch.service.IDailyLifeRecordsService;
+import cn.lzhch.service.search.DailyLifeRecordsChangedEvent;
+import cn.lzhch.service.search.RecordHighlighter;
+import cn.lzhch.service.search.RecordSearchIndex;
+import cn.lzhch.service.stats.RecordStatsRollup;
+import cn.lzhch.service.stats.StatsGranularity;
+import com.baomidou.mybatisplus.core.metadata.IPage;
+import com.baomidou.mybatisplus.core.toolkit.Wrappers;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * 日常生活记录表 ServiceImpl
@@ -18,5 +54,207 @@ import org.springframework.stereotype.Service;
 
 @Slf4j
 @Service
+@RequiredArgsConstructor
 public class DailyLifeRecordsServiceImpl extends ServiceImpl<DailyLifeRecordsMapper, DailyLifeRecords> implements IDailyLifeRecordsService {
+
+    /**
+     * 搜索摘要的最大长度
+     */
+    private static final int SNIPPET_LENGTH = 120;
+
+    /**
+     * 单次统计的最大天数（约十年）
+     */
+    private static final int MAX_STATS_DAYS = 3660;
+
+    private final RecordSearchIndex recordSearchIndex;
+    private final RecordStatsRollup recordStatsRollup;
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    /**
+     * 单页最大条数
+     */
+    @Value("${app.page.max-size:100}")
+    private int maxPageSize;
+
+    @Override
+    public CursorPage<DailyLifeRecords> listByCursor(String cursor, int size) {
+        int limit = this.pageSize(size);
+        KeysetCursor after = StringUtils.hasText(cursor) ? KeysetCursor.decode(cursor) : null;
+        // 多取一条判断是否还有下一页，不需要 COUNT
+        List<DailyLifeRecords> records = this.baseMapper.selectAfter(after, limit + 1);
+        boolean hasMore = records.size() > limit;
+        if (hasMore) {
+            records = records.subList(0, limit);
+        }
+
+        String nextCursor = null;
+        if (hasMore) {
+            DailyLifeRecords last = records.get(records.size() - 1);
+            nextCursor = new KeysetCursor(last.getCreateTime(), last.getId()).encode();
+        }
+        return new CursorPage<>(records, nextCursor, hasMore);
+    }
+
+    @Override
+    public IPage<DailyLifeRecords> listByPage(long current, int size, boolean searchCount) {
+        Page<DailyLifeRecords> page = new Page<>(Math.max(current, 1), this.pageSize(size), searchCount);
+        return this.baseMapper.selectByPage(page, Wrappers.<DailyLifeRecords>lambdaQuery()
+                .eq(DailyLifeRecords::getDelFlag, "0")
+                .orderByDesc(DailyLifeRecords::getCreateTime)
+                .orderByDesc(DailyLifeRecords::getId));
+    }
+
+    @Override
+    public RecordSearchResDto search(String query, int size) {
+        long start = System.currentTimeMillis();
+        RecordSearchIndex.SearchResult result = this.recordSearchIndex.search(query, this.pageSize(size));
+        List<RecordSearchHitDto> hits = new ArrayList<>(result.hits().size());
+        if (!result.hits().isEmpty()) {
+            List<Long> ids = result.hits().stream().map(RecordSearchIndex.Hit::id).toList();
+            Map<Long, DailyLifeRecords> records = this.baseMapper.selectByIds(ids).stream()
+                    .collect(Collectors.toMap(DailyLifeRecords::getId, Function.identity()));
+            for (RecordSearchIndex.Hit hit : result.hits()) {
+                DailyLifeRecords record = records.get(hit.id());
+                if (record == null || !"0".equals(record.getDelFlag())) {
+                    continue; // 删除尚未同步到索引
+                }
+                hits.add(RecordSearchHitDto.builder()
+                        .id(record.getId())
+                        .snippet(RecordHighlighter.snippet(record.getContent(), query, SNIPPET_LENGTH))
+                        .score(hit.score())
+                        .createTime(record.getCreateTime())
+                        .build());
+            }
+        }
+        return RecordSearchResDto.builder()
+                .total(result.total())
+                .took(System.currentTimeMillis() - start)
+                .hits(hits)
+                .build();
+    }
+
+    @Override
+    public RecordStatsResDto statistics(LocalDate from, LocalDate to, StatsGranularity granularity) {
+        if (from.isAfter(to)) {
+            throw new ClientException("开始日期不能晚于结束日期");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_STATS_DAYS) {
+            throw new ClientException("统计范围不能超过 " + MAX_STATS_DAYS + " 天");
+        }
+
+        // 先铺满范围内的全部周期，没有记录的周期为 0
+        Map<LocalDate, Integer> buckets = new LinkedHashMap<>();
+        for (LocalDate date = granularity.start(from); !date.isAfter(to); date = granularity.next(date)) {
+            buckets.put(date, 0);
+        }
+        long total = 0;
+        for (DailyLifeRecordStats stats : this.recordStatsRollup.daily(from, to)) {
+            int count = Math.max(stats.getRecordCount(), 0);
+            buckets.merge(granularity.start(stats.getStatDate()), count, Integer::sum);
+            total += count;
+        }
+
+        List<RecordStatsBucketDto> list = new ArrayList<>(buckets.size());
+        int max = 0;
+        for (Map.Entry<LocalDate, Integer> entry : buckets.entrySet()) {
+            list.add(new RecordStatsBucketDto(entry.getKey(), entry.getValue()));
+            max = Math.max(max, entry.getValue());
+        }
+        return RecordStatsResDto.builder()
+                .granularity(granularity.name().toLowerCase(Locale.ROOT))
+                .from(from)
+                .to(to)
+                .total(total)
+                .max(max)
+                .buckets(list)
+                .build();
+    }
+
+    /*
+     * 以下写操作在同一事务中维护按天统计，成功后发布变更事件，事务提交后全文检索索引按 id 增量更新
+     */
+
+    @Override
+    @Transactional
+    public boolean save(DailyLifeRecords entity) {
+        return this.changed("save", Collections.singletonList(entity), () -> super.save(entity));
+    }
+
+    @Override
+    @Transactional
+    public boolean saveBatch(Collection<DailyLifeRecords> entityList, int batchSize) {
+        return this.changed("saveBatch", entityList, () -> super.saveBatch(entityList, batchSize));
+    }
+
+    @Override
+    @Transactional
+    public boolean saveOrUpdateBatch(Collection<DailyLifeRecords> entityList, int batchSize) {
+        return this.changed("saveOrUpdateBatch", entityList, () -> super.saveOrUpdateBatch(entityList, batchSize));
+    }
+
+    @Override
+    @Transactional
+    public boolean updateById(DailyLifeRecords entity) {
+        return this.changed("updateById", Collections.singletonList(entity), () -> super.updateById(entity));
+    }
+
+    @Override
+    @Transactional
+    public boolean updateBatchById(Collection<DailyLifeRecords> entityList, int batchSize) {
+        return this.changed("updateBatchById", entityList, () -> super.updateBatchById(entityList, batchSize));
+    }
+
+    @Override
+    @Transactional
+    public boolean removeById(Serializable id) {
+        return this.changed("removeById", Collections.singletonList(id), () -> super.removeById(id));
+    }
+
+    @Override
+    @Transactional
+    public boolean removeById(DailyLifeRecords entity) {
+        return this.changed("removeById", Collections.singletonList(entity), () -> super.removeById(entity));
+    }
+
+    @Override
+    @Transactional
+    public boolean removeByIds(Collection<?> list) {
+        return this.changed("removeByIds", list, () -> super.removeByIds(list));
+    }
+
+    /**
+     * 执行写入：写入前后各读一次受影响记录的创建日期并累加差值到统计表，成功后发布变更事件
+     * <p>
+     * 新增的记录写入前没有 id，写入后由 MybatisPlus 回填，因此写入后重新取 id
+     */
+    private boolean changed(String source, Collection<?> list, BooleanSupplier write) {
+        Map<LocalDate, Integer> before = this.recordStatsRollup.liveDays(idsOf(list));
+        boolean changed = write.getAsBoolean();
+        if (changed) {
+            List<Long> ids = idsOf(list);
+            this.recordStatsRollup.changed(before, this.recordStatsRollup.liveDays(ids));
+            this.applicationEventPublisher.publishEvent(DailyLifeRecordsChangedEvent.of(source, ids));
+        }
+        return changed;
+    }
+
+    /**
+     * 取出 id：元素可以是实体或 id，尚未分配 id 的实体忽略
+     */
+    private static List<Long> idsOf(Collection<?> list) {
+        if (list == null) {
+            return Collections.emptyList();
+        }
+        return list.stream()
+                .filter(Objects::nonNull)
+                .map(item -> item instanceof DailyLifeRecords record ? record.getId() : Long.valueOf(String.valueOf(item)))
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    private int pageSize(int size) {
+        return Math.min(Math.max(size, 1), this.maxPageSize);
+    }
+
 }
@@ -1,7 +1,15 @@
 package cn.lzhch.service.impl;
 
+import cn.hutool.core.text.CharSequenceUtil;
 import cn.lzhch.common.exception.ClientException;
 import cn.lzhch.common.response.ErrorCode;
+import cn.lzhch.common.security.CustomUserDetailsService;
+import cn.lzhch.common.security.RefreshTokenStore;
+import cn.lzhch.common.security.TokenRevocationList;
+import cn.lzhch.common.security.UserPrincipal;
+import cn.lzhch.dto.auth.LogoutRequest;
+import cn.lzhch.dto.auth.RefreshTokenRequest;
+import cn.lzhch.dto.auth.UserAvailabilityResponse;
 import cn.lzhch.dto.auth.UserLoginRequest;
 import cn.lzhch.dto.auth.UserLoginResponse;
 import cn.lzhch.dto.auth.UserProfileResponse;
@@ -10,19 +18,27 @@ import cn.lzhch.entity.User;
 import cn.lzhch.mapper.UserMapper;
 import cn.lzhch.common.security.JwtTokenProvider;
 import cn.lzhch.service.IUserService;
+import cn.lzhch.service.UserAvailabilityIndex;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import io.jsonwebtoken.Claims;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.Serializable;
 import java.time.LocalDateTime;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /**
  * 用户服务实现类
@@ -37,13 +53,35 @@ import java.time.LocalDateTime;
 @RequiredArgsConstructor
 public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements IUserService {
 
+    /**
+     * 用户名唯一索引名称
+     */
+    private static final String UNIQUE_KEY_USERNAME = "uk_username";
+
+    /**
+     * 邮箱唯一索引名称
+     */
+    private static final String UNIQUE_KEY_EMAIL = "uk_email";
+
+    /**
+     * MySQL 唯一索引冲突信息末尾的索引名称：MySQL 8 为 'user.uk_username'，5.7 为 'uk_username'
+     */
+    private static final Pattern DUPLICATE_KEY_PATTERN = Pattern.compile("for key '(?:[^'.]*\\.)?([^'.]+)'$");
+
     private final UserMapper userMapper;
     private final PasswordEncoder passwordEncoder;
     private final AuthenticationManager authenticationManager;
     private final JwtTokenProvider tokenProvider;
+    private final CustomUserDetailsService userDetailsService;
+    private final UserAvailabilityIndex availabilityIndex;
+    private final RefreshTokenStore refreshTokenStore;
+    private final TokenRevocationList revocationList;
 
     /**
      * 用户注册
+     * <p>
+     * 直接插入，由 uk_username 和 uk_email 唯一索引保证用户名和邮箱不重复：
+     * 相比先查询再插入，只需一次数据库往返，并且在并发注册同一用户名时也不会出现竞态
      *
      * @param request 注册请求
      * @return 用户资料
@@ -51,16 +89,6 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements IU
     @Override
     @Transactional
     public UserProfileResponse register(UserRegisterRequest request) {
-        // 检查用户名是否已存在
-        if (existsByUsername(request.getUsername())) {
-            throw new ClientException(ErrorCode.USERNAME_ALREADY_EXISTS);
-        }
-
-        // 检查邮箱是否已存在
-        if (existsByEmail(request.getEmail())) {
-            throw new ClientException(ErrorCode.EMAIL_ALREADY_EXISTS);
-        }
-
         // 创建新用户对象
         User user = User.builder()
                 .username(request.getUsername())
@@ -70,19 +98,20 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements IU
                 .createTime(LocalDateTime.now()) // 设置创建时间
                 .build();
 
-        // 保存用户到数据库
-        save(user);
+        // 保存用户到数据库，用户名或邮箱重复时由唯一索引拒绝
+        try {
+            save(user);
+        } catch (DuplicateKeyException ex) {
+            throw duplicateUserException(ex);
+        }
+        // 失效该用户名和邮箱的负缓存，并记录到可用性索引
+        userDetailsService.evict(user);
+        availabilityIndex.add(user);
 
         log.info("用户注册成功: {}", request.getUsername());
 
         // 构建并返回用户资料（不包含敏感信息）
-        return UserProfileResponse.builder()
-                .id(user.getId())
-                .username(user.getUsername())
-                .email(user.getEmail())
-                .createTime(user.getCreateTime())
-                .updateTime(user.getUpdateTime())
-                .build();
+        return buildUserProfile(user);
     }
 
     /**
@@ -104,25 +133,96 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements IU
         // 认证成功，生成JWT令牌
         String jwt = tokenProvider.generateToken(authentication);
 
-        // 查询用户完整信息（用于返回给前端）
-        User user = findByUsernameOrEmail(request.getUsername());
-        UserProfileResponse userProfile = UserProfileResponse.builder()
-                .id(user.getId())
-                .username(user.getUsername())
-                .email(user.getEmail())
-                .createTime(user.getCreateTime())
-                .updateTime(user.getUpdateTime())
-                .build();
+        // 复用认证过程中加载的用户实体（用于返回给前端），无需再次查询数据库
+        User user = ((UserPrincipal) authentication.getPrincipal()).getUser();
+        String refreshToken = refreshTokenStore.issue(user.getId(), user.getUsername());
 
         log.info("用户登录成功: {}", request.getUsername());
 
         // 构建登录响应
-        return UserLoginResponse.builder()
-                .accessToken(jwt) // JWT访问令牌
-                .tokenType("Bearer") // 令牌类型，符合OAuth2标准
-                .expiresIn((long) tokenProvider.getJwtExpirationInSeconds()) // 过期时间（秒）
-                .userInfo(userProfile) // 用户基本信息
-                .build();
+        return buildLoginResponse(jwt, refreshToken, user);
+    }
+
+    /**
+     * 刷新令牌
+     * <p>
+     * 轮换刷新令牌并签发新的访问令牌，不经过密码校验；用户已被删除时吊销整个令牌家族
+     *
+     * @param request 刷新令牌请求
+     * @return 登录响应（新的访问令牌和刷新令牌）
+     */
+    @Override
+    public UserLoginResponse refresh(RefreshTokenRequest request) {
+        RefreshTokenStore.RefreshSession session = refreshTokenStore.rotate(request.getRefreshToken());
+
+        UserPrincipal principal;
+        try {
+            principal = (UserPrincipal) userDetailsService.loadUserByUsername(session.username());
+        } catch (UsernameNotFoundException ex) {
+            refreshTokenStore.revokeFamily(session.familyId());
+            throw new ClientException(ErrorCode.USER_NOT_FOUND, ex);
+        }
+
+        String jwt = tokenProvider.generateToken(principal);
+        String refreshToken = refreshTokenStore.issueNext(session);
+
+        return buildLoginResponse(jwt, refreshToken, principal.getUser());
+    }
+
+    /**
+     * 用户登出
+     * <p>
+     * 访问令牌按 jti 加入吊销列表直到其过期；传入刷新令牌时吊销其所在的整个令牌家族。
+     * 无效或已过期的令牌无需吊销，直接忽略
+     *
+     * @param accessToken 访问令牌（可为空）
+     * @param request     登出请求（可为空）
+     */
+    @Override
+    public void logout(String accessToken, LogoutRequest request) {
+        Claims claims = CharSequenceUtil.isBlank(accessToken) ? null : tokenProvider.parseClaims(accessToken);
+        if (claims != null) {
+            revocationList.revoke(claims.getId(), claims.getExpiration().getTime());
+            log.info("用户登出: {}", claims.getSubject());
+        }
+        if (request != null) {
+            refreshTokenStore.revoke(request.getRefreshToken());
+        }
+    }
+
+    /**
+     * 更新用户（包括修改密码、软删除），同时失效变更前后的用户缓存
+     *
+     * @param entity 用户
+     * @return 是否更新成功
+     */
+    @Override
+    @Transactional
+    public boolean updateById(User entity) {
+        User previous = getById(entity.getId());
+        boolean updated = super.updateById(entity);
+        userDetailsService.evict(previous, entity);
+        if (updated) {
+            refreshAvailability(previous, entity);
+        }
+        return updated;
+    }
+
+    /**
+     * 删除用户，同时失效该用户的缓存
+     * <p>
+     * 不从可用性索引中释放用户名和邮箱：软删除的用户仍占用唯一索引，物理删除后由索引的确认查询判定可用
+     *
+     * @param id 用户ID
+     * @return 是否删除成功
+     */
+    @Override
+    @Transactional
+    public boolean removeById(Serializable id) {
+        User previous = getById(id);
+        boolean removed = super.removeById(id);
+        userDetailsService.evict(previous);
+        return removed;
     }
 
     @Override
@@ -150,6 +250,14 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements IU
         return userMapper.existsByEmail(email);
     }
 
+    @Override
+    public UserAvailabilityResponse checkAvailability(String username, String email) {
+        return UserAvailabilityResponse.builder()
+                .usernameAvailable(CharSequenceUtil.isBlank(username) ? null : availabilityIndex.isUsernameAvailable(username))
+                .emailAvailable(CharSequenceUtil.isBlank(email) ? null : availabilityIndex.isEmailAvailable(email))
+                .build();
+    }
+
     @Override
     public UserProfileResponse getCurrentUserProfile() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
@@ -164,6 +272,75 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements IU
             throw new ClientException(ErrorCode.USER_NOT_FOUND);
         }
 
+        return buildUserProfile(user);
+    }
+
+    /**
+     * 用户更新后同步可用性索引：修改了用户名或邮箱时释放原值并记录新值；软删除不释放（唯一索引覆盖已删除的行）
+     *
+     * @param previous 变更前的用户
+     * @param entity   本次更新的字段（未更新的字段为 null）
+     */
+    private void refreshAvailability(User previous, User entity) {
+        if (previous == null) {
+            return;
+        }
+        String username = CharSequenceUtil.blankToDefault(entity.getUsername(), previous.getUsername());
+        String email = CharSequenceUtil.blankToDefault(entity.getEmail(), previous.getEmail());
+        availabilityIndex.remove(User.builder()
+                .username(CharSequenceUtil.equalsIgnoreCase(username, previous.getUsername()) ? null : previous.getUsername())
+                .email(CharSequenceUtil.equalsIgnoreCase(email, previous.getEmail()) ? null : previous.getEmail())
+                .build());
+        availabilityIndex.add(User.builder().username(username).email(email).build());
+    }
+
+    /**
+     * 将唯一索引冲突转换为对应的业务异常
+     * <p>
+     * MySQL 的冲突信息形如 "Duplicate entry 'xxx' for key 'user.uk_username'"，从根异常信息末尾的 for key 部分
+     * 取出索引名称后精确比较；冲突的值由用户输入，可能包含任意文本，不能在整条信息中查找索引名称
+     *
+     * @param ex 唯一索引冲突异常
+     * @return 客户端异常
+     */
+    private ClientException duplicateUserException(DuplicateKeyException ex) {
+        Matcher matcher = DUPLICATE_KEY_PATTERN.matcher(String.valueOf(NestedExceptionUtils.getMostSpecificCause(ex).getMessage()).strip());
+        String index = matcher.find() ? matcher.group(1) : null;
+        if (UNIQUE_KEY_USERNAME.equals(index)) {
+            return new ClientException(ErrorCode.USERNAME_ALREADY_EXISTS, ex);
+        }
+        if (UNIQUE_KEY_EMAIL.equals(index)) {
+            return new ClientException(ErrorCode.EMAIL_ALREADY_EXISTS, ex);
+        }
+        return new ClientException(ErrorCode.USER_ALREADY_EXISTS, ex);
+    }
+
+    /**
+     * 构建登录响应
+     *
+     * @param jwt          JWT访问令牌
+     * @param refreshToken 刷新令牌
+     * @param user         用户实体
+     * @return 登录响应
+     */
+    private UserLoginResponse buildLoginResponse(String jwt, String refreshToken, User user) {
+        return UserLoginResponse.builder()
+                .accessToken(jwt) // JWT访问令牌
+                .tokenType("Bearer") // 令牌类型，符合OAuth2标准
+                .expiresIn((long) tokenProvider.getJwtExpirationInSeconds()) // 过期时间（秒）
+                .refreshToken(refreshToken) // 刷新令牌
+                .refreshExpiresIn(refreshTokenStore.getRefreshExpirationInSeconds()) // 刷新令牌过期时间（秒）
+                .userInfo(buildUserProfile(user)) // 用户基本信息
+                .build();
+    }
+
+    /**
+     * 构建用户资料（不包含敏感信息）
+     *
+     * @param user 用户实体
+     * @return 用户资料
+     */
+    private UserProfileResponse buildUserProfile(User user) {
         return UserProfileResponse.builder()
                 .id(user.getId())
                 .username(user.getUsername())
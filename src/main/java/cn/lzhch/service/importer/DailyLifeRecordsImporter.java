@@ -0,0 +1,266 @@
+package cn.lzhch.service.importer;
+
+import cn.lzhch.dto.record.ImportChunkResDto;
+import cn.lzhch.dto.record.ImportItemErrorDto;
+import cn.lzhch.dto.record.ImportResDto;
+import cn.lzhch.entity.DailyLifeRecords;
+import cn.lzhch.mapper.DailyLifeRecordsMapper;
+import cn.lzhch.service.search.DailyLifeRecordsChangedEvent;
+import cn.lzhch.service.stats.RecordStatsRollup;
+import com.baomidou.mybatisplus.core.batch.MybatisBatch;
+import com.fasterxml.jackson.core.JsonLocation;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * 日常生活记录批量导入器
+ * <p>
+ * 请求体可以是 JSON 数组或 NDJSON（每行一个对象），gzip 压缩时按魔数自动识别。
+ * 使用 Jackson 流式解析逐条读取，凑满一批后在独立事务中用 MyBatis BATCH 执行器插入
+ * （配合 rewriteBatchedStatements 由驱动合并为多值 INSERT），内存占用只与批大小有关。
+ * 单条记录校验失败只跳过该条；某批写入失败只回滚该批；输入格式错误时停止读取，已写入的批次保留
+ * <p>
+ * author: lzhch
+ * version: v1.0
+ * date: 2026/10/17
+ */
+
+@Slf4j
+@Component
+public class DailyLifeRecordsImporter {
+
+    /**
+     * 返回的单条记录错误上限
+     */
+    static final int MAX_REPORTED_ERRORS = 100;
+
+    private final ObjectMapper objectMapper;
+    private final SqlSessionFactory sqlSessionFactory;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final RecordStatsRollup recordStatsRollup;
+    private final int chunkSize;
+    private final long maxRecords;
+
+    public DailyLifeRecordsImporter(ObjectMapper objectMapper, SqlSessionFactory sqlSessionFactory,
+                                    PlatformTransactionManager transactionManager,
+                                    ApplicationEventPublisher applicationEventPublisher,
+                                    RecordStatsRollup recordStatsRollup,
+                                    @Value("${app.daily-life.import.chunk-size:1000}") int chunkSize,
+                                    @Value("${app.daily-life.import.max-records:100000}") long maxRecords) {
+        this.objectMapper = objectMapper;
+        this.sqlSessionFactory = sqlSessionFactory;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.applicationEventPublisher = applicationEventPublisher;
+        this.recordStatsRollup = recordStatsRollup;
+        this.chunkSize = Math.max(chunkSize, 1);
+        this.maxRecords = maxRecords;
+    }
+
+    /**
+     * 从输入流导入记录
+     *
+     * @param input 请求体（JSON 数组或 NDJSON，可 gzip 压缩）
+     * @return 导入结果
+     * @throws IOException 读取请求体失败
+     */
+    public ImportResDto importFrom(InputStream input) throws IOException {
+        long start = System.currentTimeMillis();
+        ImportResDto result = read(this.objectMapper, input, this.chunkSize, this.maxRecords, this::insertChunk);
+        log.info("日常生活记录导入完成, 读取: {}, 写入: {}, 失败: {}, 批次: {}, 耗时: {}ms{}",
+                result.getTotal(), result.getInserted(), result.getFailed(), result.getChunks().size(),
+                System.currentTimeMillis() - start, result.getAborted() == null ? "" : ", 中止: " + result.getAborted());
+        return result;
+    }
+
+    /**
+     * 流式读取记录并按批写入
+     *
+     * @param objectMapper 解析使用的 ObjectMapper
+     * @param input        输入流
+     * @param chunkSize    每批记录数
+     * @param maxRecords   单次导入的最大记录数
+     * @param writer       批量写入方
+     * @return 导入结果
+     * @throws IOException 读取输入失败
+     */
+    static ImportResDto read(ObjectMapper objectMapper, InputStream input, int chunkSize, long maxRecords,
+                             ChunkWriter writer) throws IOException {
+        ImportResDto result = new ImportResDto();
+        List<DailyLifeRecords> chunk = new ArrayList<>(chunkSize);
+        long item = 0;
+        long chunkFirstItem = 1;
+
+        try (JsonParser parser = objectMapper.getFactory().createParser(decompress(input))) {
+            JsonToken token = parser.nextToken();
+            boolean array = token == JsonToken.START_ARRAY;
+            if (array) {
+                token = parser.nextToken();
+            }
+            while (token != null && !(array && token == JsonToken.END_ARRAY)) {
+                item++;
+                if (item > maxRecords) {
+                    result.setAborted("超过单次导入上限 " + maxRecords + " 条，之后的记录未读取");
+                    item--;
+                    break;
+                }
+                if (token != JsonToken.START_OBJECT) {
+                    throw new JsonParseAbort(item, "每条记录必须是 JSON 对象", parser);
+                }
+
+                // 先读成树再转换：字段类型错误只影响当前记录，解析器位置不受影响
+                JsonNode node = parser.readValueAsTree();
+                String error = null;
+                DailyLifeRecords record = null;
+                try {
+                    record = normalize(objectMapper.treeToValue(node, DailyLifeRecords.class));
+                    if (!StringUtils.hasText(record.getContent())) {
+                        error = "content 不能为空";
+                    }
+                } catch (JsonProcessingException ex) {
+                    error = ex.getOriginalMessage();
+                }
+                if (error != null) {
+                    addError(result, item, error);
+                    result.setFailed(result.getFailed() + 1);
+                } else {
+                    if (chunk.isEmpty()) {
+                        chunkFirstItem = item;
+                    }
+                    chunk.add(record);
+                    if (chunk.size() >= chunkSize) {
+                        flush(result, chunk, chunkFirstItem, writer);
+                        chunk = new ArrayList<>(chunkSize);
+                    }
+                }
+                token = parser.nextToken();
+            }
+        } catch (JsonParseAbort ex) {
+            result.setAborted(ex.getMessage());
+        } catch (JsonProcessingException ex) {
+            JsonLocation location = ex.getLocation();
+            result.setAborted("第 " + (item + 1) + " 条记录附近 JSON 格式错误"
+                    + (location == null ? "" : "（行 " + location.getLineNr() + " 列 " + location.getColumnNr() + "）")
+                    + ": " + ex.getOriginalMessage());
+        }
+
+        // 中止前已读取并校验通过的记录照常写入
+        if (!chunk.isEmpty()) {
+            flush(result, chunk, chunkFirstItem, writer);
+        }
+        result.setTotal(item);
+        return result;
+    }
+
+    /**
+     * 在独立事务中用 BATCH 执行器插入一批记录，id 由 MybatisPlus 分配；同一事务中累加按天统计，提交后全文检索索引增量更新
+     */
+    private int insertChunk(List<DailyLifeRecords> chunk) {
+        this.transactionTemplate.executeWithoutResult(status -> {
+            new MybatisBatch<>(this.sqlSessionFactory, chunk)
+                    .execute(new MybatisBatch.Method<DailyLifeRecords>(DailyLifeRecordsMapper.class).insert());
+            this.recordStatsRollup.added(chunk);
+            this.applicationEventPublisher.publishEvent(DailyLifeRecordsChangedEvent.of("import",
+                    chunk.stream().map(DailyLifeRecords::getId).toList()));
+        });
+        return chunk.size();
+    }
+
+    private static void flush(ImportResDto result, List<DailyLifeRecords> chunk, long firstItem, ChunkWriter writer) {
+        int index = result.getChunks().size() + 1;
+        long start = System.currentTimeMillis();
+        ImportChunkResDto chunkResult = new ImportChunkResDto(index, firstItem, chunk.size(), 0, 0, null);
+        try {
+            chunkResult.setInserted(writer.write(chunk));
+            result.setInserted(result.getInserted() + chunkResult.getInserted());
+        } catch (RuntimeException ex) {
+            Throwable cause = NestedExceptionUtils.getMostSpecificCause(ex);
+            chunkResult.setError(cause.getMessage());
+            result.setFailed(result.getFailed() + chunk.size());
+            log.warn("日常生活记录导入第 {} 批写入失败, 起始序号: {}, 条数: {}, 原因: {}", index, firstItem, chunk.size(), cause.getMessage());
+        }
+        chunkResult.setElapsed(System.currentTimeMillis() - start);
+        result.getChunks().add(chunkResult);
+        log.info("日常生活记录导入进度: 第 {} 批, 累计写入: {}, 累计失败: {}", index, result.getInserted(), result.getFailed());
+    }
+
+    /**
+     * 只接受内容类字段：id 由服务端分配，删除标识和更新信息重置，未提供创建时间时取当前时间
+     */
+    private static DailyLifeRecords normalize(DailyLifeRecords record) {
+        record.setId(null);
+        record.setDelFlag("0");
+        record.setUpdateBy(null);
+        record.setUpdateTime(null);
+        if (record.getCreateTime() == null) {
+            record.setCreateTime(LocalDateTime.now());
+        }
+        return record;
+    }
+
+    private static void addError(ImportResDto result, long item, String message) {
+        if (result.getErrors().size() < MAX_REPORTED_ERRORS) {
+            result.getErrors().add(new ImportItemErrorDto(item, message));
+        }
+    }
+
+    /**
+     * 按 gzip 魔数（0x1f 0x8b）识别压缩的请求体
+     */
+    private static InputStream decompress(InputStream input) throws IOException {
+        BufferedInputStream buffered = new BufferedInputStream(input, 64 * 1024);
+        buffered.mark(2);
+        int first = buffered.read();
+        int second = buffered.read();
+        buffered.reset();
+        return first == 0x1f && second == 0x8b ? new GZIPInputStream(buffered, 64 * 1024) : buffered;
+    }
+
+    /**
+     * 批量写入方
+     */
+    @FunctionalInterface
+    interface ChunkWriter {
+
+        /**
+         * 写入一批记录，失败时抛出异常（整批回滚）
+         *
+         * @param chunk 记录
+         * @return 写入条数
+         */
+        int write(List<DailyLifeRecords> chunk);
+
+    }
+
+    /**
+     * 输入结构错误，停止读取
+     */
+    private static final class JsonParseAbort extends JsonProcessingException {
+
+        private JsonParseAbort(long item, String message, JsonParser parser) {
+            super("第 " + item + " 条记录格式错误（行 " + parser.currentLocation().getLineNr() + "）: " + message);
+        }
+
+    }
+
+}
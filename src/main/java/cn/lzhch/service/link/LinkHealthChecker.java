@@ -0,0 +1,97 @@
+package cn.lzhch.service.link;
+
+import cn.lzhch.entity.LinkStatus;
+import cn.lzhch.entity.NavigationWebsite;
+import cn.lzhch.service.NavigationWebsiteService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 导航网站链接检查任务
+ * <p>
+ * 定期探测全部网站地址并回写链接状态。先一次查出网站 id 和网址（查询完成即归还连接），
+ * 探测期间不持有数据库连接，结果每凑满一批在独立的短事务中批量回写。
+ * 启用前执行 sql/navigation_link_status.sql
+ * <p>
+ * author: lzhch
+ * version: v1.0
+ * date: 2026/10/17
+ */
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LinkHealthChecker {
+
+    private final NavigationWebsiteService navigationWebsiteService;
+
+    /**
+     * 是否启用链接检查
+     */
+    @Value("${app.navigation.link-check.enabled:false}")
+    private boolean enabled;
+
+    /**
+     * 全局最大并发请求数
+     */
+    @Value("${app.navigation.link-check.max-concurrency:64}")
+    private int maxConcurrency;
+
+    /**
+     * 单个主机的最大并发请求数
+     */
+    @Value("${app.navigation.link-check.per-host:4}")
+    private int perHost;
+
+    /**
+     * 连接和请求超时时间，单位：秒
+     */
+    @Value("${app.navigation.link-check.timeout:10}")
+    private long timeoutInSeconds;
+
+    /**
+     * 每批回写的结果数量
+     */
+    @Value("${app.navigation.link-check.batch-size:200}")
+    private int batchSize;
+
+    /**
+     * 定时检查全部网站链接
+     */
+    @Scheduled(initialDelayString = "${app.navigation.link-check.initial-delay:300000}",
+            fixedDelayString = "${app.navigation.link-check.interval:86400000}")
+    public void check() {
+        if (!this.enabled) {
+            return;
+        }
+
+        long start = System.currentTimeMillis();
+        List<NavigationWebsite> websites = this.navigationWebsiteService.listLinkTargets();
+        AtomicInteger broken = new AtomicInteger();
+        try (LinkProber prober = new LinkProber(this.maxConcurrency, this.perHost, Duration.ofSeconds(this.timeoutInSeconds))) {
+            prober.probeAll(websites, this.batchSize, results -> {
+                broken.addAndGet((int) results.stream().filter(result -> result.getLinkStatus() != LinkStatus.OK).count());
+                try {
+                    this.navigationWebsiteService.updateLinkStatus(results);
+                } catch (Exception ex) {
+                    log.error("回写网站链接状态失败, 条数: {}", results.size(), ex);
+                }
+            });
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            log.warn("网站链接检查被中断");
+            return;
+        }
+
+        log.info("网站链接检查完成, 网站数: {}, 不可访问: {}, 耗时: {}ms",
+                websites.size(), broken.get(), System.currentTimeMillis() - start);
+    }
+
+}
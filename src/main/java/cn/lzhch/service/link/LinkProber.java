@@ -0,0 +1,199 @@
+package cn.lzhch.service.link;
+
+import cn.lzhch.common.util.OutboundHttp;
+import cn.lzhch.dto.navigation.LinkStatusDto;
+import cn.lzhch.entity.LinkStatus;
+import cn.lzhch.entity.NavigationWebsite;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * 网站链接探测器
+ * <p>
+ * 每个网站一个虚拟线程并发探测，全局信号量限制同时进行的请求数，每个主机再单独限制并发，
+ * 避免同一站点下的大量链接变成对它的突发请求。先发 HEAD，服务端不支持 HEAD 时再用 GET（只读状态码）。
+ * 探测结果在调用线程上按批交给回写方，网络等待期间不占用数据库连接。
+ * 网址由用户提交，主机解析到内网地址（或重定向到内网地址）时不发请求，直接记为 {@link LinkStatus#INVALID}，见 {@link OutboundHttp}
+ * <p>
+ * author: lzhch
+ * version: v1.0
+ * date: 2026/10/17
+ */
+
+@Slf4j
+public class LinkProber implements AutoCloseable {
+
+    private static final String USER_AGENT = "Mozilla/5.0 (compatible; StackBreezeLinkChecker/1.0)";
+
+    private final HttpClient httpClient;
+    private final Duration timeout;
+    private final Semaphore globalPermits;
+    private final int perHostLimit;
+    private final Predicate<InetAddress> allowedAddress;
+    private final Map<String, Semaphore> hostPermits = new ConcurrentHashMap<>();
+
+    /**
+     * @param maxConcurrency 全局最大并发请求数
+     * @param perHostLimit   单个主机的最大并发请求数
+     * @param timeout        连接超时和单次请求超时
+     */
+    public LinkProber(int maxConcurrency, int perHostLimit, Duration timeout) {
+        this(maxConcurrency, perHostLimit, timeout, OutboundHttp::isPublic);
+    }
+
+    /**
+     * @param maxConcurrency 全局最大并发请求数
+     * @param perHostLimit   单个主机的最大并发请求数
+     * @param timeout        连接超时和单次请求超时
+     * @param allowedAddress 允许访问的地址
+     */
+    LinkProber(int maxConcurrency, int perHostLimit, Duration timeout, Predicate<InetAddress> allowedAddress) {
+        this.timeout = timeout;
+        this.allowedAddress = allowedAddress;
+        this.globalPermits = new Semaphore(Math.max(maxConcurrency, 1));
+        this.perHostLimit = Math.max(perHostLimit, 1);
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(timeout)
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .build();
+    }
+
+    /**
+     * 并发探测全部网站，每凑满一批结果回调一次
+     *
+     * @param websites  网站（只使用 id 和网址）
+     * @param batchSize 每批结果数量
+     * @param sink      结果回写方，在调用线程上执行
+     * @return 探测的网站数量
+     * @throws InterruptedException 等待探测结果时被中断
+     */
+    public int probeAll(Collection<NavigationWebsite> websites, int batchSize,
+                        Consumer<List<LinkStatusDto>> sink) throws InterruptedException {
+        int size = Math.max(batchSize, 1);
+        int submitted = 0;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            CompletionService<LinkStatusDto> completion = new ExecutorCompletionService<>(executor);
+            for (NavigationWebsite website : websites) {
+                completion.submit(() -> this.probe(website.getId(), website.getSiteUrl()));
+                submitted++;
+            }
+
+            List<LinkStatusDto> batch = new ArrayList<>(Math.min(size, submitted));
+            for (int i = 0; i < submitted; i++) {
+                try {
+                    batch.add(completion.take().get());
+                } catch (ExecutionException ex) {
+                    // probe 自身不抛异常，这里只会是编程错误
+                    log.error("探测网站链接失败", ex.getCause());
+                    continue;
+                }
+                if (batch.size() >= size) {
+                    sink.accept(batch);
+                    batch = new ArrayList<>(size);
+                }
+            }
+            if (!batch.isEmpty()) {
+                sink.accept(batch);
+            }
+        }
+        return submitted;
+    }
+
+    /**
+     * 探测单个网址，先校验地址，再按主机、按全局获取许可：等待主机许可时不占用全局并发
+     *
+     * @param id  网站 id
+     * @param url 网址
+     * @return 检查结果
+     * @throws InterruptedException 等待许可时被中断
+     */
+    LinkStatusDto probe(Long id, String url) throws InterruptedException {
+        URI uri = OutboundHttp.parse(url);
+        if (uri == null) {
+            return result(id, LinkStatus.INVALID, null);
+        }
+        try {
+            OutboundHttp.checkAddress(uri, this.allowedAddress);
+        } catch (OutboundHttp.ForbiddenAddressException ex) {
+            log.debug("网站链接指向不允许访问的地址: {}", url);
+            return result(id, LinkStatus.INVALID, null);
+        } catch (IOException ex) {
+            return result(id, LinkStatus.UNREACHABLE, null);
+        }
+
+        Semaphore hostPermit = this.hostPermits.computeIfAbsent(uri.getHost().toLowerCase(Locale.ROOT),
+                ignored -> new Semaphore(this.perHostLimit));
+        hostPermit.acquire();
+        try {
+            this.globalPermits.acquire();
+            try {
+                int statusCode = this.request(uri, "HEAD");
+                if (statusCode == 405 || statusCode == 501) {
+                    statusCode = this.request(uri, "GET");
+                }
+                return result(id, LinkStatus.of(statusCode), statusCode);
+            } catch (HttpTimeoutException ex) {
+                return result(id, LinkStatus.TIMEOUT, null);
+            } catch (OutboundHttp.ForbiddenAddressException ex) {
+                log.debug("网站链接重定向到不允许访问的地址: {}", url);
+                return result(id, LinkStatus.INVALID, null);
+            } catch (IOException | IllegalArgumentException ex) {
+                log.debug("网站链接无法访问: {}, 原因: {}", url, ex.toString());
+                return result(id, LinkStatus.UNREACHABLE, null);
+            } finally {
+                this.globalPermits.release();
+            }
+        } finally {
+            hostPermit.release();
+        }
+    }
+
+    /**
+     * 发送请求并返回状态码，逐跳校验重定向目标；GET 只读取响应头，立即关闭响应体
+     */
+    private int request(URI uri, String method) throws IOException, InterruptedException {
+        HttpResponse<InputStream> response = OutboundHttp.send(this.httpClient, uri, target -> HttpRequest.newBuilder(target)
+                .timeout(this.timeout)
+                .header("User-Agent", USER_AGENT)
+                .method(method, HttpRequest.BodyPublishers.noBody())
+                .build(), HttpResponse.BodyHandlers.ofInputStream(), this.allowedAddress);
+        if (response.body() != null) {
+            response.body().close();
+        }
+        return response.statusCode();
+    }
+
+    @Override
+    public void close() {
+        this.httpClient.close();
+    }
+
+    private static LinkStatusDto result(Long id, LinkStatus status, Integer statusCode) {
+        return new LinkStatusDto(id, status, statusCode, LocalDateTime.now());
+    }
+
+}
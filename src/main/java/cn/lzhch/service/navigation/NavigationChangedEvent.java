@@ -0,0 +1,42 @@
+package cn.lzhch.service.navigation;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * 导航数据变更事件
+ * <p>
+ * 分类或网站保存、更新、删除后发布，事务提交后触发快照重建；网站搜索索引按 websiteIds 增量更新
+ * <p>
+ * author: lzhch
+ * version: v1.0
+ * date: 2026/10/17
+ *
+ * @param source     变更来源，仅用于日志
+ * @param websiteIds 受影响的网站 id：null 表示范围未知（搜索索引整体重建），空集合表示不涉及网站
+ */
+public record NavigationChangedEvent(String source, Collection<Long> websiteIds) {
+
+    /**
+     * 不涉及网站的变更（如分类变更）
+     *
+     * @param source 变更来源
+     * @return 变更事件
+     */
+    public static NavigationChangedEvent ofCategory(String source) {
+        return new NavigationChangedEvent(source, List.of());
+    }
+
+    /**
+     * 指定网站的变更
+     *
+     * @param source     变更来源
+     * @param websiteIds 受影响的网站 id，忽略其中的 null
+     * @return 变更事件
+     */
+    public static NavigationChangedEvent ofWebsites(String source, Collection<Long> websiteIds) {
+        return new NavigationChangedEvent(source, websiteIds.stream().filter(Objects::nonNull).distinct().toList());
+    }
+
+}
@@ -0,0 +1,156 @@
+package cn.lzhch.service.navigation;
+
+import cn.lzhch.dto.navigation.ClickCountDto;
+import cn.lzhch.mapper.NavigationWebsiteMapper;
+import com.google.common.collect.Lists;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 导航网站点击计数器
+ * <p>
+ * 点击只在内存中累加（每个网站一个 {@link LongAdder}，内部按线程分段，高并发点击同一网站也不互相竞争），
+ * 定时把自上次写入以来的增量用一条 CASE WHEN 语句累加到数据库，写入后只刷新点击排行（{@link NavigationPopularHolder}），导航快照及其 ETag 不变。
+ * 计数器不清零，只记录已写入的值：写入失败时增量保留到下次重试，写入期间的并发点击也不会丢失。
+ * 应用优雅停机时在销毁前写入剩余增量
+ * <p>
+ * author: lzhch
+ * version: v1.0
+ * date: 2026/10/17
+ */
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class NavigationClickCounter {
+
+    private final NavigationWebsiteMapper navigationWebsiteMapper;
+    private final NavigationSnapshotHolder navigationSnapshotHolder;
+    private final NavigationPopularHolder navigationPopularHolder;
+
+    /**
+     * 网站 id -> 计数器
+     */
+    private final Map<Long, Counter> counters = new ConcurrentHashMap<>();
+
+    /**
+     * 是否统计点击次数
+     */
+    @Value("${app.navigation.click.enabled:false}")
+    private boolean enabled;
+
+    /**
+     * 单条累加语句包含的最大网站数
+     */
+    @Value("${app.navigation.click.flush-batch-size:500}")
+    private int flushBatchSize;
+
+    /**
+     * 记录一次点击，不存在或已删除的网站忽略（避免任意 id 撑大计数表）
+     *
+     * @param websiteId 网站 id
+     */
+    public void increment(long websiteId) {
+        if (!this.enabled) {
+            return;
+        }
+        Counter counter = this.counters.get(websiteId);
+        if (counter == null) {
+            if (!this.navigationSnapshotHolder.current().getWebsites().containsKey(websiteId)) {
+                return;
+            }
+            counter = this.counters.computeIfAbsent(websiteId, key -> new Counter());
+        }
+        counter.clicks.increment();
+    }
+
+    /**
+     * 尚未写入数据库的点击次数
+     *
+     * @return 未写入的点击次数
+     */
+    public long pending() {
+        return this.counters.values().stream().mapToLong(counter -> counter.clicks.sum() - counter.flushed).sum();
+    }
+
+    /**
+     * 定时写入点击增量，有写入时刷新点击排行
+     */
+    @Scheduled(initialDelayString = "${app.navigation.click.flush-interval:60000}",
+            fixedDelayString = "${app.navigation.click.flush-interval:60000}")
+    public void flush() {
+        if (this.write() > 0) {
+            this.navigationPopularHolder.refresh();
+        }
+    }
+
+    /**
+     * 应用停机前写入剩余增量（停机中不再刷新排行）
+     */
+    @PreDestroy
+    public void close() {
+        long pending = this.pending();
+        if (pending > 0) {
+            log.info("停机前写入网站点击次数, 未写入点击: {}, 已写入: {}", pending, this.write());
+        }
+    }
+
+    /**
+     * 把自上次写入以来的点击增量分片累加到数据库，某一分片失败时停止，剩余增量下次重试
+     *
+     * @return 写入的点击次数
+     */
+    synchronized long write() {
+        List<ClickCountDto> deltas = new ArrayList<>();
+        List<Long> sums = new ArrayList<>();
+        this.counters.forEach((id, counter) -> {
+            long sum = counter.clicks.sum();
+            if (sum > counter.flushed) {
+                deltas.add(new ClickCountDto(id, sum - counter.flushed));
+                sums.add(sum);
+            }
+        });
+
+        long written = 0;
+        int offset = 0;
+        for (List<ClickCountDto> chunk : Lists.partition(deltas, Math.max(this.flushBatchSize, 1))) {
+            try {
+                this.navigationWebsiteMapper.incrementClickCounts(chunk);
+            } catch (Exception ex) {
+                log.error("写入网站点击次数失败, 未写入网站数: {}, 将在下次重试", deltas.size() - offset, ex);
+                break;
+            }
+            for (int i = 0; i < chunk.size(); i++) {
+                this.counters.get(chunk.get(i).getId()).flushed = sums.get(offset + i);
+                written += chunk.get(i).getClickCount();
+            }
+            offset += chunk.size();
+        }
+        if (written > 0) {
+            log.debug("网站点击次数已写入, 网站数: {}, 点击: {}", offset, written);
+        }
+        return written;
+    }
+
+    /**
+     * 单个网站的计数器：clicks 只增不减，flushed 只在持有写入锁时修改
+     */
+    private static final class Counter {
+
+        private final LongAdder clicks = new LongAdder();
+
+        private volatile long flushed;
+
+    }
+
+}
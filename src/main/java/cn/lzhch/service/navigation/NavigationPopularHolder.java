@@ -0,0 +1,127 @@
+package cn.lzhch.service.navigation;
+
+import cn.lzhch.dto.navigation.ClickCountDto;
+import cn.lzhch.mapper.NavigationWebsiteMapper;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.ServletRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 网站点击排行持有者
+ * <p>
+ * 点击次数写入数据库后由 {@link NavigationClickCounter} 调用 {@link #refresh()} 重新读取点击次数并重建排行，
+ * 导航快照不重建、版本不变；导航快照重建后（网站增删改），下次读取时用已读取的点击次数重建排行，不访问数据库
+ * <p>
+ * author: lzhch
+ * version: v1.0
+ * date: 2026/10/17
+ */
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class NavigationPopularHolder {
+
+    /**
+     * 请求中固定使用的排行的属性名
+     */
+    private static final String REQUEST_ATTRIBUTE = NavigationPopularHolder.class.getName() + ".SNAPSHOT";
+
+    private final NavigationWebsiteMapper navigationWebsiteMapper;
+    private final NavigationSnapshotHolder navigationSnapshotHolder;
+    private final ObjectMapper objectMapper;
+
+    private final AtomicReference<NavigationPopularSnapshot> current = new AtomicReference<>();
+
+    /**
+     * 最近一次从数据库读取的点击次数，尚未读取时为 null
+     */
+    private volatile List<ClickCountDto> clickCounts;
+
+    /**
+     * 是否统计点击次数
+     */
+    @Value("${app.navigation.click.enabled:false}")
+    private boolean enabled;
+
+    /**
+     * 点击排行的最大条数
+     */
+    @Value("${app.navigation.click.popular-limit:20}")
+    private int popularLimit;
+
+    /**
+     * 获取当前排行，首次访问或导航快照已更新时同步重建
+     *
+     * @return 当前排行
+     */
+    public NavigationPopularSnapshot current() {
+        NavigationPopularSnapshot popular = this.current.get();
+        if (popular != null && popular.getNavigationVersion() == this.navigationSnapshotHolder.current().getVersion()) {
+            return popular;
+        }
+        synchronized (this) {
+            popular = this.current.get();
+            if (popular != null && popular.getNavigationVersion() == this.navigationSnapshotHolder.current().getVersion()) {
+                return popular;
+            }
+            if (this.clickCounts == null) {
+                this.clickCounts = this.load();
+            }
+            return this.rebuild();
+        }
+    }
+
+    /**
+     * 获取请求固定使用的排行，同一请求内的 ETag 与响应体来自同一版本，见 {@link NavigationSnapshotHolder#current(ServletRequest)}
+     *
+     * @param request 当前请求
+     * @return 请求固定使用的排行
+     */
+    public NavigationPopularSnapshot current(ServletRequest request) {
+        if (request.getAttribute(REQUEST_ATTRIBUTE) instanceof NavigationPopularSnapshot popular) {
+            return popular;
+        }
+        NavigationPopularSnapshot popular = this.current();
+        request.setAttribute(REQUEST_ATTRIBUTE, popular);
+        return popular;
+    }
+
+    /**
+     * 重新读取点击次数并重建排行
+     *
+     * @return 新排行
+     */
+    public synchronized NavigationPopularSnapshot refresh() {
+        this.clickCounts = this.load();
+        return this.rebuild();
+    }
+
+    private List<ClickCountDto> load() {
+        if (!this.enabled) {
+            return Collections.emptyList();
+        }
+        return Optional.ofNullable(this.navigationWebsiteMapper.selectClickCounts()).orElse(Collections.emptyList());
+    }
+
+    private NavigationPopularSnapshot rebuild() {
+        NavigationPopularSnapshot previous = this.current.get();
+        // 首个版本取启动时间，避免重启后版本号与重启前重复
+        long version = previous == null ? System.currentTimeMillis() : previous.getVersion() + 1;
+        NavigationPopularSnapshot popular = NavigationPopularSnapshot.build(version, this.navigationSnapshotHolder.current(),
+                this.clickCounts, this.popularLimit, this.objectMapper);
+        this.current.set(popular);
+        log.debug("点击排行已重建, 版本: {}, 导航快照版本: {}, 条数: {}",
+                version, popular.getNavigationVersion(), popular.getWebsites().size());
+        return popular;
+    }
+
+}
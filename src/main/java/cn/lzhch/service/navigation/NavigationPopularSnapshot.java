@@ -0,0 +1,92 @@
+package cn.lzhch.service.navigation;
+
+import cn.lzhch.common.response.PreSerializedBody;
+import cn.lzhch.common.util.LongObjectHashMap;
+import cn.lzhch.dto.navigation.ClickCountDto;
+import cn.lzhch.dto.navigation.WebsiteItemResDto;
+import cn.lzhch.dto.navigation.WebsitesByCategoryResDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 网站点击排行快照
+ * <p>
+ * 版本号独立于导航快照：点击次数写入后只重建排行，不影响导航快照及其 ETag。
+ * 排行中的网站是导航快照展示数据的副本，填充点击次数不会修改导航快照中共享的对象
+ * <p>
+ * author: lzhch
+ * version: v1.0
+ * date: 2026/10/17
+ */
+
+@Getter
+public final class NavigationPopularSnapshot {
+
+    /**
+     * 排行版本号
+     */
+    private final long version;
+
+    /**
+     * 构建时使用的导航快照版本号
+     */
+    private final long navigationVersion;
+
+    /**
+     * 点击排行（只含展示字段，按点击次数降序）
+     */
+    private final List<WebsiteItemResDto> websites;
+
+    /**
+     * 预序列化的响应体：点击排行
+     */
+    private final PreSerializedBody body;
+
+    private NavigationPopularSnapshot(long version, long navigationVersion, List<WebsiteItemResDto> websites,
+                                      ObjectMapper objectMapper) {
+        this.version = version;
+        this.navigationVersion = navigationVersion;
+        this.websites = websites;
+        this.body = PreSerializedBody.of(objectMapper, websites);
+    }
+
+    /**
+     * 由导航快照和点击次数构建排行
+     *
+     * @param version      排行版本号
+     * @param navigation   导航快照，只取首页展示的网站
+     * @param clickCounts  有点击记录的网站点击次数（按点击次数降序）
+     * @param limit        最大条数
+     * @param objectMapper 预序列化响应体使用的 ObjectMapper
+     * @return 排行快照
+     */
+    public static NavigationPopularSnapshot build(long version, NavigationSnapshot navigation,
+                                                  List<ClickCountDto> clickCounts, int limit,
+                                                  ObjectMapper objectMapper) {
+        LongObjectHashMap<WebsiteItemResDto> displayById = new LongObjectHashMap<>(navigation.getWebsites().size());
+        for (WebsitesByCategoryResDto category : navigation.getWebsitesByCategory()) {
+            for (WebsiteItemResDto website : category.getWebsiteList()) {
+                displayById.put(website.getId(), website);
+            }
+        }
+
+        // 点击次数已按降序返回，跳过不在首页展示的网站（如分类已删除）
+        List<WebsiteItemResDto> websites = new ArrayList<>(Math.min(limit, clickCounts.size()));
+        for (ClickCountDto clickCount : clickCounts) {
+            if (websites.size() >= limit) {
+                break;
+            }
+            WebsiteItemResDto website = displayById.get(clickCount.getId());
+            if (website != null) {
+                websites.add(website.toBuilder().clickCount(clickCount.getClickCount()).build());
+            }
+        }
+        return new NavigationPopularSnapshot(version, navigation.getVersion(),
+                Collections.unmodifiableList(websites), objectMapper);
+    }
+
+}
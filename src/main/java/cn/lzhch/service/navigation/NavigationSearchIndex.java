@@ -0,0 +1,362 @@
+package cn.lzhch.service.navigation;
+
+import cn.lzhch.common.util.TextSegmenter;
+import cn.lzhch.dto.navigation.WebsiteItemResDto;
+import cn.lzhch.entity.NavigationWebsite;
+import cn.lzhch.mapper.NavigationWebsiteMapper;
+import com.baomidou.mybatisplus.core.toolkit.Wrappers;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 导航网站搜索索引
+ * <p>
+ * 对网站名称、网址主机名和网站概览建立内存倒排索引，搜索不访问数据库：
+ * 1. 分词规则见 {@link SearchTokenizer}：英文单词按前缀匹配，中文按单字和二字匹配
+ * 2. 每个索引词对应按 id 升序的 long[]，多个查询词从最短的列表开始求交集，不装箱
+ * 3. 名称命中的权重高于主机名，主机名高于概览；名称以查询文本开头的额外加分
+ * <p>
+ * 网站变更的事务提交后只重新索引受影响的网站；写操作串行执行，读操作无锁，
+ * 更新一个网站的过程中并发的搜索可能短暂看到它的新旧索引词混合，下一次搜索即一致
+ * <p>
+ * author: lzhch
+ * version: v1.0
+ * date: 2026/10/17
+ */
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class NavigationSearchIndex {
+
+    private static final String DELETED = "1";
+    private static final long[] EMPTY = new long[0];
+
+    private static final int NAME_WEIGHT = 4;
+    private static final int HOST_WEIGHT = 2;
+    private static final int OVERVIEW_WEIGHT = 1;
+    private static final int NAME_PREFIX_BONUS = 8;
+    private static final int NAME_EXACT_BONUS = 16;
+
+    private final NavigationWebsiteMapper navigationWebsiteMapper;
+
+    private volatile Segment segment;
+
+    /**
+     * 搜索网站
+     *
+     * @param query 查询文本
+     * @param limit 最多返回条数
+     * @return 按相关度排序的网站
+     */
+    public List<WebsiteItemResDto> search(String query, int limit) {
+        Set<String> terms = SearchTokenizer.queryTerms(query);
+        if (terms.isEmpty() || limit <= 0) {
+            return Collections.emptyList();
+        }
+
+        Segment current = this.current();
+        long[][] postings = new long[terms.size()][];
+        int n = 0;
+        for (String term : terms) {
+            long[] posting = current.postings.get(term);
+            if (posting == null) {
+                return Collections.emptyList();
+            }
+            postings[n++] = posting;
+        }
+        Arrays.sort(postings, Comparator.comparingInt(posting -> posting.length));
+
+        String normalizedQuery = TextSegmenter.normalize(query).trim();
+        List<Scored> matches = new ArrayList<>();
+        for (long id : postings[0]) {
+            if (!containsAll(postings, id)) {
+                continue;
+            }
+            IndexedSite site = current.sites.get(id);
+            if (site != null) {
+                matches.add(new Scored(site, site.score(terms, normalizedQuery)));
+            }
+        }
+
+        matches.sort(Comparator.comparingInt(Scored::score).reversed()
+                .thenComparingInt(scored -> scored.site.name.length())
+                .thenComparing(scored -> scored.site.item.getId()));
+        List<WebsiteItemResDto> result = new ArrayList<>(Math.min(limit, matches.size()));
+        for (int i = 0; i < matches.size() && i < limit; i++) {
+            result.add(matches.get(i).site.item);
+        }
+        return result;
+    }
+
+    /**
+     * 应用启动完成后建立索引
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        try {
+            this.rebuild();
+        } catch (Exception ex) {
+            log.error("导航搜索索引预热失败, 将在首次搜索时重试", ex);
+        }
+    }
+
+    /**
+     * 导航数据变更的事务提交后更新索引：只重新索引受影响的网站，范围未知时整体重建
+     *
+     * @param event 导航数据变更事件
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onNavigationChanged(NavigationChangedEvent event) {
+        if (this.segment == null) {
+            return; // 尚未建立索引，首次搜索时会读取最新数据
+        }
+        if (event.websiteIds() == null) {
+            this.rebuild();
+            return;
+        }
+        if (event.websiteIds().isEmpty()) {
+            return;
+        }
+
+        Map<Long, NavigationWebsite> websites = Optional.ofNullable(this.navigationWebsiteMapper.selectByIds(event.websiteIds()))
+                .orElse(Collections.emptyList()).stream()
+                .collect(Collectors.toMap(NavigationWebsite::getId, Function.identity()));
+        for (Long id : event.websiteIds()) {
+            NavigationWebsite website = websites.get(id);
+            if (website == null || DELETED.equals(website.getDelFlag())) {
+                this.remove(id);
+            } else {
+                this.upsert(website);
+            }
+        }
+    }
+
+    /**
+     * 从数据库读取全部网站，整体重建索引
+     */
+    public synchronized void rebuild() {
+        long start = System.currentTimeMillis();
+        List<NavigationWebsite> websites = Optional.ofNullable(this.navigationWebsiteMapper.selectList(Wrappers.lambdaQuery()))
+                .orElse(Collections.emptyList());
+        this.rebuild(websites);
+        log.info("导航搜索索引已重建, 网站数: {}, 索引词数: {}, 耗时: {}ms",
+                this.segment.sites.size(), this.segment.postings.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * 使用给定网站整体重建索引
+     *
+     * @param websites 全部网站
+     */
+    public synchronized void rebuild(Collection<NavigationWebsite> websites) {
+        Map<String, List<Long>> builder = new HashMap<>();
+        Map<Long, IndexedSite> sites = new ConcurrentHashMap<>(websites.size() * 2);
+        for (NavigationWebsite website : websites) {
+            if (website.getId() == null || DELETED.equals(website.getDelFlag())) {
+                continue;
+            }
+            IndexedSite site = IndexedSite.of(website);
+            sites.put(website.getId(), site);
+            for (String term : site.terms) {
+                builder.computeIfAbsent(term, key -> new ArrayList<>()).add(website.getId());
+            }
+        }
+
+        Map<String, long[]> postings = new ConcurrentHashMap<>(builder.size() * 2);
+        builder.forEach((term, ids) -> {
+            long[] posting = ids.stream().mapToLong(Long::longValue).sorted().distinct().toArray();
+            postings.put(term, posting);
+        });
+        this.segment = new Segment(postings, sites);
+    }
+
+    /**
+     * 新增或重新索引一个网站
+     *
+     * @param website 网站
+     */
+    public synchronized void upsert(NavigationWebsite website) {
+        Segment current = this.current();
+        long id = website.getId();
+        IndexedSite next = IndexedSite.of(website);
+        IndexedSite previous = current.sites.put(id, next);
+
+        Set<String> previousTerms = previous == null ? Collections.emptySet() : previous.terms;
+        for (String term : previousTerms) {
+            if (!next.terms.contains(term)) {
+                current.postings.computeIfPresent(term, (key, posting) -> without(posting, id));
+            }
+        }
+        for (String term : next.terms) {
+            if (!previousTerms.contains(term)) {
+                current.postings.compute(term, (key, posting) -> with(posting == null ? EMPTY : posting, id));
+            }
+        }
+    }
+
+    /**
+     * 从索引中移除一个网站
+     *
+     * @param id 网站 id
+     */
+    public synchronized void remove(long id) {
+        Segment current = this.current();
+        IndexedSite previous = current.sites.remove(id);
+        if (previous != null) {
+            for (String term : previous.terms) {
+                current.postings.computeIfPresent(term, (key, posting) -> without(posting, id));
+            }
+        }
+    }
+
+    /**
+     * 已索引的网站数量
+     *
+     * @return 网站数量
+     */
+    public int size() {
+        return this.current().sites.size();
+    }
+
+    private Segment current() {
+        Segment current = this.segment;
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            if (this.segment == null) {
+                this.rebuild();
+            }
+            return this.segment;
+        }
+    }
+
+    private static boolean containsAll(long[][] postings, long id) {
+        for (int i = 1; i < postings.length; i++) {
+            if (Arrays.binarySearch(postings[i], id) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 有序插入，返回新数组（写时复制，读操作看到的数组不会被修改）
+     */
+    private static long[] with(long[] posting, long id) {
+        int index = Arrays.binarySearch(posting, id);
+        if (index >= 0) {
+            return posting;
+        }
+        int insertAt = -index - 1;
+        long[] result = new long[posting.length + 1];
+        System.arraycopy(posting, 0, result, 0, insertAt);
+        result[insertAt] = id;
+        System.arraycopy(posting, insertAt, result, insertAt + 1, posting.length - insertAt);
+        return result;
+    }
+
+    /**
+     * 有序删除，列表为空时返回 null 以移除索引词
+     */
+    private static long[] without(long[] posting, long id) {
+        int index = Arrays.binarySearch(posting, id);
+        if (index < 0) {
+            return posting;
+        }
+        if (posting.length == 1) {
+            return null;
+        }
+        long[] result = new long[posting.length - 1];
+        System.arraycopy(posting, 0, result, 0, index);
+        System.arraycopy(posting, index + 1, result, index, posting.length - index - 1);
+        return result;
+    }
+
+    /**
+     * 索引数据：索引词到网站 id 列表、网站 id 到已索引网站
+     */
+    private record Segment(Map<String, long[]> postings, Map<Long, IndexedSite> sites) {
+    }
+
+    private record Scored(IndexedSite site, int score) {
+    }
+
+    /**
+     * 已索引的网站：返回给前端的展示数据和各字段的索引词
+     */
+    private static final class IndexedSite {
+
+        private final WebsiteItemResDto item;
+        private final String name;
+        private final Set<String> nameTerms;
+        private final Set<String> hostTerms;
+        private final Set<String> terms;
+
+        private IndexedSite(WebsiteItemResDto item, String name, Set<String> nameTerms, Set<String> hostTerms, Set<String> terms) {
+            this.item = item;
+            this.name = name;
+            this.nameTerms = nameTerms;
+            this.hostTerms = hostTerms;
+            this.terms = terms;
+        }
+
+        private static IndexedSite of(NavigationWebsite website) {
+            WebsiteItemResDto item = WebsiteItemResDto.builder()
+                    .id(website.getId())
+                    .siteName(website.getSiteName())
+                    .siteUrl(website.getSiteUrl())
+                    .siteIcon(website.getSiteIcon())
+                    .siteOverview(website.getSiteOverview())
+                    .siteSort(website.getSiteSort())
+                    .categoryId(website.getCategoryId())
+                    .build();
+
+            Set<String> nameTerms = SearchTokenizer.indexTerms(website.getSiteName());
+            Set<String> hostTerms = SearchTokenizer.indexTerms(SearchTokenizer.host(website.getSiteUrl()));
+            Set<String> terms = new HashSet<>(nameTerms);
+            terms.addAll(hostTerms);
+            terms.addAll(SearchTokenizer.indexTerms(website.getSiteOverview()));
+            return new IndexedSite(item, TextSegmenter.normalize(website.getSiteName()), nameTerms, hostTerms, terms);
+        }
+
+        private int score(Set<String> queryTerms, String normalizedQuery) {
+            int score = 0;
+            for (String term : queryTerms) {
+                if (this.nameTerms.contains(term)) {
+                    score += NAME_WEIGHT;
+                } else if (this.hostTerms.contains(term)) {
+                    score += HOST_WEIGHT;
+                } else {
+                    score += OVERVIEW_WEIGHT;
+                }
+            }
+            if (!normalizedQuery.isEmpty() && this.name.startsWith(normalizedQuery)) {
+                score += this.name.equals(normalizedQuery) ? NAME_EXACT_BONUS : NAME_PREFIX_BONUS;
+            }
+            return score;
+        }
+
+    }
+
+}
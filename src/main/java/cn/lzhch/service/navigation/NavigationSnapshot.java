@@ -0,0 +1,162 @@
+package cn.lzhch.service.navigation;
+
+import cn.lzhch.common.response.PreSerializedBody;
+import cn.lzhch.common.util.LongObjectHashMap;
+import cn.lzhch.dto.navigation.WebsiteItemResDto;
+import cn.lzhch.dto.navigation.WebsitesByCategoryResDto;
+import cn.lzhch.entity.NavigationCategory;
+import cn.lzhch.entity.NavigationWebsite;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 导航数据快照
+ * <p>
+ * 某一版本的全部分类和网站，构建完成后不再修改：
+ * 1. 按分类分组的结果在构建时一次算好，首页请求直接返回，不再每次 groupingBy；
+ *    分组数据来自只查询展示字段、已按排序字段排好序的专用查询，不含审计字段
+ * 2. 分类、网站以及分类下的网站列表都以 long 主键索引（{@link LongObjectHashMap}），查找不装箱
+ * 3. 版本号随每次重建递增，可用于缓存校验
+ * 4. 三个列表接口的响应体在构建时预先序列化并压缩（{@link PreSerializedBody}），请求时直接写出字节
+ * <p>
+ * 快照中的实体与其他请求共享，调用方不得修改
+ * <p>
+ * author: lzhch
+ * version: v1.0
+ * date: 2026/10/17
+ */
+
+@Getter
+public final class NavigationSnapshot {
+
+    /**
+     * 快照版本号
+     */
+    private final long version;
+
+    /**
+     * 全部分类（数据库返回顺序）
+     */
+    private final List<NavigationCategory> categoryList;
+
+    /**
+     * 全部网站（数据库返回顺序）
+     */
+    private final List<NavigationWebsite> websiteList;
+
+    /**
+     * 按分类分组的网站列表（只含展示字段，分类和网站均已按排序字段排序）
+     */
+    private final List<WebsitesByCategoryResDto> websitesByCategory;
+
+    /**
+     * 分类ID -> 分类
+     */
+    private final LongObjectHashMap<NavigationCategory> categories;
+
+    /**
+     * 网站ID -> 网站
+     */
+    private final LongObjectHashMap<NavigationWebsite> websites;
+
+    /**
+     * 分类ID -> 分类下的网站列表（只含展示字段，按网站排序）
+     */
+    private final LongObjectHashMap<List<WebsiteItemResDto>> websitesByCategoryId;
+
+    /**
+     * 预序列化的响应体：按分类分组的网站列表
+     */
+    private final PreSerializedBody websitesByCategoryBody;
+
+    /**
+     * 预序列化的响应体：全部分类
+     */
+    private final PreSerializedBody categoryListBody;
+
+    /**
+     * 预序列化的响应体：全部网站
+     */
+    private final PreSerializedBody websiteListBody;
+
+    private NavigationSnapshot(long version, List<NavigationCategory> categoryList, List<NavigationWebsite> websiteList,
+                               List<WebsitesByCategoryResDto> websitesByCategory,
+                               LongObjectHashMap<NavigationCategory> categories,
+                               LongObjectHashMap<NavigationWebsite> websites,
+                               LongObjectHashMap<List<WebsiteItemResDto>> websitesByCategoryId,
+                               ObjectMapper objectMapper) {
+        this.version = version;
+        this.categoryList = categoryList;
+        this.websiteList = websiteList;
+        this.websitesByCategory = websitesByCategory;
+        this.categories = categories;
+        this.websites = websites;
+        this.websitesByCategoryId = websitesByCategoryId;
+        this.websitesByCategoryBody = PreSerializedBody.of(objectMapper, websitesByCategory);
+        this.categoryListBody = PreSerializedBody.of(objectMapper, categoryList);
+        this.websiteListBody = PreSerializedBody.of(objectMapper, websiteList);
+    }
+
+    /**
+     * 由分类和网站构建快照
+     *
+     * @param version           版本号
+     * @param categoryList      全部分类
+     * @param websiteList       全部网站
+     * @param displayCategories 首页展示的分类（已排序，websiteList 为空）
+     * @param displayWebsites   首页展示的网站（已按分类和网站排序）
+     * @param objectMapper      预序列化响应体使用的 ObjectMapper
+     * @return 快照
+     */
+    public static NavigationSnapshot build(long version, List<NavigationCategory> categoryList,
+                                           List<NavigationWebsite> websiteList,
+                                           List<WebsitesByCategoryResDto> displayCategories,
+                                           List<WebsiteItemResDto> displayWebsites,
+                                           ObjectMapper objectMapper) {
+        LongObjectHashMap<NavigationCategory> categories = new LongObjectHashMap<>(categoryList.size());
+        for (NavigationCategory category : categoryList) {
+            categories.put(category.getId(), category);
+        }
+
+        LongObjectHashMap<NavigationWebsite> websites = new LongObjectHashMap<>(websiteList.size());
+        for (NavigationWebsite website : websiteList) {
+            websites.put(website.getId(), website);
+        }
+
+        // 网站已按排序字段返回，分组后组内顺序不变
+        LongObjectHashMap<List<WebsiteItemResDto>> grouping = new LongObjectHashMap<>(displayCategories.size());
+        for (WebsiteItemResDto website : displayWebsites) {
+            if (website.getCategoryId() != null) {
+                grouping.computeIfAbsent(website.getCategoryId(), key -> new ArrayList<>()).add(website);
+            }
+        }
+
+        LongObjectHashMap<List<WebsiteItemResDto>> websitesByCategoryId = new LongObjectHashMap<>(grouping.size());
+        grouping.forEach((categoryId, list) -> websitesByCategoryId.put(categoryId, Collections.unmodifiableList(list)));
+
+        List<WebsitesByCategoryResDto> websitesByCategory = new ArrayList<>(displayCategories.size());
+        for (WebsitesByCategoryResDto category : displayCategories) {
+            category.setWebsiteList(websitesByCategoryId.getOrDefault(category.getId(), Collections.emptyList()));
+            websitesByCategory.add(category);
+        }
+
+        return new NavigationSnapshot(version, List.copyOf(categoryList), List.copyOf(websiteList),
+                Collections.unmodifiableList(websitesByCategory),
+                categories, websites, websitesByCategoryId, objectMapper);
+    }
+
+    /**
+     * 获取分类下的网站列表
+     *
+     * @param categoryId 分类ID
+     * @return 网站列表，分类不存在或没有网站时返回空列表
+     */
+    public List<WebsiteItemResDto> getWebsites(long categoryId) {
+        return this.websitesByCategoryId.getOrDefault(categoryId, Collections.emptyList());
+    }
+
+}
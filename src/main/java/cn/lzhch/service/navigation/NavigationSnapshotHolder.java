@@ -0,0 +1,224 @@
+package cn.lzhch.service.navigation;
+
+import cn.lzhch.dto.navigation.WebsiteItemResDto;
+import cn.lzhch.dto.navigation.WebsitesByCategoryResDto;
+import cn.lzhch.entity.NavigationCategory;
+import cn.lzhch.entity.NavigationWebsite;
+import cn.lzhch.mapper.NavigationCategoryMapper;
+import cn.lzhch.mapper.NavigationWebsiteMapper;
+import cn.lzhch.service.icon.IconStore;
+import cn.lzhch.service.icon.StoredIcon;
+import com.baomidou.mybatisplus.core.toolkit.Wrappers;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.ServletRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 导航数据快照持有者
+ * <p>
+ * 读请求只读取当前快照，不访问数据库；分类或网站变更的事务提交后整体重建快照并原子替换，
+ * 正在进行的读请求继续使用旧快照，不会看到重建到一半的数据。
+ * 导航数据一天只变更几次，整体重建比增量维护简单，且重建期间读请求不受影响。
+ * 事务提交后的重建失败不影响已提交的写请求：继续使用旧快照，并由定时任务重试直到成功
+ * <p>
+ * author: lzhch
+ * version: v1.0
+ * date: 2026/10/17
+ */
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class NavigationSnapshotHolder {
+
+    /**
+     * 请求中固定使用的快照的属性名
+     */
+    private static final String REQUEST_ATTRIBUTE = NavigationSnapshotHolder.class.getName() + ".SNAPSHOT";
+
+    private final NavigationCategoryMapper navigationCategoryMapper;
+    private final NavigationWebsiteMapper navigationWebsiteMapper;
+    private final ObjectMapper objectMapper;
+    private final IconStore iconStore;
+
+    private final AtomicReference<NavigationSnapshot> current = new AtomicReference<>();
+
+    /**
+     * 当前快照是否落后于数据库（变更后的重建失败），由 {@link #retryIfStale()} 重试
+     */
+    private volatile boolean stale;
+
+    /**
+     * 是否按排序键（分数索引）排序
+     */
+    @Value("${app.navigation.sort-key.enabled:false}")
+    private boolean sortKeyEnabled;
+
+    /**
+     * 是否为每个分类生成图标雪碧图
+     */
+    @Value("${app.navigation.icon.sprite.enabled:false}")
+    private boolean spriteEnabled;
+
+    /**
+     * 雪碧图中每个图标的边长（像素）
+     */
+    @Value("${app.navigation.icon.sprite.size:32}")
+    private int spriteSize;
+
+    /**
+     * 获取当前快照，应用启动预热完成前首次访问时同步构建
+     *
+     * @return 当前快照
+     */
+    public NavigationSnapshot current() {
+        NavigationSnapshot snapshot = this.current.get();
+        if (snapshot != null) {
+            return snapshot;
+        }
+        synchronized (this) {
+            snapshot = this.current.get();
+            return snapshot != null ? snapshot : this.rebuild();
+        }
+    }
+
+    /**
+     * 获取请求固定使用的快照：同一请求内首次读取时记录到请求属性，之后的读取返回同一快照，
+     * 条件请求拦截器生成的 ETag 与控制器写出的响应体因此始终来自同一版本
+     *
+     * @param request 当前请求
+     * @return 请求固定使用的快照
+     */
+    public NavigationSnapshot current(ServletRequest request) {
+        if (request.getAttribute(REQUEST_ATTRIBUTE) instanceof NavigationSnapshot snapshot) {
+            return snapshot;
+        }
+        NavigationSnapshot snapshot = this.current();
+        request.setAttribute(REQUEST_ATTRIBUTE, snapshot);
+        return snapshot;
+    }
+
+    /**
+     * 应用启动完成后构建初始快照
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        try {
+            this.rebuild();
+        } catch (Exception ex) {
+            log.error("导航快照预热失败, 将在首次访问时重试", ex);
+        }
+    }
+
+    /**
+     * 导航数据变更的事务提交后重建快照；不在事务中发布的事件立即重建
+     *
+     * @param event 导航数据变更事件
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onNavigationChanged(NavigationChangedEvent event) {
+        log.info("导航数据变更: {}, 重建快照", event.source());
+        try {
+            this.rebuild();
+        } catch (Exception ex) {
+            // 写请求的事务已提交，异常不能再返回给客户端
+            this.stale = true;
+            log.error("导航快照重建失败, 继续使用旧快照, 将定时重试", ex);
+        }
+    }
+
+    /**
+     * 定时重试失败的重建
+     */
+    @Scheduled(initialDelayString = "${app.navigation.snapshot.retry-interval:30000}",
+            fixedDelayString = "${app.navigation.snapshot.retry-interval:30000}")
+    public void retryIfStale() {
+        if (!this.stale) {
+            return;
+        }
+        try {
+            this.rebuild();
+        } catch (Exception ex) {
+            log.error("导航快照重建重试失败, 将在下次定时任务中重试", ex);
+        }
+    }
+
+    /**
+     * 从数据库读取全部分类和网站（列表接口）以及首页展示数据，构建新版本快照并替换当前快照
+     * <p>
+     * 重建串行执行，保证版本号单调递增且后完成的重建读取到的数据不旧于先完成的
+     *
+     * @return 新快照
+     */
+    public synchronized NavigationSnapshot rebuild() {
+        long start = System.currentTimeMillis();
+        List<NavigationCategory> categoryList = Optional.ofNullable(this.navigationCategoryMapper.selectList(Wrappers.lambdaQuery()))
+                .orElse(Collections.emptyList());
+        List<NavigationWebsite> websiteList = Optional.ofNullable(this.navigationWebsiteMapper.selectList(Wrappers.lambdaQuery()))
+                .orElse(Collections.emptyList());
+
+        List<WebsitesByCategoryResDto> displayCategories = Optional.ofNullable(this.navigationCategoryMapper.selectDisplayCategories(this.sortKeyEnabled))
+                .orElse(Collections.emptyList());
+        List<WebsiteItemResDto> displayWebsites = Optional.ofNullable(this.navigationWebsiteMapper.selectDisplayWebsites(this.sortKeyEnabled))
+                .orElse(Collections.emptyList());
+
+        this.attachIcons(displayCategories, displayWebsites);
+
+        NavigationSnapshot previous = this.current.get();
+        // 首个版本取启动时间，避免重启后版本号与重启前重复
+        long version = previous == null ? System.currentTimeMillis() : previous.getVersion() + 1;
+        NavigationSnapshot snapshot = NavigationSnapshot.build(version, categoryList, websiteList,
+                displayCategories, displayWebsites, this.objectMapper);
+        this.current.set(snapshot);
+        this.stale = false;
+
+        log.info("导航快照已重建, 版本: {}, 分类数: {}, 网站数: {}, 响应体: {}B (gzip {}B), 耗时: {}ms",
+                version, categoryList.size(), websiteList.size(), snapshot.getWebsitesByCategoryBody().identityLength(),
+                snapshot.getWebsitesByCategoryBody().gzipLength(), System.currentTimeMillis() - start);
+        return snapshot;
+    }
+
+    /**
+     * 为首页展示数据填充本地图标地址，启用雪碧图时为每个分类生成雪碧图并填充序号
+     */
+    private void attachIcons(List<WebsitesByCategoryResDto> displayCategories, List<WebsiteItemResDto> displayWebsites) {
+        Map<Long, List<Map.Entry<WebsiteItemResDto, StoredIcon>>> iconsByCategory = new HashMap<>();
+        for (WebsiteItemResDto website : displayWebsites) {
+            this.iconStore.lookup(website.getSiteIcon()).ifPresent(icon -> {
+                website.setIconUrl(icon.url());
+                iconsByCategory.computeIfAbsent(website.getCategoryId(), key -> new ArrayList<>()).add(Map.entry(website, icon));
+            });
+        }
+        if (!this.spriteEnabled) {
+            return;
+        }
+
+        for (WebsitesByCategoryResDto category : displayCategories) {
+            List<Map.Entry<WebsiteItemResDto, StoredIcon>> icons = iconsByCategory.get(category.getId());
+            if (icons == null) {
+                continue;
+            }
+            this.iconStore.sprite(icons.stream().map(Map.Entry::getValue).toList(), this.spriteSize).ifPresent(sprite -> {
+                category.setSpriteUrl(sprite.image().url());
+                category.setSpriteSize(sprite.size());
+                icons.forEach(entry -> entry.getKey().setSpriteIndex(sprite.indexOf(entry.getValue())));
+            });
+        }
+    }
+
+}
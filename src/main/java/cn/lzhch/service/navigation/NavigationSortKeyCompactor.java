@@ -0,0 +1,75 @@
+package cn.lzhch.service.navigation;
+
+import cn.lzhch.service.NavigationCategoryService;
+import cn.lzhch.service.NavigationWebsiteService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * 导航排序键压缩任务
+ * <p>
+ * 在同一位置反复移动会让排序键逐渐变长，该任务定期找出存在过长或尚未回填排序键的类别（以及分类本身），
+ * 按当前展示顺序重新分配最短的排序键。每个类别在独立的事务中压缩，展示顺序不变，不需要重建导航快照。
+ * 启用排序键模式后的首次执行同时完成历史数据的回填
+ * <p>
+ * author: lzhch
+ * version: v1.0
+ * date: 2026/10/17
+ */
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class NavigationSortKeyCompactor {
+
+    private final NavigationWebsiteService navigationWebsiteService;
+    private final NavigationCategoryService navigationCategoryService;
+
+    /**
+     * 是否按排序键（分数索引）排序
+     */
+    @Value("${app.navigation.sort-key.enabled:false}")
+    private boolean sortKeyEnabled;
+
+    /**
+     * 排序键超过该长度时压缩
+     */
+    @Value("${app.navigation.sort-key.max-length:16}")
+    private int maxLength;
+
+    /**
+     * 定时压缩排序键
+     */
+    @Scheduled(initialDelayString = "${app.navigation.sort-key.compaction-initial-delay:60000}",
+            fixedDelayString = "${app.navigation.sort-key.compaction-interval:3600000}")
+    public void compact() {
+        if (!this.sortKeyEnabled) {
+            return;
+        }
+
+        long start = System.currentTimeMillis();
+        int rewritten = 0;
+        List<Long> categoryIds = this.navigationWebsiteService.listCategoryIdsToCompact(this.maxLength);
+        for (Long categoryId : categoryIds) {
+            try {
+                rewritten += this.navigationWebsiteService.compactSortKeys(categoryId);
+            } catch (Exception ex) {
+                log.error("压缩网站排序键失败, 类别 id: {}", categoryId, ex);
+            }
+        }
+        if (this.navigationCategoryService.needsCompaction(this.maxLength)) {
+            rewritten += this.navigationCategoryService.compactSortKeys();
+        }
+
+        if (rewritten > 0) {
+            log.info("导航排序键已压缩, 类别数: {}, 改写行数: {}, 耗时: {}ms",
+                    categoryIds.size(), rewritten, System.currentTimeMillis() - start);
+        }
+    }
+
+}
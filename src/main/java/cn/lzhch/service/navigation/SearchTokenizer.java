@@ -0,0 +1,108 @@
+package cn.lzhch.service.navigation;
+
+import cn.lzhch.common.util.TextSegmenter;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * 网站搜索分词
+ * <p>
+ * 文本按 {@link TextSegmenter} 归一化并切分为两类片段：
+ * 1. 字母数字单词：索引时生成全部前缀（edge n-gram），查询时整个单词作为前缀匹配
+ * 2. 中日韩文字：索引时生成单字和相邻二字（bigram），查询时单字查单字、多字拆为二字，全部命中才匹配
+ * <p>
+ * author: lzhch
+ * version: v1.0
+ * date: 2026/10/17
+ */
+
+final class SearchTokenizer {
+
+    /**
+     * 单词前缀的最大长度，更长的查询词按该长度截断
+     */
+    static final int MAX_PREFIX_LENGTH = 24;
+
+    private SearchTokenizer() {
+    }
+
+    /**
+     * 生成索引词
+     *
+     * @param text 文本
+     * @return 索引词（去重）
+     */
+    static Set<String> indexTerms(String text) {
+        Set<String> terms = new LinkedHashSet<>();
+        tokenize(text, true, terms);
+        return terms;
+    }
+
+    /**
+     * 生成查询词
+     *
+     * @param query 查询文本
+     * @return 查询词（去重）
+     */
+    static Set<String> queryTerms(String query) {
+        Set<String> terms = new LinkedHashSet<>();
+        tokenize(query, false, terms);
+        return terms;
+    }
+
+    /**
+     * 从网址中取出主机名，去掉 www. 前缀
+     *
+     * @param url 网址
+     * @return 主机名，无法解析时返回空串
+     */
+    static String host(String url) {
+        String value = TextSegmenter.normalize(url).trim();
+        int scheme = value.indexOf("://");
+        if (scheme >= 0) {
+            value = value.substring(scheme + 3);
+        }
+        int end = value.length();
+        for (char delimiter : new char[]{'/', '?', '#', ':'}) {
+            int index = value.indexOf(delimiter);
+            if (index >= 0 && index < end) {
+                end = index;
+            }
+        }
+        value = value.substring(0, end);
+        int userInfo = value.lastIndexOf('@');
+        if (userInfo >= 0) {
+            value = value.substring(userInfo + 1);
+        }
+        return value.startsWith("www.") ? value.substring(4) : value;
+    }
+
+    private static void tokenize(String text, boolean index, Set<String> terms) {
+        TextSegmenter.segment(text, word -> wordTerms(word, index, terms), run -> cjkTerms(run, index, terms));
+    }
+
+    private static void wordTerms(String word, boolean index, Set<String> terms) {
+        int maxLength = Math.min(word.codePointCount(0, word.length()), MAX_PREFIX_LENGTH);
+        if (!index) {
+            terms.add(word.substring(0, word.offsetByCodePoints(0, maxLength)));
+            return;
+        }
+        for (int prefix = 1; prefix <= maxLength; prefix++) {
+            terms.add(word.substring(0, word.offsetByCodePoints(0, prefix)));
+        }
+    }
+
+    private static void cjkTerms(String run, boolean index, Set<String> terms) {
+        int[] codePoints = run.codePoints().toArray();
+        if (index || codePoints.length == 1) {
+            for (int codePoint : codePoints) {
+                terms.add(Character.toString(codePoint));
+            }
+        }
+        for (int i = 0; i + 1 < codePoints.length; i++) {
+            terms.add(new String(codePoints, i, 2));
+        }
+    }
+
+}
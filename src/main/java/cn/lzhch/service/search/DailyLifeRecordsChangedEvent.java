@@ -0,0 +1,32 @@
+package cn.lzhch.service.search;
+
+import java.util.Collection;
+import java.util.Objects;
+
+/**
+ * 日常生活记录变更事件
+ * <p>
+ * 通过 {@link cn.lzhch.service.IDailyLifeRecordsService} 或批量导入新增、更新、删除记录后发布，
+ * 事务提交后全文检索索引按 id 重新读取记录并增量更新
+ * <p>
+ * author: lzhch
+ * version: v1.0
+ * date: 2026/10/17
+ *
+ * @param source 变更来源，仅用于日志
+ * @param ids    受影响的记录 id
+ */
+public record DailyLifeRecordsChangedEvent(String source, Collection<Long> ids) {
+
+    /**
+     * 指定记录的变更
+     *
+     * @param source 变更来源
+     * @param ids    受影响的记录 id，忽略其中的 null
+     * @return 变更事件
+     */
+    public static DailyLifeRecordsChangedEvent of(String source, Collection<Long> ids) {
+        return new DailyLifeRecordsChangedEvent(source, ids.stream().filter(Objects::nonNull).distinct().toList());
+    }
+
+}
@@ -0,0 +1,446 @@
+package cn.lzhch.service.search;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.TreeSet;
+
+/**
+ * 磁盘索引段
+ * <p>
+ * 段文件写入后不再修改，读取时整体内存映射，词典和倒排列表都不加载到堆中。文件布局：
+ * <pre>
+ * 文件头（64 字节）：魔数、版本、文档数、词数、总长度、各区起始位置
+ * 文档 id：long[文档数]，升序
+ * 文档长度：int[文档数]
+ * 倒排列表：每个词依次写入 (序号差值, 词频) 的变长整数
+ * 词典：全部词的 UTF-8 字节按无符号字节序排列后拼接
+ * 词偏移：int[词数 + 1]，词在词典中的起止位置
+ * 文档频率：int[词数]
+ * 倒排偏移：long[词数 + 1]，倒排列表在文件中的起止位置
+ * </pre>
+ * 删除标记不写入段文件，由清单文件保存
+ * <p>
+ * author: lzhch
+ * version: v1.0
+ * date: 2026/10/17
+ */
+
+final class DiskSegment extends IndexSegment {
+
+    private static final int MAGIC = 0x52534547; // RSEG
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 64;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final String name;
+    private final MappedByteBuffer buffer;
+    private final int maxDoc;
+    private final int termCount;
+    private final long totalLength;
+    private final int idsStart;
+    private final int lengthsStart;
+    private final int termBytesStart;
+    private final int termOffsetsStart;
+    private final int docFreqsStart;
+    private final int postingOffsetsStart;
+
+    private DiskSegment(String name, MappedByteBuffer buffer) throws IOException {
+        this.name = name;
+        this.buffer = buffer;
+        if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IOException("索引段文件格式错误: " + name);
+        }
+        this.maxDoc = buffer.getInt(8);
+        this.termCount = buffer.getInt(12);
+        this.totalLength = buffer.getLong(16);
+        this.idsStart = HEADER_BYTES;
+        this.lengthsStart = this.idsStart + this.maxDoc * Long.BYTES;
+        this.termBytesStart = (int) buffer.getLong(32);
+        this.termOffsetsStart = (int) buffer.getLong(40);
+        this.docFreqsStart = (int) buffer.getLong(48);
+        this.postingOffsetsStart = (int) buffer.getLong(56);
+    }
+
+    /**
+     * 打开段文件
+     *
+     * @param file 段文件
+     * @return 磁盘段
+     * @throws IOException 读取失败或格式错误
+     */
+    static DiskSegment open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("索引段文件超过 2GB: " + file);
+            }
+            // 映射在通道关闭后仍然有效
+            return new DiskSegment(file.getFileName().toString(), channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * 把若干段中未删除的文档写成一个新的段文件（先写临时文件，完成后原子替换）
+     *
+     * @param file    段文件
+     * @param sources 来源段
+     * @param deletes 各来源段的删除标记，写入期间来源段的新删除由调用方另行同步
+     * @throws IOException 写入失败
+     */
+    static void write(Path file, List<IndexSegment> sources, List<BitSet> deletes) throws IOException {
+        // 新段按 id 升序编号
+        int live = 0;
+        for (int s = 0; s < sources.size(); s++) {
+            live += sources.get(s).maxDoc() - deletes.get(s).cardinality();
+        }
+        long[] ids = new long[live];
+        int n = 0;
+        for (int s = 0; s < sources.size(); s++) {
+            IndexSegment source = sources.get(s);
+            for (int ordinal = 0; ordinal < source.maxDoc(); ordinal++) {
+                if (!deletes.get(s).get(ordinal)) {
+                    ids[n++] = source.id(ordinal);
+                }
+            }
+        }
+        Arrays.sort(ids);
+        int[][] ordinalMaps = new int[sources.size()][];
+        int[] lengths = new int[live];
+        long totalLength = 0;
+        for (int s = 0; s < sources.size(); s++) {
+            IndexSegment source = sources.get(s);
+            int[] ordinalMap = new int[source.maxDoc()];
+            for (int ordinal = 0; ordinal < source.maxDoc(); ordinal++) {
+                if (deletes.get(s).get(ordinal)) {
+                    ordinalMap[ordinal] = -1;
+                    continue;
+                }
+                int target = Arrays.binarySearch(ids, source.id(ordinal));
+                ordinalMap[ordinal] = target;
+                lengths[target] = source.length(ordinal);
+                totalLength += lengths[target];
+            }
+            ordinalMaps[s] = ordinalMap;
+        }
+
+        TreeSet<byte[]> terms = new TreeSet<>(Arrays::compareUnsigned);
+        for (IndexSegment source : sources) {
+            for (String term : source.terms()) {
+                terms.add(term.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE)) {
+            channel.position(HEADER_BYTES);
+            CountingOutput out = new CountingOutput(Channels.newOutputStream(channel), HEADER_BYTES);
+            for (long id : ids) {
+                out.data.writeLong(id);
+            }
+            for (int length : lengths) {
+                out.data.writeInt(length);
+            }
+            out.position += (long) live * (Long.BYTES + Integer.BYTES);
+
+            ByteArrayOutputStream termBytes = new ByteArrayOutputStream();
+            List<Integer> termOffsets = new ArrayList<>();
+            List<Integer> docFreqs = new ArrayList<>();
+            List<Long> postingOffsets = new ArrayList<>();
+            long[] entries = new long[64];
+            for (byte[] term : terms) {
+                String text = new String(term, StandardCharsets.UTF_8);
+                int count = 0;
+                boolean sorted = true;
+                for (int s = 0; s < sources.size(); s++) {
+                    Postings postings = sources.get(s).postings(text);
+                    if (postings == null) {
+                        continue;
+                    }
+                    for (int doc = postings.nextDoc(); doc != NO_MORE_DOCS; doc = postings.nextDoc()) {
+                        int target = ordinalMaps[s][doc];
+                        if (target < 0) {
+                            continue;
+                        }
+                        if (count == entries.length) {
+                            entries = Arrays.copyOf(entries, count * 2);
+                        }
+                        entries[count] = (long) target << 32 | postings.freq();
+                        sorted &= count == 0 || entries[count - 1] < entries[count];
+                        count++;
+                    }
+                }
+                if (count == 0) {
+                    continue; // 只出现在已删除的文档中
+                }
+                if (!sorted) {
+                    Arrays.sort(entries, 0, count);
+                }
+                termOffsets.add(termBytes.size());
+                termBytes.write(term);
+                docFreqs.add(count);
+                postingOffsets.add(out.position);
+                int previous = 0;
+                for (int i = 0; i < count; i++) {
+                    int doc = (int) (entries[i] >>> 32);
+                    out.writeVarInt(doc - previous);
+                    out.writeVarInt((int) entries[i]);
+                    previous = doc;
+                }
+            }
+            termOffsets.add(termBytes.size());
+            postingOffsets.add(out.position);
+
+            long termBytesStart = out.position;
+            termBytes.writeTo(out.data);
+            out.position += termBytes.size();
+            long termOffsetsStart = out.position;
+            for (int offset : termOffsets) {
+                out.data.writeInt(offset);
+            }
+            long docFreqsStart = termOffsetsStart + (long) termOffsets.size() * Integer.BYTES;
+            for (int docFreq : docFreqs) {
+                out.data.writeInt(docFreq);
+            }
+            long postingOffsetsStart = docFreqsStart + (long) docFreqs.size() * Integer.BYTES;
+            for (long offset : postingOffsets) {
+                out.data.writeLong(offset);
+            }
+            out.data.flush();
+            if (postingOffsetsStart + (long) postingOffsets.size() * Long.BYTES > Integer.MAX_VALUE) {
+                throw new IOException("索引段文件超过 2GB: " + file);
+            }
+
+            channel.position(0);
+            DataOutputStream header = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), HEADER_BYTES));
+            header.writeInt(MAGIC);
+            header.writeInt(VERSION);
+            header.writeInt(live);
+            header.writeInt(docFreqs.size());
+            header.writeLong(totalLength);
+            header.writeLong(HEADER_BYTES + (long) live * (Long.BYTES + Integer.BYTES)); // 倒排列表起始位置
+            header.writeLong(termBytesStart);
+            header.writeLong(termOffsetsStart);
+            header.writeLong(docFreqsStart);
+            header.writeLong(postingOffsetsStart);
+            header.flush();
+            channel.force(true);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    String name() {
+        return this.name;
+    }
+
+    @Override
+    int maxDoc() {
+        return this.maxDoc;
+    }
+
+    @Override
+    long id(int ordinal) {
+        return this.buffer.getLong(this.idsStart + ordinal * Long.BYTES);
+    }
+
+    @Override
+    int length(int ordinal) {
+        return this.buffer.getInt(this.lengthsStart + ordinal * Integer.BYTES);
+    }
+
+    @Override
+    long totalLength() {
+        return this.totalLength;
+    }
+
+    @Override
+    int ordinal(long id) {
+        int low = 0;
+        int high = this.maxDoc - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long value = this.id(mid);
+            if (value < id) {
+                low = mid + 1;
+            } else if (value > id) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    Postings postings(String term) {
+        byte[] key = term.getBytes(StandardCharsets.UTF_8);
+        int index = this.lowerBound(key);
+        if (index >= this.termCount || this.compareTerm(index, key, false) != 0) {
+            return null;
+        }
+        return this.postings(index);
+    }
+
+    @Override
+    List<String> termsWithPrefix(String prefix, int max) {
+        byte[] key = prefix.getBytes(StandardCharsets.UTF_8);
+        List<String> terms = new ArrayList<>();
+        for (int index = this.lowerBound(key); index < this.termCount && terms.size() < max; index++) {
+            if (this.compareTerm(index, key, true) != 0) {
+                break;
+            }
+            terms.add(this.term(index));
+        }
+        return terms;
+    }
+
+    @Override
+    Iterable<String> terms() {
+        return () -> new Iterator<>() {
+            private int index;
+
+            @Override
+            public boolean hasNext() {
+                return this.index < termCount;
+            }
+
+            @Override
+            public String next() {
+                if (!this.hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return term(this.index++);
+            }
+        };
+    }
+
+    private Postings postings(int index) {
+        int docFreq = this.buffer.getInt(this.docFreqsStart + index * Integer.BYTES);
+        int start = (int) this.buffer.getLong(this.postingOffsetsStart + index * Long.BYTES);
+        MappedByteBuffer data = this.buffer;
+        return new Postings() {
+            private int position = start;
+            private int remaining = docFreq;
+            private int doc;
+            private int freq;
+
+            @Override
+            public int docFreq() {
+                return docFreq;
+            }
+
+            @Override
+            public int nextDoc() {
+                if (this.remaining == 0) {
+                    return this.doc = NO_MORE_DOCS;
+                }
+                this.remaining--;
+                this.doc += this.readVarInt();
+                this.freq = this.readVarInt();
+                return this.doc;
+            }
+
+            @Override
+            public int freq() {
+                return this.freq;
+            }
+
+            private int readVarInt() {
+                int value = 0;
+                for (int shift = 0; ; shift += 7) {
+                    byte b = data.get(this.position++);
+                    value |= (b & 0x7F) << shift;
+                    if (b >= 0) {
+                        return value;
+                    }
+                }
+            }
+        };
+    }
+
+    private String term(int index) {
+        int start = this.termStart(index);
+        byte[] bytes = new byte[this.termStart(index + 1) - start];
+        this.buffer.get(this.termBytesStart + start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private int termStart(int index) {
+        return this.buffer.getInt(this.termOffsetsStart + index * Integer.BYTES);
+    }
+
+    /**
+     * 第一个不小于 key 的词的下标
+     */
+    private int lowerBound(byte[] key) {
+        int low = 0;
+        int high = this.termCount;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (this.compareTerm(mid, key, false) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * 按无符号字节序比较词典中的词与 key；prefix 为 true 时只比较 key 长度的前缀
+     */
+    private int compareTerm(int index, byte[] key, boolean prefix) {
+        int start = this.termBytesStart + this.termStart(index);
+        int length = this.termStart(index + 1) - this.termStart(index);
+        int common = Math.min(length, key.length);
+        for (int i = 0; i < common; i++) {
+            int diff = Byte.toUnsignedInt(this.buffer.get(start + i)) - Byte.toUnsignedInt(key[i]);
+            if (diff != 0) {
+                return diff;
+            }
+        }
+        return prefix && length >= key.length ? 0 : length - key.length;
+    }
+
+    /**
+     * 记录写入位置的输出流
+     */
+    private static final class CountingOutput {
+
+        private final DataOutputStream data;
+        private long position;
+
+        private CountingOutput(OutputStream out, long position) {
+            this.data = new DataOutputStream(new BufferedOutputStream(out, BUFFER_SIZE));
+            this.position = position;
+        }
+
+        private void writeVarInt(int value) throws IOException {
+            while ((value & ~0x7F) != 0) {
+                this.data.write((value & 0x7F) | 0x80);
+                value >>>= 7;
+                this.position++;
+            }
+            this.data.write(value);
+            this.position++;
+        }
+
+    }
+
+}
@@ -0,0 +1,160 @@
+package cn.lzhch.service.search;
+
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * 全文检索索引段
+ * <p>
+ * 段内文档按序号（ordinal）编号，倒排列表按序号升序；文档内容写入后不再修改，
+ * 更新文档时在旧段中标记删除并写入新段。读写由 {@link RecordSearchIndex} 的读写锁保护
+ * <p>
+ * author: lzhch
+ * version: v1.0
+ * date: 2026/10/17
+ */
+
+abstract class IndexSegment {
+
+    /**
+     * 倒排列表结束标记
+     */
+    static final int NO_MORE_DOCS = Integer.MAX_VALUE;
+
+    private final BitSet deletes = new BitSet();
+    private int deletedDocs;
+    private long deletedLength;
+
+    /**
+     * 文档序号上界（含已删除的文档）
+     */
+    abstract int maxDoc();
+
+    /**
+     * 文档 id
+     */
+    abstract long id(int ordinal);
+
+    /**
+     * 文档长度（词数）
+     */
+    abstract int length(int ordinal);
+
+    /**
+     * 全部文档长度之和（含已删除的文档）
+     */
+    abstract long totalLength();
+
+    /**
+     * 按 id 查找文档序号
+     *
+     * @param id 文档 id
+     * @return 序号，不存在时返回 -1
+     */
+    abstract int ordinal(long id);
+
+    /**
+     * 索引词的倒排列表
+     *
+     * @param term 索引词
+     * @return 倒排列表，索引词不存在时返回 null
+     */
+    abstract Postings postings(String term);
+
+    /**
+     * 按前缀查找索引词
+     *
+     * @param prefix 前缀
+     * @param max    最多返回个数
+     * @return 索引词
+     */
+    abstract List<String> termsWithPrefix(String prefix, int max);
+
+    /**
+     * 全部索引词，用于合并段
+     */
+    abstract Iterable<String> terms();
+
+    boolean isDeleted(int ordinal) {
+        return this.deletes.get(ordinal);
+    }
+
+    /**
+     * 标记删除
+     *
+     * @param ordinal 文档序号
+     * @return 是否为新删除
+     */
+    boolean delete(int ordinal) {
+        if (this.deletes.get(ordinal)) {
+            return false;
+        }
+        this.deletes.set(ordinal);
+        this.deletedDocs++;
+        this.deletedLength += this.length(ordinal);
+        return true;
+    }
+
+    /**
+     * 按 id 标记删除
+     *
+     * @param id 文档 id
+     * @return 是否为新删除
+     */
+    boolean deleteId(long id) {
+        int ordinal = this.ordinal(id);
+        return ordinal >= 0 && this.delete(ordinal);
+    }
+
+    /**
+     * 删除标记的副本
+     */
+    BitSet deletes() {
+        return (BitSet) this.deletes.clone();
+    }
+
+    int liveDocs() {
+        return this.maxDoc() - this.deletedDocs;
+    }
+
+    long liveLength() {
+        return this.totalLength() - this.deletedLength;
+    }
+
+    /**
+     * 倒排列表迭代器
+     */
+    interface Postings {
+
+        /**
+         * 包含该词的文档数（含已删除的文档）
+         */
+        int docFreq();
+
+        /**
+         * 下一个文档序号，没有时返回 {@link #NO_MORE_DOCS}
+         */
+        int nextDoc();
+
+        /**
+         * 当前文档中该词的出现次数
+         */
+        int freq();
+
+        /**
+         * 前进到不小于 target 的第一个文档
+         *
+         * @param target 目标序号
+         * @return 文档序号，没有时返回 {@link #NO_MORE_DOCS}
+         */
+        default int advance(int target) {
+            int doc;
+            do {
+                doc = this.nextDoc();
+            } while (doc < target);
+            return doc;
+        }
+
+    }
+
+}
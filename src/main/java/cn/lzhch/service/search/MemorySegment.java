@@ -0,0 +1,148 @@
+package cn.lzhch.service.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * 内存索引段
+ * <p>
+ * 接收最近写入的文档，序号按写入顺序分配；达到阈值或定时刷新时写成磁盘段。
+ * 同一 id 再次写入时旧序号已被标记删除，按 id 查找返回最新的序号
+ * <p>
+ * author: lzhch
+ * version: v1.0
+ * date: 2026/10/17
+ */
+
+final class MemorySegment extends IndexSegment {
+
+    private final Map<Long, Integer> ordinals = new HashMap<>();
+    private final NavigableMap<String, PostingBuffer> postings = new TreeMap<>();
+
+    private long[] ids = new long[256];
+    private int[] lengths = new int[256];
+    private int size;
+    private long totalLength;
+
+    /**
+     * 写入文档
+     *
+     * @param id          文档 id
+     * @param frequencies 索引词及词频
+     * @return 文档序号
+     */
+    int add(long id, Map<String, Integer> frequencies) {
+        if (this.size == this.ids.length) {
+            this.ids = Arrays.copyOf(this.ids, this.size * 2);
+            this.lengths = Arrays.copyOf(this.lengths, this.size * 2);
+        }
+        int ordinal = this.size++;
+        int length = 0;
+        for (Map.Entry<String, Integer> entry : frequencies.entrySet()) {
+            this.postings.computeIfAbsent(entry.getKey(), key -> new PostingBuffer()).add(ordinal, entry.getValue());
+            length += entry.getValue();
+        }
+        this.ids[ordinal] = id;
+        this.lengths[ordinal] = length;
+        this.totalLength += length;
+        this.ordinals.put(id, ordinal);
+        return ordinal;
+    }
+
+    @Override
+    int maxDoc() {
+        return this.size;
+    }
+
+    @Override
+    long id(int ordinal) {
+        return this.ids[ordinal];
+    }
+
+    @Override
+    int length(int ordinal) {
+        return this.lengths[ordinal];
+    }
+
+    @Override
+    long totalLength() {
+        return this.totalLength;
+    }
+
+    @Override
+    int ordinal(long id) {
+        return this.ordinals.getOrDefault(id, -1);
+    }
+
+    @Override
+    Postings postings(String term) {
+        PostingBuffer buffer = this.postings.get(term);
+        return buffer == null ? null : buffer.iterator();
+    }
+
+    @Override
+    List<String> termsWithPrefix(String prefix, int max) {
+        List<String> terms = new ArrayList<>();
+        for (String term : this.postings.tailMap(prefix, true).keySet()) {
+            if (!term.startsWith(prefix) || terms.size() >= max) {
+                break;
+            }
+            terms.add(term);
+        }
+        return terms;
+    }
+
+    @Override
+    Iterable<String> terms() {
+        return this.postings.keySet();
+    }
+
+    /**
+     * 可增长的倒排列表，序号按写入顺序递增
+     */
+    private static final class PostingBuffer {
+
+        private int[] docs = new int[4];
+        private int[] freqs = new int[4];
+        private int size;
+
+        private void add(int doc, int freq) {
+            if (this.size == this.docs.length) {
+                this.docs = Arrays.copyOf(this.docs, this.size * 2);
+                this.freqs = Arrays.copyOf(this.freqs, this.size * 2);
+            }
+            this.docs[this.size] = doc;
+            this.freqs[this.size] = freq;
+            this.size++;
+        }
+
+        private Postings iterator() {
+            int count = this.size;
+            return new Postings() {
+                private int index = -1;
+
+                @Override
+                public int docFreq() {
+                    return count;
+                }
+
+                @Override
+                public int nextDoc() {
+                    return ++this.index < count ? docs[this.index] : NO_MORE_DOCS;
+                }
+
+                @Override
+                public int freq() {
+                    return freqs[this.index];
+                }
+            };
+        }
+
+    }
+
+}
@@ -0,0 +1,153 @@
+package cn.lzhch.service.search;
+
+import cn.lzhch.common.util.TextSegmenter;
+import org.springframework.web.util.HtmlUtils;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * 日常生活记录搜索摘要
+ * <p>
+ * 在原文中定位查询词（与索引相同的归一化规则），截取命中最密集的一段，
+ * 转义 HTML 后用 &lt;em&gt; 标出命中位置，前端可直接作为 HTML 展示
+ * <p>
+ * author: lzhch
+ * version: v1.0
+ * date: 2026/10/17
+ */
+
+public final class RecordHighlighter {
+
+    private static final String ELLIPSIS = "…";
+    private static final String PRE_TAG = "<em>";
+    private static final String POST_TAG = "</em>";
+
+    /**
+     * 命中位置之前保留的字符数
+     */
+    private static final int LEADING_CONTEXT = 20;
+
+    private RecordHighlighter() {
+    }
+
+    /**
+     * 生成摘要
+     *
+     * @param content   记录内容
+     * @param query     查询文本
+     * @param maxLength 摘要最大长度（不含省略号和标签）
+     * @return 已转义并标出命中位置的摘要
+     */
+    public static String snippet(String content, String query, int maxLength) {
+        if (content == null || content.isEmpty()) {
+            return "";
+        }
+        List<int[]> ranges = ranges(content, query);
+
+        int start = 0;
+        if (!ranges.isEmpty()) {
+            // 以某个命中位置开头的窗口中，选包含命中最多的一个
+            int best = -1;
+            for (int[] anchor : ranges) {
+                int windowStart = Math.max(anchor[0] - LEADING_CONTEXT, 0);
+                int count = 0;
+                for (int[] range : ranges) {
+                    if (range[0] >= windowStart && range[1] <= windowStart + maxLength) {
+                        count++;
+                    }
+                }
+                if (count > best) {
+                    best = count;
+                    start = windowStart;
+                }
+            }
+        }
+        int end = Math.min(start + maxLength, content.length());
+        start = Math.max(Math.min(start, end - maxLength), 0);
+        if (start > 0 && Character.isLowSurrogate(content.charAt(start))) {
+            start--;
+        }
+        if (end < content.length() && Character.isLowSurrogate(content.charAt(end))) {
+            end++;
+        }
+
+        StringBuilder snippet = new StringBuilder(end - start + 32);
+        if (start > 0) {
+            snippet.append(ELLIPSIS);
+        }
+        int position = start;
+        for (int[] range : ranges) {
+            int from = Math.max(range[0], start);
+            int to = Math.min(range[1], end);
+            if (from >= to) {
+                continue;
+            }
+            snippet.append(HtmlUtils.htmlEscape(content.substring(position, from)))
+                    .append(PRE_TAG).append(HtmlUtils.htmlEscape(content.substring(from, to))).append(POST_TAG);
+            position = to;
+        }
+        snippet.append(HtmlUtils.htmlEscape(content.substring(position, end)));
+        if (end < content.length()) {
+            snippet.append(ELLIPSIS);
+        }
+        return snippet.toString();
+    }
+
+    /**
+     * 查询词在原文中的位置 [start, end)，按起点排序并合并重叠部分
+     */
+    static List<int[]> ranges(String content, String query) {
+        // 逐个码点归一化，记录归一化文本每个字符对应的原文区间
+        StringBuilder normalized = new StringBuilder(content.length());
+        List<Integer> starts = new ArrayList<>(content.length());
+        List<Integer> ends = new ArrayList<>(content.length());
+        for (int i = 0; i < content.length(); ) {
+            int codePoint = content.codePointAt(i);
+            int next = i + Character.charCount(codePoint);
+            String part = TextSegmenter.normalize(Character.toString(codePoint));
+            for (int k = 0; k < part.length(); k++) {
+                starts.add(i);
+                ends.add(next);
+            }
+            normalized.append(part);
+            i = next;
+        }
+
+        List<int[]> ranges = new ArrayList<>();
+        String text = normalized.toString();
+        for (RecordTokenizer.QueryTerm term : RecordTokenizer.queryTerms(query)) {
+            String needle = term.text();
+            boolean word = !TextSegmenter.isCjk(needle.codePointAt(0));
+            for (int index = text.indexOf(needle); index >= 0; index = text.indexOf(needle, index + 1)) {
+                int last = index + needle.length() - 1;
+                // 英文单词按整词匹配，避免在其他单词中间标出
+                if (word && (isWordPart(text, index - 1) || isWordPart(text, last + 1))) {
+                    continue;
+                }
+                ranges.add(new int[]{starts.get(index), ends.get(last)});
+            }
+        }
+        ranges.sort(Comparator.comparingInt(range -> range[0]));
+
+        List<int[]> merged = new ArrayList<>(ranges.size());
+        for (int[] range : ranges) {
+            int[] previous = merged.isEmpty() ? null : merged.get(merged.size() - 1);
+            if (previous != null && range[0] <= previous[1]) {
+                previous[1] = Math.max(previous[1], range[1]);
+            } else {
+                merged.add(range);
+            }
+        }
+        return merged;
+    }
+
+    private static boolean isWordPart(String text, int index) {
+        if (index < 0 || index >= text.length()) {
+            return false;
+        }
+        return TextSegmenter.isWordPart(text.charAt(index));
+    }
+
+}
@@ -0,0 +1,993 @@
+package cn.lzhch.service.search;
+
+import cn.lzhch.common.exception.ServiceBusyException;
+import cn.lzhch.entity.DailyLifeRecords;
+import cn.lzhch.mapper.DailyLifeRecordsMapper;
+import com.google.common.collect.Lists;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.cursor.Cursor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * 日常生活记录全文检索索引
+ * <p>
+ * 对记录内容建立倒排索引，按 BM25 排序，查询不访问数据库：
+ * 1. 分词规则见 {@link RecordTokenizer}：英文按单词匹配，中文按二字匹配，单个中文字按前缀匹配；多个查询词全部命中才匹配
+ * 2. 最近写入的记录在内存段中，达到 flush-docs 条或定时刷新时写成磁盘段；磁盘段只读并内存映射，
+ * 超过 max-segments 个时把最小的几个合并为一个，合并期间不阻塞搜索和写入
+ * 3. 更新记录时在旧段中标记删除再写入内存段，删除标记保存在清单文件 segments 中
+ * 4. 每次写入先追加到 journal.log，刷新时轮转；重启时加载清单中的段并回放未提交的日志，不重新读取整表
+ * <p>
+ * 启动时没有完整的索引（首次启用或上次构建中断）则在后台从数据库流式构建，构建完成前搜索返回服务繁忙。
+ * 通过 Service 和批量导入的写入在事务提交后增量更新；直接执行 SQL 或按条件批量更新不会同步，需调用 {@link #rebuild()}
+ * <p>
+ * author: lzhch
+ * version: v1.0
+ * date: 2026/10/17
+ */
+
+@Slf4j
+@Component
+public class RecordSearchIndex {
+
+    private static final String MANIFEST_FILE = "segments";
+    private static final String JOURNAL_FILE = "journal.log";
+    private static final Pattern GENERATION_FILE = Pattern.compile("(?:segment|journal)-(\\d+)\\.(?:seg|log)");
+    private static final int MANIFEST_MAGIC = 0x52534D46; // RSMF
+    private static final int MANIFEST_VERSION = 1;
+    private static final byte UPSERT = 1;
+    private static final byte DELETE = 2;
+
+    private static final String DELETED = "1";
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int MAX_PREFIX_TERMS = 256;
+    private static final int RELOAD_BATCH_SIZE = 500;
+    private static final long RETRY_AFTER_SECONDS = 5;
+
+    private final DailyLifeRecordsMapper dailyLifeRecordsMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final Path dir;
+    private final Path journalFile;
+    private final int flushDocs;
+    private final int maxSegments;
+
+    /**
+     * 读锁：搜索；写锁：修改段列表、内存段和删除标记
+     */
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * 串行执行刷新、合并和构建
+     */
+    private final ReentrantLock commitLock = new ReentrantLock();
+
+    private List<IndexSegment> segments = new ArrayList<>();
+    private MemorySegment memory = new MemorySegment();
+    private DataOutputStream journal;
+    private boolean dirty;
+    private long generation;
+
+    /**
+     * 构建期间被增量更新过的记录，构建时跳过（数据库游标可能读到旧内容）
+     */
+    private Set<Long> touched;
+
+    private volatile boolean ready;
+    private volatile boolean closed;
+
+    public RecordSearchIndex(DailyLifeRecordsMapper dailyLifeRecordsMapper,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${app.daily-life.search.dir:data/search/daily-life}") String dir,
+                             @Value("${app.daily-life.search.flush-docs:10000}") int flushDocs,
+                             @Value("${app.daily-life.search.max-segments:10}") int maxSegments) {
+        this.dailyLifeRecordsMapper = dailyLifeRecordsMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.dir = Path.of(dir).toAbsolutePath().normalize();
+        this.journalFile = this.dir.resolve(JOURNAL_FILE);
+        this.flushDocs = Math.max(flushDocs, 1);
+        this.maxSegments = Math.max(maxSegments, 1);
+    }
+
+    /**
+     * 加载清单中的段并回放日志
+     *
+     * @throws IOException 索引目录不可用
+     */
+    @PostConstruct
+    public void open() throws IOException {
+        Files.createDirectories(this.dir);
+        List<IndexSegment> loaded = new ArrayList<>();
+        boolean complete = false;
+        Path manifest = this.dir.resolve(MANIFEST_FILE);
+        if (Files.exists(manifest)) {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(manifest)))) {
+                if (in.readInt() != MANIFEST_MAGIC || in.readInt() != MANIFEST_VERSION) {
+                    throw new IOException("清单文件格式错误");
+                }
+                this.generation = in.readLong();
+                complete = in.readBoolean();
+                for (int i = in.readInt(); i > 0; i--) {
+                    DiskSegment segment = DiskSegment.open(this.dir.resolve(in.readUTF()));
+                    long[] words = new long[in.readInt()];
+                    for (int w = 0; w < words.length; w++) {
+                        words[w] = in.readLong();
+                    }
+                    BitSet deletes = BitSet.valueOf(words);
+                    for (int ordinal = deletes.nextSetBit(0); ordinal >= 0; ordinal = deletes.nextSetBit(ordinal + 1)) {
+                        segment.delete(ordinal);
+                    }
+                    loaded.add(segment);
+                }
+            } catch (IOException ex) {
+                log.warn("日常生活记录全文索引加载失败, 将重新构建", ex);
+                loaded.clear();
+                complete = false;
+            }
+        }
+
+        try (Stream<Path> files = Files.list(this.dir)) {
+            for (Path file : files.toList()) {
+                Matcher matcher = GENERATION_FILE.matcher(file.getFileName().toString());
+                if (matcher.matches()) {
+                    this.generation = Math.max(this.generation, Long.parseLong(matcher.group(1)));
+                }
+            }
+        }
+
+        int replayed = 0;
+        this.lock.writeLock().lock();
+        try {
+            this.segments = loaded;
+            this.ready = complete;
+            if (complete) {
+                for (Path file : this.journals()) {
+                    replayed += this.replay(file);
+                }
+                if (Files.exists(this.journalFile)) {
+                    replayed += this.replay(this.journalFile);
+                }
+            } else {
+                // 没有完整的索引，日志也失去意义，等待重新构建
+                for (Path file : this.journals()) {
+                    Files.delete(file);
+                }
+                Files.deleteIfExists(this.journalFile);
+            }
+            this.openJournal();
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+        this.deleteUnreferencedFiles();
+        log.info("日常生活记录全文索引已加载, 段数: {}, 记录数: {}, 回放日志: {} 条, 完整: {}",
+                loaded.size(), this.size(), replayed, complete);
+    }
+
+    /**
+     * 应用启动完成后，没有完整的索引时在后台构建
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!this.ready) {
+            Thread.ofPlatform().daemon().name("record-search-build").start(() -> {
+                try {
+                    this.rebuild();
+                } catch (Exception ex) {
+                    log.error("日常生活记录全文索引构建失败", ex);
+                }
+            });
+        }
+    }
+
+    /**
+     * 搜索记录
+     *
+     * @param query 查询文本
+     * @param limit 最多返回条数
+     * @return 命中总数和按相关度排序的记录 id
+     */
+    public SearchResult search(String query, int limit) {
+        List<RecordTokenizer.QueryTerm> terms = RecordTokenizer.queryTerms(query);
+        if (terms.isEmpty() || limit <= 0) {
+            return SearchResult.EMPTY;
+        }
+        if (!this.ready) {
+            throw new ServiceBusyException(RETRY_AFTER_SECONDS);
+        }
+
+        this.lock.readLock().lock();
+        try {
+            List<IndexSegment> all = new ArrayList<>(this.segments);
+            all.add(this.memory);
+            long docs = 0;
+            long totalLength = 0;
+            for (IndexSegment segment : all) {
+                docs += segment.liveDocs();
+                totalLength += segment.liveLength();
+            }
+            if (docs == 0) {
+                return SearchResult.EMPTY;
+            }
+            double averageLength = (double) totalLength / docs;
+
+            // 单字查询展开为以该字开头的全部索引词，按一个词计算 idf
+            List<List<String>> groups = new ArrayList<>(terms.size());
+            double[] idf = new double[terms.size()];
+            for (RecordTokenizer.QueryTerm term : terms) {
+                List<String> group = term.prefix() ? this.expand(all, term.text()) : List.of(term.text());
+                long docFreq = 0;
+                for (IndexSegment segment : all) {
+                    for (String text : group) {
+                        IndexSegment.Postings postings = segment.postings(text);
+                        docFreq += postings == null ? 0 : postings.docFreq();
+                    }
+                }
+                if (docFreq == 0) {
+                    return SearchResult.EMPTY;
+                }
+                docFreq = Math.min(docFreq, docs);
+                idf[groups.size()] = Math.log(1 + (docs - docFreq + 0.5) / (docFreq + 0.5));
+                groups.add(group);
+            }
+
+            PriorityQueue<Hit> top = new PriorityQueue<>(limit + 1, Hit.WORST_FIRST);
+            int total = 0;
+            for (IndexSegment segment : all) {
+                total += this.collect(segment, groups, idf, averageLength, limit, top);
+            }
+            List<Hit> hits = new ArrayList<>(top);
+            hits.sort(Hit.WORST_FIRST.reversed());
+            return new SearchResult(total, hits);
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 记录变更的事务提交后重新读取记录并更新索引
+     *
+     * @param event 记录变更事件
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRecordsChanged(DailyLifeRecordsChangedEvent event) {
+        for (List<Long> ids : Lists.partition(new ArrayList<>(event.ids()), RELOAD_BATCH_SIZE)) {
+            Map<Long, DailyLifeRecords> records = Optional.ofNullable(this.dailyLifeRecordsMapper.selectByIds(ids))
+                    .orElse(Collections.emptyList()).stream()
+                    .collect(Collectors.toMap(DailyLifeRecords::getId, Function.identity()));
+            this.lock.writeLock().lock();
+            try {
+                for (Long id : ids) {
+                    DailyLifeRecords record = records.get(id);
+                    this.index(id, record == null || DELETED.equals(record.getDelFlag()) ? null : record.getContent(), true);
+                }
+                this.flushJournal();
+            } finally {
+                this.lock.writeLock().unlock();
+            }
+        }
+        this.flushIfFull();
+    }
+
+    /**
+     * 新增或重新索引一条记录
+     *
+     * @param id      记录 id
+     * @param content 记录内容，为空时等同删除
+     */
+    public void upsert(long id, String content) {
+        this.lock.writeLock().lock();
+        try {
+            this.index(id, content, true);
+            this.flushJournal();
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+        this.flushIfFull();
+    }
+
+    /**
+     * 从索引中移除一条记录
+     *
+     * @param id 记录 id
+     */
+    public void remove(long id) {
+        this.upsert(id, null);
+    }
+
+    /**
+     * 从数据库流式读取全部记录，整体重建索引
+     *
+     * @throws IOException 写入索引文件失败
+     */
+    public void rebuild() throws IOException {
+        long start = System.currentTimeMillis();
+        this.commitLock.lock();
+        try {
+            this.lock.writeLock().lock();
+            try {
+                this.ready = false;
+                this.segments = new ArrayList<>();
+                this.memory = new MemorySegment();
+                this.touched = new HashSet<>();
+                this.dirty = true;
+            } finally {
+                this.lock.writeLock().unlock();
+            }
+
+            long[] count = {0};
+            this.transactionTemplate.executeWithoutResult(status -> {
+                try (Cursor<DailyLifeRecords> cursor = this.dailyLifeRecordsMapper.selectForExport()) {
+                    for (DailyLifeRecords record : cursor) {
+                        if (this.closed) {
+                            break;
+                        }
+                        boolean full;
+                        this.lock.writeLock().lock();
+                        try {
+                            if (!this.touched.contains(record.getId()) && !DELETED.equals(record.getDelFlag())) {
+                                this.index(record.getId(), record.getContent(), false);
+                            }
+                            full = this.memory.maxDoc() >= this.flushDocs;
+                        } finally {
+                            this.lock.writeLock().unlock();
+                        }
+                        if (++count[0] % this.flushDocs == 0) {
+                            log.info("日常生活记录全文索引构建中, 已读取: {}", count[0]);
+                        }
+                        if (full) {
+                            this.commit();
+                            this.merge();
+                        }
+                    }
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            });
+
+            this.lock.writeLock().lock();
+            try {
+                this.touched = null;
+                this.ready = !this.closed;
+                this.dirty = true;
+            } finally {
+                this.lock.writeLock().unlock();
+            }
+            this.commit();
+            this.merge();
+            log.info("日常生活记录全文索引已构建, 记录数: {}, 段数: {}, 耗时: {}ms",
+                    this.size(), this.segmentCount(), System.currentTimeMillis() - start);
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        } finally {
+            this.commitLock.unlock();
+        }
+    }
+
+    /**
+     * 定时把内存段写成磁盘段并提交清单，构建或合并进行中时跳过
+     */
+    @Scheduled(initialDelayString = "${app.daily-life.search.flush-interval:60000}",
+            fixedDelayString = "${app.daily-life.search.flush-interval:60000}")
+    public void flush() {
+        if (!this.commitLock.tryLock()) {
+            return;
+        }
+        try {
+            this.commit();
+            this.merge();
+        } catch (IOException ex) {
+            log.error("日常生活记录全文索引提交失败, 将在下次刷新时重试", ex);
+        } finally {
+            this.commitLock.unlock();
+        }
+    }
+
+    /**
+     * 停机时提交未刷新的写入
+     */
+    @PreDestroy
+    public void close() {
+        this.closed = true;
+        this.commitLock.lock();
+        try {
+            this.commit();
+        } catch (IOException ex) {
+            log.error("日常生活记录全文索引停机提交失败, 重启时回放日志", ex);
+        } finally {
+            this.lock.writeLock().lock();
+            try {
+                this.closeJournal();
+            } finally {
+                this.lock.writeLock().unlock();
+                this.commitLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * 已索引的记录数量
+     *
+     * @return 记录数量
+     */
+    public long size() {
+        this.lock.readLock().lock();
+        try {
+            long size = this.memory.liveDocs();
+            for (IndexSegment segment : this.segments) {
+                size += segment.liveDocs();
+            }
+            return size;
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 磁盘段数量
+     *
+     * @return 段数量
+     */
+    int segmentCount() {
+        this.lock.readLock().lock();
+        try {
+            return this.segments.size();
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 在一个段中求全部查询词的交集并打分，返回命中数
+     */
+    private int collect(IndexSegment segment, List<List<String>> groups, double[] idf, double averageLength,
+                        int limit, PriorityQueue<Hit> top) {
+        int n = groups.size();
+        IndexSegment.Postings[] postings = new IndexSegment.Postings[n];
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            postings[i] = this.postings(segment, groups.get(i));
+            if (postings[i] == null) {
+                return 0;
+            }
+            order[i] = i;
+        }
+        // 从最短的倒排列表开始，其余列表跳跃前进
+        Arrays.sort(order, Comparator.comparingInt(i -> postings[i].docFreq()));
+        IndexSegment.Postings lead = postings[order[0]];
+        int[] current = new int[n];
+        Arrays.fill(current, -1);
+
+        int matched = 0;
+        int doc = lead.nextDoc();
+        outer:
+        while (doc != IndexSegment.NO_MORE_DOCS) {
+            for (int k = 1; k < n; k++) {
+                int i = order[k];
+                if (current[i] < doc) {
+                    current[i] = postings[i].advance(doc);
+                }
+                if (current[i] == IndexSegment.NO_MORE_DOCS) {
+                    break outer;
+                }
+                if (current[i] > doc) {
+                    doc = lead.advance(current[i]);
+                    continue outer;
+                }
+            }
+            if (!segment.isDeleted(doc)) {
+                double norm = K1 * (1 - B + B * segment.length(doc) / averageLength);
+                double score = 0;
+                for (int i = 0; i < n; i++) {
+                    int freq = postings[i].freq();
+                    score += idf[i] * freq * (K1 + 1) / (freq + norm);
+                }
+                matched++;
+                // 大部分命中进不了前 limit 条，先比较分数再创建对象
+                Hit worst = top.size() < limit ? null : top.peek();
+                if (worst == null || score >= worst.score()) {
+                    Hit hit = new Hit(segment.id(doc), score);
+                    if (worst == null) {
+                        top.add(hit);
+                    } else if (Hit.WORST_FIRST.compare(hit, worst) > 0) {
+                        top.poll();
+                        top.add(hit);
+                    }
+                }
+            }
+            doc = lead.nextDoc();
+        }
+        return matched;
+    }
+
+    private IndexSegment.Postings postings(IndexSegment segment, List<String> group) {
+        if (group.size() == 1) {
+            return segment.postings(group.get(0));
+        }
+        List<IndexSegment.Postings> postings = new ArrayList<>();
+        for (String term : group) {
+            IndexSegment.Postings posting = segment.postings(term);
+            if (posting != null) {
+                postings.add(posting);
+            }
+        }
+        return postings.isEmpty() ? null : new UnionPostings(postings);
+    }
+
+    private List<String> expand(List<IndexSegment> all, String prefix) {
+        Set<String> terms = new TreeSet<>();
+        for (IndexSegment segment : all) {
+            terms.addAll(segment.termsWithPrefix(prefix, MAX_PREFIX_TERMS));
+        }
+        return terms.stream().limit(MAX_PREFIX_TERMS).toList();
+    }
+
+    /**
+     * 写入或删除一条记录（调用方持有写锁）
+     *
+     * @param content  记录内容，为空时只删除
+     * @param external 是否为构建之外的写入：需要记录日志，构建期间还要记入 touched
+     */
+    private void index(long id, String content, boolean external) {
+        if (external && this.touched != null) {
+            this.touched.add(id);
+        }
+        for (IndexSegment segment : this.segments) {
+            segment.deleteId(id);
+        }
+        this.memory.deleteId(id);
+        Map<String, Integer> frequencies = RecordTokenizer.termFrequencies(content);
+        if (!frequencies.isEmpty()) {
+            this.memory.add(id, frequencies);
+        }
+        this.dirty = true;
+        if (external) {
+            this.appendJournal(frequencies.isEmpty() ? DELETE : UPSERT, id, content);
+        }
+    }
+
+    private void flushIfFull() {
+        boolean full;
+        this.lock.readLock().lock();
+        try {
+            full = this.memory.maxDoc() >= this.flushDocs;
+        } finally {
+            this.lock.readLock().unlock();
+        }
+        // 只提交内存段，合并留给定时刷新，避免在请求线程上合并大段
+        if (full && this.commitLock.tryLock()) {
+            try {
+                this.commit();
+            } catch (IOException ex) {
+                log.error("日常生活记录全文索引提交失败, 将在下次刷新时重试", ex);
+            } finally {
+                this.commitLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * 冻结内存段并写成磁盘段，提交清单后删除已轮转的日志（调用方持有 commitLock）
+     */
+    private void commit() throws IOException {
+        List<IndexSegment> frozen;
+        List<BitSet> snapshots = new ArrayList<>();
+        this.lock.writeLock().lock();
+        try {
+            if (!this.dirty) {
+                return;
+            }
+            if (this.memory.maxDoc() > 0) {
+                this.segments.add(this.memory);
+                this.memory = new MemorySegment();
+            }
+            this.dirty = false;
+            // 上次写入失败的内存段也在这里重试
+            frozen = this.segments.stream().filter(MemorySegment.class::isInstance).toList();
+            frozen.forEach(segment -> snapshots.add(segment.deletes()));
+            this.rotateJournal();
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+
+        byte[] manifest;
+        try {
+            for (int i = 0; i < frozen.size(); i++) {
+                IndexSegment segment = frozen.get(i);
+                DiskSegment disk = null;
+                if (segment.maxDoc() > snapshots.get(i).cardinality()) {
+                    disk = this.writeSegment(List.of(segment), List.of(snapshots.get(i)));
+                }
+                this.lock.writeLock().lock();
+                try {
+                    this.replace(List.of(segment), List.of(snapshots.get(i)), disk);
+                } finally {
+                    this.lock.writeLock().unlock();
+                }
+            }
+        } catch (IOException ex) {
+            this.lock.writeLock().lock();
+            try {
+                this.dirty = true;
+            } finally {
+                this.lock.writeLock().unlock();
+            }
+            throw ex;
+        }
+        this.lock.writeLock().lock();
+        try {
+            manifest = this.manifest();
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+        this.writeManifest(manifest);
+        for (Path file : this.journals()) {
+            Files.deleteIfExists(file);
+        }
+        this.deleteUnreferencedFiles();
+    }
+
+    /**
+     * 段数超过上限时把最小的几个合并为一个（调用方持有 commitLock）
+     */
+    private void merge() throws IOException {
+        List<IndexSegment> sources;
+        List<BitSet> snapshots = new ArrayList<>();
+        this.lock.readLock().lock();
+        try {
+            List<IndexSegment> disks = new ArrayList<>(this.segments.stream().filter(DiskSegment.class::isInstance).toList());
+            if (disks.size() <= this.maxSegments) {
+                return;
+            }
+            disks.sort(Comparator.comparingInt(IndexSegment::liveDocs));
+            sources = disks.subList(0, Math.max(disks.size() - this.maxSegments + 1, 2));
+            sources.forEach(segment -> snapshots.add(segment.deletes()));
+        } finally {
+            this.lock.readLock().unlock();
+        }
+
+        long start = System.currentTimeMillis();
+        DiskSegment merged = this.writeSegment(sources, snapshots);
+        byte[] manifest;
+        this.lock.writeLock().lock();
+        try {
+            this.replace(sources, snapshots, merged);
+            manifest = this.manifest();
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+        this.writeManifest(manifest);
+        this.deleteUnreferencedFiles();
+        log.info("日常生活记录全文索引已合并 {} 个段, 记录数: {}, 耗时: {}ms",
+                sources.size(), merged.maxDoc(), System.currentTimeMillis() - start);
+    }
+
+    private DiskSegment writeSegment(List<IndexSegment> sources, List<BitSet> snapshots) throws IOException {
+        Path file = this.dir.resolve("segment-" + (++this.generation) + ".seg");
+        DiskSegment.write(file, sources, snapshots);
+        return DiskSegment.open(file);
+    }
+
+    /**
+     * 用新段替换来源段，并把写入新段期间来源段新增的删除同步到新段（调用方持有写锁）
+     */
+    private void replace(List<IndexSegment> sources, List<BitSet> snapshots, DiskSegment target) {
+        for (int i = 0; i < sources.size(); i++) {
+            IndexSegment source = sources.get(i);
+            BitSet changed = source.deletes();
+            changed.andNot(snapshots.get(i));
+            for (int ordinal = changed.nextSetBit(0); ordinal >= 0; ordinal = changed.nextSetBit(ordinal + 1)) {
+                if (target != null) {
+                    target.deleteId(source.id(ordinal));
+                }
+            }
+        }
+        this.segments.removeIf(segment -> sources.stream().anyMatch(source -> source == segment));
+        if (target != null) {
+            this.segments.add(target);
+        }
+    }
+
+    /**
+     * 清单内容：代数、是否完整、各磁盘段名称及删除标记（调用方持有写锁）
+     */
+    private byte[] manifest() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(MANIFEST_MAGIC);
+        out.writeInt(MANIFEST_VERSION);
+        out.writeLong(this.generation);
+        out.writeBoolean(this.ready);
+        List<DiskSegment> disks = this.segments.stream().filter(DiskSegment.class::isInstance).map(DiskSegment.class::cast).toList();
+        out.writeInt(disks.size());
+        for (DiskSegment disk : disks) {
+            out.writeUTF(disk.name());
+            long[] words = disk.deletes().toLongArray();
+            out.writeInt(words.length);
+            for (long word : words) {
+                out.writeLong(word);
+            }
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    private void writeManifest(byte[] manifest) throws IOException {
+        Path temp = this.dir.resolve(MANIFEST_FILE + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(manifest));
+            channel.force(true);
+        }
+        Files.move(temp, this.dir.resolve(MANIFEST_FILE), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * 删除清单未引用的段文件和临时文件；仍被映射的文件在部分系统上无法删除，下次启动时再删
+     */
+    private void deleteUnreferencedFiles() {
+        Set<String> referenced = new HashSet<>();
+        this.lock.readLock().lock();
+        try {
+            for (IndexSegment segment : this.segments) {
+                if (segment instanceof DiskSegment disk) {
+                    referenced.add(disk.name());
+                }
+            }
+        } finally {
+            this.lock.readLock().unlock();
+        }
+        try (Stream<Path> files = Files.list(this.dir)) {
+            for (Path file : files.toList()) {
+                String name = file.getFileName().toString();
+                if ((name.endsWith(".seg") && !referenced.contains(name)) || name.endsWith(".seg.tmp")) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        } catch (IOException ex) {
+            log.debug("删除无用的索引文件失败", ex);
+        }
+    }
+
+    /**
+     * 已轮转的日志，按代数升序
+     */
+    private List<Path> journals() throws IOException {
+        try (Stream<Path> files = Files.list(this.dir)) {
+            return files.filter(file -> file.getFileName().toString().startsWith("journal-"))
+                    .sorted(Comparator.comparingLong(file -> {
+                        Matcher matcher = GENERATION_FILE.matcher(file.getFileName().toString());
+                        return matcher.matches() ? Long.parseLong(matcher.group(1)) : 0;
+                    }))
+                    .toList();
+        }
+    }
+
+    /**
+     * 回放日志，末尾不完整的记录（写入时宕机）忽略（调用方持有写锁）
+     */
+    private int replay(Path file) throws IOException {
+        int count = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            for (int op = in.read(); op >= 0; op = in.read()) {
+                long id = in.readLong();
+                String content = null;
+                if (op == UPSERT) {
+                    byte[] bytes = new byte[in.readInt()];
+                    in.readFully(bytes);
+                    content = new String(bytes, StandardCharsets.UTF_8);
+                }
+                this.index(id, content, false);
+                count++;
+            }
+        } catch (EOFException ex) {
+            log.warn("日常生活记录全文索引日志末尾不完整, 已忽略: {}", file.getFileName());
+        }
+        return count;
+    }
+
+    private void appendJournal(byte op, long id, String content) {
+        if (this.journal == null) {
+            return;
+        }
+        try {
+            this.journal.writeByte(op);
+            this.journal.writeLong(id);
+            if (op == UPSERT) {
+                byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+                this.journal.writeInt(bytes.length);
+                this.journal.write(bytes);
+            }
+        } catch (IOException ex) {
+            log.error("日常生活记录全文索引日志写入失败, 重启前请等待下次刷新", ex);
+        }
+    }
+
+    private void flushJournal() {
+        if (this.journal == null) {
+            return;
+        }
+        try {
+            this.journal.flush();
+        } catch (IOException ex) {
+            log.error("日常生活记录全文索引日志写入失败, 重启前请等待下次刷新", ex);
+        }
+    }
+
+    /**
+     * 把当前日志改名为 journal-{代数}.log 并打开新日志，提交清单后删除（调用方持有写锁）
+     */
+    private void rotateJournal() throws IOException {
+        this.closeJournal();
+        try {
+            if (Files.exists(this.journalFile)) {
+                Files.move(this.journalFile, this.dir.resolve("journal-" + (++this.generation) + ".log"));
+            }
+        } finally {
+            this.openJournal();
+        }
+    }
+
+    private void openJournal() throws IOException {
+        this.journal = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(this.journalFile,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)));
+    }
+
+    private void closeJournal() {
+        if (this.journal == null) {
+            return;
+        }
+        try {
+            this.journal.close();
+        } catch (IOException ex) {
+            log.error("日常生活记录全文索引日志关闭失败", ex);
+        }
+        this.journal = null;
+    }
+
+    /**
+     * 搜索结果
+     *
+     * @param total 命中总数
+     * @param hits  按相关度排序的前若干条
+     */
+    public record SearchResult(int total, List<Hit> hits) {
+
+        static final SearchResult EMPTY = new SearchResult(0, List.of());
+
+    }
+
+    /**
+     * 命中的记录
+     *
+     * @param id    记录 id
+     * @param score BM25 分数
+     */
+    public record Hit(long id, double score) {
+
+        /**
+         * 分数低的在前，分数相同时 id 小（较早写入）的在前
+         */
+        static final Comparator<Hit> WORST_FIRST = Comparator.comparingDouble(Hit::score).thenComparingLong(Hit::id);
+
+    }
+
+    /**
+     * 多个倒排列表的并集，同一文档的词频相加
+     */
+    private static final class UnionPostings implements IndexSegment.Postings {
+
+        private final PriorityQueue<Head> queue = new PriorityQueue<>(Comparator.comparingInt(Head::doc));
+        private final int docFreq;
+        private int freq;
+
+        private UnionPostings(Collection<IndexSegment.Postings> postings) {
+            int docFreq = 0;
+            for (IndexSegment.Postings posting : postings) {
+                docFreq += posting.docFreq();
+                Head head = new Head(posting);
+                if (head.next()) {
+                    this.queue.add(head);
+                }
+            }
+            this.docFreq = docFreq;
+        }
+
+        @Override
+        public int docFreq() {
+            return this.docFreq;
+        }
+
+        @Override
+        public int nextDoc() {
+            if (this.queue.isEmpty()) {
+                return IndexSegment.NO_MORE_DOCS;
+            }
+            int doc = this.queue.peek().doc;
+            this.freq = 0;
+            while (!this.queue.isEmpty() && this.queue.peek().doc == doc) {
+                Head head = this.queue.poll();
+                this.freq += head.postings.freq();
+                if (head.next()) {
+                    this.queue.add(head);
+                }
+            }
+            return doc;
+        }
+
+        @Override
+        public int freq() {
+            return this.freq;
+        }
+
+        /**
+         * 一个倒排列表及其当前文档
+         */
+        private static final class Head {
+
+            private final IndexSegment.Postings postings;
+            private int doc;
+
+            private Head(IndexSegment.Postings postings) {
+                this.postings = postings;
+            }
+
+            private int doc() {
+                return this.doc;
+            }
+
+            private boolean next() {
+                this.doc = this.postings.nextDoc();
+                return this.doc != IndexSegment.NO_MORE_DOCS;
+            }
+
+        }
+
+    }
+
+}
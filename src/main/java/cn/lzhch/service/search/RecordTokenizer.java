@@ -0,0 +1,99 @@
+package cn.lzhch.service.search;
+
+import cn.lzhch.common.util.TextSegmenter;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 日常生活记录全文检索分词
+ * <p>
+ * 文本按 {@link TextSegmenter} 归一化并切分为两类片段：
+ * 1. 字母数字单词：整个单词为一个词，超长单词按 {@link #MAX_WORD_LENGTH} 截断
+ * 2. 中日韩文字：相邻二字（bigram）为一个词，另外每段连续文字的最后一个字单独成词，
+ * 这样任意单字都是某个词的开头，查询单字时按前缀匹配即可覆盖所有出现位置
+ * <p>
+ * author: lzhch
+ * version: v1.0
+ * date: 2026/10/17
+ */
+
+final class RecordTokenizer {
+
+    /**
+     * 单词的最大长度（码点数）
+     */
+    static final int MAX_WORD_LENGTH = 32;
+
+    private RecordTokenizer() {
+    }
+
+    /**
+     * 生成索引词及词频
+     *
+     * @param text 文本
+     * @return 索引词到出现次数，词频之和即文档长度
+     */
+    static Map<String, Integer> termFrequencies(String text) {
+        Map<String, Integer> frequencies = new LinkedHashMap<>();
+        tokenize(text, true, term -> frequencies.merge(term.text(), 1, Integer::sum));
+        return frequencies;
+    }
+
+    /**
+     * 生成查询词
+     *
+     * @param query 查询文本
+     * @return 查询词（去重，保持出现顺序）
+     */
+    static List<QueryTerm> queryTerms(String query) {
+        Set<QueryTerm> terms = new LinkedHashSet<>();
+        tokenize(query, false, terms::add);
+        return new ArrayList<>(terms);
+    }
+
+    private static void tokenize(String text, boolean index, TermSink sink) {
+        TextSegmenter.segment(text, word -> {
+            boolean truncated = word.codePointCount(0, word.length()) > MAX_WORD_LENGTH;
+            sink.accept(new QueryTerm(truncated ? word.substring(0, word.offsetByCodePoints(0, MAX_WORD_LENGTH)) : word, false));
+        }, run -> cjkTerms(run, index, sink));
+    }
+
+    /**
+     * 索引时输出全部二字和末字；查询时多字只输出二字，单字按前缀匹配
+     */
+    private static void cjkTerms(String run, boolean index, TermSink sink) {
+        int[] codePoints = run.codePoints().toArray();
+        if (codePoints.length == 1) {
+            sink.accept(new QueryTerm(run, !index));
+            return;
+        }
+        for (int i = 0; i + 1 < codePoints.length; i++) {
+            sink.accept(new QueryTerm(new String(codePoints, i, 2), false));
+        }
+        if (index) {
+            sink.accept(new QueryTerm(Character.toString(codePoints[codePoints.length - 1]), false));
+        }
+    }
+
+    /**
+     * 查询词
+     *
+     * @param text   词
+     * @param prefix 是否按前缀匹配（单个中文字）
+     */
+    record QueryTerm(String text, boolean prefix) {
+    }
+
+    @FunctionalInterface
+    private interface TermSink {
+
+        void accept(QueryTerm term);
+
+    }
+
+}
@@ -0,0 +1,216 @@
+package cn.lzhch.service.stats;
+
+import cn.lzhch.common.exception.BusinessException;
+import cn.lzhch.common.exception.ServiceBusyException;
+import cn.lzhch.entity.DailyLifeRecordStats;
+import cn.lzhch.entity.DailyLifeRecords;
+import cn.lzhch.mapper.DailyLifeRecordStatsMapper;
+import cn.lzhch.mapper.DailyLifeRecordsMapper;
+import com.google.common.collect.Lists;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+/**
+ * 日常生活记录按天统计
+ * <p>
+ * 统计表 daily_life_record_stats 每天一行，保存当天创建且未删除的记录数，热力图和按周、按月统计只按主键范围读取该表：
+ * 1. 增量：通过 Service 写入时，在同一事务中于写入前后各读一次受影响记录的创建日期（加行锁），差值累加到统计表；
+ * 批量导入的记录状态已知，直接累加
+ * 2. 回填：按月在独立事务中统计记录表并覆盖该月的统计行，统计时加共享锁，回填期间的并发写入不会被覆盖丢失
+ * <p>
+ * 启动时统计总数与记录数不一致（首次启用、回填中断、直接执行过 SQL）则在后台回填，回填完成前统计返回服务繁忙
+ * <p>
+ * author: lzhch
+ * version: v1.0
+ * date: 2026/10/17
+ */
+
+@Slf4j
+@Component
+public class RecordStatsRollup {
+
+    private static final int LOCK_BATCH_SIZE = 500;
+    private static final long RETRY_AFTER_SECONDS = 5;
+    private static final String LIVE = "0";
+
+    private final DailyLifeRecordsMapper dailyLifeRecordsMapper;
+    private final DailyLifeRecordStatsMapper dailyLifeRecordStatsMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+
+    private volatile boolean ready;
+
+    public RecordStatsRollup(DailyLifeRecordsMapper dailyLifeRecordsMapper,
+                             DailyLifeRecordStatsMapper dailyLifeRecordStatsMapper,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${app.daily-life.stats.enabled:false}") boolean enabled) {
+        this.dailyLifeRecordsMapper = dailyLifeRecordsMapper;
+        this.dailyLifeRecordStatsMapper = dailyLifeRecordStatsMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+    }
+
+    /**
+     * 应用启动完成后在后台校验统计总数，不一致时回填
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!this.enabled) {
+            return;
+        }
+        Thread.ofPlatform().daemon().name("record-stats-backfill").start(() -> {
+            try {
+                long records = this.dailyLifeRecordsMapper.countLive();
+                long counted = this.dailyLifeRecordStatsMapper.selectTotal();
+                if (records == counted) {
+                    this.ready = true;
+                    return;
+                }
+                log.info("日常生活记录统计与记录数不一致, 开始回填, 记录数: {}, 统计数: {}", records, counted);
+                this.backfill();
+            } catch (Exception ex) {
+                log.error("日常生活记录统计回填失败", ex);
+            }
+        });
+    }
+
+    /**
+     * 查询受影响记录中未删除记录的创建日期及条数，并对这些记录加行锁，必须在写入事务中调用
+     *
+     * @param ids 记录 id，忽略其中的 null
+     * @return 创建日期 -> 记录数，未启用统计时为空
+     */
+    public Map<LocalDate, Integer> liveDays(Collection<Long> ids) {
+        Map<LocalDate, Integer> days = new HashMap<>();
+        List<Long> targets = ids.stream().filter(Objects::nonNull).distinct().toList();
+        if (!this.enabled || targets.isEmpty()) {
+            return days;
+        }
+        for (List<Long> chunk : Lists.partition(targets, LOCK_BATCH_SIZE)) {
+            for (LocalDateTime createTime : this.dailyLifeRecordsMapper.selectLiveCreateTimesForUpdate(chunk)) {
+                days.merge(createTime.toLocalDate(), 1, Integer::sum);
+            }
+        }
+        return days;
+    }
+
+    /**
+     * 按写入前后的创建日期分布累加增量，必须与写入在同一事务中调用
+     *
+     * @param before 写入前的 {@link #liveDays(Collection)}
+     * @param after  写入后的 {@link #liveDays(Collection)}
+     */
+    public void changed(Map<LocalDate, Integer> before, Map<LocalDate, Integer> after) {
+        Map<LocalDate, Integer> deltas = new TreeMap<>(after);
+        before.forEach((date, count) -> deltas.merge(date, -count, Integer::sum));
+        this.increment(deltas);
+    }
+
+    /**
+     * 累加新插入的记录，必须与插入在同一事务中调用
+     *
+     * @param records 新插入的记录
+     */
+    public void added(Collection<DailyLifeRecords> records) {
+        if (!this.enabled) {
+            return;
+        }
+        Map<LocalDate, Integer> deltas = new TreeMap<>();
+        for (DailyLifeRecords record : records) {
+            if (LIVE.equals(record.getDelFlag()) && record.getCreateTime() != null) {
+                deltas.merge(record.getCreateTime().toLocalDate(), 1, Integer::sum);
+            }
+        }
+        this.increment(deltas);
+    }
+
+    /**
+     * 查询日期范围内每天的记录数，只读取统计表
+     *
+     * @param from 开始日期（含）
+     * @param to   结束日期（含）
+     * @return 有记录的日期及记录数（按日期升序）
+     */
+    public List<DailyLifeRecordStats> daily(LocalDate from, LocalDate to) {
+        if (!this.enabled) {
+            throw new BusinessException("记录统计未启用");
+        }
+        if (!this.ready) {
+            throw new ServiceBusyException(RETRY_AFTER_SECONDS);
+        }
+        return this.dailyLifeRecordStatsMapper.selectRange(from, to);
+    }
+
+    /**
+     * 按月重新统计全部记录并覆盖统计表，可重复执行
+     */
+    public synchronized void backfill() {
+        long start = System.currentTimeMillis();
+        this.ready = false;
+        LocalDate first = earliest(this.dailyLifeRecordsMapper.selectFirstCreateTime(), this.dailyLifeRecordStatsMapper.selectFirstDate());
+        LocalDate last = latest(this.dailyLifeRecordsMapper.selectLastCreateTime(), this.dailyLifeRecordStatsMapper.selectLastDate());
+
+        int months = 0;
+        long days = 0;
+        if (first != null) {
+            for (LocalDate month = first.withDayOfMonth(1); !month.isAfter(last); month = month.plusMonths(1)) {
+                LocalDate from = month;
+                LocalDate to = month.plusMonths(1);
+                Integer written = this.transactionTemplate.execute(status -> {
+                    List<DailyLifeRecordStats> counts = this.dailyLifeRecordsMapper.countByDay(from, to);
+                    this.dailyLifeRecordStatsMapper.deleteRange(from, to);
+                    if (!counts.isEmpty()) {
+                        this.dailyLifeRecordStatsMapper.incrementCounts(counts);
+                    }
+                    return counts.size();
+                });
+                months++;
+                days += written == null ? 0 : written;
+            }
+        }
+        this.ready = true;
+        log.info("日常生活记录统计已回填, 月数: {}, 有记录的天数: {}, 耗时: {}ms", months, days, System.currentTimeMillis() - start);
+    }
+
+    /**
+     * 写入非零增量；按日期升序写入，并发事务以相同顺序锁定统计行
+     */
+    private void increment(Map<LocalDate, Integer> deltas) {
+        List<DailyLifeRecordStats> items = new ArrayList<>(deltas.size());
+        deltas.forEach((date, delta) -> {
+            if (delta != 0) {
+                items.add(DailyLifeRecordStats.builder().statDate(date).recordCount(delta).build());
+            }
+        });
+        if (!items.isEmpty()) {
+            this.dailyLifeRecordStatsMapper.incrementCounts(items);
+        }
+    }
+
+    private static LocalDate earliest(LocalDateTime createTime, LocalDate statDate) {
+        return Stream.of(createTime == null ? null : createTime.toLocalDate(), statDate)
+                .filter(Objects::nonNull).min(LocalDate::compareTo).orElse(null);
+    }
+
+    private static LocalDate latest(LocalDateTime createTime, LocalDate statDate) {
+        return Stream.of(createTime == null ? null : createTime.toLocalDate(), statDate)
+                .filter(Objects::nonNull).max(LocalDate::compareTo).orElse(null);
+    }
+
+}
@@ -0,0 +1,94 @@
+package cn.lzhch.service.stats;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Locale;
+
+/**
+ * 记录统计的时间粒度
+ * <p>
+ * author: lzhch
+ * version: v1.0
+ * date: 2026/10/17
+ */
+
+public enum StatsGranularity {
+
+    /**
+     * 按天，用于热力图
+     */
+    DAY {
+        @Override
+        public LocalDate start(LocalDate date) {
+            return date;
+        }
+
+        @Override
+        public LocalDate next(LocalDate start) {
+            return start.plusDays(1);
+        }
+    },
+
+    /**
+     * 按周，每周从周一开始
+     */
+    WEEK {
+        @Override
+        public LocalDate start(LocalDate date) {
+            return date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        }
+
+        @Override
+        public LocalDate next(LocalDate start) {
+            return start.plusWeeks(1);
+        }
+    },
+
+    /**
+     * 按自然月
+     */
+    MONTH {
+        @Override
+        public LocalDate start(LocalDate date) {
+            return date.withDayOfMonth(1);
+        }
+
+        @Override
+        public LocalDate next(LocalDate start) {
+            return start.plusMonths(1);
+        }
+    };
+
+    /**
+     * 日期所在周期的第一天
+     *
+     * @param date 日期
+     * @return 周期开始日期
+     */
+    public abstract LocalDate start(LocalDate date);
+
+    /**
+     * 下一个周期的第一天
+     *
+     * @param start 周期开始日期
+     * @return 下一个周期的开始日期
+     */
+    public abstract LocalDate next(LocalDate start);
+
+    /**
+     * 按名称解析时间粒度（忽略大小写）
+     *
+     * @param name 粒度名称
+     * @return 时间粒度，不支持时返回 null
+     */
+    public static StatsGranularity of(String name) {
+        for (StatsGranularity granularity : values()) {
+            if (granularity.name().equals(name.toUpperCase(Locale.ROOT))) {
+                return granularity;
+            }
+        }
+        return null;
+    }
+
+}
@@ -0,0 +1,9 @@
+-- 日常生活记录按天统计表迁移脚本
+-- 启用 app.daily-life.stats.enabled 前执行；启用后首次启动由回填任务按月统计已有记录
+-- 热力图和按周、按月统计只按主键范围读取该表，不再对记录表 GROUP BY
+CREATE TABLE IF NOT EXISTS `daily_life_record_stats` (
+    `stat_date` DATE NOT NULL COMMENT '统计日期（记录创建日期）',
+    `record_count` INT NOT NULL DEFAULT 0 COMMENT '当天创建且未删除的记录数',
+    `update_time` DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+    PRIMARY KEY (`stat_date`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='日常生活记录按天统计表';
@@ -0,0 +1,9 @@
+-- 日常生活记录分页索引
+-- 键集分页按 (create_time, id) 降序从游标处定位，偏移分页的排序也使用该索引
+-- 游标不包含 create_time 为空的行，先按更新时间回填
+UPDATE `daily_life_records`
+SET `create_time` = COALESCE(`update_time`, NOW())
+WHERE `create_time` IS NULL;
+
+ALTER TABLE `daily_life_records`
+    ADD KEY `idx_del_flag_create_time_id` (`del_flag`, `create_time`, `id`);
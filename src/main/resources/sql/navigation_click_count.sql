@@ -0,0 +1,4 @@
+-- 导航网站点击次数迁移脚本
+-- 启用 app.navigation.click.enabled 前执行
+ALTER TABLE `navigation_website`
+    ADD COLUMN `click_count` BIGINT NOT NULL DEFAULT 0 COMMENT '点击次数，由内存计数定期累加写入' AFTER `site_sort`;
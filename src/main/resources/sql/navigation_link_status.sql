@@ -0,0 +1,6 @@
+-- 导航网站链接检查结果迁移脚本
+-- 启用 app.navigation.link-check.enabled 前执行
+ALTER TABLE `navigation_website`
+    ADD COLUMN `link_status` VARCHAR(16) DEFAULT NULL COMMENT '链接状态: OK/BROKEN/ERROR/TIMEOUT/UNREACHABLE/INVALID，未检查时为空' AFTER `site_overview`,
+    ADD COLUMN `link_status_code` SMALLINT DEFAULT NULL COMMENT '最近一次检查的 HTTP 状态码，无响应时为空' AFTER `link_status`,
+    ADD COLUMN `link_checked_time` DATETIME DEFAULT NULL COMMENT '最近一次检查时间' AFTER `link_status_code`;
@@ -0,0 +1,10 @@
+-- 导航排序键（分数索引）迁移脚本
+-- 启用 app.navigation.sort-key.enabled 前执行；已有数据的排序键由定时压缩任务按原排序字段回填
+-- 排序键按字节比较，必须使用二进制排序规则
+ALTER TABLE `navigation_website`
+    ADD COLUMN `sort_key` VARCHAR(64) CHARACTER SET ascii COLLATE ascii_bin DEFAULT NULL COMMENT '排序键（分数索引，字典序）' AFTER `site_sort`,
+    ADD KEY `idx_category_sort_key` (`category_id`, `sort_key`);
+
+ALTER TABLE `navigation_category`
+    ADD COLUMN `sort_key` VARCHAR(64) CHARACTER SET ascii COLLATE ascii_bin DEFAULT NULL COMMENT '排序键（分数索引，字典序）' AFTER `category_sort`,
+    ADD KEY `idx_sort_key` (`sort_key`);
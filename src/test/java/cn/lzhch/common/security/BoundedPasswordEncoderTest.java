@@ -0,0 +1,136 @@
+package cn.lzhch.common.security;
+
+import cn.lzhch.common.exception.BusinessException;
+import cn.lzhch.common.exception.GlobalExceptionHandler;
+import cn.lzhch.common.exception.ServiceBusyException;
+import cn.lzhch.common.response.ErrorCode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.crypto.password.NoOpPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 有界密码编码器测试
+ * <p>
+ * 用可阻塞的编码器占住哈希线程，验证队列满时快速拒绝、等待超时以及正常情况下的结果
+ * <p>
+ * author: lzhch
+ * version: v1.0
+ * date: 2026/10/17
+ */
+
+class BoundedPasswordEncoderTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final ExecutorService callers = Executors.newCachedThreadPool();
+
+    private BoundedPasswordEncoder encoder;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        callers.shutdownNow();
+        if (encoder != null) {
+            encoder.shutdown();
+        }
+    }
+
+    @Test
+    void testDelegatesWhenIdle() {
+        encoder = new BoundedPasswordEncoder(NoOpPasswordEncoder.getInstance(), 2, 2, Duration.ofSeconds(5), meterRegistry);
+
+        assertEquals("secret", encoder.encode("secret"));
+        assertTrue(encoder.matches("secret", "secret"));
+        assertEquals(1, meterRegistry.get("password.hash").tag("operation", "matches").timer().count());
+    }
+
+    @Test
+    void testQueueFullIsRejectedWithRetryAfter() throws Exception {
+        encoder = new BoundedPasswordEncoder(blocking(), 1, 1, Duration.ofSeconds(5), meterRegistry);
+        // 第一个请求占住唯一的哈希线程，第二个进入队列
+        Future<String> running = callers.submit(() -> encoder.encode("first"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        Future<String> queued = callers.submit(() -> encoder.encode("second"));
+        waitUntil(() -> meterRegistry.get("executor.queued").tag("name", "password.hash").gauge().value() == 1);
+
+        ServiceBusyException ex = assertThrows(ServiceBusyException.class, () -> encoder.matches("third", "third"));
+        assertEquals(ErrorCode.SERVICE_BUSY.getCode(), ex.getCode());
+        assertEquals(1, meterRegistry.get("password.hash.rejected").counter().count());
+
+        // 全局异常处理返回 Retry-After
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        new GlobalExceptionHandler().handleServiceBusyException(new MockHttpServletRequest("POST", "/api/auth/login"), response, ex);
+        assertEquals(String.valueOf(ex.getRetryAfterSeconds()), response.getHeader(HttpHeaders.RETRY_AFTER));
+
+        release.countDown();
+        assertEquals("first", running.get(5, TimeUnit.SECONDS));
+        assertEquals("second", queued.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testTimeoutIsReportedAsServiceTimeout() throws Exception {
+        encoder = new BoundedPasswordEncoder(blocking(), 1, 1, Duration.ofMillis(100), meterRegistry);
+
+        BusinessException ex = assertThrows(BusinessException.class, () -> encoder.matches("secret", "secret"));
+        assertEquals(ErrorCode.SERVICE_TIMEOUT_ERROR.getCode(), ex.getCode());
+
+        // 超时的任务被取消，线程释放后可继续处理
+        release.countDown();
+        assertTrue(encoder.matches("secret", "secret"));
+    }
+
+    /**
+     * 阻塞到 release 放行后才返回的编码器
+     */
+    private PasswordEncoder blocking() {
+        return new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                await();
+                return rawPassword.toString();
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                await();
+                return rawPassword.toString().equals(encodedPassword);
+            }
+
+            private void await() {
+                started.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "condition not met in time");
+            Thread.sleep(10);
+        }
+    }
+
+}
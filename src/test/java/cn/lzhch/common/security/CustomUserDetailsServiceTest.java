@@ -0,0 +1,133 @@
+package cn.lzhch.common.security;
+
+import cn.lzhch.entity.User;
+import cn.lzhch.mapper.UserMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 自定义用户详情服务测试
+ * <p>
+ * 用内存中的用户表模拟 findByUsernameOrEmail，验证缓存命中、负缓存以及用户变更后的失效
+ * <p>
+ * author: lzhch
+ * version: v1.0
+ * date: 2026/10/17
+ */
+
+class CustomUserDetailsServiceTest {
+
+    private final Map<Long, User> table = new ConcurrentHashMap<>();
+
+    private UserMapper userMapper;
+    private CustomUserDetailsService userDetailsService;
+
+    @BeforeEach
+    void setUp() {
+        userMapper = mock(UserMapper.class);
+        when(userMapper.findByUsernameOrEmail(any())).thenAnswer(invocation -> find(invocation.getArgument(0)));
+        userDetailsService = new CustomUserDetailsService(userMapper, new SimpleMeterRegistry(), 100, 300, 60);
+        table.put(1L, user(1L, "Alice", "alice@example.com"));
+    }
+
+    @Test
+    void testUserIsCachedByUsernameAndEmail() {
+        User byUsername = userDetailsService.loadUser("alice");
+        assertSame(byUsername, userDetailsService.loadUser("ALICE@example.com"));
+        assertSame(byUsername, ((UserPrincipal) userDetailsService.loadUserByUsername("Alice")).getUser());
+        verify(userMapper, times(1)).findByUsernameOrEmail(any());
+    }
+
+    @Test
+    void testUnknownUserIsNegativelyCachedUntilEvicted() {
+        assertThrows(UsernameNotFoundException.class, () -> userDetailsService.loadUser("bob"));
+        assertThrows(UsernameNotFoundException.class, () -> userDetailsService.loadUser("bob"));
+        verify(userMapper, times(1)).findByUsernameOrEmail("bob");
+
+        // 注册后失效负缓存
+        User bob = user(2L, "bob", "bob@example.com");
+        table.put(2L, bob);
+        userDetailsService.evict(bob);
+        assertEquals(2L, userDetailsService.loadUser("bob").getId());
+    }
+
+    @Test
+    void testUpdateAndDeleteEvictCachedUser() {
+        User previous = userDetailsService.loadUser("alice");
+
+        // 修改邮箱：变更前后的用户名和邮箱都失效
+        User updated = user(1L, "Alice", "alice@new.example.com");
+        table.put(1L, updated);
+        userDetailsService.evict(previous, updated);
+        assertEquals("alice@new.example.com", userDetailsService.loadUser("alice").getEmail());
+        assertThrows(UsernameNotFoundException.class, () -> userDetailsService.loadUser("alice@example.com"));
+
+        // 删除
+        table.remove(1L);
+        userDetailsService.evict(updated);
+        assertThrows(UsernameNotFoundException.class, () -> userDetailsService.loadUser("alice"));
+        assertThrows(UsernameNotFoundException.class, () -> userDetailsService.loadUser("alice@new.example.com"));
+    }
+
+    @Test
+    void testEvictionDuringLookupIsNotOverwrittenByStaleResult() throws Exception {
+        CountDownLatch querying = new CountDownLatch(1);
+        CountDownLatch evicted = new CountDownLatch(1);
+        User stale = table.get(1L);
+        when(userMapper.findByUsernameOrEmail("alice")).thenAnswer(invocation -> {
+            querying.countDown();
+            assertTrue(evicted.await(5, TimeUnit.SECONDS));
+            return Optional.of(stale); // 查询开始时读到的旧数据
+        });
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<User> lookup = executor.submit(() -> userDetailsService.loadUser("alice"));
+        assertTrue(querying.await(5, TimeUnit.SECONDS));
+        User updated = user(1L, "Alice", "alice@new.example.com");
+        table.put(1L, updated);
+        userDetailsService.evict(stale, updated);
+        evicted.countDown();
+        assertSame(stale, lookup.get(5, TimeUnit.SECONDS));
+        executor.shutdown();
+
+        // 查询期间发生过失效，旧数据没有回填缓存
+        when(userMapper.findByUsernameOrEmail("alice")).thenAnswer(invocation -> find(invocation.getArgument(0)));
+        assertEquals("alice@new.example.com", userDetailsService.loadUser("alice").getEmail());
+    }
+
+    private Optional<User> find(String usernameOrEmail) {
+        String key = usernameOrEmail.toLowerCase(Locale.ROOT);
+        return table.values().stream()
+                .filter(user -> Objects.equals(user.getUsername().toLowerCase(Locale.ROOT), key)
+                        || Objects.equals(user.getEmail().toLowerCase(Locale.ROOT), key))
+                .findFirst();
+    }
+
+    private static User user(long id, String username, String email) {
+        return User.builder().id(id).username(username).email(email).password("hash").build();
+    }
+
+}
@@ -0,0 +1,114 @@
+package cn.lzhch.common.security;
+
+import cn.lzhch.entity.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * JWT 认证过滤器测试
+ * <p>
+ * author: lzhch
+ * version: v1.0
+ * date: 2026/10/17
+ */
+
+class JwtAuthenticationFilterTest {
+
+    private final User user = User.builder().id(42L).username("alice").email("alice@example.com").password("hash").build();
+
+    private JwtTokenProvider tokenProvider;
+    private UserDetailsService userDetailsService;
+    private TokenRevocationList revocationList;
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        tokenProvider = new JwtTokenProvider(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(tokenProvider, "jwtSecret", "testSecretKey12345678901234567890123456789");
+        ReflectionTestUtils.setField(tokenProvider, "jwtExpirationInSeconds", 3600);
+        ReflectionTestUtils.setField(tokenProvider, "tokenCacheMaximumSize", 100L);
+        tokenProvider.init();
+        token = tokenProvider.generateToken(UserPrincipal.fromUser(user, List.of()));
+
+        userDetailsService = mock(UserDetailsService.class);
+        when(userDetailsService.loadUserByUsername("alice")).thenReturn(UserPrincipal.fromUser(user, List.of()));
+        revocationList = mock(TokenRevocationList.class);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void testAuthenticatesFromClaimsWithinRevalidateInterval() throws Exception {
+        JwtAuthenticationFilter filter = new JwtAuthenticationFilter(tokenProvider, userDetailsService, revocationList, 300);
+
+        for (int i = 0; i < 3; i++) {
+            Authentication authentication = authenticate(filter, token);
+            assertNotNull(authentication);
+            UserPrincipal principal = (UserPrincipal) authentication.getPrincipal();
+            assertEquals(42L, principal.getId());
+            assertEquals("alice", principal.getUsername());
+            assertNull(principal.getUser()); // 由签名声明构建，不含用户实体
+        }
+        // 回源校验间隔内只查询一次
+        verify(userDetailsService, times(1)).loadUserByUsername("alice");
+    }
+
+    @Test
+    void testRevokedAndInvalidTokensAreRejected() throws Exception {
+        JwtAuthenticationFilter filter = new JwtAuthenticationFilter(tokenProvider, userDetailsService, revocationList, 300);
+        when(revocationList.isRevoked(any())).thenReturn(true);
+
+        assertNull(authenticate(filter, token));
+        assertNull(authenticate(filter, token.substring(0, token.length() - 2) + "xx"));
+        verify(userDetailsService, never()).loadUserByUsername(any());
+    }
+
+    @Test
+    void testDeletedUserIsRejectedAfterRevalidateInterval() throws Exception {
+        // 间隔为 0：每次请求都回源校验
+        JwtAuthenticationFilter filter = new JwtAuthenticationFilter(tokenProvider, userDetailsService, revocationList, 0);
+        assertNotNull(authenticate(filter, token));
+
+        when(userDetailsService.loadUserByUsername("alice")).thenThrow(new UsernameNotFoundException("alice"));
+        assertNull(authenticate(filter, token));
+    }
+
+    /**
+     * 携带令牌执行一次过滤器，返回请求结束时的认证信息；过滤链总会继续执行
+     */
+    private Authentication authenticate(JwtAuthenticationFilter filter, String jwt) throws Exception {
+        SecurityContextHolder.clearContext();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/user/profile");
+        request.addHeader("Authorization", "Bearer " + jwt);
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+        assertNotNull(chain.getRequest());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+}
@@ -0,0 +1,95 @@
+package cn.lzhch.common.security;
+
+import cn.lzhch.entity.User;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * JWT 令牌提供者测试
+ * <p>
+ * author: lzhch
+ * version: v1.0
+ * date: 2026/10/17
+ */
+
+class JwtTokenProviderTest {
+
+    private final User user = User.builder().id(42L).username("alice").email("alice@example.com").password("hash").build();
+
+    private SimpleMeterRegistry meterRegistry;
+    private JwtTokenProvider tokenProvider;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        tokenProvider = new JwtTokenProvider(meterRegistry);
+        ReflectionTestUtils.setField(tokenProvider, "jwtSecret", "testSecretKey12345678901234567890123456789");
+        ReflectionTestUtils.setField(tokenProvider, "jwtExpirationInSeconds", 3600);
+        ReflectionTestUtils.setField(tokenProvider, "tokenCacheMaximumSize", 100L);
+        tokenProvider.init();
+    }
+
+    @Test
+    void testClaimsRoundTripAndCacheHit() {
+        String token = tokenProvider.generateToken(UserPrincipal.fromUser(user, List.of(new SimpleGrantedAuthority("ROLE_USER"))));
+
+        Claims first = tokenProvider.parseClaims(token);
+        assertNotNull(first);
+        UserPrincipal principal = tokenProvider.getPrincipalFromClaims(first);
+        assertEquals(42L, principal.getId());
+        assertEquals("alice", principal.getUsername());
+        assertEquals(List.of(new SimpleGrantedAuthority("ROLE_USER")), List.copyOf(principal.getAuthorities()));
+
+        // 同一令牌再次解析直接返回缓存的声明
+        assertSame(first, tokenProvider.parseClaims(token));
+        assertEquals(1.0, cacheHits());
+        // 每个令牌的 jti 不同
+        assertNotEquals(first.getId(), tokenProvider.parseClaims(tokenProvider.generateToken(UserPrincipal.fromUser(user, List.of()))).getId());
+    }
+
+    @Test
+    void testExpiredTokenIsRejectedDespiteCacheHit() throws Exception {
+        // 缓存按 3600 秒构建，令牌只签发 1 秒有效期：缓存条目仍在，但令牌已过期
+        ReflectionTestUtils.setField(tokenProvider, "jwtExpirationInSeconds", 1);
+        String token = tokenProvider.generateToken(UserPrincipal.fromUser(user, List.of()));
+        Claims claims = tokenProvider.parseClaims(token);
+        assertNotNull(claims);
+
+        Thread.sleep(Math.max(claims.getExpiration().getTime() - System.currentTimeMillis(), 0L) + 50L);
+        assertNull(tokenProvider.parseClaims(token));
+        assertEquals(1.0, cacheHits());
+    }
+
+    @Test
+    void testTamperedAndForeignTokensAreRejected() {
+        String token = tokenProvider.generateToken(UserPrincipal.fromUser(user, List.of()));
+        String[] parts = token.split("\\.");
+        assertNull(tokenProvider.parseClaims(parts[0] + "." + parts[1] + "." + new StringBuilder(parts[2]).reverse()));
+        assertNull(tokenProvider.parseClaims("not-a-jwt"));
+        assertNull(tokenProvider.parseClaims(""));
+
+        JwtTokenProvider other = new JwtTokenProvider(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(other, "jwtSecret", "anotherSecretKey123456789012345678901234567");
+        ReflectionTestUtils.setField(other, "jwtExpirationInSeconds", 3600);
+        ReflectionTestUtils.setField(other, "tokenCacheMaximumSize", 100L);
+        other.init();
+        assertNull(other.parseClaims(token));
+    }
+
+    private double cacheHits() {
+        return meterRegistry.get("cache.gets").tag("cache", "jwt.verified.tokens").tag("result", "hit").functionCounter().count();
+    }
+
+}
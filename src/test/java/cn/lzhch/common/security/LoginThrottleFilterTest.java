@@ -0,0 +1,174 @@
+package cn.lzhch.common.security;
+
+import cn.lzhch.common.exception.PayloadTooLargeException;
+import cn.lzhch.common.exception.TooManyRequestsException;
+import cn.lzhch.entity.User;
+import cn.lzhch.mapper.UserMapper;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isA;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 登录限流过滤器测试
+ * <p>
+ * author: lzhch
+ * version: v1.0
+ * date: 2026/10/17
+ */
+
+class LoginThrottleFilterTest {
+
+    private HandlerExceptionResolver resolver;
+    private LoginThrottleFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        resolver = mock(HandlerExceptionResolver.class);
+        UserMapper userMapper = mock(UserMapper.class);
+        User alice = User.builder().id(1L).username("alice").email("alice@example.com").password("hash").build();
+        when(userMapper.findByUsernameOrEmail(any())).thenAnswer(invocation -> {
+            String usernameOrEmail = invocation.getArgument(0);
+            return "alice".equalsIgnoreCase(usernameOrEmail) || "alice@example.com".equalsIgnoreCase(usernameOrEmail)
+                    ? Optional.of(alice) : Optional.empty();
+        });
+        CustomUserDetailsService userDetailsService = new CustomUserDetailsService(userMapper, new SimpleMeterRegistry(), 100, 300, 60);
+        filter = new LoginThrottleFilter(new ObjectMapper(), userDetailsService, new SimpleMeterRegistry(), resolver, 4096, 5, 12, 20, 3);
+    }
+
+    @Test
+    void testBodyIsStillReadableByController() throws Exception {
+        String body = "{\"username\":\"Alice\",\"password\":\"secret\"}";
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(login("10.0.0.1", body), new MockHttpServletResponse(), chain);
+
+        assertNotNull(chain.getRequest());
+        assertEquals(body, new String(chain.getRequest().getInputStream().readAllBytes(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testReadListenerReceivesCachedBody() throws Exception {
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(login("10.0.0.1", "{\"username\":\"alice\"}"), new MockHttpServletResponse(), chain);
+
+        ServletInputStream input = chain.getRequest().getInputStream();
+        ByteArrayOutputStream read = new ByteArrayOutputStream();
+        List<String> events = new ArrayList<>();
+        input.setReadListener(new ReadListener() {
+            @Override
+            public void onDataAvailable() throws IOException {
+                events.add("available");
+                while (input.isReady() && !input.isFinished()) {
+                    read.write(input.read());
+                }
+            }
+
+            @Override
+            public void onAllDataRead() {
+                events.add("done");
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                events.add("error");
+            }
+        });
+
+        assertEquals(List.of("available", "done"), events);
+        assertEquals("{\"username\":\"alice\"}", read.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testAccountThrottledAcrossIps() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            MockFilterChain chain = new MockFilterChain();
+            filter.doFilter(login("10.0.0." + i, "{\"username\":\"alice\"}"), new MockHttpServletResponse(), chain);
+            assertNotNull(chain.getRequest());
+        }
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(login("10.0.1.1", "{\"username\":\" ALICE \"}"), new MockHttpServletResponse(), chain);
+
+        assertNull(chain.getRequest());
+        verify(resolver).resolveException(any(), any(), any(), isA(TooManyRequestsException.class));
+    }
+
+    @Test
+    void testUsernameAndEmailShareAccountBudget() throws Exception {
+        // 交替使用用户名和邮箱不能获得两份额度
+        for (int i = 0; i < 5; i++) {
+            String username = i % 2 == 0 ? "alice" : "Alice@Example.com";
+            MockFilterChain chain = new MockFilterChain();
+            filter.doFilter(login("10.0.0." + i, "{\"username\":\"" + username + "\"}"), new MockHttpServletResponse(), chain);
+            assertNotNull(chain.getRequest());
+        }
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(login("10.0.1.1", "{\"username\":\"alice@example.com\"}"), new MockHttpServletResponse(), chain);
+        assertNull(chain.getRequest());
+
+        // 不存在的账号按输入的用户名单独计数
+        chain = new MockFilterChain();
+        filter.doFilter(login("10.0.1.2", "{\"username\":\"bob\"}"), new MockHttpServletResponse(), chain);
+        assertNotNull(chain.getRequest());
+        verify(resolver, times(1)).resolveException(any(), any(), any(), isA(TooManyRequestsException.class));
+    }
+
+    @Test
+    void testOversizedBodyIsRejected() throws Exception {
+        // 用空白填充超过上限的请求体不能跳过账号限流进入认证
+        String padded = "{\"username\":\"alice\",\"password\":\"x\"" + " ".repeat(5000) + "}";
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(login("10.0.0.1", padded), new MockHttpServletResponse(), chain);
+        assertNull(chain.getRequest());
+
+        // 分块传输时没有 Content-Length，按读取到的长度判断
+        MockHttpServletRequest chunked = new MockHttpServletRequest("POST", "/api/auth/login") {
+            @Override
+            public long getContentLengthLong() {
+                return -1;
+            }
+        };
+        chunked.setServletPath("/api/auth/login");
+        chunked.setRemoteAddr("10.0.0.2");
+        chunked.setContent(padded.getBytes(StandardCharsets.UTF_8));
+        chain = new MockFilterChain();
+        filter.doFilter(chunked, new MockHttpServletResponse(), chain);
+        assertNull(chain.getRequest());
+
+        verify(resolver, times(2)).resolveException(any(), any(), any(), isA(PayloadTooLargeException.class));
+        verify(resolver, never()).resolveException(any(), any(), any(), isA(TooManyRequestsException.class));
+    }
+
+    private static MockHttpServletRequest login(String ip, String body) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/auth/login");
+        request.setServletPath("/api/auth/login");
+        request.setRemoteAddr(ip);
+        request.setContentType("application/json");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+
+}
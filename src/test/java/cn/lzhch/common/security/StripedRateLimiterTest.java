@@ -0,0 +1,152 @@
+package cn.lzhch.common.security;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 分段限流器测试
+ * <p>
+ * 微基准测试默认跳过，使用 mvn test -Dtest=StripedRateLimiterTest -Dbenchmark=true 运行
+ * <p>
+ * author: lzhch
+ * version: v1.0
+ * date: 2026/10/17
+ */
+
+class StripedRateLimiterTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void testBurstThenRefill() {
+        StripedRateLimiter limiter = new StripedRateLimiter(1024, 5, 12, TimeUnit.SECONDS);
+        long now = System.nanoTime();
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, limiter.tryAcquire("alice", now));
+        }
+        long waitNanos = limiter.tryAcquire("alice", now);
+        assertEquals(12 * SECOND, waitNanos);
+
+        // 其他账号不受影响
+        assertEquals(0, limiter.tryAcquire("bob", now));
+
+        // 等待一个补充间隔后恢复一次机会
+        assertEquals(0, limiter.tryAcquire("alice", now + waitNanos));
+        assertTrue(limiter.tryAcquire("alice", now + waitNanos) > 0);
+
+        // 空闲足够久后桶重新装满，但不会超过容量
+        long later = now + 10 * 12 * SECOND;
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, limiter.tryAcquire("alice", later));
+        }
+        assertTrue(limiter.tryAcquire("alice", later) > 0);
+    }
+
+    @Test
+    void testSlotsDifferPerInstance() {
+        // 槽位由随机密钥决定：两个实例中与 victim 同槽位的键不同，无法离线构造碰撞
+        StripedRateLimiter first = new StripedRateLimiter(16, 1, 1, TimeUnit.HOURS);
+        StripedRateLimiter second = new StripedRateLimiter(16, 1, 1, TimeUnit.HOURS);
+        List<String> collideInFirst = new ArrayList<>();
+        List<String> collideInSecond = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            String key = "attacker" + i;
+            if (first.indexOf(key) == first.indexOf("victim")) {
+                collideInFirst.add(key);
+            }
+            if (second.indexOf(key) == second.indexOf("victim")) {
+                collideInSecond.add(key);
+            }
+        }
+        assertFalse(collideInFirst.isEmpty());
+        assertNotEquals(collideInFirst, collideInSecond);
+    }
+
+    @Test
+    void testConcurrentAcquireNeverExceedsCapacity() throws Exception {
+        int threads = 16;
+        StripedRateLimiter limiter = new StripedRateLimiter(64, 20, 1, TimeUnit.HOURS);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger granted = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int j = 0; j < 100; j++) {
+                    if (limiter.tryAcquire("10.0.0.1") == 0) {
+                        granted.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(10, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertEquals(20, granted.get());
+    }
+
+    /**
+     * 限流器自身开销：单线程和多线程下每次 tryAcquire 的平均耗时
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void benchmarkTryAcquire() throws Exception {
+        StripedRateLimiter limiter = new StripedRateLimiter(4096, 5, 12, TimeUnit.SECONDS);
+        String[] keys = new String[10_000];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = "user" + i + "@example.com";
+        }
+
+        int iterations = 5_000_000;
+        for (int threads : new int[]{1, 4, Runtime.getRuntime().availableProcessors()}) {
+            // 预热
+            run(limiter, keys, threads, iterations / 5);
+            long elapsed = run(limiter, keys, threads, iterations);
+            System.out.printf("StripedRateLimiter.tryAcquire threads=%d: %.1f ns/op (%d ops)%n",
+                    threads, (double) elapsed * threads / iterations, iterations);
+        }
+    }
+
+    private static long run(StripedRateLimiter limiter, String[] keys, int threads, int iterations) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Long>> futures = new ArrayList<>();
+        int perThread = iterations / threads;
+        for (int t = 0; t < threads; t++) {
+            int offset = t;
+            futures.add(executor.submit(() -> {
+                start.await();
+                long sink = 0;
+                for (int i = 0; i < perThread; i++) {
+                    sink += limiter.tryAcquire(keys[(i * 31 + offset) % keys.length]);
+                }
+                return sink;
+            }));
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Future<Long> future : futures) {
+            future.get();
+        }
+        long elapsed = System.nanoTime() - begin;
+        executor.shutdown();
+        return elapsed;
+    }
+
+}
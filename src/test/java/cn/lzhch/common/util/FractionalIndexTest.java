@@ -0,0 +1,87 @@
+package cn.lzhch.common.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 分数索引测试
+ * <p>
+ * author: lzhch
+ * version: v1.0
+ * date: 2026/10/17
+ */
+
+class FractionalIndexTest {
+
+    @Test
+    void testRandomInsertsStayOrdered() {
+        Random random = new Random(42);
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            int position = random.nextInt(keys.size() + 1);
+            String before = position == 0 ? null : keys.get(position - 1);
+            String after = position == keys.size() ? null : keys.get(position);
+            String key = FractionalIndex.between(before, after);
+
+            assertTrue(FractionalIndex.isValid(key), key);
+            assertTrue(before == null || before.compareTo(key) < 0, before + " < " + key);
+            assertTrue(after == null || key.compareTo(after) < 0, key + " < " + after);
+            keys.add(position, key);
+        }
+    }
+
+    @Test
+    void testRepeatedMovesAtEdgesGrowSlowly() {
+        String first = FractionalIndex.between(null, null);
+        String last = first;
+        for (int i = 0; i < 1000; i++) {
+            String top = FractionalIndex.between(null, first);
+            assertTrue(top.compareTo(first) < 0);
+            first = top;
+
+            String bottom = FractionalIndex.between(last, null);
+            assertTrue(bottom.compareTo(last) > 0);
+            last = bottom;
+        }
+        // 追加和置顶只改一位，1000 次后仍然很短
+        assertTrue(first.length() <= 20, first);
+        assertTrue(last.length() <= 20, last);
+    }
+
+    @Test
+    void testRepeatedInsertsAtSameGapThenSpread() {
+        String before = "V";
+        String after = "W";
+        for (int i = 0; i < 60; i++) {
+            after = FractionalIndex.between(before, after);
+        }
+        // 同一位置反复插入，键逐渐变长，需要压缩
+        assertTrue(after.length() > 8, after);
+
+        List<String> spread = FractionalIndex.spread(1000);
+        assertEquals(1000, spread.size());
+        for (int i = 0; i < spread.size(); i++) {
+            String key = spread.get(i);
+            assertTrue(FractionalIndex.isValid(key), key);
+            assertTrue(key.length() <= 2, key);
+            assertTrue(i == 0 || spread.get(i - 1).compareTo(key) < 0);
+        }
+        assertEquals(List.of("V"), FractionalIndex.spread(1));
+    }
+
+    @Test
+    void testInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> FractionalIndex.between("b", "a"));
+        assertThrows(IllegalArgumentException.class, () -> FractionalIndex.between("a", "a"));
+        assertThrows(IllegalArgumentException.class, () -> FractionalIndex.between("a0", null));
+        assertThrows(IllegalArgumentException.class, () -> FractionalIndex.between(null, "a-"));
+    }
+
+}
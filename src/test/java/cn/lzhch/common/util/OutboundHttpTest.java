@@ -0,0 +1,99 @@
+package cn.lzhch.common.util;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 外部地址访问测试
+ * <p>
+ * author: lzhch
+ * version: v1.0
+ * date: 2026/10/17
+ */
+
+class OutboundHttpTest {
+
+    @Test
+    void testPrivateAddressesAreNotPublic() throws IOException {
+        for (String address : new String[]{"127.0.0.1", "::1", "10.1.2.3", "172.16.0.1", "192.168.1.1",
+                "169.254.169.254", "fe80::1", "fd00:ec2::254", "224.0.0.1", "0.0.0.0", "::ffff:127.0.0.1"}) {
+            assertFalse(OutboundHttp.isPublic(InetAddress.getByName(address)), address);
+        }
+        assertTrue(OutboundHttp.isPublic(InetAddress.getByName("93.184.216.34")));
+        assertTrue(OutboundHttp.isPublic(InetAddress.getByName("2606:4700::1111")));
+    }
+
+    @Test
+    void testParseAcceptsOnlyHttpWithHost() {
+        assertEquals("example.com", OutboundHttp.parse(" https://example.com/a ").getHost());
+        assertNull(OutboundHttp.parse("ftp://example.com/"));
+        assertNull(OutboundHttp.parse("file:///etc/passwd"));
+        assertNull(OutboundHttp.parse("not a url"));
+        assertNull(OutboundHttp.parse(""));
+    }
+
+    @Test
+    void testEveryRedirectHopIsChecked() throws Exception {
+        AtomicInteger requests = new AtomicInteger();
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        int port = server.getAddress().getPort();
+        server.createContext("/ok", exchange -> {
+            requests.incrementAndGet();
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        server.createContext("/internal", exchange -> {
+            requests.incrementAndGet();
+            exchange.getResponseHeaders().add("Location", "http://127.0.0.2:" + port + "/ok");
+            exchange.sendResponseHeaders(302, -1);
+            exchange.close();
+        });
+        server.createContext("/relative", exchange -> {
+            requests.incrementAndGet();
+            exchange.getResponseHeaders().add("Location", "/ok");
+            exchange.sendResponseHeaders(302, -1);
+            exchange.close();
+        });
+        server.start();
+        // 测试中把 127.0.0.1 当作公网地址，127.0.0.2 当作内网地址
+        Predicate<InetAddress> allowed = address -> "127.0.0.1".equals(address.getHostAddress());
+        try (HttpClient client = HttpClient.newBuilder().followRedirects(HttpClient.Redirect.NEVER).build()) {
+            String base = "http://127.0.0.1:" + port;
+            assertEquals(200, send(client, base + "/relative", allowed).statusCode());
+            assertEquals(2, requests.get());
+
+            assertThrows(OutboundHttp.ForbiddenAddressException.class, () -> send(client, base + "/internal", allowed));
+            assertEquals(3, requests.get());
+
+            // 首个地址不允许时不发请求
+            assertThrows(OutboundHttp.ForbiddenAddressException.class,
+                    () -> send(client, base + "/ok", address -> false));
+            assertEquals(3, requests.get());
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    private static HttpResponse<Void> send(HttpClient client, String url, Predicate<InetAddress> allowed)
+            throws IOException, InterruptedException {
+        return OutboundHttp.send(client, URI.create(url), uri -> HttpRequest.newBuilder(uri).GET().build(),
+                HttpResponse.BodyHandlers.discarding(), allowed);
+    }
+
+}
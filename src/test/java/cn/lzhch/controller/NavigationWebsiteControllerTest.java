@@ -0,0 +1,324 @@
+package cn.lzhch.controller;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import cn.lzhch.common.response.GlobalResponseBodyAdvice;
+import cn.lzhch.controller.interceptor.NavigationETagInterceptor;
+import cn.lzhch.dto.navigation.WebsiteItemResDto;
+import cn.lzhch.dto.navigation.WebsitesByCategoryResDto;
+import cn.lzhch.entity.NavigationCategory;
+import cn.lzhch.entity.NavigationWebsite;
+import cn.lzhch.service.NavigationWebsiteService;
+import cn.lzhch.service.navigation.NavigationClickCounter;
+import cn.lzhch.service.navigation.NavigationPopularHolder;
+import cn.lzhch.service.navigation.NavigationSnapshot;
+import cn.lzhch.service.navigation.NavigationSearchIndex;
+import cn.lzhch.service.navigation.NavigationSnapshotHolder;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.LoggerFactory;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.WriteListener;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.lang.NonNull;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.ByteArrayInputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 导航网站控制器测试
+ * <p>
+ * 验证预序列化响应体与 {@link GlobalResponseBodyAdvice} 包装后的结果一致，以及 ETag / gzip 协商；
+ * 吞吐量对比默认跳过，使用 mvn test -Dtest=NavigationWebsiteControllerTest -Dbenchmark=true 运行
+ * <p>
+ * author: lzhch
+ * version: v1.0
+ * date: 2026/10/17
+ */
+
+class NavigationWebsiteControllerTest {
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private NavigationSnapshot snapshot;
+    private NavigationSnapshotHolder holder;
+    private NavigationWebsiteController controller;
+    private GlobalResponseBodyAdvice advice;
+    private NavigationETagInterceptor interceptor;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        snapshot = buildSnapshot(1L, 20, 30);
+        holder = mock(NavigationSnapshotHolder.class);
+        when(holder.current()).thenReturn(snapshot);
+        when(holder.current(any(ServletRequest.class))).thenCallRealMethod();
+
+        NavigationWebsiteService service = new NavigationWebsiteService(holder, mock(ApplicationEventPublisher.class),
+                mock(SqlSessionFactory.class), mock(NavigationSearchIndex.class), mock(NavigationClickCounter.class),
+                mock(NavigationPopularHolder.class));
+        controller = new NavigationWebsiteController(service);
+        advice = new GlobalResponseBodyAdvice();
+        ReflectionTestUtils.setField(advice, "objectMapper", objectMapper);
+
+        interceptor = new NavigationETagInterceptor("nav", request -> holder.current(request).getVersion());
+        mockMvc = MockMvcBuilders
+                .standaloneSetup(controller, new LegacyListByCategoryController(snapshot))
+                .setControllerAdvice(advice)
+                .setMessageConverters(new MappingJackson2HttpMessageConverter(objectMapper))
+                .addMappedInterceptors(new String[]{"/api/navigationWebsite/listByCategory"}, interceptor)
+                .build();
+    }
+
+    @Test
+    void testPreSerializedBodyMatchesAdvicePath() throws Exception {
+        JsonNode expected = withoutTimestamp(mockMvc.perform(get("/legacy/listByCategory")).andReturn());
+        JsonNode actual = withoutTimestamp(mockMvc.perform(get("/api/navigationWebsite/listByCategory")).andReturn());
+
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    void testGzipAndConditionalGet() throws Exception {
+        String identityETag = interceptor.etag(snapshot.getVersion(), false);
+        String gzipETag = interceptor.etag(snapshot.getVersion(), true);
+
+        MvcResult gzip = mockMvc.perform(get("/api/navigationWebsite/listByCategory")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "br, gzip;q=0.8"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, gzipETag))
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andReturn();
+        byte[] json = new GZIPInputStream(new ByteArrayInputStream(gzip.getResponse().getContentAsByteArray())).readAllBytes();
+        assertEquals(snapshot.getWebsitesByCategoryBody().identityLength(), json.length);
+
+        mockMvc.perform(get("/api/navigationWebsite/listByCategory")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, identityETag))
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING));
+
+        MvcResult notModified = mockMvc.perform(get("/api/navigationWebsite/listByCategory")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                        .header(HttpHeaders.IF_NONE_MATCH, gzipETag))
+                .andExpect(status().isNotModified())
+                .andReturn();
+        assertEquals(0, notModified.getResponse().getContentLength());
+
+        // 原始版本的 ETag 不能匹配 gzip 版本
+        mockMvc.perform(get("/api/navigationWebsite/listByCategory")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                        .header(HttpHeaders.IF_NONE_MATCH, identityETag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void testETagAndBodyComeFromSameSnapshot() throws Exception {
+        // 拦截器读取版本后快照被重建：响应体仍来自拦截器读取的快照
+        NavigationSnapshot rebuilt = buildSnapshot(2L, 2, 3);
+        when(holder.current()).thenReturn(snapshot, rebuilt);
+
+        MvcResult result = mockMvc.perform(get("/api/navigationWebsite/listByCategory")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "identity"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, interceptor.etag(snapshot.getVersion(), false)))
+                .andReturn();
+        assertEquals(snapshot.getWebsitesByCategoryBody().identityLength(), result.getResponse().getContentAsByteArray().length);
+
+        result = mockMvc.perform(get("/api/navigationWebsite/listByCategory")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "identity"))
+                .andExpect(header().string(HttpHeaders.ETAG, interceptor.etag(rebuilt.getVersion(), false)))
+                .andReturn();
+        assertEquals(rebuilt.getWebsitesByCategoryBody().identityLength(), result.getResponse().getContentAsByteArray().length);
+    }
+
+    /**
+     * 每秒请求数对比：改造前 Jackson 序列化 + GlobalResponseBodyAdvice 包装 与 直接写出预序列化字节
+     * <p>
+     * 不经过 MockMvc：MockHttpServletResponse 的输出流逐字节写入，会掩盖两种实现的差异；
+     * 这里直接调用两条路径，响应写入丢弃输出的流，只比较服务端自身的处理开销
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void benchmarkRequestsPerSecond() throws Exception {
+        MappingJackson2HttpMessageConverter converter = new MappingJackson2HttpMessageConverter(objectMapper);
+        MethodParameter returnType = new MethodParameter(
+                LegacyListByCategoryController.class.getMethod("listByCategory"), -1);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/navigationWebsite/listByCategory");
+        MockHttpServletRequest gzipRequest = new MockHttpServletRequest("GET", "/api/navigationWebsite/listByCategory");
+        gzipRequest.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip");
+
+        System.out.printf("listByCategory payload: %d bytes, gzip %d bytes%n",
+                snapshot.getWebsitesByCategoryBody().identityLength(), snapshot.getWebsitesByCategoryBody().gzipLength());
+
+        report("GlobalResponseBodyAdvice (Jackson)", response -> {
+            ServletServerHttpResponse serverResponse = new ServletServerHttpResponse(response);
+            Object body = advice.beforeBodyWrite(snapshot.getWebsitesByCategory(), returnType, MediaType.APPLICATION_JSON,
+                    MappingJackson2HttpMessageConverter.class, new ServletServerHttpRequest(request), serverResponse);
+            converter.write(body, MediaType.APPLICATION_JSON, serverResponse);
+        });
+        report("pre-serialized identity", response -> controller.listByCategory(request, response));
+        report("pre-serialized gzip", response -> controller.listByCategory(gzipRequest, response));
+    }
+
+    private void report(String name, ResponseWriter writer) throws Exception {
+        // 单元测试中 logback 使用默认的 DEBUG 级别，两条路径上的日志输出会掩盖真实差异
+        Logger rootLogger = (Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME);
+        Level level = rootLogger.getLevel();
+        rootLogger.setLevel(Level.WARN);
+        try {
+            run(name, writer);
+        } finally {
+            rootLogger.setLevel(level);
+        }
+    }
+
+    private void run(String name, ResponseWriter writer) throws Exception {
+        int warmUp = 2_000;
+        int requests = 10_000;
+        for (int i = 0; i < warmUp; i++) {
+            writer.write(new DiscardingResponse());
+        }
+        long bytes = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            DiscardingResponse response = new DiscardingResponse();
+            writer.write(response);
+            bytes += response.written;
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%-36s %,10.0f req/s %,8d bytes/req%n", name, requests / seconds, bytes / requests);
+    }
+
+    @FunctionalInterface
+    private interface ResponseWriter {
+
+        void write(MockHttpServletResponse response) throws Exception;
+
+    }
+
+    /**
+     * 丢弃响应体、只统计字节数的响应
+     */
+    private static final class DiscardingResponse extends MockHttpServletResponse {
+
+        private long written;
+
+        private final ServletOutputStream outputStream = new ServletOutputStream() {
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setWriteListener(WriteListener writeListener) {
+            }
+
+            @Override
+            public void write(int b) {
+                written++;
+            }
+
+            @Override
+            public void write(@NonNull byte[] b, int off, int len) {
+                written += len;
+            }
+        };
+
+        @Override
+        @NonNull
+        public ServletOutputStream getOutputStream() {
+            return outputStream;
+        }
+
+    }
+
+    private JsonNode withoutTimestamp(MvcResult result) throws Exception {
+        JsonNode node = objectMapper.readTree(result.getResponse().getContentAsByteArray());
+        ((ObjectNode) node).remove("timestamp");
+        return node;
+    }
+
+    private NavigationSnapshot buildSnapshot(long version, int categoryCount, int websitesPerCategory) {
+        List<NavigationCategory> categories = new ArrayList<>();
+        List<NavigationWebsite> websites = new ArrayList<>();
+        List<WebsitesByCategoryResDto> displayCategories = new ArrayList<>();
+        List<WebsiteItemResDto> displayWebsites = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.of(2026, 10, 17, 12, 0);
+        for (int c = 0; c < categoryCount; c++) {
+            long categoryId = 1_900_000_000_000_000L + c;
+            categories.add(NavigationCategory.builder()
+                    .id(categoryId).categoryName("分类" + c).categorySort(c)
+                    .delFlag("0").createTime(now).build());
+            displayCategories.add(WebsitesByCategoryResDto.builder()
+                    .id(categoryId).categoryName("分类" + c).categorySort(c).build());
+            for (int w = 0; w < websitesPerCategory; w++) {
+                NavigationWebsite website = NavigationWebsite.builder()
+                        .id(categoryId * 100 + w).categoryId(categoryId)
+                        .siteName("网站" + c + "-" + w).siteUrl("https://example" + w + ".com/" + c)
+                        .siteIcon("https://example" + w + ".com/favicon.ico")
+                        .siteOverview("这是一个用于测试的网站概览，长度与真实数据相近")
+                        .siteSort(w).delFlag("0").createTime(now).build();
+                websites.add(website);
+                displayWebsites.add(WebsiteItemResDto.builder()
+                        .id(website.getId()).categoryId(categoryId)
+                        .siteName(website.getSiteName()).siteUrl(website.getSiteUrl())
+                        .siteIcon(website.getSiteIcon()).siteOverview(website.getSiteOverview())
+                        .siteSort(website.getSiteSort()).build());
+            }
+        }
+        return NavigationSnapshot.build(version, categories, websites, displayCategories, displayWebsites, objectMapper);
+    }
+
+    /**
+     * 改造前的实现：返回对象由 Jackson 序列化，经 GlobalResponseBodyAdvice 包装
+     */
+    @RestController
+    static class LegacyListByCategoryController {
+
+        private final NavigationSnapshot snapshot;
+
+        LegacyListByCategoryController(NavigationSnapshot snapshot) {
+            this.snapshot = snapshot;
+        }
+
+        @GetMapping("/legacy/listByCategory")
+        public List<WebsitesByCategoryResDto> listByCategory() {
+            return snapshot.getWebsitesByCategory();
+        }
+
+    }
+
+}
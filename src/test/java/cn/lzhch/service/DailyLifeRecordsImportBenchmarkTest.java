@@ -0,0 +1,69 @@
+package cn.lzhch.service;
+
+import cn.lzhch.dto.record.ImportResDto;
+import cn.lzhch.entity.DailyLifeRecords;
+import cn.lzhch.service.importer.DailyLifeRecordsImporter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 日常生活记录批量导入基准测试
+ * <p>
+ * 对 10000 条记录比较逐条 save 与导入接口（流式解析 + BATCH 执行器按批写入）。
+ * 需要可用的 MySQL，默认跳过，使用 mvn test -Dtest=DailyLifeRecordsImportBenchmarkTest -Dbenchmark=true 运行；
+ * 测试数据在测试事务中写入，结束后回滚
+ * <p>
+ * author: lzhch
+ * version: v1.0
+ * date: 2026/10/17
+ */
+
+@SpringBootTest
+@Transactional
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class DailyLifeRecordsImportBenchmarkTest {
+
+    private static final int RECORDS = 10_000;
+
+    @Autowired
+    private IDailyLifeRecordsService dailyLifeRecordsService;
+
+    @Autowired
+    private DailyLifeRecordsImporter dailyLifeRecordsImporter;
+
+    @Test
+    void benchmarkImport() throws IOException {
+        long begin = System.nanoTime();
+        for (int i = 0; i < RECORDS; i++) {
+            this.dailyLifeRecordsService.save(DailyLifeRecords.builder().content("benchmark-save-" + i)
+                    .delFlag("0").createTime(LocalDateTime.now()).build());
+        }
+        report("single save", System.nanoTime() - begin);
+
+        StringBuilder body = new StringBuilder(RECORDS * 40);
+        for (int i = 0; i < RECORDS; i++) {
+            body.append("{\"content\":\"benchmark-import-").append(i).append("\"}\n");
+        }
+        byte[] bytes = body.toString().getBytes(StandardCharsets.UTF_8);
+        begin = System.nanoTime();
+        ImportResDto result = this.dailyLifeRecordsImporter.importFrom(new ByteArrayInputStream(bytes));
+        report("batched import", System.nanoTime() - begin);
+        assertEquals(RECORDS, result.getInserted());
+    }
+
+    private static void report(String name, long elapsed) {
+        System.out.printf("insert %d records via %s: %.2f ms, %.0f rows/s%n",
+                RECORDS, name, elapsed / 1_000_000.0, RECORDS / (elapsed / 1_000_000_000.0));
+    }
+
+}
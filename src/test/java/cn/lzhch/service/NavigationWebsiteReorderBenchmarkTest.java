@@ -0,0 +1,117 @@
+package cn.lzhch.service;
+
+import cn.lzhch.dto.navigation.WebsiteReorderReqDto;
+import cn.lzhch.dto.navigation.WebsiteSortReqDto;
+import cn.lzhch.entity.NavigationWebsite;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 导航网站批量排序基准测试
+ * <p>
+ * 对 1000 个网站比较三种写法：逐条 updateBatchById、单条 CASE WHEN、rewriteBatchedStatements 批处理。
+ * 需要可用的 MySQL，默认跳过，使用 mvn test -Dtest=NavigationWebsiteReorderBenchmarkTest -Dbenchmark=true 运行；
+ * 测试数据在测试事务中写入，结束后回滚
+ * <p>
+ * author: lzhch
+ * version: v1.0
+ * date: 2026/10/17
+ */
+
+@SpringBootTest
+@Transactional
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class NavigationWebsiteReorderBenchmarkTest {
+
+    private static final int SITES = 1000;
+    private static final int ROUNDS = 10;
+
+    @Autowired
+    private NavigationWebsiteService navigationWebsiteService;
+
+    private int round;
+
+    @Test
+    void benchmarkReorder() {
+        List<NavigationWebsite> websites = new ArrayList<>(SITES);
+        for (int i = 0; i < SITES; i++) {
+            NavigationWebsite website = new NavigationWebsite();
+            website.setSiteName("benchmark-" + i);
+            website.setSiteUrl("https://example.com/" + i);
+            website.setSiteSort(i);
+            website.setCategoryId(1L);
+            websites.add(website);
+        }
+        this.navigationWebsiteService.saveBatch(websites);
+
+        // 服务被事务代理，阈值需设置在目标对象上
+        Object target = AopTestUtils.getTargetObject(this.navigationWebsiteService);
+        int caseThreshold = (int) ReflectionTestUtils.getField(target, "reorderCaseThreshold");
+        try {
+            measure("updateBatchById", round -> {
+                List<NavigationWebsite> updates = new ArrayList<>(SITES);
+                for (NavigationWebsite website : websites) {
+                    NavigationWebsite update = new NavigationWebsite();
+                    update.setId(website.getId());
+                    update.setSiteSort(sortOf(website, round));
+                    update.setCategoryId(website.getCategoryId());
+                    updates.add(update);
+                }
+                this.navigationWebsiteService.updateBatchById(updates);
+                return SITES;
+            });
+
+            ReflectionTestUtils.setField(target, "reorderCaseThreshold", Integer.MAX_VALUE);
+            measure("CASE WHEN", round -> this.navigationWebsiteService.reorder(request(websites, round)));
+
+            ReflectionTestUtils.setField(target, "reorderCaseThreshold", 0);
+            measure("rewritten batch", round -> this.navigationWebsiteService.reorder(request(websites, round)));
+        } finally {
+            ReflectionTestUtils.setField(target, "reorderCaseThreshold", caseThreshold);
+        }
+    }
+
+    private void measure(String name, RoundAction action) {
+        // 预热
+        action.run(this.round++);
+        long begin = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            assertEquals(SITES, action.run(this.round++));
+        }
+        long elapsed = System.nanoTime() - begin;
+        System.out.printf("reorder %d sites via %s: %.2f ms/op%n", SITES, name, elapsed / 1_000_000.0 / ROUNDS);
+    }
+
+    /**
+     * 每轮使用不同的排序值，保证每次都真实写入
+     */
+    private static WebsiteReorderReqDto request(List<NavigationWebsite> websites, int round) {
+        List<WebsiteSortReqDto> items = new ArrayList<>(websites.size());
+        for (NavigationWebsite website : websites) {
+            items.add(new WebsiteSortReqDto(website.getId(), sortOf(website, round), website.getCategoryId()));
+        }
+        return new WebsiteReorderReqDto(items);
+    }
+
+    private static int sortOf(NavigationWebsite website, int round) {
+        return (int) (website.getSiteSort() + (round + 1L) * SITES);
+    }
+
+    @FunctionalInterface
+    private interface RoundAction {
+
+        int run(int round);
+
+    }
+
+}
@@ -0,0 +1,162 @@
+package cn.lzhch.service.export;
+
+import cn.lzhch.entity.DailyLifeRecords;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 日常生活记录导出测试
+ * <p>
+ * 百万行导出在 -Xmx32m 的子进程中执行：数据由迭代器逐行生成，若导出过程把行累积在内存中会直接 OOM。
+ * 测试直接把内存中的迭代器交给 {@code write}，只覆盖序列化和写出；
+ * 从数据库流式读取（MyBatis {@code Cursor}、{@code fetchSize=Integer.MIN_VALUE}）需要 MySQL，不在此覆盖
+ * <p>
+ * author: lzhch
+ * version: v1.0
+ * date: 2026/10/17
+ */
+
+class DailyLifeRecordsExporterTest {
+
+    private static final int MILLION = 1_000_000;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final ObjectWriter objectWriter = DailyLifeRecordsExporter.objectWriter(objectMapper);
+
+    @Test
+    void testNdjson() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        long rows = DailyLifeRecordsExporter.write(objectWriter, ExportFormat.NDJSON, false, samples(), output);
+
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, rows);
+        assertEquals(2, lines.length);
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertEquals("1900000000000000001", first.get("id").asText());
+        assertEquals("第一行\n第二行", first.get("content").asText());
+        assertEquals("晨跑, 5 公里", objectMapper.readTree(lines[1]).get("content").asText());
+    }
+
+    @Test
+    void testGzipCsv() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        DailyLifeRecordsExporter.write(objectWriter, ExportFormat.CSV, true, samples(), output);
+
+        String csv;
+        try (GZIPInputStream input = new GZIPInputStream(new ByteArrayInputStream(output.toByteArray()))) {
+            csv = new String(input.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        assertEquals("\uFEFFid,content,createBy,createTime,updateBy,updateTime,remark\r\n"
+                + "1900000000000000001,\"第一行\n第二行\",lzhch,2026-10-17T08:30,,,\r\n"
+                + "1900000000000000002,\"晨跑, 5 公里\",lzhch,2026-10-17T08:30,,,\"说 \"\"好\"\"\"\r\n", csv);
+    }
+
+    @Test
+    void testMillionRowsWithSmallHeap(@TempDir Path dir) throws Exception {
+        String java = ProcessHandle.current().info().command().orElse("java");
+        // 输出写入文件而不是管道：读取管道会阻塞到子进程退出，waitFor 的超时就不起作用了
+        Path log = dir.resolve("export.log");
+        Process process = new ProcessBuilder(java, "-Xmx32m", "-cp", System.getProperty("java.class.path"),
+                DailyLifeRecordsExporterTest.class.getName())
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+        boolean exited = process.waitFor(2, TimeUnit.MINUTES);
+        if (!exited) {
+            process.destroyForcibly().waitFor();
+        }
+        String out = Files.readString(log, StandardCharsets.UTF_8);
+        assertTrue(exited, out);
+
+        assertEquals(0, process.exitValue(), out);
+        assertTrue(out.contains("rows=" + MILLION + " "), out);
+    }
+
+    /**
+     * 子进程入口：以 NDJSON 和 gzip CSV 各导出一百万行到丢弃输出
+     */
+    public static void main(String[] args) throws IOException {
+        ObjectWriter writer = DailyLifeRecordsExporter.objectWriter(Jackson2ObjectMapperBuilder.json().build());
+        for (ExportFormat format : ExportFormat.values()) {
+            CountingOutputStream output = new CountingOutputStream();
+            long start = System.currentTimeMillis();
+            long rows = DailyLifeRecordsExporter.write(writer, format, format == ExportFormat.CSV, synthetic(MILLION), output);
+            System.out.println(format + " rows=" + rows + " bytes=" + output.count
+                    + " elapsed=" + (System.currentTimeMillis() - start) + "ms"
+                    + " maxHeap=" + Runtime.getRuntime().maxMemory() / 1024 / 1024 + "MB");
+        }
+    }
+
+    private static List<DailyLifeRecords> samples() {
+        LocalDateTime time = LocalDateTime.of(2026, 10, 17, 8, 30);
+        return List.of(
+                DailyLifeRecords.builder().id(1_900_000_000_000_000_001L).content("第一行\n第二行")
+                        .createBy("lzhch").createTime(time).delFlag("0").build(),
+                DailyLifeRecords.builder().id(1_900_000_000_000_000_002L).content("晨跑, 5 公里")
+                        .createBy("lzhch").createTime(time).delFlag("0").remark("说 \"好\"").build());
+    }
+
+    /**
+     * 逐行生成的记录，任何时刻只有当前一行在内存中
+     */
+    private static Iterable<DailyLifeRecords> synthetic(int count) {
+        LocalDateTime base = LocalDateTime.of(2020, 1, 1, 0, 0);
+        return () -> new Iterator<>() {
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+                return this.next < count;
+            }
+
+            @Override
+            public DailyLifeRecords next() {
+                int i = this.next++;
+                return DailyLifeRecords.builder()
+                        .id(1_900_000_000_000_000_000L + i)
+                        .content("第 " + i + " 条记录：今天是一个阳光明媚的日子，适合出去散步。")
+                        .createBy("lzhch")
+                        .createTime(base.plusMinutes(i))
+                        .delFlag("0")
+                        .build();
+            }
+        };
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+
+        private long count;
+
+        @Override
+        public void write(int b) {
+            this.count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            this.count += len;
+        }
+
+    }
+
+}
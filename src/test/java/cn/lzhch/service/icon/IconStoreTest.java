@@ -0,0 +1,175 @@
+package cn.lzhch.service.icon;
+
+import cn.lzhch.controller.IconController;
+import cn.lzhch.entity.NavigationWebsite;
+import cn.lzhch.mapper.NavigationWebsiteMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 本地图标仓库测试
+ * <p>
+ * author: lzhch
+ * version: v1.0
+ * date: 2026/10/17
+ */
+
+class IconStoreTest {
+
+    @TempDir
+    Path dir;
+
+    private final Map<String, byte[]> remote = new HashMap<>();
+    private final AtomicInteger fetchCount = new AtomicInteger();
+    private IconStore store;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        remote.put("https://a.example/favicon.png", png(Color.RED));
+        remote.put("https://b.example/favicon.png", png(Color.RED)); // 与 a 内容相同
+        remote.put("https://c.example/favicon.png", png(Color.BLUE));
+        remote.put("https://d.example/index.html", "<html></html>".getBytes(StandardCharsets.UTF_8));
+        store = newStore();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        store.close();
+    }
+
+    @Test
+    void testFetchStoresByContentHashAndSurvivesRestart() throws IOException {
+        int fetched = store.fetchMissing(List.of(
+                website("https://a.example/favicon.png"), website("https://b.example/favicon.png"),
+                website("https://c.example/favicon.png"), website("https://d.example/index.html"),
+                website(null)));
+        assertEquals(3, fetched);
+
+        StoredIcon a = store.lookup("https://a.example/favicon.png").orElseThrow();
+        StoredIcon b = store.lookup("https://b.example/favicon.png").orElseThrow();
+        assertEquals(a, b);
+        assertEquals(IconFormat.PNG, a.format());
+        assertTrue(store.lookup("https://d.example/index.html").isEmpty());
+        try (var files = Files.walk(dir)) {
+            assertEquals(2, files.filter(path -> path.toString().endsWith(".png")).count());
+        }
+
+        // 已缓存和最近失败的地址不再下载
+        fetchCount.set(0);
+        store.fetchMissing(List.of(website("https://a.example/favicon.png"), website("https://d.example/index.html")));
+        assertEquals(0, fetchCount.get());
+
+        store.close();
+        store = newStore();
+        assertEquals(a, store.lookup("https://a.example/favicon.png").orElseThrow());
+        assertTrue(store.resolve(a.fileName()).isPresent());
+        assertTrue(store.resolve("../index.log").isEmpty());
+    }
+
+    @Test
+    void testSpriteCombinesRasterIcons() throws IOException {
+        StoredIcon red = store.fetch("https://a.example/favicon.png");
+        StoredIcon blue = store.fetch("https://c.example/favicon.png");
+        StoredIcon svg = store.store("<svg xmlns=\"http://www.w3.org/2000/svg\"/>".getBytes(StandardCharsets.UTF_8));
+
+        IconSprite sprite = store.sprite(List.of(blue, red, svg), 16).orElseThrow();
+        assertEquals(0, sprite.indexOf(blue));
+        assertEquals(1, sprite.indexOf(red));
+        assertEquals(null, sprite.indexOf(svg));
+        assertEquals(sprite, store.sprite(List.of(blue, red), 16).orElseThrow());
+
+        BufferedImage image = ImageIO.read(store.resolve(sprite.image().fileName()).orElseThrow().getValue().toFile());
+        assertEquals(32, image.getWidth());
+        assertEquals(16, image.getHeight());
+        assertEquals(Color.BLUE.getRGB(), image.getRGB(8, 8));
+        assertEquals(Color.RED.getRGB(), image.getRGB(24, 8));
+
+        assertFalse(store.sprite(List.of(red, svg), 16).isPresent());
+    }
+
+    @Test
+    void testServeWithImmutableCacheHeaders() throws Exception {
+        StoredIcon icon = store.fetch("https://c.example/favicon.png");
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new IconController(store)).build();
+
+        MvcResult result = mockMvc.perform(get("/api/icons/" + icon.fileName()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "image/png"))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "public, max-age=31536000, immutable"))
+                .andExpect(header().string(HttpHeaders.ETAG, '"' + icon.hash() + '"'))
+                .andReturn();
+        assertArrayEquals(remote.get("https://c.example/favicon.png"), result.getResponse().getContentAsByteArray());
+
+        mockMvc.perform(get("/api/icons/" + icon.fileName()).header(HttpHeaders.IF_NONE_MATCH, '"' + icon.hash() + '"'))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/icons/" + icon.hash() + ".exe"))
+                .andExpect(status().isNotFound());
+    }
+
+    private IconStore newStore() throws IOException {
+        IconFetcher fetcher = url -> {
+            fetchCount.incrementAndGet();
+            byte[] bytes = remote.get(url);
+            if (bytes == null) {
+                throw new IOException("404");
+            }
+            return bytes;
+        };
+        IconStore iconStore = new IconStore(fetcher, mock(NavigationWebsiteMapper.class),
+                mock(ApplicationEventPublisher.class), dir.toString(), 1, 3600, true);
+        iconStore.init();
+        return iconStore;
+    }
+
+    private static NavigationWebsite website(String icon) {
+        NavigationWebsite website = new NavigationWebsite();
+        website.setSiteIcon(icon);
+        website.setDelFlag("0");
+        return website;
+    }
+
+    private static byte[] png(Color color) throws IOException {
+        BufferedImage image = new BufferedImage(16, 16, BufferedImage.TYPE_INT_ARGB);
+        for (int x = 0; x < 16; x++) {
+            for (int y = 0; y < 16; y++) {
+                image.setRGB(x, y, color.getRGB());
+            }
+        }
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", output);
+        // 确认编码结果可解码
+        assertTrue(ImageIO.read(new ByteArrayInputStream(output.toByteArray())) != null);
+        return output.toByteArray();
+    }
+
+}
@@ -0,0 +1,160 @@
+package cn.lzhch.service.impl;
+
+import cn.lzhch.common.dto.CursorPage;
+import cn.lzhch.common.exception.ClientException;
+import cn.lzhch.common.response.ErrorCode;
+import cn.lzhch.common.util.KeysetCursor;
+import cn.lzhch.dto.record.RecordStatsBucketDto;
+import cn.lzhch.dto.record.RecordStatsResDto;
+import cn.lzhch.entity.DailyLifeRecordStats;
+import cn.lzhch.entity.DailyLifeRecords;
+import cn.lzhch.mapper.DailyLifeRecordsMapper;
+import cn.lzhch.service.search.RecordSearchIndex;
+import cn.lzhch.service.stats.RecordStatsRollup;
+import cn.lzhch.service.stats.StatsGranularity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 日常生活记录服务测试
+ * <p>
+ * 使用内存列表模拟 selectAfter 的键集条件，验证逐页翻完得到完整且不重复的倒序结果
+ * <p>
+ * author: lzhch
+ * version: v1.0
+ * date: 2026/10/17
+ */
+
+class DailyLifeRecordsServiceImplTest {
+
+    private static final Comparator<DailyLifeRecords> NEWEST_FIRST = Comparator
+            .comparing(DailyLifeRecords::getCreateTime).thenComparing(DailyLifeRecords::getId).reversed();
+
+    private final List<DailyLifeRecords> table = new ArrayList<>();
+    private final List<Integer> limits = new ArrayList<>();
+
+    private DailyLifeRecordsServiceImpl service;
+    private RecordStatsRollup recordStatsRollup;
+
+    @BeforeEach
+    void setUp() {
+        LocalDateTime base = LocalDateTime.of(2026, 10, 17, 8, 0);
+        for (long id = 1; id <= 250; id++) {
+            // 每 3 条共用一个创建时间，翻页边界落在相同创建时间中间时依赖 id 区分
+            table.add(DailyLifeRecords.builder().id(id * 7919 % 1000).content("记录" + id)
+                    .createTime(base.plusSeconds(id / 3)).delFlag("0").build());
+        }
+
+        DailyLifeRecordsMapper mapper = mock(DailyLifeRecordsMapper.class);
+        when(mapper.selectAfter(any(), anyInt())).thenAnswer(invocation -> {
+            KeysetCursor cursor = invocation.getArgument(0);
+            int limit = invocation.getArgument(1);
+            limits.add(limit);
+            return table.stream()
+                    .filter(record -> cursor == null || record.getCreateTime().isBefore(cursor.createTime())
+                            || (record.getCreateTime().equals(cursor.createTime()) && record.getId() < cursor.id()))
+                    .sorted(NEWEST_FIRST)
+                    .limit(limit)
+                    .toList();
+        });
+
+        recordStatsRollup = mock(RecordStatsRollup.class);
+        service = new DailyLifeRecordsServiceImpl(mock(RecordSearchIndex.class), recordStatsRollup, mock(ApplicationEventPublisher.class));
+        ReflectionTestUtils.setField(service, "baseMapper", mapper);
+        ReflectionTestUtils.setField(service, "maxPageSize", 100);
+    }
+
+    @Test
+    void testWalkAllPages() {
+        List<DailyLifeRecords> walked = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            CursorPage<DailyLifeRecords> page = service.listByCursor(cursor, 37);
+            assertTrue(page.getRecords().size() <= 37);
+            assertEquals(page.isHasMore(), page.getNextCursor() != null);
+            walked.addAll(page.getRecords());
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(7, pages);
+        assertEquals(table.stream().sorted(NEWEST_FIRST).toList(), walked);
+    }
+
+    @Test
+    void testPageSizeIsCapped() {
+        CursorPage<DailyLifeRecords> page = service.listByCursor(null, 10_000);
+
+        assertEquals(100, page.getRecords().size());
+        assertEquals(101, limits.get(0)); // 多取一条判断是否还有下一页
+        assertTrue(page.isHasMore());
+
+        CursorPage<DailyLifeRecords> last = service.listByCursor(
+                new KeysetCursor(LocalDateTime.of(2026, 10, 17, 8, 0, 1), 0).encode(), 0);
+        assertEquals(1, last.getRecords().size());
+        assertEquals(2, limits.get(1));
+    }
+
+    @Test
+    void testInvalidCursor() {
+        for (String cursor : List.of("not base64!", "bm90LWEtY3Vyc29y", new KeysetCursor(LocalDateTime.now(), 1).encode() + "x")) {
+            ClientException ex = assertThrows(ClientException.class, () -> service.listByCursor(cursor, 10));
+            assertEquals(ErrorCode.INVALID_PAGE_CURSOR.getCode(), ex.getCode());
+        }
+        CursorPage<DailyLifeRecords> empty = service.listByCursor(
+                new KeysetCursor(LocalDateTime.of(2000, 1, 1, 0, 0), 1).encode(), 10);
+        assertTrue(empty.getRecords().isEmpty());
+        assertFalse(empty.isHasMore());
+        assertNull(empty.getNextCursor());
+    }
+
+    @Test
+    void testStatisticsBuckets() {
+        LocalDate from = LocalDate.of(2026, 9, 30); // 周三
+        LocalDate to = LocalDate.of(2026, 10, 14);
+        when(recordStatsRollup.daily(from, to)).thenReturn(List.of(
+                DailyLifeRecordStats.builder().statDate(LocalDate.of(2026, 9, 30)).recordCount(2).build(),
+                DailyLifeRecordStats.builder().statDate(LocalDate.of(2026, 10, 4)).recordCount(3).build(),
+                DailyLifeRecordStats.builder().statDate(LocalDate.of(2026, 10, 5)).recordCount(1).build(),
+                DailyLifeRecordStats.builder().statDate(LocalDate.of(2026, 10, 14)).recordCount(4).build()));
+
+        RecordStatsResDto days = service.statistics(from, to, StatsGranularity.DAY);
+        assertEquals(15, days.getBuckets().size()); // 没有记录的日期补 0
+        assertEquals(10, days.getTotal());
+        assertEquals(4, days.getMax());
+        assertEquals(new RecordStatsBucketDto(LocalDate.of(2026, 10, 4), 3), days.getBuckets().get(4));
+
+        RecordStatsResDto weeks = service.statistics(from, to, StatsGranularity.WEEK);
+        assertEquals(List.of(new RecordStatsBucketDto(LocalDate.of(2026, 9, 28), 5),
+                new RecordStatsBucketDto(LocalDate.of(2026, 10, 5), 1),
+                new RecordStatsBucketDto(LocalDate.of(2026, 10, 12), 4)), weeks.getBuckets());
+
+        RecordStatsResDto months = service.statistics(from, to, StatsGranularity.MONTH);
+        assertEquals(List.of(new RecordStatsBucketDto(LocalDate.of(2026, 9, 1), 2),
+                new RecordStatsBucketDto(LocalDate.of(2026, 10, 1), 8)), months.getBuckets());
+        assertEquals("month", months.getGranularity());
+
+        assertThrows(ClientException.class, () -> service.statistics(to, from, StatsGranularity.DAY));
+        assertThrows(ClientException.class, () -> service.statistics(from.minusYears(20), to, StatsGranularity.MONTH));
+    }
+
+}
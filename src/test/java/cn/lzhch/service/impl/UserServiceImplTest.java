@@ -0,0 +1,269 @@
+package cn.lzhch.service.impl;
+
+import cn.lzhch.common.exception.ClientException;
+import cn.lzhch.common.response.ErrorCode;
+import cn.lzhch.common.security.CustomUserDetailsService;
+import cn.lzhch.common.security.JwtTokenProvider;
+import cn.lzhch.common.security.RefreshTokenStore;
+import cn.lzhch.common.security.TokenRevocationList;
+import cn.lzhch.dto.auth.UserLoginRequest;
+import cn.lzhch.dto.auth.UserLoginResponse;
+import cn.lzhch.dto.auth.UserRegisterRequest;
+import cn.lzhch.entity.User;
+import cn.lzhch.mapper.UserMapper;
+import cn.lzhch.service.UserAvailabilityIndex;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.crypto.password.NoOpPasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 用户服务测试
+ * <p>
+ * 使用内存中的唯一索引模拟 user 表的 uk_username 和 uk_email，验证并发注册时只依赖唯一索引也能得到正确结果
+ * <p>
+ * author: lzhch
+ * version: v1.0
+ * date: 2026/10/17
+ */
+
+class UserServiceImplTest {
+
+    private static final int THREADS = 32;
+
+    private final Map<String, Long> usernameIndex = new ConcurrentHashMap<>();
+    private final Map<String, Long> emailIndex = new ConcurrentHashMap<>();
+    private final AtomicLong idSequence = new AtomicLong();
+
+    private UserMapper userMapper;
+    private CustomUserDetailsService userDetailsService;
+    private UserAvailabilityIndex availabilityIndex;
+    private UserServiceImpl userService;
+
+    @BeforeEach
+    void setUp() {
+        userMapper = mock(UserMapper.class);
+        when(userMapper.insert(any(User.class))).thenAnswer(invocation -> insert(invocation.getArgument(0)));
+        when(userMapper.existsAnyByUsername(any())).thenAnswer(invocation ->
+                usernameIndex.containsKey(invocation.<String>getArgument(0).toLowerCase(Locale.ROOT)));
+        when(userMapper.existsAnyByEmail(any())).thenAnswer(invocation ->
+                emailIndex.containsKey(invocation.<String>getArgument(0).toLowerCase(Locale.ROOT)));
+        when(userMapper.updateById(any(User.class))).thenReturn(1);
+        availabilityIndex = new UserAvailabilityIndex(userMapper, 100);
+        availabilityIndex.warmUp();
+
+        userDetailsService = new CustomUserDetailsService(userMapper, new SimpleMeterRegistry(), 100, 60, 60);
+        userService = new UserServiceImpl(userMapper, NoOpPasswordEncoder.getInstance(),
+                mock(AuthenticationManager.class), mock(JwtTokenProvider.class), userDetailsService,
+                availabilityIndex, new RefreshTokenStore(),
+                mock(TokenRevocationList.class));
+        ReflectionTestUtils.setField(userService, "baseMapper", userMapper);
+    }
+
+    @Test
+    void testConcurrentRegisterSameUsername() throws Exception {
+        List<Object> results = registerConcurrently(i -> UserRegisterRequest.builder()
+                .username("racer")
+                .email("racer" + i + "@example.com")
+                .password("TestPassword123")
+                .build());
+
+        assertEquals(1, count(results, null));
+        assertEquals(THREADS - 1, count(results, ErrorCode.USERNAME_ALREADY_EXISTS));
+    }
+
+    @Test
+    void testConcurrentRegisterSameEmail() throws Exception {
+        List<Object> results = registerConcurrently(i -> UserRegisterRequest.builder()
+                .username("racer" + i)
+                .email("racer@example.com")
+                .password("TestPassword123")
+                .build());
+
+        assertEquals(1, count(results, null));
+        assertEquals(THREADS - 1, count(results, ErrorCode.EMAIL_ALREADY_EXISTS));
+    }
+
+    @Test
+    void testDuplicateKeyIsResolvedFromIndexName() {
+        // 冲突的值里包含另一个索引的名称，只能按 for key 部分区分
+        userService.register(UserRegisterRequest.builder()
+                .username("uk_email").email("uk_username@example.com").password("TestPassword123").build());
+
+        assertEquals(ErrorCode.EMAIL_ALREADY_EXISTS.getCode(), assertThrows(ClientException.class, () -> userService.register(
+                UserRegisterRequest.builder().username("other").email("uk_username@example.com").password("TestPassword123").build()))
+                .getCode());
+        assertEquals(ErrorCode.USERNAME_ALREADY_EXISTS.getCode(), assertThrows(ClientException.class, () -> userService.register(
+                UserRegisterRequest.builder().username("uk_email").email("other@example.com").password("TestPassword123").build()))
+                .getCode());
+    }
+
+    @Test
+    void testSoftDeletedUserKeepsNames() {
+        userService.register(UserRegisterRequest.builder()
+                .username("Keeper").email("keeper@example.com").password("TestPassword123").build());
+        User previous = User.builder().id(idSequence.get()).username("Keeper").email("keeper@example.com").build();
+        previous.setDelFlag("0");
+        when(userMapper.selectById(previous.getId())).thenReturn(previous);
+
+        // 软删除后唯一索引仍占用用户名和邮箱
+        User deleted = User.builder().id(previous.getId()).build();
+        deleted.setDelFlag("1");
+        userService.updateById(deleted);
+        assertFalse(userService.checkAvailability("keeper", null).getUsernameAvailable());
+        assertFalse(userService.checkAvailability(null, "KEEPER@example.com").getEmailAvailable());
+
+        // 修改用户名后释放原用户名
+        usernameIndex.remove("keeper");
+        usernameIndex.put("keeper2", previous.getId());
+        userService.updateById(User.builder().id(previous.getId()).username("keeper2").build());
+        assertTrue(userService.checkAvailability("keeper", null).getUsernameAvailable());
+        assertFalse(userService.checkAvailability("keeper2", null).getUsernameAvailable());
+        verify(userMapper, times(1)).existsAnyByUsername("keeper"); // 只有软删除后的一次确认查询
+        assertTrue(userService.checkAvailability("nobody", null).getUsernameAvailable());
+        verify(userMapper, never()).existsAnyByUsername("nobody");
+    }
+
+    @Test
+    void testUpdateAndRemoveEvictUserCache() {
+        User stored = User.builder().id(7L).username("carol").email("carol@example.com").password("hash").build();
+        stored.setDelFlag("0");
+        when(userMapper.selectById(7L)).thenReturn(stored);
+        when(userMapper.deleteById(7L)).thenReturn(1);
+        when(userMapper.findByUsernameOrEmail(any())).thenAnswer(invocation -> Optional.of(stored));
+
+        userDetailsService.loadUser("carol");
+        userDetailsService.loadUser("carol");
+        verify(userMapper, times(1)).findByUsernameOrEmail(any());
+
+        userService.updateById(User.builder().id(7L).password("new-hash").build());
+        userDetailsService.loadUser("carol");
+        verify(userMapper, times(2)).findByUsernameOrEmail(any());
+
+        userService.removeById(7L);
+        when(userMapper.findByUsernameOrEmail(any())).thenReturn(Optional.empty());
+        assertThrows(UsernameNotFoundException.class, () -> userDetailsService.loadUser("carol@example.com"));
+    }
+
+    @Test
+    void testLoginReusesUserLoadedDuringAuthentication() {
+        User stored = User.builder().id(9L).username("dave").email("dave@example.com").password("secret").build();
+        when(userMapper.findByUsernameOrEmail(any())).thenReturn(Optional.of(stored));
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
+        provider.setUserDetailsService(userDetailsService);
+        provider.setPasswordEncoder(NoOpPasswordEncoder.getInstance());
+        JwtTokenProvider tokenProvider = mock(JwtTokenProvider.class);
+        when(tokenProvider.generateToken(any(Authentication.class))).thenReturn("jwt");
+        UserServiceImpl loginService = new UserServiceImpl(userMapper, NoOpPasswordEncoder.getInstance(),
+                new ProviderManager(provider), tokenProvider, userDetailsService,
+                availabilityIndex, new RefreshTokenStore(), mock(TokenRevocationList.class));
+
+        UserLoginResponse response = loginService.login(UserLoginRequest.builder()
+                .username("dave@example.com").password("secret").build());
+
+        assertEquals("jwt", response.getAccessToken());
+        assertEquals(9L, response.getUserInfo().getId());
+        assertEquals("dave", response.getUserInfo().getUsername());
+        // 认证时加载一次，生成令牌和构建响应复用同一个用户实体
+        verify(userMapper, times(1)).findByUsernameOrEmail(any());
+        verify(userMapper, never()).findByUsername(any());
+        verify(userMapper, never()).selectById(any());
+
+        assertThrows(BadCredentialsException.class, () -> loginService.login(UserLoginRequest.builder()
+                .username("dave").password("wrong").build()));
+    }
+
+    /**
+     * 多线程同时注册，返回每个线程的结果：成功为 null，失败为对应的错误码
+     */
+    private List<Object> registerConcurrently(IntFunction<UserRegisterRequest> requestFactory) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<ErrorCode>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            UserRegisterRequest request = requestFactory.apply(i);
+            futures.add(executor.submit(() -> {
+                start.await();
+                try {
+                    userService.register(request);
+                    return null;
+                } catch (ClientException ex) {
+                    for (ErrorCode errorCode : ErrorCode.values()) {
+                        if (errorCode.getCode().equals(ex.getCode())) {
+                            return errorCode;
+                        }
+                    }
+                    throw ex;
+                }
+            }));
+        }
+        start.countDown();
+
+        List<Object> results = new ArrayList<>();
+        for (Future<ErrorCode> future : futures) {
+            results.add(future.get(10, TimeUnit.SECONDS));
+        }
+        executor.shutdown();
+        return results;
+    }
+
+    private static long count(List<Object> results, ErrorCode errorCode) {
+        return results.stream().filter(result -> result == errorCode).count();
+    }
+
+    /**
+     * 模拟 MySQL 唯一索引：冲突时抛出与 MyBatis 和 Spring 翻译后一致的异常
+     */
+    private int insert(User user) {
+        long id = idSequence.incrementAndGet();
+        String username = user.getUsername().toLowerCase(Locale.ROOT);
+        if (usernameIndex.putIfAbsent(username, id) != null) {
+            throw duplicateKey("Duplicate entry '" + user.getUsername() + "' for key 'user.uk_username'");
+        }
+        if (emailIndex.putIfAbsent(user.getEmail().toLowerCase(Locale.ROOT), id) != null) {
+            usernameIndex.remove(username, id);
+            throw duplicateKey("Duplicate entry '" + user.getEmail() + "' for key 'user.uk_email'");
+        }
+        user.setId(id);
+        return 1;
+    }
+
+    /**
+     * 与 Spring 翻译 MySQL 驱动异常的结果一致：外层信息包含 SQL，根异常为 SQLIntegrityConstraintViolationException
+     */
+    private static DuplicateKeyException duplicateKey(String message) {
+        return new DuplicateKeyException("\n### Error updating database.  Cause: java.sql.SQLIntegrityConstraintViolationException: "
+                + message + "\n### SQL: INSERT INTO user (id, username, email, password) VALUES (?, ?, ?, ?)",
+                new SQLIntegrityConstraintViolationException(message, "23000", 1062));
+    }
+
+}
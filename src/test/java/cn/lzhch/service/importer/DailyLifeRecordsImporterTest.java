@@ -0,0 +1,142 @@
+package cn.lzhch.service.importer;
+
+import cn.lzhch.dto.record.ImportChunkResDto;
+import cn.lzhch.dto.record.ImportItemErrorDto;
+import cn.lzhch.dto.record.ImportResDto;
+import cn.lzhch.entity.DailyLifeRecords;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 日常生活记录批量导入测试
+ * <p>
+ * author: lzhch
+ * version: v1.0
+ * date: 2026/10/17
+ */
+
+class DailyLifeRecordsImporterTest {
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final List<List<DailyLifeRecords>> written = new ArrayList<>();
+
+    @Test
+    void testArrayNdjsonAndGzipAreChunked() throws IOException {
+        StringBuilder array = new StringBuilder("[");
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 1; i <= 7; i++) {
+            String item = "{\"id\":\"1\",\"content\":\"记录" + i + "\",\"delFlag\":\"1\",\"createTime\":\"2026-10-17T08:0" + i + ":00\"}";
+            array.append(i > 1 ? "," : "").append(item);
+            ndjson.append(item).append('\n');
+        }
+        array.append(']');
+
+        for (byte[] body : List.of(bytes(array), bytes(ndjson), gzip(bytes(ndjson)))) {
+            written.clear();
+            ImportResDto result = read(body, 3);
+
+            assertNull(result.getAborted());
+            assertEquals(7, result.getTotal());
+            assertEquals(7, result.getInserted());
+            assertEquals(List.of(3, 3, 1), written.stream().map(List::size).toList());
+            assertEquals(List.of(1L, 4L, 7L), result.getChunks().stream().map(ImportChunkResDto::getFirstItem).toList());
+            DailyLifeRecords first = written.get(0).get(0);
+            assertNull(first.getId());
+            assertEquals("0", first.getDelFlag());
+            assertEquals("记录1", first.getContent());
+            assertEquals(LocalDateTime.of(2026, 10, 17, 8, 1), first.getCreateTime());
+        }
+    }
+
+    @Test
+    void testItemErrorsAndFailedChunk() throws IOException {
+        String body = """
+                {"content":"a"}
+                {"content":""}
+                {"content":"b","createTime":"not a time"}
+                {"content":"c"}
+                {"content":"fail"}
+                {"content":"d"}
+                """;
+        ImportResDto result = DailyLifeRecordsImporter.read(objectMapper, input(body), 2, 100, chunk -> {
+            if (chunk.stream().anyMatch(record -> "fail".equals(record.getContent()))) {
+                throw new IllegalStateException("Duplicate entry");
+            }
+            written.add(chunk);
+            return chunk.size();
+        });
+
+        assertNull(result.getAborted());
+        assertEquals(6, result.getTotal());
+        assertEquals(2, result.getInserted());
+        assertEquals(4, result.getFailed());
+        assertEquals(List.of(2L, 3L), result.getErrors().stream().map(ImportItemErrorDto::getItem).toList());
+        assertEquals("Duplicate entry", result.getChunks().get(1).getError());
+        assertEquals(0, result.getChunks().get(1).getInserted());
+        // 失败批次之后继续写入
+        assertEquals(List.of("a", "c"), written.get(0).stream().map(DailyLifeRecords::getContent).toList());
+        assertEquals(1, written.size());
+    }
+
+    @Test
+    void testMalformedInputAndLimitAbort() throws IOException {
+        ImportResDto malformed = read(bytes("[{\"content\":\"a\"},{\"content\":\"b\"},{\"content\":"), 10);
+        assertNotNull(malformed.getAborted());
+        assertEquals(2, malformed.getInserted()); // 格式错误之前的记录照常写入
+
+        ImportResDto notObject = read(bytes("[{\"content\":\"a\"}, 42]"), 10);
+        assertTrue(notObject.getAborted().startsWith("第 2 条记录"));
+        assertEquals(1, notObject.getInserted());
+
+        ImportResDto limited = DailyLifeRecordsImporter.read(objectMapper,
+                input("{\"content\":\"a\"}\n{\"content\":\"b\"}\n{\"content\":\"c\"}"), 10, 2, List::size);
+        assertNotNull(limited.getAborted());
+        assertEquals(2, limited.getTotal());
+        assertEquals(2, limited.getInserted());
+
+        ImportResDto empty = read(bytes(""), 10);
+        assertNull(empty.getAborted());
+        assertEquals(0, empty.getTotal());
+        assertTrue(empty.getChunks().isEmpty());
+    }
+
+    private ImportResDto read(byte[] body, int chunkSize) throws IOException {
+        return DailyLifeRecordsImporter.read(objectMapper, new ByteArrayInputStream(body), chunkSize, 100, chunk -> {
+            written.add(chunk);
+            return chunk.size();
+        });
+    }
+
+    private static InputStream input(String body) {
+        return new ByteArrayInputStream(bytes(body));
+    }
+
+    private static byte[] bytes(CharSequence body) {
+        return body.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] gzip(byte[] body) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(output)) {
+            gzip.write(body);
+        }
+        return output.toByteArray();
+    }
+
+}
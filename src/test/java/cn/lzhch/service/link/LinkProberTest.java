@@ -0,0 +1,188 @@
+package cn.lzhch.service.link;
+
+import cn.lzhch.dto.navigation.LinkStatusDto;
+import cn.lzhch.entity.LinkStatus;
+import cn.lzhch.entity.NavigationWebsite;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 网站链接探测器测试（本地 HTTP 桩服务）
+ * <p>
+ * author: lzhch
+ * version: v1.0
+ * date: 2026/10/17
+ */
+
+class LinkProberTest {
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private String baseUrl;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private final AtomicInteger requests = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        this.server.createContext("/ok", exchange -> this.respond(exchange, 200));
+        this.server.createContext("/gone", exchange -> this.respond(exchange, 404));
+        this.server.createContext("/busy", exchange -> this.respond(exchange, 503));
+        this.server.createContext("/redirect", exchange -> {
+            exchange.getResponseHeaders().add("Location", "/ok");
+            this.respond(exchange, 302);
+        });
+        this.server.createContext("/internal", exchange -> {
+            exchange.getResponseHeaders().add("Location", "http://127.0.0.2:" + this.server.getAddress().getPort() + "/ok");
+            this.respond(exchange, 302);
+        });
+        this.server.createContext("/get-only", exchange ->
+                this.respond(exchange, "HEAD".equals(exchange.getRequestMethod()) ? 405 : 200));
+        this.server.createContext("/slow", exchange -> {
+            this.sleep(2000);
+            this.respond(exchange, 200);
+        });
+        this.server.createContext("/hold", exchange -> {
+            int current = this.inFlight.incrementAndGet();
+            this.maxInFlight.accumulateAndGet(current, Math::max);
+            this.sleep(100);
+            this.inFlight.decrementAndGet();
+            this.respond(exchange, 200);
+        });
+        this.serverExecutor = Executors.newCachedThreadPool();
+        this.server.setExecutor(this.serverExecutor);
+        this.server.start();
+        this.baseUrl = "http://127.0.0.1:" + this.server.getAddress().getPort();
+    }
+
+    @AfterEach
+    void tearDown() {
+        this.server.stop(0);
+        this.serverExecutor.shutdownNow();
+    }
+
+    @Test
+    void testClassifyResponses() throws Exception {
+        int closedPort;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            closedPort = socket.getLocalPort();
+        }
+        List<NavigationWebsite> websites = List.of(
+                website(1L, this.baseUrl + "/ok"),
+                website(2L, this.baseUrl + "/gone"),
+                website(3L, this.baseUrl + "/busy"),
+                website(4L, this.baseUrl + "/redirect"),
+                website(5L, this.baseUrl + "/get-only"),
+                website(6L, this.baseUrl + "/slow"),
+                website(7L, "http://127.0.0.1:" + closedPort + "/"),
+                website(8L, "ftp://example.com/"),
+                website(9L, "not a url"));
+
+        List<List<LinkStatusDto>> batches = new ArrayList<>();
+        try (LinkProber prober = new LinkProber(8, 8, Duration.ofMillis(500), address -> true)) {
+            assertEquals(9, prober.probeAll(websites, 4, batches::add));
+        }
+
+        assertEquals(List.of(4, 4, 1), batches.stream().map(List::size).toList());
+        Map<Long, LinkStatusDto> results = batches.stream().flatMap(List::stream)
+                .collect(Collectors.toMap(LinkStatusDto::getId, Function.identity()));
+        assertEquals(LinkStatus.OK, results.get(1L).getLinkStatus());
+        assertEquals(200, results.get(1L).getLinkStatusCode());
+        assertEquals(LinkStatus.BROKEN, results.get(2L).getLinkStatus());
+        assertEquals(404, results.get(2L).getLinkStatusCode());
+        assertEquals(LinkStatus.ERROR, results.get(3L).getLinkStatus());
+        assertEquals(LinkStatus.OK, results.get(4L).getLinkStatus());
+        assertEquals(LinkStatus.OK, results.get(5L).getLinkStatus());
+        assertEquals(LinkStatus.TIMEOUT, results.get(6L).getLinkStatus());
+        assertNull(results.get(6L).getLinkStatusCode());
+        assertEquals(LinkStatus.UNREACHABLE, results.get(7L).getLinkStatus());
+        assertEquals(LinkStatus.INVALID, results.get(8L).getLinkStatus());
+        assertEquals(LinkStatus.INVALID, results.get(9L).getLinkStatus());
+        assertTrue(results.values().stream().allMatch(result -> result.getLinkCheckedTime() != null));
+    }
+
+    @Test
+    void testPerHostLimit() throws Exception {
+        List<NavigationWebsite> websites = new ArrayList<>();
+        for (long i = 0; i < 24; i++) {
+            websites.add(website(i, this.baseUrl + "/hold?i=" + i));
+        }
+
+        AtomicInteger ok = new AtomicInteger();
+        try (LinkProber prober = new LinkProber(64, 3, Duration.ofSeconds(5), address -> true)) {
+            prober.probeAll(websites, 10, batch ->
+                    ok.addAndGet((int) batch.stream().filter(result -> result.getLinkStatus() == LinkStatus.OK).count()));
+        }
+
+        assertEquals(24, ok.get());
+        assertTrue(this.maxInFlight.get() <= 3, "max in flight: " + this.maxInFlight.get());
+        assertTrue(this.maxInFlight.get() >= 2, "requests should run concurrently: " + this.maxInFlight.get());
+    }
+
+    @Test
+    void testInternalAddressesAreNotProbed() throws Exception {
+        List<NavigationWebsite> websites = List.of(
+                website(1L, this.baseUrl + "/ok"),
+                website(2L, "http://169.254.169.254/latest/meta-data/"));
+        List<LinkStatusDto> results = new ArrayList<>();
+        try (LinkProber prober = new LinkProber(8, 8, Duration.ofSeconds(5))) {
+            prober.probeAll(websites, 10, results::addAll);
+        }
+        assertTrue(results.stream().allMatch(result -> result.getLinkStatus() == LinkStatus.INVALID));
+        assertTrue(results.stream().allMatch(result -> result.getLinkStatusCode() == null));
+        assertEquals(0, this.requests.get());
+
+        // 重定向的每一跳都校验：测试中 127.0.0.1 视为公网地址，127.0.0.2 视为内网地址
+        results.clear();
+        try (LinkProber prober = new LinkProber(8, 8, Duration.ofSeconds(5),
+                address -> "127.0.0.1".equals(address.getHostAddress()))) {
+            prober.probeAll(List.of(website(3L, this.baseUrl + "/internal")), 10, results::addAll);
+        }
+        assertEquals(LinkStatus.INVALID, results.get(0).getLinkStatus());
+        assertEquals(1, this.requests.get());
+    }
+
+    private void respond(HttpExchange exchange, int status) throws IOException {
+        this.requests.incrementAndGet();
+        exchange.sendResponseHeaders(status, -1);
+        exchange.close();
+    }
+
+    private void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static NavigationWebsite website(Long id, String url) {
+        NavigationWebsite website = new NavigationWebsite();
+        website.setId(id);
+        website.setSiteUrl(url);
+        return website;
+    }
+
+}
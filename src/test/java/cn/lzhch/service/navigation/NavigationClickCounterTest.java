@@ -0,0 +1,189 @@
+package cn.lzhch.service.navigation;
+
+import cn.lzhch.dto.navigation.ClickCountDto;
+import cn.lzhch.dto.navigation.WebsiteItemResDto;
+import cn.lzhch.dto.navigation.WebsitesByCategoryResDto;
+import cn.lzhch.entity.NavigationWebsite;
+import cn.lzhch.mapper.NavigationWebsiteMapper;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 导航网站点击计数器测试
+ * <p>
+ * author: lzhch
+ * version: v1.0
+ * date: 2026/10/17
+ */
+
+class NavigationClickCounterTest {
+
+    private static final int WEBSITE_COUNT = 5;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<Long, Long> database = new HashMap<>();
+    private final AtomicBoolean failing = new AtomicBoolean();
+
+    private NavigationWebsiteMapper mapper;
+    private NavigationSnapshotHolder holder;
+    private NavigationPopularHolder popularHolder;
+    private NavigationClickCounter counter;
+
+    @BeforeEach
+    void setUp() {
+        mapper = mock(NavigationWebsiteMapper.class);
+        when(mapper.incrementClickCounts(any())).thenAnswer(invocation -> {
+            if (failing.get()) {
+                throw new IllegalStateException("database unavailable");
+            }
+            List<ClickCountDto> items = invocation.getArgument(0);
+            items.forEach(item -> database.merge(item.getId(), item.getClickCount(), Long::sum));
+            return items.size();
+        });
+        holder = mock(NavigationSnapshotHolder.class);
+        when(holder.current()).thenReturn(snapshot(1L));
+        popularHolder = mock(NavigationPopularHolder.class);
+
+        counter = new NavigationClickCounter(mapper, holder, popularHolder);
+        ReflectionTestUtils.setField(counter, "enabled", true);
+        ReflectionTestUtils.setField(counter, "flushBatchSize", 2);
+    }
+
+    @Test
+    void testConcurrentClicksAreFlushedExactlyOnce() throws Exception {
+        int threads = 8;
+        int clicksPerThread = 20_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads + 1);
+        AtomicBoolean running = new AtomicBoolean(true);
+        // 点击进行期间反复写入，验证写入与并发点击交错时不丢不重
+        executor.execute(() -> {
+            while (running.get()) {
+                counter.write();
+            }
+        });
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < clicksPerThread; i++) {
+                    counter.increment(1 + i % WEBSITE_COUNT);
+                }
+                counter.increment(999L); // 不存在的网站
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        running.set(false);
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        counter.flush();
+
+        long expectedPerWebsite = (long) threads * clicksPerThread / WEBSITE_COUNT;
+        for (long id = 1; id <= WEBSITE_COUNT; id++) {
+            assertEquals(expectedPerWebsite, database.get(id));
+        }
+        assertNull(database.get(999L));
+        assertEquals(0, counter.pending());
+    }
+
+    @Test
+    void testFailedFlushIsRetriedAndShutdownFlushes() {
+        counter.increment(1);
+        counter.increment(2);
+        counter.increment(2);
+        failing.set(true);
+        counter.flush();
+        assertEquals(3, counter.pending());
+        verify(popularHolder, never()).refresh();
+
+        failing.set(false);
+        counter.increment(3);
+        counter.close();
+        assertEquals(0, counter.pending());
+        assertEquals(Map.of(1L, 1L, 2L, 2L, 3L, 1L), database);
+        // 失败的一次，加上停机时 3 个网站按每批 2 个分两条语句写入
+        verify(mapper, times(3)).incrementClickCounts(any());
+
+        counter.increment(4);
+        counter.flush();
+        verify(popularHolder).refresh();
+    }
+
+    @Test
+    void testPopularRankingDoesNotTouchNavigationSnapshot() throws Exception {
+        NavigationSnapshot navigation = snapshot(1L);
+        NavigationPopularSnapshot popular = NavigationPopularSnapshot.build(1L, navigation, List.of(
+                new ClickCountDto(3L, 40L), new ClickCountDto(1L, 25L), new ClickCountDto(42L, 20L), // 不在首页展示
+                new ClickCountDto(4L, 10L), new ClickCountDto(5L, 5L)), 3, objectMapper);
+
+        assertEquals(List.of(3L, 1L, 4L), popular.getWebsites().stream().map(WebsiteItemResDto::getId).toList());
+        assertEquals(40L, popular.getWebsites().get(0).getClickCount());
+        // 排行使用副本，分类下的网站不带点击次数
+        assertTrue(navigation.getWebsites(1L).stream().allMatch(website -> website.getClickCount() == null));
+        assertFalse(objectMapper.writeValueAsString(navigation.getWebsitesByCategory()).contains("clickCount"));
+    }
+
+    @Test
+    void testPopularHolderRefreshKeepsNavigationVersion() {
+        List<ClickCountDto> clickCounts = new ArrayList<>(List.of(new ClickCountDto(1L, 3L)));
+        when(mapper.selectClickCounts()).thenAnswer(invocation -> List.copyOf(clickCounts));
+        NavigationPopularHolder popular = new NavigationPopularHolder(mapper, holder, objectMapper);
+        ReflectionTestUtils.setField(popular, "enabled", true);
+        ReflectionTestUtils.setField(popular, "popularLimit", 3);
+
+        NavigationPopularSnapshot first = popular.current();
+        assertEquals(List.of(1L), first.getWebsites().stream().map(WebsiteItemResDto::getId).toList());
+
+        // 点击写入后刷新：排行版本变化，导航快照不重建
+        clickCounts.add(0, new ClickCountDto(2L, 5L));
+        NavigationPopularSnapshot refreshed = popular.refresh();
+        assertNotEquals(first.getVersion(), refreshed.getVersion());
+        assertEquals(List.of(2L, 1L), refreshed.getWebsites().stream().map(WebsiteItemResDto::getId).toList());
+        assertEquals(1L, holder.current().getVersion());
+        verify(holder, never()).rebuild();
+
+        // 导航快照更新后用已读取的点击次数重建，不访问数据库
+        when(holder.current()).thenReturn(snapshot(2L));
+        NavigationPopularSnapshot rebuilt = popular.current();
+        assertEquals(2L, rebuilt.getNavigationVersion());
+        assertNotEquals(refreshed.getVersion(), rebuilt.getVersion());
+        assertEquals(rebuilt, popular.current());
+        verify(mapper, times(2)).selectClickCounts();
+    }
+
+    private NavigationSnapshot snapshot(long version) {
+        List<NavigationWebsite> websites = new ArrayList<>();
+        List<WebsiteItemResDto> displayWebsites = new ArrayList<>();
+        for (long id = 1; id <= WEBSITE_COUNT; id++) {
+            websites.add(NavigationWebsite.builder().id(id).categoryId(1L).siteName("网站" + id).delFlag("0").build());
+            displayWebsites.add(WebsiteItemResDto.builder().id(id).categoryId(1L).siteName("网站" + id).build());
+        }
+        List<WebsitesByCategoryResDto> displayCategories = List.of(WebsitesByCategoryResDto.builder().id(1L).build());
+        return NavigationSnapshot.build(version, List.of(), websites, displayCategories, displayWebsites, objectMapper);
+    }
+
+}
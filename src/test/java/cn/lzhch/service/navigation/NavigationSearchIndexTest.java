@@ -0,0 +1,147 @@
+package cn.lzhch.service.navigation;
+
+import cn.lzhch.dto.navigation.WebsiteItemResDto;
+import cn.lzhch.entity.NavigationWebsite;
+import cn.lzhch.mapper.NavigationWebsiteMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 导航网站搜索索引测试
+ * <p>
+ * 延迟基准测试默认跳过，使用 mvn test -Dtest=NavigationSearchIndexTest -Dbenchmark=true 运行
+ * <p>
+ * author: lzhch
+ * version: v1.0
+ * date: 2026/10/17
+ */
+
+class NavigationSearchIndexTest {
+
+    private NavigationWebsiteMapper mapper;
+    private NavigationSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        mapper = mock(NavigationWebsiteMapper.class);
+        index = new NavigationSearchIndex(mapper);
+        index.rebuild(List.of(
+                website(1L, "GitHub", "https://github.com", "全球最大的代码托管平台"),
+                website(2L, "Gitee", "https://gitee.com/explore", "国内的代码托管平台"),
+                website(3L, "技术问答", "https://www.stackoverflow.com/questions", "程序员问答社区"),
+                website(4L, "DeepL", "https://www.deepl.com/translator", "在线翻译工具"),
+                website(5L, "谷歌翻译", "https://translate.google.com", "Google 在线翻译")));
+    }
+
+    @Test
+    void testPrefixHostAndChineseMatches() {
+        // 得分相同时名称较短的在前
+        assertEquals(List.of(2L, 1L), ids(index.search("git", 10)));
+        assertEquals(List.of(1L), ids(index.search("ＧＩＴＨＵＢ", 10)));
+        assertEquals(List.of(), ids(index.search("hub", 10)));
+
+        // 名称中没有，但网址主机名命中
+        assertEquals(List.of(3L), ids(index.search("stackover", 10)));
+
+        // 中文按二字匹配，名称命中的排在概览命中之前
+        assertEquals(List.of(5L, 4L), ids(index.search("翻译", 10)));
+        assertEquals(List.of(4L), ids(index.search("译工", 10)));
+        assertEquals(List.of(), ids(index.search("翻工", 10)));
+        assertEquals(List.of(2L, 1L), ids(index.search("代码 托管", 10)));
+        assertEquals(List.of(1L), ids(index.search("代码 git 全球", 10)));
+
+        assertEquals(1, index.search("git", 1).size());
+        assertEquals(List.of(), ids(index.search("  ,. ", 10)));
+    }
+
+    @Test
+    void testIncrementalUpdates() {
+        index.upsert(website(1L, "Bitbucket", "https://bitbucket.org", "代码托管"));
+        assertEquals(List.of(2L), ids(index.search("git", 10)));
+        assertEquals(List.of(1L), ids(index.search("bitb", 10)));
+
+        index.remove(2L);
+        assertEquals(List.of(), ids(index.search("gitee", 10)));
+        assertEquals(4, index.size());
+
+        // 事务提交后按事件中的 id 重新索引，查不到或已删除的从索引中移除
+        NavigationWebsite deleted = website(4L, "DeepL", "https://www.deepl.com", "在线翻译工具");
+        deleted.setDelFlag("1");
+        when(mapper.selectByIds(any())).thenReturn(List.of(
+                website(6L, "Gitlab", "https://gitlab.com", "代码托管"), deleted));
+        index.onNavigationChanged(NavigationChangedEvent.ofWebsites("website.save", List.of(6L, 4L, 3L)));
+        assertEquals(List.of(6L), ids(index.search("git", 10)));
+        assertEquals(List.of(5L), ids(index.search("翻译", 10)));
+        assertEquals(List.of(), ids(index.search("stackoverflow", 10)));
+
+        // 分类变更不涉及网站
+        index.onNavigationChanged(NavigationChangedEvent.ofCategory("category.update"));
+        verify(mapper, never()).selectList(any());
+    }
+
+    /**
+     * 2000 个网站、混合中英文查询的搜索延迟分布
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void benchmarkSearchLatency() {
+        Random random = new Random(7);
+        String[] words = {"git", "cloud", "design", "docs", "mail", "music", "video", "news", "shop", "learn", "code", "map"};
+        String[] phrases = {"在线", "翻译", "设计", "文档", "邮箱", "音乐", "视频", "新闻", "购物", "学习", "代码", "地图", "工具", "社区"};
+        List<NavigationWebsite> websites = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            String word = words[random.nextInt(words.length)] + words[random.nextInt(words.length)];
+            String overview = phrases[random.nextInt(phrases.length)] + phrases[random.nextInt(phrases.length)]
+                    + "平台，提供" + phrases[random.nextInt(phrases.length)] + "服务";
+            websites.add(website(i + 1L, word + " " + phrases[random.nextInt(phrases.length)],
+                    "https://www." + word + i + ".com/index", overview));
+        }
+        index.rebuild(websites);
+
+        String[] queries = {"g", "git", "cloud", "design docs", "翻译", "在线工具", "学习 code", "音乐视频", "ma", "社区"};
+        for (int i = 0; i < 20_000; i++) {
+            index.search(queries[i % queries.length], 10);
+        }
+        long[] latencies = new long[100_000];
+        for (int i = 0; i < latencies.length; i++) {
+            long start = System.nanoTime();
+            index.search(queries[i % queries.length], 10);
+            latencies[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(latencies);
+        System.out.printf("NavigationSearchIndex.search over %d sites: p50=%.1fus p99=%.1fus max=%.1fus%n", websites.size(),
+                latencies[latencies.length / 2] / 1000.0, latencies[latencies.length * 99 / 100] / 1000.0,
+                latencies[latencies.length - 1] / 1000.0);
+        assertTrue(latencies[latencies.length * 99 / 100] < 1_000_000L);
+    }
+
+    private static List<Long> ids(List<WebsiteItemResDto> websites) {
+        return websites.stream().map(WebsiteItemResDto::getId).toList();
+    }
+
+    private static NavigationWebsite website(Long id, String name, String url, String overview) {
+        NavigationWebsite website = new NavigationWebsite();
+        website.setId(id);
+        website.setSiteName(name);
+        website.setSiteUrl(url);
+        website.setSiteOverview(overview);
+        website.setCategoryId(1L);
+        website.setDelFlag("0");
+        return website;
+    }
+
+}
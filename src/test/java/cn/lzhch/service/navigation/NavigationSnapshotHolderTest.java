@@ -0,0 +1,53 @@
+package cn.lzhch.service.navigation;
+
+import cn.lzhch.mapper.NavigationCategoryMapper;
+import cn.lzhch.mapper.NavigationWebsiteMapper;
+import cn.lzhch.service.icon.IconStore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 导航快照持有者测试
+ * <p>
+ * author: lzhch
+ * version: v1.0
+ * date: 2026/10/17
+ */
+
+class NavigationSnapshotHolderTest {
+
+    @Test
+    void testFailedRebuildAfterCommitIsRetried() {
+        NavigationCategoryMapper categoryMapper = mock(NavigationCategoryMapper.class);
+        NavigationSnapshotHolder holder = new NavigationSnapshotHolder(categoryMapper, mock(NavigationWebsiteMapper.class),
+                new ObjectMapper(), mock(IconStore.class));
+        long version = holder.current().getVersion();
+
+        // 事务已提交后重建失败：不抛给调用方，继续使用旧快照
+        when(categoryMapper.selectList(any())).thenThrow(new IllegalStateException("database unavailable"));
+        assertDoesNotThrow(() -> holder.onNavigationChanged(new NavigationChangedEvent("category.update", List.of())));
+        assertEquals(version, holder.current().getVersion());
+        assertDoesNotThrow(holder::retryIfStale);
+        assertEquals(version, holder.current().getVersion());
+
+        // 数据库恢复后定时任务重建成功，之后不再重试
+        doReturn(List.of()).when(categoryMapper).selectList(any());
+        holder.retryIfStale();
+        assertEquals(version + 1, holder.current().getVersion());
+        holder.retryIfStale();
+        assertEquals(version + 1, holder.current().getVersion());
+        verify(categoryMapper, times(4)).selectList(any());
+    }
+
+}
@@ -0,0 +1,254 @@
+package cn.lzhch.service.search;
+
+import cn.lzhch.common.exception.ServiceBusyException;
+import cn.lzhch.entity.DailyLifeRecords;
+import cn.lzhch.mapper.DailyLifeRecordsMapper;
+import org.apache.ibatis.cursor.Cursor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 日常生活记录全文检索索引测试
+ * <p>
+ * author: lzhch
+ * version: v1.0
+ * date: 2026/10/17
+ */
+
+class RecordSearchIndexTest {
+
+    @TempDir
+    Path dir;
+
+    private final List<RecordSearchIndex> opened = new ArrayList<>();
+    private DailyLifeRecordsMapper mapper;
+    private List<DailyLifeRecords> table;
+
+    @BeforeEach
+    void setUp() {
+        table = new ArrayList<>();
+        mapper = mock(DailyLifeRecordsMapper.class);
+        when(mapper.selectForExport()).thenAnswer(invocation -> cursor(table));
+        when(mapper.selectByIds(any())).thenAnswer(invocation -> {
+            List<?> ids = new ArrayList<>(invocation.getArgument(0));
+            return table.stream().filter(record -> ids.contains(record.getId())).toList();
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        opened.forEach(RecordSearchIndex::close);
+    }
+
+    @Test
+    void testBm25RankingAndPrefixQuery() throws IOException {
+        RecordSearchIndex index = open(100, 10);
+        index.rebuild();
+        index.upsert(1, "今天早上去公园跑步，跑了 5 公里");
+        index.upsert(2, "晚上看书");
+        index.upsert(3, "跑步");
+        index.upsert(4, "周末和朋友一起跑步，然后去吃火锅，火锅很辣，跑步之后吃火锅真不错");
+        index.upsert(5, "Morning RUN in the park");
+
+        assertEquals(List.of(3L, 4L, 1L), ids(index.search("跑步", 10)));
+        assertEquals(3, index.search("跑步", 1).total());
+        assertEquals(List.of(3L), ids(index.search("跑步", 1)));
+        // 单字按前缀匹配，末字单独成词，「晨跑」这种跑在末尾的也能命中
+        index.upsert(6, "晨跑");
+        assertEquals(List.of(1L, 3L, 4L, 6L), ids(index.search("跑", 10)).stream().sorted().toList());
+        // 多个词全部命中才匹配
+        assertEquals(List.of(4L), ids(index.search("跑步 火锅", 10)));
+        assertEquals(List.of(5L), ids(index.search("ｒｕｎ park", 10)));
+        assertTrue(index.search("run parking", 10).hits().isEmpty());
+        assertTrue(index.search("游泳", 10).hits().isEmpty());
+        assertTrue(index.search("，。", 10).hits().isEmpty());
+    }
+
+    @Test
+    void testUpdateDeleteAndRestart() throws IOException {
+        RecordSearchIndex index = open(3, 10);
+        index.rebuild();
+        for (long id = 1; id <= 10; id++) {
+            index.upsert(id, "记录 " + id + (id % 2 == 0 ? " 偶数" : " 奇数"));
+        }
+        index.upsert(4, "改成了奇数");
+        index.remove(6);
+        index.flush();
+        index.upsert(8, "最后一条改成奇数"); // 只在日志中
+        index.remove(1);
+
+        assertEquals(List.of(2L, 10L), ids(index.search("偶数", 10)).stream().sorted().toList());
+
+        // 不关闭（模拟宕机），新实例加载磁盘段并回放日志，不读数据库
+        clearInvocations(mapper);
+        RecordSearchIndex restarted = open(3, 10);
+        assertEquals(List.of(2L, 10L), ids(restarted.search("偶数", 10)).stream().sorted().toList());
+        assertEquals(List.of(3L, 4L, 5L, 7L, 8L, 9L), ids(restarted.search("奇数", 10)).stream().sorted().toList());
+        assertEquals(8, restarted.size());
+        verify(mapper, never()).selectForExport();
+    }
+
+    @Test
+    void testSegmentsAreMergedWhileDeletesSurvive() throws IOException {
+        RecordSearchIndex index = open(5, 3);
+        index.rebuild();
+        for (long id = 1; id <= 60; id++) {
+            index.upsert(id, "第 " + id + " 天 " + (id % 3 == 0 ? "下雨" : "晴天"));
+            if (id % 10 == 0) {
+                index.remove(id - 1);
+            }
+        }
+        index.flush();
+        assertTrue(index.segmentCount() <= 3, "segments: " + index.segmentCount());
+
+        List<Long> rainy = new ArrayList<>();
+        for (long id = 3; id <= 60; id += 3) {
+            if (id % 10 != 9) {
+                rainy.add(id);
+            }
+        }
+        assertEquals(rainy, ids(index.search("下雨", 100)).stream().sorted().toList());
+        assertEquals(54, index.size());
+        index.close();
+
+        RecordSearchIndex restarted = open(5, 3);
+        assertEquals(rainy, ids(restarted.search("下雨", 100)).stream().sorted().toList());
+        try (Stream<Path> files = Files.list(dir)) {
+            assertEquals(restarted.segmentCount(), files.filter(file -> file.toString().endsWith(".seg")).count());
+        }
+    }
+
+    @Test
+    void testBuildFromDatabaseAndEvents() throws IOException {
+        for (long id = 1; id <= 25; id++) {
+            table.add(DailyLifeRecords.builder().id(id).content("数据库里的第 " + id + " 条记录").delFlag(id == 7 ? "1" : "0").build());
+        }
+        RecordSearchIndex index = open(10, 10);
+        assertThrows(ServiceBusyException.class, () -> index.search("记录", 10));
+
+        index.rebuild();
+        assertEquals(24, index.search("记录", 100).total());
+
+        table.add(DailyLifeRecords.builder().id(26L).content("新增的散步记录").delFlag("0").build());
+        table.get(0).setContent("改成了散步");
+        table.get(1).setDelFlag("1");
+        table.remove(2);
+        index.onRecordsChanged(DailyLifeRecordsChangedEvent.of("test", List.of(1L, 2L, 3L, 26L)));
+
+        assertEquals(List.of(1L, 26L), ids(index.search("散步", 10)).stream().sorted().toList());
+        assertEquals(22, index.search("记录", 100).total());
+    }
+
+    @Test
+    void testHighlighter() {
+        assertEquals("今天早上去公园<em>跑步</em>，顺便买了&lt;咖啡&gt;",
+                RecordHighlighter.snippet("今天早上去公园跑步，顺便买了<咖啡>", "跑步", 120));
+        assertEquals("<em>Run</em> before running, <em>RUN</em>",
+                RecordHighlighter.snippet("Run before running, RUN", "run", 120));
+
+        String content = "开头".repeat(50) + "今天去跑步" + "结尾".repeat(50);
+        String snippet = RecordHighlighter.snippet(content, "跑步", 30);
+        assertTrue(snippet.startsWith("…") && snippet.endsWith("…"), snippet);
+        assertTrue(snippet.contains("今天去<em>跑步</em>"), snippet);
+        assertEquals("没有命中…", RecordHighlighter.snippet("没有命中的内容", "跑步", 4));
+    }
+
+    /**
+     * 一百万条合成记录的写入、刷新合并和查询耗时，使用 mvn test -Dtest=RecordSearchIndexTest -Dbenchmark=true 运行
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void benchmarkMillionRecords() throws IOException {
+        String[] words = ("今天 早上 公园 跑步 晚上 看书 周末 朋友 火锅 下雨 晴天 散步 咖啡 工作 加班 会议 学习 电影 音乐 做饭 "
+                + "旅行 地铁 医院 体检 睡觉 失眠 健身 游泳 读书 写作 coffee meeting running movie").split(" ");
+        Random random = new Random(42);
+        RecordSearchIndex index = open(50_000, 10);
+        index.rebuild();
+        long start = System.currentTimeMillis();
+        for (int id = 1; id <= 1_000_000; id++) {
+            StringBuilder content = new StringBuilder();
+            for (int w = 0; w < 12; w++) {
+                content.append(words[random.nextInt(words.length)]).append(w % 4 == 3 ? "，" : "");
+            }
+            index.upsert(id, content.toString());
+        }
+        index.flush();
+        System.out.printf("indexed 1000000 records in %d ms, segments: %d%n", System.currentTimeMillis() - start, index.segmentCount());
+
+        RecordSearchIndex restarted = open(50_000, 10);
+        for (String query : List.of("跑步", "火锅 下雨", "公园跑步", "跑", "coffee meeting", "体检医院")) {
+            restarted.search(query, 20);
+            int rounds = 20;
+            long begin = System.nanoTime();
+            int total = 0;
+            for (int i = 0; i < rounds; i++) {
+                total = restarted.search(query, 20).total();
+            }
+            System.out.printf("query %-16s hits %7d: %.2f ms/op%n", query, total, (System.nanoTime() - begin) / 1_000_000.0 / rounds);
+        }
+    }
+
+    private RecordSearchIndex open(int flushDocs, int maxSegments) throws IOException {
+        RecordSearchIndex index = new RecordSearchIndex(mapper, mock(PlatformTransactionManager.class), dir.toString(), flushDocs, maxSegments);
+        index.open();
+        opened.add(index);
+        return index;
+    }
+
+    private static List<Long> ids(RecordSearchIndex.SearchResult result) {
+        return result.hits().stream().map(RecordSearchIndex.Hit::id).toList();
+    }
+
+    private static Cursor<DailyLifeRecords> cursor(List<DailyLifeRecords> records) {
+        List<DailyLifeRecords> copy = List.copyOf(records);
+        return new Cursor<>() {
+            @Override
+            public boolean isOpen() {
+                return true;
+            }
+
+            @Override
+            public boolean isConsumed() {
+                return false;
+            }
+
+            @Override
+            public int getCurrentIndex() {
+                return 0;
+            }
+
+            @Override
+            public void close() {
+            }
+
+            @Override
+            public Iterator<DailyLifeRecords> iterator() {
+                return copy.iterator();
+            }
+        };
+    }
+
+}
@@ -0,0 +1,192 @@
+package cn.lzhch.service.stats;
+
+import cn.lzhch.common.exception.BusinessException;
+import cn.lzhch.common.exception.ServiceBusyException;
+import cn.lzhch.entity.DailyLifeRecordStats;
+import cn.lzhch.entity.DailyLifeRecords;
+import cn.lzhch.mapper.DailyLifeRecordStatsMapper;
+import cn.lzhch.mapper.DailyLifeRecordsMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 日常生活记录按天统计测试
+ * <p>
+ * 用内存列表模拟记录表、TreeMap 模拟统计表，验证增量与整表重新统计的结果一致
+ * <p>
+ * author: lzhch
+ * version: v1.0
+ * date: 2026/10/17
+ */
+
+class RecordStatsRollupTest {
+
+    private final List<DailyLifeRecords> table = new ArrayList<>();
+    private final NavigableMap<LocalDate, Integer> stats = new TreeMap<>();
+
+    private DailyLifeRecordsMapper recordsMapper;
+    private DailyLifeRecordStatsMapper statsMapper;
+    private RecordStatsRollup rollup;
+
+    @BeforeEach
+    void setUp() {
+        recordsMapper = mock(DailyLifeRecordsMapper.class);
+        when(recordsMapper.selectLiveCreateTimesForUpdate(any())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            return live().filter(record -> ids.contains(record.getId())).map(DailyLifeRecords::getCreateTime).toList();
+        });
+        when(recordsMapper.countByDay(any(), any())).thenAnswer(invocation -> {
+            LocalDate from = invocation.getArgument(0);
+            LocalDate to = invocation.getArgument(1);
+            return live().map(record -> record.getCreateTime().toLocalDate())
+                    .filter(date -> !date.isBefore(from) && date.isBefore(to))
+                    .collect(Collectors.groupingBy(date -> date, TreeMap::new, Collectors.summingInt(date -> 1)))
+                    .entrySet().stream().map(RecordStatsRollupTest::row).toList();
+        });
+        when(recordsMapper.countLive()).thenAnswer(invocation -> live().count());
+        when(recordsMapper.selectFirstCreateTime()).thenAnswer(invocation ->
+                live().map(DailyLifeRecords::getCreateTime).min(Comparator.naturalOrder()).orElse(null));
+        when(recordsMapper.selectLastCreateTime()).thenAnswer(invocation ->
+                live().map(DailyLifeRecords::getCreateTime).max(Comparator.naturalOrder()).orElse(null));
+
+        statsMapper = mock(DailyLifeRecordStatsMapper.class);
+        when(statsMapper.incrementCounts(anyList())).thenAnswer(invocation -> {
+            List<DailyLifeRecordStats> items = invocation.getArgument(0);
+            items.forEach(item -> stats.merge(item.getStatDate(), item.getRecordCount(), Integer::sum));
+            return items.size();
+        });
+        when(statsMapper.deleteRange(any(), any())).thenAnswer(invocation -> {
+            Map<LocalDate, Integer> range = stats.subMap(invocation.getArgument(0), true, invocation.getArgument(1), false);
+            int size = range.size();
+            range.clear();
+            return size;
+        });
+        when(statsMapper.selectRange(any(), any())).thenAnswer(invocation ->
+                stats.subMap(invocation.getArgument(0), true, invocation.getArgument(1), true)
+                        .entrySet().stream().map(RecordStatsRollupTest::row).toList());
+        when(statsMapper.selectFirstDate()).thenAnswer(invocation -> stats.isEmpty() ? null : stats.firstKey());
+        when(statsMapper.selectLastDate()).thenAnswer(invocation -> stats.isEmpty() ? null : stats.lastKey());
+        when(statsMapper.selectTotal()).thenAnswer(invocation -> stats.values().stream().mapToLong(Integer::longValue).sum());
+
+        rollup = new RecordStatsRollup(recordsMapper, statsMapper, mock(PlatformTransactionManager.class), true);
+    }
+
+    @Test
+    void testBackfillReplacesExistingRows() {
+        for (long id = 1; id <= 40; id++) {
+            // 跨越年份和月份，每 7 条一天
+            insert(id, LocalDateTime.of(2025, 12, 20, 9, 0).plusDays(id / 7).plusHours(id % 7), id % 10 == 0 ? "1" : "0");
+        }
+        stats.put(LocalDate.of(2025, 1, 1), 3); // 记录表中已不存在的日期
+        stats.put(LocalDate.of(2025, 12, 20), 99);
+
+        assertThrows(ServiceBusyException.class, () -> rollup.daily(LocalDate.of(2025, 1, 1), LocalDate.of(2026, 12, 31)));
+        rollup.backfill();
+
+        assertEquals(recount(), stats);
+        assertEquals(36, rollup.daily(LocalDate.of(2025, 1, 1), LocalDate.of(2026, 12, 31)).stream()
+                .mapToInt(DailyLifeRecordStats::getRecordCount).sum());
+    }
+
+    @Test
+    void testIncrementalChangesMatchRecount() {
+        rollup.backfill();
+        LocalDateTime base = LocalDateTime.of(2026, 10, 1, 8, 0);
+
+        // 新增：写入前没有 id
+        List<DailyLifeRecords> saved = new ArrayList<>();
+        for (long id = 1; id <= 20; id++) {
+            saved.add(DailyLifeRecords.builder().id(id).createTime(base.plusDays(id % 4)).delFlag("0").content("c").build());
+        }
+        write(List.of(), () -> table.addAll(saved), ids(saved));
+
+        // 改创建时间、逻辑删除、物理删除
+        write(List.of(1L, 2L, 3L), () -> {
+            find(1).setCreateTime(base.plusMonths(1));
+            find(2).setDelFlag("1");
+            table.remove(find(3));
+        }, List.of(1L, 2L, 3L));
+        // 只改内容，统计不变
+        Map<LocalDate, Integer> unchanged = new TreeMap<>(stats);
+        write(List.of(4L), () -> find(4).setContent("changed"), List.of(4L));
+        assertEquals(unchanged, stats);
+
+        // 批量导入
+        List<DailyLifeRecords> imported = List.of(
+                DailyLifeRecords.builder().id(100L).createTime(base.minusYears(1)).delFlag("0").build(),
+                DailyLifeRecords.builder().id(101L).createTime(base).delFlag("0").build());
+        table.addAll(imported);
+        rollup.added(imported);
+
+        stats.values().removeIf(count -> count == 0); // 数据库中保留记录数为 0 的行
+        assertEquals(recount(), stats);
+    }
+
+    @Test
+    void testDisabled() {
+        RecordStatsRollup disabled = new RecordStatsRollup(recordsMapper, statsMapper, mock(PlatformTransactionManager.class), false);
+        assertTrue(disabled.liveDays(List.of(1L, 2L)).isEmpty());
+        disabled.added(List.of(DailyLifeRecords.builder().createTime(LocalDateTime.now()).delFlag("0").build()));
+        verify(recordsMapper, never()).selectLiveCreateTimesForUpdate(any());
+        verify(statsMapper, never()).incrementCounts(anyList());
+        assertThrows(BusinessException.class, () -> disabled.daily(LocalDate.now(), LocalDate.now()));
+    }
+
+    /**
+     * 按 Service 的方式执行一次写入：写入前后各读一次创建日期，差值累加到统计表
+     */
+    private void write(List<Long> idsBefore, Runnable write, List<Long> idsAfter) {
+        Map<LocalDate, Integer> before = rollup.liveDays(idsBefore);
+        write.run();
+        rollup.changed(before, rollup.liveDays(idsAfter));
+    }
+
+    private void insert(long id, LocalDateTime createTime, String delFlag) {
+        table.add(DailyLifeRecords.builder().id(id).createTime(createTime).delFlag(delFlag).content("记录" + id).build());
+    }
+
+    private DailyLifeRecords find(long id) {
+        return table.stream().filter(record -> record.getId() == id).findFirst().orElseThrow();
+    }
+
+    private Stream<DailyLifeRecords> live() {
+        return table.stream().filter(record -> "0".equals(record.getDelFlag()) && record.getCreateTime() != null);
+    }
+
+    private Map<LocalDate, Integer> recount() {
+        return live().collect(Collectors.groupingBy(record -> record.getCreateTime().toLocalDate(), TreeMap::new,
+                Collectors.summingInt(record -> 1)));
+    }
+
+    private static List<Long> ids(List<DailyLifeRecords> records) {
+        return records.stream().map(DailyLifeRecords::getId).toList();
+    }
+
+    private static DailyLifeRecordStats row(Map.Entry<LocalDate, Integer> entry) {
+        return DailyLifeRecordStats.builder().statDate(entry.getKey()).recordCount(entry.getValue()).build();
+    }
+
+}